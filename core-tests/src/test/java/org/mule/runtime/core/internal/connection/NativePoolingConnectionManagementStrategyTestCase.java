@@ -0,0 +1,298 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.connection;
+
+import static org.mule.runtime.api.config.PoolingProfile.DEFAULT_MAX_POOL_WAIT;
+import static org.mule.runtime.api.config.PoolingProfile.DEFAULT_POOL_EXHAUSTED_ACTION;
+import static org.mule.runtime.api.config.PoolingProfile.INITIALISE_ALL;
+import static org.mule.runtime.api.config.PoolingProfile.INITIALISE_NONE;
+import static org.mule.runtime.api.config.PoolingProfile.WHEN_EXHAUSTED_FAIL;
+import static org.mule.runtime.api.config.PoolingProfile.WHEN_EXHAUSTED_WAIT;
+import static org.mule.runtime.core.internal.connection.ConnectionManagementStrategyFactory.NATIVE_CONNECTION_POOL_PROPERTY;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.mule.runtime.api.config.PoolingProfile;
+import org.mule.runtime.api.connection.ConnectionException;
+import org.mule.runtime.api.connection.ConnectionHandler;
+import org.mule.runtime.api.connection.ConnectionProvider;
+import org.mule.runtime.api.connection.ConnectionValidationResult;
+import org.mule.runtime.api.connection.PoolingConnectionProvider;
+import org.mule.runtime.api.connection.PoolingListener;
+import org.mule.runtime.api.lifecycle.Lifecycle;
+import org.mule.runtime.api.scheduler.Scheduler;
+import org.mule.tck.junit4.AbstractMuleContextTestCase;
+import org.mule.tck.junit4.rule.SystemProperty;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+public class NativePoolingConnectionManagementStrategyTestCase extends AbstractMuleContextTestCase {
+
+  private static final int MAX_ACTIVE = 2;
+  private static final String ownerConfigName = "SomeConfigName";
+
+  @Rule
+  public SystemProperty nativeConnectionPool = new SystemProperty(NATIVE_CONNECTION_POOL_PROPERTY, "true");
+
+  private ConnectionProvider<Object> connectionProvider;
+
+  private PoolingProfile poolingProfile =
+      new PoolingProfile(MAX_ACTIVE, MAX_ACTIVE, DEFAULT_MAX_POOL_WAIT, WHEN_EXHAUSTED_WAIT, INITIALISE_NONE);
+  private NativePoolingConnectionManagementStrategy<Object> strategy;
+  private PoolingListener<Object> poolingListener;
+  private ConnectionManagementStrategyFactory strategyFactory;
+
+  @Before
+  public void before() throws Exception {
+    poolingListener = mock(PoolingListener.class);
+    strategyFactory = new ConnectionManagementStrategyFactory(poolingProfile, muleContext);
+    muleContext.start();
+    resetConnectionProvider();
+  }
+
+  @After
+  public void after() throws Exception {
+    if (strategy != null) {
+      strategy.close();
+    }
+    strategyFactory.stopNativePoolEvictionScheduler();
+  }
+
+  @Test
+  public void selectedByFactoryWhenEnabled() {
+    ConnectionProvider<Object> poolingConnectionProvider = mock(PoolingConnectionProvider.class);
+    ConnectionManagementStrategy<Object> managementStrategy =
+        new ConnectionManagementStrategyFactory(poolingProfile, muleContext).getStrategy(poolingConnectionProvider, f -> false);
+    try {
+      assertThat(managementStrategy, is(instanceOf(NativePoolingConnectionManagementStrategy.class)));
+    } finally {
+      managementStrategy.close();
+    }
+  }
+
+  @Test
+  public void evictionSchedulerSharedByPools() throws Exception {
+    poolingProfile.setEvictionCheckIntervalMillis(1000);
+    initStrategy();
+    Scheduler evictionScheduler = strategyFactory.getNativePoolEvictionScheduler();
+    NativePoolingConnectionManagementStrategy<Object> anotherStrategy =
+        new NativePoolingConnectionManagementStrategy<>(connectionProvider, poolingProfile, poolingListener, muleContext,
+                                                        ownerConfigName, strategyFactory::getNativePoolEvictionScheduler);
+    anotherStrategy.close();
+
+    assertThat(strategyFactory.getNativePoolEvictionScheduler(), is(sameInstance(evictionScheduler)));
+    assertThat(evictionScheduler.isShutdown(), is(false));
+  }
+
+  @Test
+  public void getConnection() throws Exception {
+    initStrategy();
+    ConnectionHandler<Object> connection1 = strategy.getConnectionHandler();
+    ConnectionHandler<Object> connection2 = strategy.getConnectionHandler();
+
+    assertThat(connection1, is(not(sameInstance(connection2))));
+    assertThat(connection1.getConnection(), is(not(sameInstance(connection2.getConnection()))));
+    verify(connectionProvider, times(2)).connect();
+
+    verify(poolingListener).onBorrow(connection1.getConnection());
+    verify(poolingListener).onBorrow(connection2.getConnection());
+  }
+
+  @Test
+  public void returnedConnectionReused() throws Exception {
+    initStrategy();
+    ConnectionHandler<Object> connectionHandler = strategy.getConnectionHandler();
+    Object connection = connectionHandler.getConnection();
+    connectionHandler.release();
+
+    assertThat(strategy.getConnectionHandler().getConnection(), is(sameInstance(connection)));
+    verify(connectionProvider).connect();
+    verify(poolingListener).onReturn(connection);
+  }
+
+  @Test
+  public void poolingListenerFailsOnBorrow() throws Exception {
+    initStrategy();
+    final RuntimeException exception = new RuntimeException();
+
+    doThrow(exception).when(poolingListener).onBorrow(any(Lifecycle.class));
+
+    try {
+      strategy.getConnectionHandler();
+      fail("was expecting poolingListener to fail");
+    } catch (Exception e) {
+      assertThat(e.getCause(), is(sameInstance(exception)));
+      verify(connectionProvider).disconnect(any(Lifecycle.class));
+    }
+  }
+
+  @Test
+  public void exhaustion() throws Exception {
+    poolingProfile = new PoolingProfile(1, 1, DEFAULT_MAX_POOL_WAIT, WHEN_EXHAUSTED_FAIL, INITIALISE_NONE);
+    initStrategy();
+
+    ConnectionHandler<Object> connectionHandler = strategy.getConnectionHandler();
+    try {
+      strategy.getConnectionHandler();
+      fail("Was expecting the pool to be exhausted");
+    } catch (ConnectionException e) {
+      assertThat(e.getMessage(), is("Connection pool is exhausted"));
+    }
+
+    Object connection = connectionHandler.getConnection();
+    connectionHandler.release();
+    assertThat(strategy.getConnectionHandler().getConnection(), is(sameInstance(connection)));
+  }
+
+  @Test
+  public void waitsForReturnedConnection() throws Exception {
+    poolingProfile = new PoolingProfile(1, 1, -1, WHEN_EXHAUSTED_WAIT, INITIALISE_NONE);
+    initStrategy();
+
+    ConnectionHandler<Object> connectionHandler = strategy.getConnectionHandler();
+    Object connection = connectionHandler.getConnection();
+
+    CountDownLatch waiting = new CountDownLatch(1);
+    CompletableFuture<Object> borrowed = CompletableFuture.supplyAsync(() -> {
+      waiting.countDown();
+      try {
+        return strategy.getConnectionHandler().getConnection();
+      } catch (ConnectionException e) {
+        throw new RuntimeException(e);
+      }
+    });
+
+    waiting.await();
+    connectionHandler.release();
+
+    assertThat(borrowed.get(5, SECONDS), is(sameInstance(connection)));
+    verify(connectionProvider).connect();
+  }
+
+  @Test
+  public void waitTimeout() throws Exception {
+    poolingProfile = new PoolingProfile(1, 1, 100, WHEN_EXHAUSTED_WAIT, INITIALISE_NONE);
+    initStrategy();
+
+    strategy.getConnectionHandler();
+    try {
+      strategy.getConnectionHandler();
+      fail("Was expecting the pool to be exhausted");
+    } catch (ConnectionException e) {
+      assertThat(e.getMessage(), is("Connection pool is exhausted"));
+    }
+  }
+
+  @Test
+  public void invalidatedConnectionReplaced() throws Exception {
+    poolingProfile = new PoolingProfile(1, 1, DEFAULT_MAX_POOL_WAIT, WHEN_EXHAUSTED_FAIL, INITIALISE_NONE);
+    initStrategy();
+
+    ConnectionHandler<Object> connectionHandler = strategy.getConnectionHandler();
+    Object connection = connectionHandler.getConnection();
+    connectionHandler.invalidate();
+
+    verify(connectionProvider).disconnect(connection);
+    assertThat(strategy.getConnectionHandler().getConnection(), is(not(sameInstance(connection))));
+    verify(connectionProvider, times(2)).connect();
+  }
+
+  @Test
+  public void release() throws Exception {
+    initStrategy();
+    ConnectionHandler<Object> connection1 = strategy.getConnectionHandler();
+    ConnectionHandler<Object> connection2 = strategy.getConnectionHandler();
+
+    connection1.release();
+    connection2.release();
+
+    strategy.close();
+
+    verify(connectionProvider, times(2)).disconnect(any(Object.class));
+  }
+
+  @Test
+  public void releasedAfterClose() throws Exception {
+    initStrategy();
+    ConnectionHandler<Object> connectionHandler = strategy.getConnectionHandler();
+
+    strategy.close();
+    verify(connectionProvider, times(0)).disconnect(any(Object.class));
+
+    connectionHandler.release();
+    verify(connectionProvider).disconnect(any(Object.class));
+  }
+
+  @Test
+  public void invalidConnectionsEvicted() throws Exception {
+    when(connectionProvider.validate(any())).thenReturn(ConnectionValidationResult
+        .failure("Invalid username or password", new Exception("401: UNAUTHORIZED")));
+    NativeConnectionPool<Object> pool = new NativeConnectionPool<>("pool", connectionProvider, poolingProfile);
+    pool.addIdleConnection();
+    pool.addIdleConnection();
+    assertThat(pool.getNumIdle(), is(MAX_ACTIVE));
+
+    pool.evict();
+    assertThat(pool.getNumIdle(), is(0));
+    verify(connectionProvider, times(MAX_ACTIVE)).disconnect(any(Object.class));
+  }
+
+  @Test
+  public void validConnectionDestroyedWhenClosedWhileEvicting() throws Exception {
+    NativeConnectionPool<Object> pool = new NativeConnectionPool<>("pool", connectionProvider, poolingProfile);
+    pool.addIdleConnection();
+    when(connectionProvider.validate(any())).thenAnswer(invocation -> {
+      pool.close();
+      return ConnectionValidationResult.success();
+    });
+
+    pool.evict();
+    assertThat(pool.getNumIdle(), is(0));
+    verify(connectionProvider).disconnect(any(Object.class));
+  }
+
+  @Test
+  public void initializationPolicyInitialiseAll() throws ConnectionException {
+    poolingProfile = new PoolingProfile(5, 3, DEFAULT_MAX_POOL_WAIT, DEFAULT_POOL_EXHAUSTED_ACTION, INITIALISE_ALL);
+    initStrategy();
+    verify(connectionProvider, times(3)).connect();
+    verify(connectionProvider, times(0)).disconnect(any());
+  }
+
+  private void resetConnectionProvider() throws ConnectionException {
+    ConnectionProvider<Object> connectionProvider = mock(ConnectionProvider.class);
+    when(connectionProvider.connect()).thenAnswer(i -> mock(Lifecycle.class));
+    when(connectionProvider.validate(any())).thenReturn(ConnectionValidationResult.success());
+    this.connectionProvider = spy(new DefaultConnectionProviderWrapper<>(connectionProvider, muleContext));
+  }
+
+  private void initStrategy() {
+    strategy = new NativePoolingConnectionManagementStrategy<>(connectionProvider, poolingProfile, poolingListener,
+                                                               muleContext, ownerConfigName,
+                                                               strategyFactory::getNativePoolEvictionScheduler);
+  }
+}
@@ -0,0 +1,199 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.context.notification;
+
+import static org.mule.runtime.core.internal.context.notification.AsyncNotificationQueue.OverflowPolicy.BLOCK;
+import static org.mule.runtime.core.internal.context.notification.AsyncNotificationQueue.OverflowPolicy.DROP;
+import static org.mule.runtime.core.internal.context.notification.AsyncNotificationQueue.OverflowPolicy.DROP_OLDEST;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.core.Is.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.mule.runtime.api.notification.Notification;
+import org.mule.runtime.api.notification.NotificationListener;
+import org.mule.runtime.api.scheduler.Scheduler;
+import org.mule.runtime.core.internal.context.notification.AsyncNotificationQueue.OverflowPolicy;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Queue;
+import java.util.function.Consumer;
+
+import org.junit.Before;
+import org.junit.Test;
+
+@SmallTest
+public class AsyncNotificationQueueTestCase extends AbstractMuleTestCase {
+
+  private static final long BLOCK_TIMEOUT_MILLIS = 10;
+
+  private final Queue<Runnable> submittedTasks = new LinkedList<>();
+  private final List<Notification> received = new ArrayList<>();
+  private final NotificationListener<Notification> listener = new TestListener(received::add);
+  private Scheduler scheduler;
+
+  @Before
+  public void before() {
+    scheduler = mock(Scheduler.class);
+    when(scheduler.submit(any(Runnable.class))).thenAnswer(invocation -> {
+      submittedTasks.add(invocation.getArgument(0));
+      return null;
+    });
+  }
+
+  @Test
+  public void singleTaskForManyNotifications() {
+    AsyncNotificationQueue queue = createQueue(10, DROP, 10);
+    Notification first = notification();
+    Notification second = notification();
+    queue.enqueue(first);
+    queue.enqueue(second);
+
+    assertThat(submittedTasks, hasSize(1));
+    assertThat(queue.getQueueDepth(), is(2));
+
+    runSubmittedTasks();
+    assertThat(received, contains(first, second));
+    assertThat(queue.getQueueDepth(), is(0));
+    assertThat(queue.getDeliveredCount(), is(2L));
+  }
+
+  @Test
+  public void deliveredInBatches() {
+    AsyncNotificationQueue queue = createQueue(10, DROP, 2);
+    for (int i = 0; i < 5; ++i) {
+      queue.enqueue(notification());
+    }
+
+    submittedTasks.poll().run();
+    assertThat(received, hasSize(2));
+    // the remaining notifications are delivered by a new task
+    assertThat(submittedTasks, hasSize(1));
+
+    runSubmittedTasks();
+    assertThat(received, hasSize(5));
+  }
+
+  @Test
+  public void dropWhenFull() {
+    AsyncNotificationQueue queue = createQueue(2, DROP, 10);
+    Notification first = notification();
+    Notification second = notification();
+    queue.enqueue(first);
+    queue.enqueue(second);
+    queue.enqueue(notification());
+
+    runSubmittedTasks();
+    assertThat(received, contains(first, second));
+    assertThat(queue.getDroppedCount(), is(1L));
+  }
+
+  @Test
+  public void dropOldestWhenFull() {
+    AsyncNotificationQueue queue = createQueue(2, DROP_OLDEST, 10);
+    Notification second = notification();
+    Notification third = notification();
+    queue.enqueue(notification());
+    queue.enqueue(second);
+    queue.enqueue(third);
+
+    runSubmittedTasks();
+    assertThat(received, contains(second, third));
+    assertThat(queue.getDroppedCount(), is(1L));
+  }
+
+  @Test
+  public void blockWhenFullDoesNotBlockListenerThread() {
+    AsyncNotificationQueue[] queue = new AsyncNotificationQueue[1];
+    Notification first = notification();
+    Notification fromListener = notification();
+    NotificationListener<Notification> reentrantListener = new TestListener(notification -> {
+      received.add(notification);
+      if (notification == first) {
+        queue[0].enqueue(fromListener);
+        // the queue is full now, waiting for room would block forever
+        queue[0].enqueue(notification());
+      }
+    });
+    queue[0] = new AsyncNotificationQueue(reentrantListener, scheduler, 1, BLOCK, 10, BLOCK_TIMEOUT_MILLIS);
+
+    queue[0].enqueue(first);
+    runSubmittedTasks();
+
+    assertThat(received, contains(first, fromListener));
+    assertThat(queue[0].getDroppedCount(), is(1L));
+  }
+
+  @Test
+  public void blockWhenFullDropsAfterTimeout() {
+    AsyncNotificationQueue queue = createQueue(1, BLOCK, 10);
+    Notification first = notification();
+    queue.enqueue(first);
+    // nothing drains the queue, as would happen if the delivery task were waiting for this thread
+    queue.enqueue(notification());
+
+    assertThat(queue.getDroppedCount(), is(1L));
+    runSubmittedTasks();
+    assertThat(received, contains(first));
+  }
+
+  @Test
+  public void listenerExceptionDoesNotStopDelivery() {
+    Notification failing = notification();
+    NotificationListener<Notification> failingListener = new TestListener(notification -> {
+      if (notification == failing) {
+        throw new IllegalStateException("Expected");
+      }
+      received.add(notification);
+    });
+    AsyncNotificationQueue queue = new AsyncNotificationQueue(failingListener, scheduler, 10, DROP, 10, BLOCK_TIMEOUT_MILLIS);
+    Notification other = notification();
+    queue.enqueue(failing);
+    queue.enqueue(other);
+
+    runSubmittedTasks();
+    assertThat(received, contains(other));
+    assertThat(queue.getDeliveredCount(), is(2L));
+  }
+
+  private AsyncNotificationQueue createQueue(int capacity, OverflowPolicy overflowPolicy, int maxBatchSize) {
+    return new AsyncNotificationQueue(listener, scheduler, capacity, overflowPolicy, maxBatchSize, BLOCK_TIMEOUT_MILLIS);
+  }
+
+  private void runSubmittedTasks() {
+    Runnable task;
+    while ((task = submittedTasks.poll()) != null) {
+      task.run();
+    }
+  }
+
+  private static Notification notification() {
+    return mock(Notification.class);
+  }
+
+  private static class TestListener implements NotificationListener<Notification> {
+
+    private final Consumer<Notification> onNotification;
+
+    TestListener(Consumer<Notification> onNotification) {
+      this.onNotification = onNotification;
+    }
+
+    @Override
+    public void onNotification(Notification notification) {
+      onNotification.accept(notification);
+    }
+  }
+}
@@ -13,6 +13,7 @@ import static org.mule.runtime.core.internal.el.TemplateParser.createSquareBrace
 
 import static java.lang.System.clearProperty;
 import static java.lang.System.setProperty;
+import static java.util.Arrays.asList;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.core.Is.is;
@@ -24,6 +25,8 @@ import static org.junit.Assert.assertTrue;
 import org.mule.tck.junit4.AbstractMuleTestCase;
 import org.mule.tck.size.SmallTest;
 
+import java.io.IOException;
+import java.io.StringWriter;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
@@ -526,6 +529,45 @@ public class TemplateParserTestCase extends AbstractMuleTestCase {
     assertEquals(expectedResult, result);
   }
 
+  @Test
+  public void muleCompiledTemplateRendersAsParsed() {
+    TemplateParser tp = createMuleStyleParser();
+    TemplateParser.TemplateCallback callback = token -> "<" + token + ">";
+
+    for (String template : asList("plain text", "", "a #[x] b", "#[x]#[y]", "\\#[x] and #[y]", "ends with #",
+                                  "#[a #[b] c] d", "#[ '[' ++ x ] \\y", "<html>#[payload]</html>\n#[vars.a]")) {
+      assertEquals(tp.parse(callback, template), tp.compile(template).render(callback));
+    }
+  }
+
+  @Test
+  public void muleCompiledTemplateRendersToWriter() throws IOException {
+    TemplateParser tp = createMuleStyleParser();
+    CompiledTemplate compiledTemplate = tp.compile("Hello #[name], bye #[name]");
+
+    StringWriter writer = new StringWriter();
+    compiledTemplate.render(token -> "muleman", writer);
+
+    assertEquals("Hello muleman, bye muleman", writer.toString());
+  }
+
+  @Test
+  public void muleCompiledTemplateEvaluatesNullAsString() {
+    TemplateParser tp = createMuleStyleParser();
+    assertEquals("value: null", tp.compile("value: #[missing]").render(token -> null));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void muleCompileUnbalancedTemplate() {
+    createMuleStyleParser().compile("#[payload");
+  }
+
+  @Test
+  public void antCompiledTemplateRendersAsParsed() {
+    TemplateParser tp = createAntStyleParser();
+    assertEquals("value1 and null", tp.compile("${prop1} and ${prop3}").render(token -> buildMap().get(token)));
+  }
+
   private Map<String, Object> buildMap() {
     Map<String, Object> props = new HashMap<String, Object>();
     props.put("prop1", "value1");
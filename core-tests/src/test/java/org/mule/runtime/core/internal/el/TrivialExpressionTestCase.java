@@ -0,0 +1,148 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.el;
+
+import static org.mule.runtime.api.metadata.DataType.INPUT_STREAM;
+import static org.mule.runtime.api.metadata.DataType.NUMBER;
+import static org.mule.runtime.api.metadata.DataType.OBJECT;
+import static org.mule.runtime.api.metadata.DataType.STRING;
+import static org.mule.runtime.api.metadata.DataType.builder;
+import static org.mule.runtime.api.metadata.DataType.fromObject;
+import static org.mule.runtime.api.metadata.MediaType.APPLICATION_JSON;
+import static org.mule.runtime.core.internal.el.TrivialExpression.NOT_TRIVIAL;
+import static org.mule.runtime.core.internal.el.TrivialExpression.parse;
+import static org.mule.test.allure.AllureConstants.ExpressionLanguageFeature.EXPRESSION_LANGUAGE;
+import static org.mule.test.allure.AllureConstants.ExpressionLanguageFeature.ExpressionLanguageStory.SUPPORT_DW;
+
+import static java.util.Collections.singletonMap;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.mule.runtime.api.message.Message;
+import org.mule.runtime.api.metadata.TypedValue;
+import org.mule.runtime.api.util.MultiMap;
+import org.mule.runtime.core.api.event.CoreEvent;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.io.ByteArrayInputStream;
+import java.util.HashMap;
+import java.util.Map;
+
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+import org.junit.Before;
+import org.junit.Test;
+
+@SmallTest
+@Feature(EXPRESSION_LANGUAGE)
+@Story(SUPPORT_DW)
+public class TrivialExpressionTestCase extends AbstractMuleTestCase {
+
+  private static final String PAYLOAD_VALUE = "payloadValue";
+
+  private final Map<String, TypedValue<?>> variables = new HashMap<>();
+  private CoreEvent event;
+
+  @Before
+  public void setUp() {
+    Message message = Message.builder().value(PAYLOAD_VALUE).attributesValue(singletonMap("key", "attributeValue")).build();
+    event = mock(CoreEvent.class);
+    when(event.getMessage()).thenReturn(message);
+    when(event.getVariables()).thenReturn(variables);
+  }
+
+  @Test
+  public void trivialExpressions() {
+    assertThat(parse("#[payload]").isTrivial(), is(true));
+    assertThat(parse("#[ attributes.key ]").isTrivial(), is(true));
+    assertThat(parse("vars.myVar.nested_key").isTrivial(), is(true));
+  }
+
+  @Test
+  public void nonTrivialExpressions() {
+    assertThat(parse("#[vars]"), is(sameInstance(NOT_TRIVIAL)));
+    assertThat(parse("#[payload ++ 'a']"), is(sameInstance(NOT_TRIVIAL)));
+    assertThat(parse("#[payload[0]]"), is(sameInstance(NOT_TRIVIAL)));
+    assertThat(parse("#[vars.'my var']"), is(sameInstance(NOT_TRIVIAL)));
+    assertThat(parse("#[payload"), is(sameInstance(NOT_TRIVIAL)));
+    assertThat(parse("#[correlationId]"), is(sameInstance(NOT_TRIVIAL)));
+    assertThat(parse("#['payload']"), is(sameInstance(NOT_TRIVIAL)));
+  }
+
+  @Test
+  public void resolvePayload() {
+    assertThat(parse("#[payload]").resolve(event), is(sameInstance(event.getMessage().getPayload())));
+  }
+
+  @Test
+  public void resolveVariable() {
+    TypedValue<String> value = new TypedValue<>("value", STRING);
+    variables.put("myVar", value);
+
+    assertThat(parse("#[vars.myVar]").resolve(event), is(sameInstance(value)));
+  }
+
+  @Test
+  public void resolveMapEntry() {
+    TypedValue<?> resolved = parse("#[attributes.key]").resolve(event);
+
+    assertThat(resolved.getValue(), is("attributeValue"));
+    assertThat(resolved.getDataType().getType(), is((Object) String.class));
+  }
+
+  @Test
+  public void missingValuesNotResolved() {
+    assertThat(parse("#[vars.missing]").resolve(event), is(nullValue()));
+    assertThat(parse("#[attributes.missing]").resolve(event), is(nullValue()));
+  }
+
+  @Test
+  public void selectorOverNonMapNotResolved() {
+    assertThat(parse("#[payload.length]").resolve(event), is(nullValue()));
+  }
+
+  @Test
+  public void selectorOverMultiMapNotResolved() {
+    MultiMap<String, String> multiMap = new MultiMap<>();
+    multiMap.put("key", "value");
+    variables.put("myVar", new TypedValue<>(multiMap, fromObject(multiMap)));
+
+    assertThat(parse("#[vars.myVar.key]").resolve(event), is(nullValue()));
+  }
+
+  @Test
+  public void resolveWithCompatibleOutputType() {
+    assertThat(parse("#[payload]").resolve(event, STRING), is(not(nullValue())));
+    assertThat(parse("#[payload]").resolve(event, OBJECT), is(not(nullValue())));
+  }
+
+  @Test
+  public void resolveWithIncompatibleOutputTypeNotResolved() {
+    assertThat(parse("#[payload]").resolve(event, NUMBER), is(nullValue()));
+  }
+
+  @Test
+  public void textWithMediaTypeNotResolved() {
+    variables.put("json", new TypedValue<>("{\"a\": 1}", builder().type(String.class).mediaType(APPLICATION_JSON).build()));
+
+    assertThat(parse("#[vars.json]").resolve(event, STRING), is(nullValue()));
+  }
+
+  @Test
+  public void streamNotResolvedWithOutputType() {
+    variables.put("stream", new TypedValue<>(new ByteArrayInputStream(new byte[0]), INPUT_STREAM));
+
+    assertThat(parse("#[vars.stream]").resolve(event, OBJECT), is(nullValue()));
+  }
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.event;
+
+import static org.mule.runtime.core.internal.event.EventVariablesMap.MAX_DELTA_SIZE;
+import static org.mule.runtime.core.internal.event.EventVariablesMap.copyOf;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.mockito.Mockito.mockConstruction;
+
+import org.mule.runtime.api.util.CaseInsensitiveMapWrapper;
+import org.mule.runtime.core.api.util.CaseInsensitiveHashMap;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Iterator;
+import java.util.Map;
+
+import org.junit.Test;
+import org.mockito.MockedConstruction;
+
+@SmallTest
+public class EventVariablesMapTestCase extends AbstractMuleTestCase {
+
+  @Test
+  public void caseInsensitiveLookup() {
+    EventVariablesMap<String> map = new EventVariablesMap<>();
+    map.put("myVar", "value");
+
+    assertThat(map.get("MYVAR"), is("value"));
+    assertThat(map.containsKey("myvar"), is(true));
+    assertThat(map.put("MyVar", "otherValue"), is("value"));
+    assertThat(map.keySet(), contains("myVar"));
+    assertThat(map.size(), is(1));
+  }
+
+  @Test
+  public void iterationFollowsInsertionOrder() {
+    EventVariablesMap<String> map = populatedMap(MAX_DELTA_SIZE * 3);
+    map.remove("var1");
+    map.put("var0", "otherValue");
+    map.put("last", "value");
+
+    Iterator<String> keys = map.keySet().iterator();
+    assertThat(keys.next(), is("var0"));
+    assertThat(keys.next(), is("var2"));
+    assertThat(map.get("var0"), is("otherValue"));
+    assertThat(map.size(), is(MAX_DELTA_SIZE * 3));
+  }
+
+  @Test
+  public void copyDoesNotCreateCaseInsensitiveMapWrapper() {
+    EventVariablesMap<String> map = populatedMap(MAX_DELTA_SIZE);
+
+    try (MockedConstruction<CaseInsensitiveMapWrapper> wrappers = mockConstruction(CaseInsensitiveMapWrapper.class)) {
+      map.copy();
+      copyOf(map);
+      map.toImmutableCaseInsensitiveMap();
+      new EventVariablesMap<>();
+      assertThat(wrappers.constructed(), is(empty()));
+
+      new CaseInsensitiveHashMap<>();
+      assertThat(wrappers.constructed(), hasSize(1));
+    }
+  }
+
+  @Test
+  public void copyNotAffectedByOriginal() {
+    EventVariablesMap<String> map = populatedMap(MAX_DELTA_SIZE * 2);
+    EventVariablesMap<String> copy = map.copy();
+
+    map.put("var0", "otherValue");
+    map.remove("var1");
+    map.put("newVar", "value");
+
+    assertThat(copy.get("var0"), is("value0"));
+    assertThat(copy.get("var1"), is("value1"));
+    assertThat(copy.containsKey("newVar"), is(false));
+    assertThat(copy.size(), is(MAX_DELTA_SIZE * 2));
+  }
+
+  @Test
+  public void originalNotAffectedByCopy() {
+    EventVariablesMap<String> map = populatedMap(MAX_DELTA_SIZE * 2);
+    CaseInsensitiveHashMap<String, String> immutable = map.toImmutableCaseInsensitiveMap();
+
+    EventVariablesMap<String> copy = copyOf(immutable);
+    for (int i = 0; i < MAX_DELTA_SIZE * 2; i++) {
+      copy.remove("var" + i);
+    }
+
+    assertThat(copy.isEmpty(), is(true));
+    assertThat(immutable.size(), is(MAX_DELTA_SIZE * 2));
+    assertThat(map.get("var5"), is("value5"));
+  }
+
+  @Test
+  public void removeAndAddAgain() {
+    EventVariablesMap<String> map = populatedMap(MAX_DELTA_SIZE);
+
+    assertThat(map.remove("VAR3"), is("value3"));
+    assertThat(map.remove("var3"), is(nullValue()));
+    assertThat(map.get("var3"), is(nullValue()));
+    assertThat(map.put("var3", "otherValue"), is(nullValue()));
+
+    assertThat(map.get("var3"), is("otherValue"));
+    assertThat(map.size(), is(MAX_DELTA_SIZE));
+  }
+
+  @Test
+  public void removeWhileIterating() {
+    EventVariablesMap<String> map = populatedMap(MAX_DELTA_SIZE * 2);
+
+    Iterator<Map.Entry<String, String>> entries = map.entrySet().iterator();
+    while (entries.hasNext()) {
+      if (!entries.next().getKey().equals("var3")) {
+        entries.remove();
+      }
+    }
+
+    assertThat(map.keySet(), contains("var3"));
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void immutableCopy() {
+    populatedMap(1).toImmutableCaseInsensitiveMap().put("var", "value");
+  }
+
+  @Test
+  public void serializedAsCaseInsensitiveHashMap() throws Exception {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+      out.writeObject(populatedMap(MAX_DELTA_SIZE).toImmutableCaseInsensitiveMap());
+    }
+
+    Object deserialized = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray())).readObject();
+
+    assertThat(deserialized, instanceOf(CaseInsensitiveHashMap.class));
+    assertThat(((Map<String, String>) deserialized).get("VAR1"), is("value1"));
+  }
+
+  private EventVariablesMap<String> populatedMap(int size) {
+    EventVariablesMap<String> map = new EventVariablesMap<>();
+    for (int i = 0; i < size; i++) {
+      map.put("var" + i, "value" + i);
+    }
+    return map;
+  }
+}
@@ -149,6 +149,29 @@ public class InstanceLockGroupTestCase extends AbstractMuleTestCase {
     }
   }
 
+  @Test
+  public void lockEntriesReleasedAfterConcurrentUseOfManyKeys() throws Exception {
+    List<Thread> threads = new ArrayList<>(THREAD_COUNT);
+    for (int i = 0; i < THREAD_COUNT; i++) {
+      Thread thread = new Thread(() -> {
+        for (int j = 0; j < ITERATIONS_PER_THREAD; j++) {
+          String key = "key-" + j % 10;
+          if (instanceLockGroup.tryLock(key)) {
+            instanceLockGroup.unlock(key);
+          }
+          instanceLockGroup.lock(key);
+          instanceLockGroup.unlock(key);
+        }
+      });
+      threads.add(thread);
+      thread.start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    assertThat(instanceLockGroup.size(), is(0));
+  }
+
   private void lockUnlockThenDestroy(int lockTimes) {
     mockLockProvider = Mockito.mock(LockProvider.class, Answers.RETURNS_DEEP_STUBS);
     InstanceLockGroup instanceLockGroup = new InstanceLockGroup(mockLockProvider);
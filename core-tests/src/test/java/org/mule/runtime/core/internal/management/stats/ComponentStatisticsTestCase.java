@@ -8,6 +8,7 @@ package org.mule.runtime.core.internal.management.stats;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
 
 import org.mule.runtime.core.api.management.stats.ComponentStatistics;
 import org.mule.tck.junit4.AbstractMuleTestCase;
@@ -150,4 +151,48 @@ public class ComponentStatisticsTestCase extends AbstractMuleTestCase {
     stats.addExecutionBranchTime(true, 100L, 100L);
     assertValues(stats, 2L, 200L, 100L, 100L, 100L);
   }
+
+  @Test
+  public void executionTimePercentiles() {
+    ComponentStatistics stats = new ComponentStatistics();
+    for (long time = 1; time <= 4; ++time) {
+      stats.addExecutionTime(time);
+    }
+    assertThat(stats.getExecutionTimePercentile(50), is(2L));
+    assertThat(stats.getExecutionTimePercentile(100), is(4L));
+
+    stats.clear();
+    assertThat(stats.getExecutionTimePercentile(100), is(0L));
+  }
+
+  @Test
+  public void branchExecutionTimePercentiles() {
+    ComponentStatistics stats = new ComponentStatistics();
+    stats.addExecutionBranchTime(true, 1L, 1L);
+    stats.addExecutionBranchTime(false, 2L, 3L);
+    assertThat(stats.getExecutionTimePercentile(100), is(0L));
+    stats.addCompleteExecutionTime(3L);
+    assertThat(stats.getExecutionTimePercentile(100), is(3L));
+  }
+
+  @Test
+  public void concurrentExecutionTimes() throws InterruptedException {
+    ComponentStatistics stats = new ComponentStatistics();
+    Thread[] threads = new Thread[4];
+    for (int i = 0; i < threads.length; ++i) {
+      long time = i + 1;
+      threads[i] = new Thread(() -> {
+        for (int j = 0; j < 1000; ++j) {
+          stats.addExecutionTime(time);
+        }
+      });
+      threads[i].start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+
+    assertValues(stats, 4000L, 10000L, 2L, 4L, 1L);
+    assertThat(stats.getExecutionTimePercentile(50), is(2L));
+  }
 }
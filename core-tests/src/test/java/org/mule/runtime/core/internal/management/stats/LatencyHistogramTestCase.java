@@ -0,0 +1,128 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.management.stats;
+
+import static java.util.Arrays.asList;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+import org.mule.runtime.core.api.management.stats.LatencyHistogram;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import org.junit.Test;
+
+@SmallTest
+public class LatencyHistogramTestCase extends AbstractMuleTestCase {
+
+  @Test
+  public void emptyHistogram() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    assertThat(histogram.getPercentile(50), is(0L));
+    assertThat(histogram.getPercentile(100), is(0L));
+  }
+
+  @Test
+  public void smallValuesAreExact() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    for (long value = 0; value < 8; ++value) {
+      histogram.record(value);
+    }
+    assertThat(histogram.getPercentile(0), is(0L));
+    assertThat(histogram.getPercentile(50), is(3L));
+    assertThat(histogram.getPercentile(100), is(7L));
+  }
+
+  @Test
+  public void percentiles() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    for (long value = 1; value <= 1000; ++value) {
+      histogram.record(value);
+    }
+    assertApproximately(histogram.getPercentile(50), 500);
+    assertApproximately(histogram.getPercentile(90), 900);
+    assertApproximately(histogram.getPercentile(99), 990);
+    assertApproximately(histogram.getPercentile(100), 1000);
+  }
+
+  @Test
+  public void hugeValues() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    histogram.record(Long.MAX_VALUE);
+    assertThat(histogram.getPercentile(100), greaterThanOrEqualTo((1L << 32) - 1));
+  }
+
+  @Test
+  public void clear() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    histogram.record(100);
+    histogram.clear();
+    assertThat(histogram.getPercentile(100), is(0L));
+  }
+
+  @Test
+  public void snapshot() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    histogram.record(100);
+    LatencyHistogram snapshot = histogram.snapshot();
+    assertApproximately(snapshot.getPercentile(100), 100);
+
+    histogram.record(1000);
+    snapshot.clear();
+    assertThat(snapshot.getPercentile(100), is(0L));
+    assertApproximately(histogram.getPercentile(50), 100);
+    assertApproximately(histogram.getPercentile(100), 1000);
+  }
+
+  @Test
+  public void merged() {
+    LatencyHistogram fast = new LatencyHistogram();
+    LatencyHistogram slow = new LatencyHistogram();
+    for (int i = 0; i < 90; ++i) {
+      fast.record(2);
+    }
+    for (int i = 0; i < 10; ++i) {
+      slow.record(5000);
+    }
+    assertThat(LatencyHistogram.getPercentile(asList(fast, slow), 90), is(2L));
+    assertApproximately(LatencyHistogram.getPercentile(asList(fast, slow), 91), 5000);
+  }
+
+  @Test
+  public void recordedConcurrently() throws InterruptedException {
+    LatencyHistogram histogram = new LatencyHistogram();
+    Thread[] threads = new Thread[8];
+    for (int i = 0; i < threads.length; ++i) {
+      long value = i + 1;
+      threads[i] = new Thread(() -> {
+        for (int j = 0; j < 10000; ++j) {
+          histogram.record(value);
+        }
+      });
+      threads[i].start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+
+    assertThat(histogram.getPercentile(12.5), is(1L));
+    assertApproximately(histogram.getPercentile(100), 8);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void invalidPercentile() {
+    new LatencyHistogram().getPercentile(101);
+  }
+
+  private static void assertApproximately(long percentile, long expected) {
+    assertThat(percentile, allOf(greaterThanOrEqualTo(expected), lessThanOrEqualTo(expected + expected / 8)));
+  }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.management.stats;
+
+import static org.mule.runtime.core.api.management.stats.RouterStatistics.TYPE_INBOUND;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+
+import org.mule.runtime.core.api.management.stats.ComponentStatistics;
+import org.mule.runtime.core.api.management.stats.RouterStatistics;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.junit4.rule.SystemProperty;
+
+import java.io.ObjectStreamClass;
+import java.io.Serializable;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.lang3.SerializationUtils;
+import org.junit.Rule;
+import org.junit.Test;
+
+/**
+ * Validates that the statistics keep the serialized form they had before they were recorded without locking, so they can be
+ * exchanged with other versions.
+ */
+public class StatisticsSerializedFormTestCase extends AbstractMuleTestCase {
+
+  @Rule
+  public SystemProperty statIntervalTime = new SystemProperty("statIntervalTime", null);
+
+  @Test
+  public void componentStatisticsSerializedForm() {
+    assertFieldType(ComponentStatistics.class, "minExecutionTime", long.class);
+    assertFieldType(ComponentStatistics.class, "maxExecutionTime", long.class);
+    assertFieldType(ComponentStatistics.class, "averageExecutionTime", long.class);
+    assertFieldType(ComponentStatistics.class, "executedEvent", long.class);
+    assertFieldType(ComponentStatistics.class, "totalExecTime", long.class);
+    assertFieldType(ComponentStatistics.class, "currentIntervalStartTime", long.class);
+    assertThat(ObjectStreamClass.lookup(ComponentStatistics.class).getFields().length, is(9));
+  }
+
+  @Test
+  public void componentStatisticsRoundTrip() {
+    ComponentStatistics stats = new ComponentStatistics();
+    stats.setEnabled(true);
+    stats.addExecutionTime(10L);
+    stats.addExecutionTime(30L);
+
+    ComponentStatistics deserialized = roundTrip(stats);
+    assertThat(deserialized.isEnabled(), is(true));
+    assertThat(deserialized.getExecutedEvents(), equalTo(2L));
+    assertThat(deserialized.getTotalExecutionTime(), equalTo(40L));
+    assertThat(deserialized.getMinExecutionTime(), equalTo(10L));
+    assertThat(deserialized.getMaxExecutionTime(), equalTo(30L));
+
+    // the restored statistics keep recording
+    deserialized.addExecutionBranchTime(false, 5L, 5L);
+    deserialized.addCompleteExecutionTime(5L);
+    assertThat(deserialized.getTotalExecutionTime(), equalTo(45L));
+    assertThat(deserialized.getMinExecutionTime(), equalTo(5L));
+  }
+
+  @Test
+  public void routerStatisticsSerializedForm() {
+    assertFieldType(RouterStatistics.class, "notRouted", long.class);
+    assertFieldType(RouterStatistics.class, "caughtInCatchAll", long.class);
+    assertFieldType(RouterStatistics.class, "totalRouted", long.class);
+    assertFieldType(RouterStatistics.class, "totalReceived", long.class);
+    assertFieldType(RouterStatistics.class, "routed", Map.class);
+  }
+
+  @Test
+  public void routerStatisticsRoundTrip() {
+    RouterStatistics stats = new RouterStatistics(TYPE_INBOUND);
+    stats.incrementRoutedMessage("endpoint");
+    stats.incrementRoutedMessage("endpoint");
+    stats.incrementNoRoutedMessage();
+    stats.incrementCaughtMessage();
+
+    RouterStatistics deserialized = roundTrip(stats);
+    assertThat(deserialized.isInbound(), is(true));
+    assertThat(deserialized.getRouted("endpoint"), equalTo(2L));
+    assertThat(deserialized.getTotalRouted(), equalTo(2L));
+    assertThat(deserialized.getTotalReceived(), equalTo(3L));
+    assertThat(deserialized.getNotRouted(), equalTo(1L));
+    assertThat(deserialized.getCaughtMessages(), equalTo(1L));
+
+    deserialized.incrementRoutedMessage("endpoint");
+    assertThat(deserialized.getRouted("endpoint"), equalTo(3L));
+  }
+
+  @Test
+  public void flowConstructStatisticsSerializedForm() {
+    assertFieldType(DefaultFlowConstructStatistics.class, "receivedEvents", AtomicLong.class);
+    assertFieldType(DefaultFlowConstructStatistics.class, "dispatchedMessages", AtomicLong.class);
+    assertFieldType(DefaultFlowConstructStatistics.class, "executionError", AtomicLong.class);
+    assertFieldType(DefaultFlowConstructStatistics.class, "fatalError", AtomicLong.class);
+    assertFieldType(DefaultFlowConstructStatistics.class, "flowStatistics", ComponentStatistics.class);
+  }
+
+  @Test
+  public void flowConstructStatisticsRoundTrip() {
+    DefaultFlowConstructStatistics stats = new DefaultFlowConstructStatistics("flow", "test");
+    stats.setEnabled(true);
+    stats.incReceivedEvents();
+    stats.incReceivedEvents();
+    stats.incMessagesDispatched();
+    stats.incExecutionError();
+    stats.incFatalError();
+    stats.addFlowExecutionBranchTime(10L, 10L);
+    stats.addCompleteFlowExecutionTime(10L);
+
+    DefaultFlowConstructStatistics deserialized = roundTrip(stats);
+    assertThat(deserialized.getName(), equalTo("test"));
+    assertThat(deserialized.isEnabled(), is(true));
+    assertThat(deserialized.getTotalEventsReceived(), equalTo(2L));
+    assertThat(deserialized.getTotalDispatchedMessages(), equalTo(1L));
+    assertThat(deserialized.getExecutionErrors(), equalTo(1L));
+    assertThat(deserialized.getFatalErrors(), equalTo(1L));
+    assertThat(deserialized.getProcessedEvents(), equalTo(1L));
+    assertThat(deserialized.getMaxProcessingTime(), equalTo(10L));
+  }
+
+  private static void assertFieldType(Class<?> serializableClass, String fieldName, Class<?> type) {
+    assertThat(serializableClass.getSimpleName() + "." + fieldName,
+               ObjectStreamClass.lookup(serializableClass).getField(fieldName).getType(), equalTo(type));
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <T extends Serializable> T roundTrip(T object) {
+    return (T) SerializationUtils.deserialize(SerializationUtils.serialize(object));
+  }
+}
@@ -6,17 +6,43 @@
  */
 package org.mule.runtime.core.internal.streaming.bytes;
 
+import static java.lang.Math.round;
+import static java.util.Collections.newSetFromMap;
+import static java.util.Collections.synchronizedSet;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mule.runtime.core.internal.streaming.bytes.ByteStreamingConstants.DEFAULT_BUFFER_BUCKET_SIZE;
+import static org.mule.runtime.core.internal.streaming.bytes.ByteStreamingConstants.MAX_STREAMING_MEMORY_PERCENTAGE;
 import static org.mule.test.allure.AllureConstants.StreamingFeature.STREAMING;
 
+import org.mule.runtime.core.api.streaming.bytes.ManagedByteBufferWrapper;
 import org.mule.runtime.core.internal.streaming.MemoryManager;
 import org.mule.tck.size.SmallTest;
 
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
 import io.qameta.allure.Feature;
+import org.junit.Test;
 
 @SmallTest
 @Feature(STREAMING)
 public class PoolingByteBufferManagerTestCase extends MemoryBoundByteBufferManagerContractTestCase {
 
+  private static final int BUFFER_CAPACITY = 1024;
+
   @Override
   protected MemoryBoundByteBufferManager createDefaultBoundBuffer() {
     return new PoolingByteBufferManager();
@@ -26,4 +52,105 @@ public class PoolingByteBufferManagerTestCase extends MemoryBoundByteBufferManag
   protected MemoryBoundByteBufferManager createBuffer(MemoryManager memoryManager, int capacity) {
     return new PoolingByteBufferManager(memoryManager, 2, capacity);
   }
+
+  @Test
+  public void releasedBufferIsReused() {
+    PoolingByteBufferManager bufferManager = new PoolingByteBufferManager();
+    try {
+      ManagedByteBufferWrapper buffer = bufferManager.allocateManaged(DEFAULT_BUFFER_BUCKET_SIZE);
+      ByteBuffer delegate = buffer.getDelegate();
+      delegate.put((byte) 1);
+      buffer.release();
+
+      buffer = bufferManager.allocateManaged(DEFAULT_BUFFER_BUCKET_SIZE);
+      assertThat(buffer.getDelegate(), is(sameInstance(delegate)));
+      assertThat(buffer.getDelegate().position(), is(0));
+      assertThat(bufferManager.getPoolMisses(), is(1L));
+      assertThat(bufferManager.getPoolHits(), is(1L));
+      buffer.release();
+    } finally {
+      bufferManager.dispose();
+    }
+  }
+
+  @Test
+  public void buffersPooledByOtherThreadReclaimedWhenMemoryExhausted() throws Exception {
+    MemoryManager memoryManager = mock(MemoryManager.class);
+    when(memoryManager.getMaxMemory()).thenReturn(round((DEFAULT_BUFFER_BUCKET_SIZE * 2) / MAX_STREAMING_MEMORY_PERCENTAGE));
+    PoolingByteBufferManager bufferManager = new PoolingByteBufferManager(memoryManager, 2, DEFAULT_BUFFER_BUCKET_SIZE);
+    try {
+      ManagedByteBufferWrapper buffer = bufferManager.allocateManaged(DEFAULT_BUFFER_BUCKET_SIZE);
+      bufferManager.allocateManaged(DEFAULT_BUFFER_BUCKET_SIZE);
+
+      Thread releasingThread = new Thread(buffer::release);
+      releasingThread.start();
+      releasingThread.join();
+
+      buffer = bufferManager.allocateManaged(DEFAULT_BUFFER_BUCKET_SIZE);
+      assertThat(buffer.getDelegate().capacity(), is(DEFAULT_BUFFER_BUCKET_SIZE));
+      assertThat(bufferManager.getReclaimedBuffers(), is(1L));
+    } finally {
+      bufferManager.dispose();
+    }
+  }
+
+  @Test
+  public void buffersReturnedWhileDrainingNotDeallocatedTwice() throws Exception {
+    Set<ByteBuffer> deallocated = synchronizedSet(newSetFromMap(new IdentityHashMap<>()));
+    AtomicReference<String> failure = new AtomicReference<>();
+    PoolingByteBufferManager bufferManager = new PoolingByteBufferManager() {
+
+      @Override
+      protected void doDeallocate(ByteBuffer byteBuffer) {
+        if (!deallocated.add(byteBuffer)) {
+          failure.compareAndSet(null, "Buffer deallocated twice");
+        }
+        super.doDeallocate(byteBuffer);
+      }
+    };
+
+    AtomicBoolean running = new AtomicBoolean(true);
+    CountDownLatch returningThreadsDone = new CountDownLatch(4);
+    List<Thread> threads = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      threads.add(new Thread(() -> {
+        try {
+          for (int iteration = 0; iteration < 200; iteration++) {
+            // more buffers than a magazine holds, so full magazines get exchanged
+            List<ManagedByteBufferWrapper> buffers = new ArrayList<>();
+            for (int j = 0; j < 20; j++) {
+              ManagedByteBufferWrapper buffer = bufferManager.allocateManaged(BUFFER_CAPACITY);
+              if (deallocated.contains(buffer.getDelegate())) {
+                failure.compareAndSet(null, "Deallocated buffer handed out by the pool");
+              }
+              buffers.add(buffer);
+            }
+            buffers.forEach(ManagedByteBufferWrapper::release);
+          }
+        } finally {
+          returningThreadsDone.countDown();
+        }
+      }));
+    }
+    threads.add(new Thread(() -> {
+      while (running.get()) {
+        bufferManager.reclaimPooledBuffers();
+      }
+    }));
+
+    try {
+      threads.forEach(Thread::start);
+      if (!returningThreadsDone.await(30, SECONDS)) {
+        fail("Buffers were not returned in time");
+      }
+    } finally {
+      running.set(false);
+      for (Thread thread : threads) {
+        thread.join();
+      }
+      bufferManager.dispose();
+    }
+
+    assertThat(failure.get(), is(nullValue()));
+  }
 }
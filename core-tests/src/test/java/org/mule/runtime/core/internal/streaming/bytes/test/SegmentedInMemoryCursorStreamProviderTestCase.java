@@ -0,0 +1,77 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.streaming.bytes.test;
+
+import static org.mule.runtime.api.util.DataUnit.BYTE;
+import static org.mule.runtime.dsl.api.component.config.DefaultComponentLocation.from;
+import static org.mule.test.allure.AllureConstants.StreamingFeature.STREAMING;
+
+import org.mule.runtime.api.streaming.bytes.CursorStream;
+import org.mule.runtime.api.streaming.bytes.CursorStreamProvider;
+import org.mule.runtime.api.util.DataSize;
+import org.mule.runtime.core.api.streaming.bytes.AbstractCursorStreamProvider;
+import org.mule.runtime.core.api.streaming.bytes.ByteBufferManager;
+import org.mule.runtime.core.api.streaming.bytes.InMemoryCursorStreamConfig;
+import org.mule.runtime.core.internal.streaming.bytes.BufferedCursorStream;
+import org.mule.runtime.core.internal.streaming.bytes.PoolingByteBufferManager;
+import org.mule.runtime.core.internal.streaming.bytes.SegmentedInMemoryStreamBuffer;
+import org.mule.tck.size.SmallTest;
+
+import java.io.InputStream;
+
+import org.junit.After;
+
+import io.qameta.allure.Feature;
+
+@SmallTest
+@Feature(STREAMING)
+public class SegmentedInMemoryCursorStreamProviderTestCase extends CursorStreamProviderTestCase {
+
+  private final PoolingByteBufferManager segmentedBufferManager = new PoolingByteBufferManager();
+
+  public SegmentedInMemoryCursorStreamProviderTestCase(String name, int dataSize, int bufferSize, int maxBufferSize) {
+    super(name, dataSize, bufferSize, maxBufferSize);
+  }
+
+  @Override
+  protected CursorStreamProvider createStreamProvider(int bufferSize, int maxBufferSize, InputStream dataStream) {
+    InMemoryCursorStreamConfig config =
+        new InMemoryCursorStreamConfig(new DataSize(bufferSize, BYTE),
+                                       new DataSize(bufferSize / 2, BYTE),
+                                       new DataSize(maxBufferSize, BYTE));
+
+    return new SegmentedCursorStreamProvider(dataStream, config, segmentedBufferManager);
+  }
+
+  @After
+  @Override
+  public void after() {
+    super.after();
+    segmentedBufferManager.dispose();
+  }
+
+  private static class SegmentedCursorStreamProvider extends AbstractCursorStreamProvider {
+
+    private final SegmentedInMemoryStreamBuffer buffer;
+
+    private SegmentedCursorStreamProvider(InputStream wrappedStream, InMemoryCursorStreamConfig config,
+                                          ByteBufferManager bufferManager) {
+      super(wrappedStream, from("log"), false);
+      buffer = new SegmentedInMemoryStreamBuffer(wrappedStream, config, bufferManager);
+    }
+
+    @Override
+    protected CursorStream doOpenCursor() {
+      return new BufferedCursorStream(buffer, this);
+    }
+
+    @Override
+    public void releaseResources() {
+      buffer.close();
+    }
+  }
+}
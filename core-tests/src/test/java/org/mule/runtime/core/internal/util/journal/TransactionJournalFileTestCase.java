@@ -6,17 +6,27 @@
  */
 package org.mule.runtime.core.internal.util.journal;
 
+import static java.util.concurrent.Executors.newFixedThreadPool;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.notNullValue;
 import static org.junit.Assert.assertThat;
+
 import org.mule.runtime.core.internal.util.journal.queue.LocalQueueTxJournalEntry;
 import org.mule.runtime.core.internal.util.journal.queue.LocalTxQueueTransactionJournal;
 import org.mule.tck.junit4.AbstractMuleContextTestCase;
 
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
 import java.io.File;
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 import org.apache.commons.lang3.RandomStringUtils;
 import org.junit.Rule;
@@ -51,11 +61,74 @@ public class TransactionJournalFileTestCase extends AbstractMuleContextTestCase
     assertThat(entry.getValue(), equalTo(payload));
   }
 
+  @Test
+  public void groupCommitConcurrentEntries() throws Exception {
+    final int threads = 8;
+    final int entriesPerThread = 100;
+
+    final TransactionJournalFile<Integer, LocalQueueTxJournalEntry> journal = openJournal(true);
+    ExecutorService executor = newFixedThreadPool(threads);
+    try {
+      List<Future<?>> loggers = new ArrayList<>();
+      for (int i = 0; i < threads; i++) {
+        final int txId = i;
+        loggers.add(executor.submit(() -> {
+          for (int j = 0; j < entriesPerThread; j++) {
+            LocalQueueTxJournalEntry entry = new LocalQueueTxJournalEntry(txId, (byte) 6, "queue", "entry " + j);
+            journal.logOperation(entry, serialize(entry)).await();
+          }
+        }));
+      }
+      for (Future<?> logger : loggers) {
+        logger.get(10, SECONDS);
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+    journal.close();
+
+    TransactionJournalFile<Integer, LocalQueueTxJournalEntry> reopenedJournal = openJournal(true);
+    for (int i = 0; i < threads; i++) {
+      Collection<LocalQueueTxJournalEntry> entries = reopenedJournal.getLogEntries(i);
+      assertThat(entries.size(), equalTo(entriesPerThread));
+      assertThat(entries.iterator().next().getValue(), equalTo("entry 0"));
+    }
+    reopenedJournal.close();
+  }
+
+  @Test
+  public void groupCommitClear() throws Exception {
+    TransactionJournalFile<Integer, LocalQueueTxJournalEntry> journal = openJournal(true);
+    LocalQueueTxJournalEntry entry = new LocalQueueTxJournalEntry(1, (byte) 6, "queue", "Hello World!");
+    journal.logOperation(entry, serialize(entry)).await();
+    journal.clear();
+    entry = new LocalQueueTxJournalEntry(2, (byte) 6, "queue", "Hello World!");
+    journal.logOperation(entry, serialize(entry)).await();
+    journal.close();
+
+    journal = openJournal(true);
+    assertThat(journal.containsTx(1), is(false));
+    assertThat(journal.getLogEntries(2).size(), equalTo(1));
+    journal.close();
+  }
+
+  private byte[] serialize(LocalQueueTxJournalEntry entry) {
+    ByteArrayOutputStream serializedEntry = new ByteArrayOutputStream();
+    createSerializer().serialize(entry, new DataOutputStream(serializedEntry));
+    return serializedEntry.toByteArray();
+  }
+
   private TransactionJournalFile<Integer, LocalQueueTxJournalEntry> openJournal() {
+    return openJournal(false);
+  }
+
+  private TransactionJournalFile<Integer, LocalQueueTxJournalEntry> openJournal(boolean groupCommit) {
     File journalFile = new File(temporaryFolder.getRoot(), "journal");
-    JournalEntrySerializer serializer = LocalTxQueueTransactionJournal.createLocalTxQueueJournalEntrySerializer(muleContext);
+    return new TransactionJournalFile(journalFile, createSerializer(), journalEntry -> false, KB_500, groupCommit);
+  }
 
-    return new TransactionJournalFile(journalFile, serializer, journalEntry -> false, KB_500);
+  private JournalEntrySerializer<Integer, LocalQueueTxJournalEntry> createSerializer() {
+    return LocalTxQueueTransactionJournal.createLocalTxQueueJournalEntrySerializer(muleContext);
   }
 
 }
@@ -6,16 +6,106 @@
  */
 package org.mule.runtime.core.internal.util.queue;
 
+import static org.mule.runtime.core.internal.util.queue.DualRandomAccessFileQueueStoreDelegate.hasQueueFiles;
+import static org.mule.runtime.core.internal.util.queue.SegmentedFileQueueStoreDelegate.SEGMENTED_QUEUE_STORE_PROPERTY;
+import static org.mule.runtime.core.internal.util.queue.SegmentedFileQueueStoreDelegate.hasSegments;
+import static org.mule.tck.junit4.rule.SystemProperty.callWithProperty;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsNull.nullValue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
 import org.mule.runtime.core.api.MuleContext;
 import org.mule.runtime.core.api.util.queue.DefaultQueueConfiguration;
 import org.mule.runtime.core.internal.util.queue.DefaultQueueStore;
 import org.mule.runtime.core.internal.util.queue.QueueStore;
 
+import org.junit.Test;
+
+import org.mockito.Answers;
+
 public class DefaultQueueStoreTestCase extends QueueStoreTestCase {
 
+  private static final String LEGACY_QUEUE_NAME = "legacy:/queue";
+
   @Override
   protected QueueStore createQueueInfoDelegate(int capacity, MuleContext mockMuleContext) {
     return new DefaultQueueStore("testQueue", mockMuleContext, new DefaultQueueConfiguration(capacity, false));
   }
 
+  @Test
+  public void persistentQueueUsesDualFilesByDefault() throws Exception {
+    MuleContext mockMuleContext = mockPersistentMuleContext();
+    String workingDirectory = temporaryFolder.getRoot().getAbsolutePath();
+
+    QueueStore queue = new DefaultQueueStore(LEGACY_QUEUE_NAME, mockMuleContext, new DefaultQueueConfiguration(0, true));
+    queue.putNow(VALUE);
+    assertThat(hasQueueFiles(LEGACY_QUEUE_NAME, workingDirectory), is(true));
+    assertThat(hasSegments(LEGACY_QUEUE_NAME, workingDirectory), is(false));
+    queue.dispose();
+  }
+
+  @Test
+  public void persistentQueueReadsSegmentsWhenNoLongerEnabled() throws Throwable {
+    MuleContext mockMuleContext = mockPersistentMuleContext();
+    String workingDirectory = temporaryFolder.getRoot().getAbsolutePath();
+
+    callWithProperty(SEGMENTED_QUEUE_STORE_PROPERTY, "true", () -> {
+      QueueStore segmentedQueue =
+          new DefaultQueueStore(LEGACY_QUEUE_NAME, mockMuleContext, new DefaultQueueConfiguration(0, true));
+      segmentedQueue.putNow(VALUE);
+      segmentedQueue.putNow(ANOTHER_VALUE);
+      segmentedQueue.close();
+      return null;
+    });
+    assertThat(hasSegments(LEGACY_QUEUE_NAME, workingDirectory), is(true));
+
+    QueueStore queue = new DefaultQueueStore(LEGACY_QUEUE_NAME, mockMuleContext, new DefaultQueueConfiguration(0, true));
+    assertThat(hasSegments(LEGACY_QUEUE_NAME, workingDirectory), is(false));
+    assertThat(queue.getSize(), is(2));
+    assertThat((String) queue.poll(SHORT_POLL_TIMEOUT), is(VALUE));
+    assertThat((String) queue.poll(SHORT_POLL_TIMEOUT), is(ANOTHER_VALUE));
+    assertThat(queue.poll(SHORT_POLL_TIMEOUT), nullValue());
+    queue.dispose();
+  }
+
+  @Test
+  public void segmentedPersistentQueueReadsLegacyQueueFiles() throws Throwable {
+    callWithProperty(SEGMENTED_QUEUE_STORE_PROPERTY, "true", () -> {
+      MuleContext mockMuleContext = mockPersistentMuleContext();
+      String workingDirectory = temporaryFolder.getRoot().getAbsolutePath();
+
+      // files left by a previous version, with a name that has to be hex encoded
+      DualRandomAccessFileQueueStoreDelegate legacyQueue =
+          new DualRandomAccessFileQueueStoreDelegate(LEGACY_QUEUE_NAME, workingDirectory, mockMuleContext, 0);
+      legacyQueue.putNow(VALUE);
+      legacyQueue.putNow(ANOTHER_VALUE);
+      legacyQueue.close();
+      assertThat(hasQueueFiles(LEGACY_QUEUE_NAME, workingDirectory), is(true));
+
+      QueueStore queue =
+          new DefaultQueueStore(LEGACY_QUEUE_NAME, mockMuleContext, new DefaultQueueConfiguration(0, true));
+      assertThat(hasQueueFiles(LEGACY_QUEUE_NAME, workingDirectory), is(false));
+      assertThat(queue.getSize(), is(2));
+      assertThat((String) queue.poll(SHORT_POLL_TIMEOUT), is(VALUE));
+      queue.close();
+
+      queue = new DefaultQueueStore(LEGACY_QUEUE_NAME, mockMuleContext, new DefaultQueueConfiguration(0, true));
+      assertThat((String) queue.poll(SHORT_POLL_TIMEOUT), is(ANOTHER_VALUE));
+      assertThat(queue.poll(SHORT_POLL_TIMEOUT), nullValue());
+      queue.dispose();
+      return null;
+    });
+  }
+
+  private MuleContext mockPersistentMuleContext() {
+    MuleContext mockMuleContext = mock(MuleContext.class, Answers.RETURNS_DEEP_STUBS);
+    when(mockMuleContext.getConfiguration().getWorkingDirectory()).thenReturn(temporaryFolder.getRoot().getAbsolutePath());
+    when(mockMuleContext.getExecutionClassLoader()).thenReturn(muleContext.getExecutionClassLoader());
+    when(mockMuleContext.getObjectSerializer()).thenReturn(muleContext.getObjectSerializer());
+    return mockMuleContext;
+  }
+
 }
@@ -0,0 +1,191 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.util.queue;
+
+import static org.mule.runtime.core.internal.util.queue.DualRandomAccessFileQueueStoreDelegate.MAX_LENGTH_PER_FILE_PROPERTY_KEY;
+import static org.mule.runtime.core.internal.util.queue.DualRandomAccessFileQueueStoreDelegate.getFirstQueueFileForTesting;
+import static org.mule.tck.SerializationTestUtils.addJavaSerializerToMockMuleContext;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.emptyArray;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.lessThan;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.mule.runtime.core.api.MuleContext;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.junit4.rule.SystemProperty;
+import org.mule.tck.size.SmallTest;
+
+import java.io.File;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+@SmallTest
+public class SegmentedFileQueueStoreDelegateTestCase extends AbstractMuleTestCase {
+
+  private static final String TEST_QUEUE_NAME = "test-queue";
+  private static final int SEGMENT_SIZE = 200;
+
+  @Rule
+  public TemporaryFolder workingDirectory = new TemporaryFolder();
+
+  @Rule
+  public SystemProperty segmentSize = new SystemProperty(MAX_LENGTH_PER_FILE_PROPERTY_KEY, String.valueOf(SEGMENT_SIZE));
+
+  private MuleContext mockMuleContext;
+
+  @Before
+  public void before() {
+    mockMuleContext = mock(MuleContext.class);
+    when(mockMuleContext.getExecutionClassLoader()).thenReturn(getClass().getClassLoader());
+    addJavaSerializerToMockMuleContext(mockMuleContext);
+  }
+
+  @Test
+  public void nameWithInvalidCharacters() {
+    String[] testNames = new String[] {"test-test", "test:/test", "test?test", "test:\\test", "test&test", "test|test",
+        "seda.queue(post:\\Customer:ApiTest-config.1)"};
+
+    for (String testName : testNames) {
+      new SegmentedFileQueueStoreDelegate(testName, workingDirectory.getRoot().getAbsolutePath(), mockMuleContext, 1).dispose();
+    }
+  }
+
+  @Test
+  public void entriesInOrderAcrossSegments() throws Exception {
+    SegmentedFileQueueStoreDelegate queueStore = createTestQueueStore();
+    addTestData(queueStore, 20);
+    assertThat(segmentFilesCount(), is(greaterThan(1)));
+
+    for (int i = 0; i < 20; i++) {
+      assertThat(queueStore.removeFirst(), is(createTestDataForIndex(i)));
+    }
+    assertThat(queueStore.isEmpty(), is(true));
+    assertThat(queueStore.removeFirst(), is((Object) null));
+    queueStore.close();
+  }
+
+  @Test
+  public void consumedSegmentsDeleted() throws Exception {
+    SegmentedFileQueueStoreDelegate queueStore = createTestQueueStore();
+    addTestData(queueStore, 20);
+    int segmentFilesCount = segmentFilesCount();
+
+    for (int i = 0; i < 15; i++) {
+      queueStore.removeFirst();
+    }
+
+    assertThat(segmentFilesCount(), is(lessThan(segmentFilesCount)));
+    queueStore.close();
+  }
+
+  @Test
+  public void entriesRecoveredAfterClose() throws Exception {
+    SegmentedFileQueueStoreDelegate queueStore = createTestQueueStore();
+    addTestData(queueStore, 20);
+    for (int i = 0; i < 7; i++) {
+      queueStore.removeFirst();
+    }
+    queueStore.close();
+
+    queueStore = createTestQueueStore();
+    assertThat(queueStore.size(), is(13));
+    assertThat(queueStore.getFirst(), is(createTestDataForIndex(7)));
+    assertThat(queueStore.allElements().size(), is(13));
+    queueStore.close();
+  }
+
+  @Test
+  public void untakeAfterRemove() throws Exception {
+    SegmentedFileQueueStoreDelegate queueStore = createTestQueueStore();
+    addTestData(queueStore, 5);
+
+    queueStore.removeFirst();
+    queueStore.removeFirst();
+    queueStore.untake(createTestDataForIndex(1));
+    queueStore.untake("a value that does not fit where the previous one was");
+    queueStore.close();
+
+    queueStore = createTestQueueStore();
+    assertThat(queueStore.size(), is(5));
+    assertThat(queueStore.allElements(), contains("a value that does not fit where the previous one was",
+                                                  createTestDataForIndex(1), createTestDataForIndex(2),
+                                                  createTestDataForIndex(3), createTestDataForIndex(4)));
+    queueStore.close();
+  }
+
+  @Test
+  public void removeAndContains() throws Exception {
+    SegmentedFileQueueStoreDelegate queueStore = createTestQueueStore();
+    addTestData(queueStore, 20);
+    queueStore.removeFirst();
+
+    assertThat(queueStore.contains(createTestDataForIndex(0)), is(false));
+    assertThat(queueStore.contains(createTestDataForIndex(10)), is(true));
+
+    queueStore.remove(createTestDataForIndex(10));
+    queueStore.remove(createTestDataForIndex(1));
+    queueStore.close();
+
+    queueStore = createTestQueueStore();
+    assertThat(queueStore.contains(createTestDataForIndex(10)), is(false));
+    assertThat(queueStore.size(), is(17));
+    assertThat(queueStore.getFirst(), is(createTestDataForIndex(2)));
+    queueStore.close();
+  }
+
+  @Test
+  public void legacyQueueFilesMoved() throws Exception {
+    DualRandomAccessFileQueueStoreDelegate legacyQueueStore =
+        new DualRandomAccessFileQueueStoreDelegate(TEST_QUEUE_NAME, workingDirectory.getRoot().getAbsolutePath(),
+                                                   mockMuleContext, 0);
+    addTestData(legacyQueueStore, 3);
+    legacyQueueStore.removeFirst();
+    legacyQueueStore.close();
+
+    SegmentedFileQueueStoreDelegate queueStore = createTestQueueStore();
+    assertThat(queueStore.allElements(), contains(createTestDataForIndex(1), createTestDataForIndex(2)));
+    assertThat(getFirstQueueFileForTesting(TEST_QUEUE_NAME, workingDirectory.getRoot().getAbsolutePath()).exists(), is(false));
+    queueStore.close();
+  }
+
+  @Test
+  public void allFilesDeletedAfterDispose() {
+    SegmentedFileQueueStoreDelegate queueStore = createTestQueueStore();
+    queueStore.add("item");
+
+    queueStore.dispose();
+    assertThat(new File(workingDirectory.getRoot(), "queuestore").list(), is(emptyArray()));
+  }
+
+  private void addTestData(AbstractQueueStoreDelegate queueStore, int count) {
+    for (int i = 0; i < count; i++) {
+      queueStore.add(createTestDataForIndex(i));
+    }
+  }
+
+  private int segmentFilesCount() {
+    return new File(workingDirectory.getRoot(), "queuestore/" + TEST_QUEUE_NAME + "-segments")
+        .list((directory, name) -> name.endsWith(QueueSegment.SEGMENT_FILE_EXTENSION)).length;
+  }
+
+  private String createTestDataForIndex(int index) {
+    return "some value " + index;
+  }
+
+  private SegmentedFileQueueStoreDelegate createTestQueueStore() {
+    return new SegmentedFileQueueStoreDelegate(TEST_QUEUE_NAME, workingDirectory.getRoot().getAbsolutePath(),
+                                               mockMuleContext, 0);
+  }
+}
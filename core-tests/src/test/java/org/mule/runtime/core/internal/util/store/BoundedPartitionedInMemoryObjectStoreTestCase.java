@@ -0,0 +1,152 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.util.store;
+
+import static org.mule.runtime.core.internal.util.store.MuleObjectStoreManager.UNBOUNDED;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.lessThan;
+
+import org.mule.runtime.api.store.ObjectAlreadyExistsException;
+import org.mule.runtime.api.store.ObjectStoreException;
+import org.mule.runtime.core.internal.store.BoundedPartitionedInMemoryObjectStore;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import org.junit.Before;
+import org.junit.Test;
+
+@SmallTest
+public class BoundedPartitionedInMemoryObjectStoreTestCase extends AbstractMuleTestCase {
+
+  private static final String TEST_PARTITION = "testPartition";
+  private static final String TEST_VALUE = "testValue";
+  private static final String TEST_KEY1 = "testKey1";
+  private static final String TEST_KEY2 = "testKey2";
+  private static final String TEST_KEY3 = "testKey3";
+  private static final String TEST_KEY4 = "testKey4";
+
+  private BoundedPartitionedInMemoryObjectStore<String> store;
+
+  private long currentNanoTime = MILLISECONDS.toNanos(1);
+
+  @Before
+  public void setup() {
+    store = createStore(UNBOUNDED);
+  }
+
+  @Test
+  public void expireByTtl() throws ObjectStoreException {
+    store.store(TEST_KEY1, TEST_VALUE, TEST_PARTITION);
+    store.store(TEST_KEY2, TEST_VALUE, TEST_PARTITION);
+
+    currentNanoTime = MILLISECONDS.toNanos(2);
+
+    store.store(TEST_KEY3, TEST_VALUE, TEST_PARTITION);
+    store.expire(1, 100, TEST_PARTITION);
+
+    assertThat(store.contains(TEST_KEY1, TEST_PARTITION), is(false));
+    assertThat(store.contains(TEST_KEY2, TEST_PARTITION), is(false));
+    assertThat(store.retrieve(TEST_KEY3, TEST_PARTITION), equalTo(TEST_VALUE));
+  }
+
+  @Test
+  public void expiredEntriesNotVisibleBeforeExpiring() throws ObjectStoreException {
+    store.setPartitionBounds(TEST_PARTITION, 1, UNBOUNDED);
+    store.store(TEST_KEY1, TEST_VALUE, TEST_PARTITION);
+
+    currentNanoTime = MILLISECONDS.toNanos(2);
+
+    assertThat(store.contains(TEST_KEY1, TEST_PARTITION), is(false));
+    assertThat(store.allKeys(TEST_PARTITION), is(empty()));
+
+    // an expired key can be stored again
+    store.store(TEST_KEY1, TEST_VALUE, TEST_PARTITION);
+    assertThat(store.contains(TEST_KEY1, TEST_PARTITION), is(true));
+  }
+
+  @Test
+  public void maxEntriesEnforcedOnStore() throws ObjectStoreException {
+    store.setPartitionBounds(TEST_PARTITION, UNBOUNDED, 2);
+
+    store.store(TEST_KEY1, TEST_VALUE, TEST_PARTITION);
+    store.store(TEST_KEY2, TEST_VALUE, TEST_PARTITION);
+    store.store(TEST_KEY3, TEST_VALUE, TEST_PARTITION);
+
+    assertThat(store.allKeys(TEST_PARTITION), containsInAnyOrder(TEST_KEY2, TEST_KEY3));
+  }
+
+  @Test
+  public void leastRecentlyUsedEvicted() throws ObjectStoreException {
+    store.setPartitionBounds(TEST_PARTITION, UNBOUNDED, 3);
+
+    store.store(TEST_KEY1, TEST_VALUE, TEST_PARTITION);
+    store.store(TEST_KEY2, TEST_VALUE, TEST_PARTITION);
+    store.store(TEST_KEY3, TEST_VALUE, TEST_PARTITION);
+    store.retrieve(TEST_KEY1, TEST_PARTITION);
+    store.store(TEST_KEY4, TEST_VALUE, TEST_PARTITION);
+
+    assertThat(store.allKeys(TEST_PARTITION), containsInAnyOrder(TEST_KEY1, TEST_KEY3, TEST_KEY4));
+  }
+
+  @Test
+  public void maxBytesEnforcedOnStore() throws ObjectStoreException {
+    store = createStore(1024);
+
+    for (int i = 0; i < 100; i++) {
+      store.store("key" + i, TEST_VALUE, TEST_PARTITION);
+    }
+
+    assertThat(store.allKeys(TEST_PARTITION).size(), lessThan(100));
+    assertThat(store.contains("key99", TEST_PARTITION), is(true));
+  }
+
+  @Test
+  public void removedEntryNotCountedForMaxEntries() throws ObjectStoreException {
+    store.store(TEST_KEY1, TEST_VALUE, TEST_PARTITION);
+    store.store(TEST_KEY2, TEST_VALUE, TEST_PARTITION);
+    store.store(TEST_KEY3, TEST_VALUE, TEST_PARTITION);
+
+    store.remove(TEST_KEY2, TEST_PARTITION);
+    store.expire(UNBOUNDED, 1, TEST_PARTITION);
+
+    assertThat(store.allKeys(TEST_PARTITION), hasSize(1));
+    assertThat(store.contains(TEST_KEY2, TEST_PARTITION), is(false));
+  }
+
+  @Test(expected = ObjectAlreadyExistsException.class)
+  public void storeSameKeyTwice() throws ObjectStoreException {
+    store.store(TEST_KEY1, TEST_VALUE, TEST_PARTITION);
+    store.store(TEST_KEY1, TEST_VALUE, TEST_PARTITION);
+  }
+
+  @Test
+  public void removesDataOnClose() throws ObjectStoreException {
+    store.store(TEST_KEY1, TEST_VALUE, TEST_PARTITION);
+
+    store.close(TEST_PARTITION);
+
+    assertThat(store.allPartitions(), is(empty()));
+  }
+
+  private BoundedPartitionedInMemoryObjectStore<String> createStore(long maxBytesPerPartition) {
+    return new BoundedPartitionedInMemoryObjectStore<String>(maxBytesPerPartition) {
+
+      @Override
+      protected long getCurrentNanoTime() {
+        return currentNanoTime;
+      }
+    };
+  }
+}
@@ -0,0 +1,301 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.util.store;
+
+import static org.mule.runtime.core.internal.util.store.LogStructuredObjectStorePartition.SEGMENT_FILE_EXTENSION;
+import static org.mule.runtime.core.internal.util.store.MuleObjectStoreManager.UNBOUNDED;
+import static org.mule.tck.SerializationTestUtils.addJavaSerializerToMockMuleContext;
+import static org.mule.tck.probe.PollingProber.probe;
+import static org.mule.tck.util.MuleContextUtils.mockMuleContext;
+
+import static java.nio.file.StandardOpenOption.APPEND;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.arrayWithSize;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.emptyArray;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.mule.runtime.api.scheduler.Scheduler;
+import org.mule.runtime.api.scheduler.SchedulerService;
+import org.mule.runtime.api.store.ObjectAlreadyExistsException;
+import org.mule.runtime.api.store.ObjectDoesNotExistException;
+import org.mule.runtime.core.api.MuleContext;
+import org.mule.runtime.core.api.config.MuleConfiguration;
+import org.mule.tck.SimpleUnitTestSupportSchedulerService;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.io.File;
+import java.io.FileFilter;
+import java.nio.file.Files;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@SmallTest
+@RunWith(MockitoJUnitRunner.class)
+public class LogStructuredObjectStorePartitionTestCase extends AbstractMuleTestCase {
+
+  private static final int SEGMENT_SIZE = 1024;
+  private static final FileFilter SEGMENTS_FILTER = file -> file.getName().endsWith(SEGMENT_FILE_EXTENSION);
+
+  @Rule
+  public TemporaryFolder objectStoreFolder = new TemporaryFolder();
+
+  private MuleContext muleContext = mockMuleContext();
+  private SimpleUnitTestSupportSchedulerService schedulerService = new SimpleUnitTestSupportSchedulerService();
+
+  @Mock
+  private MuleConfiguration muleConfiguration;
+
+  private LogStructuredObjectStorePartition<String> partition;
+
+  @Before
+  public void setUp() throws Exception {
+    when(muleContext.getExecutionClassLoader()).thenReturn(getClass().getClassLoader());
+    when(muleContext.getConfiguration()).thenReturn(muleConfiguration);
+    when(muleConfiguration.getWorkingDirectory()).thenReturn(objectStoreFolder.getRoot().getParent());
+    when(muleContext.getSchedulerService()).thenReturn(schedulerService);
+    addJavaSerializerToMockMuleContext(muleContext);
+    partition = openPartition();
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    partition.close();
+    schedulerService.stop();
+  }
+
+  @Test
+  public void storeRetrieveAndRemove() throws Exception {
+    partition.store("key", "value");
+
+    assertThat(partition.contains("key"), is(true));
+    assertThat(partition.retrieve("key"), is("value"));
+    assertThat(partition.remove("key"), is("value"));
+    assertThat(partition.contains("key"), is(false));
+  }
+
+  @Test(expected = ObjectAlreadyExistsException.class)
+  public void storeSameKeyTwice() throws Exception {
+    partition.store("key", "value");
+    partition.store("key", "value");
+  }
+
+  @Test(expected = ObjectDoesNotExistException.class)
+  public void removeUnexistentKey() throws Exception {
+    partition.remove("key");
+  }
+
+  @Test
+  public void restoredAfterReopening() throws Exception {
+    for (int i = 0; i < 100; i++) {
+      partition.store("key" + i, "value" + i);
+    }
+    for (int i = 0; i < 100; i += 2) {
+      partition.remove("key" + i);
+    }
+
+    partition = reopenPartition();
+
+    assertThat(partition.allKeys(), hasSize(50));
+    assertThat(partition.contains("key0"), is(false));
+    assertThat(partition.retrieve("key99"), is("value99"));
+  }
+
+  @Test
+  public void sealedSegmentsCompacted() throws Exception {
+    for (int i = 0; i < 100; i++) {
+      partition.store("key" + i, "value" + i);
+    }
+    int segmentsBeforeRemoval = listSegments().length;
+    assertThat(segmentsBeforeRemoval, greaterThan(1));
+
+    for (int i = 0; i < 99; i++) {
+      partition.remove("key" + i);
+    }
+    partition.expire(UNBOUNDED, UNBOUNDED);
+
+    probe(() -> listSegments().length < segmentsBeforeRemoval);
+    assertThat(partition.allKeys(), containsInAnyOrder("key99"));
+    assertThat(partition.retrieve("key99"), is("value99"));
+
+    partition = reopenPartition();
+    assertThat(partition.allKeys(), containsInAnyOrder("key99"));
+  }
+
+  @Test
+  public void sealedSegmentsNotCompactedWhileMostlyLive() throws Exception {
+    for (int i = 0; i < 100; i++) {
+      partition.store("key" + i, "value" + i);
+    }
+    File[] segmentsBeforeRemoval = listSegments();
+    assertThat(segmentsBeforeRemoval.length, greaterThan(1));
+
+    partition.remove("key0");
+    partition.expire(UNBOUNDED, UNBOUNDED);
+
+    assertThat(segmentsBeforeRemoval[0].exists(), is(true));
+    assertThat(partition.allKeys(), hasSize(99));
+  }
+
+  @Test
+  public void compactionNotRunOnCallerThread() throws Exception {
+    Scheduler compactionScheduler = mockCompactionScheduler();
+    for (int i = 0; i < 100; i++) {
+      partition.store("key" + i, "value" + i);
+    }
+    for (int i = 0; i < 99; i++) {
+      partition.remove("key" + i);
+    }
+    int segmentsBeforeCompaction = listSegments().length;
+
+    partition.expire(UNBOUNDED, UNBOUNDED);
+    assertThat(listSegments().length, is(segmentsBeforeCompaction));
+
+    ArgumentCaptor<Runnable> compaction = ArgumentCaptor.forClass(Runnable.class);
+    verify(compactionScheduler).submit(compaction.capture());
+    compaction.getValue().run();
+
+    assertThat(listSegments().length, lessThan(segmentsBeforeCompaction));
+    assertThat(partition.retrieve("key99"), is("value99"));
+  }
+
+  @Test
+  public void compactionAfterCloseIgnored() throws Exception {
+    Scheduler compactionScheduler = mockCompactionScheduler();
+    for (int i = 0; i < 100; i++) {
+      partition.store("key" + i, "value" + i);
+    }
+    for (int i = 0; i < 99; i++) {
+      partition.remove("key" + i);
+    }
+    partition.expire(UNBOUNDED, UNBOUNDED);
+
+    ArgumentCaptor<Runnable> compaction = ArgumentCaptor.forClass(Runnable.class);
+    verify(compactionScheduler).submit(compaction.capture());
+    partition.close();
+    verify(compactionScheduler).stop();
+
+    compaction.getValue().run();
+    partition.expire(0, UNBOUNDED);
+    assertThat(objectStoreFolder.getRoot().exists(), is(false));
+
+    partition = openPartition();
+  }
+
+  @Test
+  public void expireAfterClose() throws Exception {
+    partition.store("key", "value");
+    partition.close();
+
+    partition.expire(0, UNBOUNDED);
+
+    partition = openPartition();
+  }
+
+  @Test
+  public void expireOldestEntries() throws Exception {
+    for (int i = 0; i < 10; i++) {
+      partition.store("key" + i, "value" + i);
+    }
+
+    partition.expire(UNBOUNDED, 3);
+
+    assertThat(partition.allKeys(), hasSize(3));
+  }
+
+  @Test
+  public void expireByTtl() throws Exception {
+    partition.store("key", "value");
+
+    partition.expire(0, UNBOUNDED);
+
+    assertThat(partition.allKeys(), hasSize(0));
+  }
+
+  @Test
+  public void incompleteRecordDiscarded() throws Exception {
+    partition.store("key", "value");
+    File[] segments = listSegments();
+    Files.write(segments[segments.length - 1].toPath(), new byte[] {0, 0, 0, 42, 1, 2}, APPEND);
+
+    partition = reopenPartition();
+    partition.store("anotherKey", "anotherValue");
+
+    partition = reopenPartition();
+    assertThat(partition.retrieve("key"), is("value"));
+    assertThat(partition.retrieve("anotherKey"), is("anotherValue"));
+  }
+
+  @Test
+  public void legacyPartitionMigrated() throws Exception {
+    partition.close();
+    PersistentObjectStorePartition<String> legacyPartition =
+        new PersistentObjectStorePartition<>(muleContext, "test", objectStoreFolder.getRoot());
+    legacyPartition.open();
+    legacyPartition.store("key", "value");
+
+    partition = openPartition();
+
+    assertThat(partition.retrieve("key"), is("value"));
+    assertThat(objectStoreFolder.getRoot().listFiles(file -> file.getName().endsWith(".obj")), is(emptyArray()));
+  }
+
+  @Test
+  public void clear() throws Exception {
+    partition.store("key", "value");
+
+    partition.clear();
+
+    assertThat(partition.contains("key"), is(false));
+    assertThat(listSegments(), arrayWithSize(1));
+    assertThat(new File(objectStoreFolder.getRoot(), "partition-descriptor").exists(), is(true));
+
+    partition.store("key", "anotherValue");
+    assertThat(partition.retrieve("key"), is("anotherValue"));
+  }
+
+  private Scheduler mockCompactionScheduler() {
+    Scheduler compactionScheduler = mock(Scheduler.class);
+    SchedulerService mockSchedulerService = mock(SchedulerService.class);
+    when(mockSchedulerService.ioScheduler(any())).thenReturn(compactionScheduler);
+    when(muleContext.getSchedulerService()).thenReturn(mockSchedulerService);
+    return compactionScheduler;
+  }
+
+  private LogStructuredObjectStorePartition<String> openPartition() throws Exception {
+    LogStructuredObjectStorePartition<String> newPartition =
+        new LogStructuredObjectStorePartition<>(muleContext, "test", objectStoreFolder.getRoot(), SEGMENT_SIZE);
+    newPartition.open();
+    return newPartition;
+  }
+
+  private LogStructuredObjectStorePartition<String> reopenPartition() throws Exception {
+    // simulates a restart, without deleting the data as close() would
+    return openPartition();
+  }
+
+  private File[] listSegments() {
+    return objectStoreFolder.getRoot().listFiles(SEGMENTS_FILTER);
+  }
+}
@@ -97,6 +97,8 @@ module org.mule.runtime.core {
   requires java.transaction;
   // used by DateTime
   requires java.xml.bind;
+  // used to unmap the queue store segments and the file store stream buffer windows
+  requires jdk.unsupported;
 
   exports org.mule.runtime.core.api;
   exports org.mule.runtime.core.api.artifact;
@@ -453,6 +455,7 @@ module org.mule.runtime.core {
       spring.beans;
   exports org.mule.runtime.core.internal.util to
       org.mule.runtime.core.components,
+      org.mule.runtime.artifact,
       org.mule.runtime.container,
       org.mule.runtime.deployment.model,
       org.mule.runtime.deployment.model.impl,
@@ -0,0 +1,35 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.api.context.notification;
+
+import org.mule.api.annotation.NoImplement;
+
+/**
+ * Read-only view of the queue of the asynchronous notifications waiting to be delivered to a listener.
+ *
+ * @see ServerNotificationManager#getAsyncNotificationQueues()
+ * @since 4.8.0
+ */
+@NoImplement
+public interface AsyncNotificationQueueStatistics {
+
+  /**
+   * @return the number of notifications waiting to be delivered
+   */
+  int getQueueDepth();
+
+  /**
+   * @return the number of notifications delivered to the listener
+   */
+  long getDeliveredCount();
+
+  /**
+   * @return the number of notifications discarded because the queue was full
+   */
+  long getDroppedCount();
+
+}
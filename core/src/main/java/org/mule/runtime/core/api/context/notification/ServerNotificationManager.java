@@ -6,7 +6,14 @@
  */
 package org.mule.runtime.core.api.context.notification;
 
+import static org.mule.runtime.api.util.MuleSystemProperties.SYSTEM_PROPERTY_PREFIX;
+import static org.mule.runtime.core.internal.context.notification.AsyncNotificationQueue.OverflowPolicy.DROP;
+
+import static java.lang.Integer.getInteger;
+import static java.lang.Long.getLong;
+import static java.lang.System.getProperty;
 import static java.lang.Thread.currentThread;
+import static java.util.Arrays.asList;
 import static java.util.Collections.unmodifiableMap;
 import static java.util.Collections.unmodifiableSet;
 
@@ -59,6 +66,8 @@ import org.mule.runtime.api.util.concurrent.Latch;
 import org.mule.runtime.core.api.MuleContext;
 import org.mule.runtime.core.api.context.MuleContextAware;
 import org.mule.runtime.core.api.util.ClassUtils;
+import org.mule.runtime.core.internal.context.notification.AsyncNotificationQueue;
+import org.mule.runtime.core.internal.context.notification.AsyncNotificationQueue.OverflowPolicy;
 import org.mule.runtime.core.internal.context.notification.Configuration;
 import org.mule.runtime.core.internal.context.notification.OptimisedNotificationHandler;
 import org.mule.runtime.core.internal.context.notification.Policy;
@@ -68,6 +77,7 @@ import org.mule.runtime.core.internal.profiling.notification.ProfilingNotificati
 import java.util.Collection;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Predicate;
@@ -99,12 +109,47 @@ import org.slf4j.Logger;
  * <li>Disabling an event or interface disables all uses of that class or any subclass.</li>
  * <li>Enquiring whether an event is enabled returns true if any subclass is enabled.</li>
  * </ul>
+ *
+ * <p>
+ * Asynchronous notifications are delivered submitting a task per listener and notification, unless
+ * {@link #ASYNC_NOTIFICATIONS_QUEUE_SIZE_PROPERTY} is set. In that case they are queued for each listener in a bounded queue,
+ * which delivers them in batches.
  */
 @NoExtend
 public class ServerNotificationManager implements ServerNotificationHandler, MuleContextAware {
 
   private static final Logger logger = getLogger(ServerNotificationManager.class);
 
+  /**
+   * How many asynchronous notifications may be queued for each listener. When set to a value greater than 0, the asynchronous
+   * notifications for a listener are delivered in batches by a single task at a time.
+   *
+   * @since 4.8.0
+   */
+  public static final String ASYNC_NOTIFICATIONS_QUEUE_SIZE_PROPERTY = SYSTEM_PROPERTY_PREFIX + "notifications.async.queueSize";
+
+  /**
+   * What to do with asynchronous notifications for a listener whose queue is full: {@code DROP} discards the new notification,
+   * {@code DROP_OLDEST} discards the oldest queued one and {@code BLOCK} makes the firing thread wait, for up to
+   * {@link #ASYNC_NOTIFICATIONS_BLOCK_TIMEOUT_PROPERTY} milliseconds. Defaults to {@code DROP}, which is also used when the value
+   * is not valid.
+   *
+   * @since 4.8.0
+   */
+  public static final String ASYNC_NOTIFICATIONS_OVERFLOW_POLICY_PROPERTY =
+      SYSTEM_PROPERTY_PREFIX + "notifications.async.overflowPolicy";
+
+  /**
+   * How many milliseconds a thread firing an asynchronous notification waits for room in a full queue with the {@code BLOCK}
+   * overflow policy, before discarding the notification. Defaults to 1000.
+   *
+   * @since 4.8.0
+   */
+  public static final String ASYNC_NOTIFICATIONS_BLOCK_TIMEOUT_PROPERTY =
+      SYSTEM_PROPERTY_PREFIX + "notifications.async.blockTimeout";
+
+  private static final int ASYNC_NOTIFICATIONS_BATCH_SIZE = 256;
+
   private boolean dynamic = false;
   private Configuration configuration = new Configuration();
   private final AtomicInteger activeFires = new AtomicInteger();
@@ -116,6 +161,12 @@ public class ServerNotificationManager implements ServerNotificationHandler, Mul
   private LazyValue<String> serverId = new LazyValue<>(() -> muleContext.getId());
   private LazyValue<SchedulerService> schedulerService = new LazyValue<>(() -> muleContext.getSchedulerService());
 
+  private final int asyncQueueSize = getInteger(ASYNC_NOTIFICATIONS_QUEUE_SIZE_PROPERTY, 0);
+  private final OverflowPolicy asyncOverflowPolicy =
+      parseOverflowPolicy(getProperty(ASYNC_NOTIFICATIONS_OVERFLOW_POLICY_PROPERTY));
+  private final long asyncBlockTimeoutMillis = getLong(ASYNC_NOTIFICATIONS_BLOCK_TIMEOUT_PROPERTY, 1000);
+  private final Map<NotificationListener, AsyncNotificationQueue> asyncQueues = new ConcurrentHashMap<>();
+
   public ServerNotificationManager() {}
 
   public ServerNotificationManager(LazyValue<SchedulerService> schedulerService, LazyValue<String> serverId) {
@@ -169,6 +220,10 @@ public class ServerNotificationManager implements ServerNotificationHandler, Mul
    */
   public void removeListener(NotificationListener<?> listener) {
     configuration.removeListener(listener);
+    AsyncNotificationQueue asyncQueue = asyncQueues.remove(listener);
+    if (asyncQueue != null) {
+      asyncQueue.clear();
+    }
   }
 
   public void disableInterface(Class<? extends NotificationListener> iface) {
@@ -210,7 +265,9 @@ public class ServerNotificationManager implements ServerNotificationHandler, Mul
         notifyListeners(notification, (listener, nfn) -> listener.onNotification(nfn));
       } else {
         notifyListeners(notification, (listener, nfn) -> {
-          if (listener.isBlocking()) {
+          if (asyncQueueSize > 0) {
+            getAsyncQueue(listener).enqueue(nfn);
+          } else if (listener.isBlocking()) {
             notificationsIoScheduler.submit(() -> listener.onNotification(nfn));
           } else {
             notificationsLiteScheduler.submit(() -> listener.onNotification(nfn));
@@ -224,6 +281,32 @@ public class ServerNotificationManager implements ServerNotificationHandler, Mul
     }
   }
 
+  private static OverflowPolicy parseOverflowPolicy(String overflowPolicy) {
+    if (overflowPolicy == null) {
+      return DROP;
+    }
+    try {
+      return OverflowPolicy.valueOf(overflowPolicy.trim().toUpperCase());
+    } catch (IllegalArgumentException e) {
+      logger.warn("Invalid value '{}' for property '{}', using {} instead. Valid values are: {}", overflowPolicy,
+                  ASYNC_NOTIFICATIONS_OVERFLOW_POLICY_PROPERTY, DROP, asList(OverflowPolicy.values()));
+      return DROP;
+    }
+  }
+
+  private AsyncNotificationQueue getAsyncQueue(NotificationListener listener) {
+    AsyncNotificationQueue asyncQueue = asyncQueues.get(listener);
+    if (asyncQueue == null) {
+      asyncQueue = asyncQueues.computeIfAbsent(listener,
+                                               l -> new AsyncNotificationQueue(l, l.isBlocking()
+                                                   ? notificationsIoScheduler
+                                                   : notificationsLiteScheduler, asyncQueueSize, asyncOverflowPolicy,
+                                                                               ASYNC_NOTIFICATIONS_BATCH_SIZE,
+                                                                               asyncBlockTimeoutMillis));
+    }
+    return asyncQueue;
+  }
+
   protected void notifyListeners(Notification notification, NotifierCallback notifier) {
     configuration.getPolicy().dispatch(notification, notifier);
   }
@@ -264,6 +347,8 @@ public class ServerNotificationManager implements ServerNotificationHandler, Mul
       notificationsIoScheduler.stop();
       notificationsIoScheduler = null;
     }
+    asyncQueues.values().forEach(AsyncNotificationQueue::clear);
+    asyncQueues.clear();
 
     configuration = null;
   }
@@ -302,6 +387,15 @@ public class ServerNotificationManager implements ServerNotificationHandler, Mul
     return disposed.get();
   }
 
+  /**
+   * @return the queues of the asynchronous notifications for each listener, with their depth and counts of delivered and dropped
+   *         notifications. Empty unless {@link #ASYNC_NOTIFICATIONS_QUEUE_SIZE_PROPERTY} is set.
+   * @since 4.8.0
+   */
+  public Map<NotificationListener, AsyncNotificationQueueStatistics> getAsyncNotificationQueues() {
+    return unmodifiableMap(asyncQueues);
+  }
+
   /**
    * @return a {@link ServerNotificationManager} with the default configuration for Mule notifications
    */
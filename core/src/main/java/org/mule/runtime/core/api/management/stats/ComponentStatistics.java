@@ -6,15 +6,25 @@
  */
 package org.mule.runtime.core.api.management.stats;
 
+import static java.lang.System.currentTimeMillis;
+
 import org.mule.api.annotation.NoExtend;
 import org.mule.runtime.core.api.util.StringUtils;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamField;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * ComponentStatistics is a basic metrics aggregation class that is accessible via the JMX api. This class is not thread-safe -
- * occasional errors in reported statistics should be expected, especially when the {@link #clear()} method is used.
+ * ComponentStatistics is a basic metrics aggregation class that is accessible via the JMX api. Measurements are recorded without
+ * locking, so the values read while events are being recorded may not be consistent with each other - occasional errors in
+ * reported statistics should be expected, especially when the {@link #clear()} method is used.
  */
 @NoExtend
 public class ComponentStatistics implements Statistics {
@@ -26,14 +36,33 @@ public class ComponentStatistics implements Statistics {
    */
   private static final long serialVersionUID = -2086999226732861674L;
 
-  private long minExecutionTime = 0;
-  private long maxExecutionTime = 0;
-  private long averageExecutionTime = 0;
-  private long executedEvent = 0;
-  private long totalExecTime = 0;
+  /**
+   * The serialized form keeps the plain {@code long} fields used before measurements were recorded without locking, so it can be
+   * read by other versions. The execution time histogram is not part of it, a deserialized instance starts with an empty one.
+   */
+  private static final ObjectStreamField[] serialPersistentFields = {
+      new ObjectStreamField("minExecutionTime", long.class),
+      new ObjectStreamField("maxExecutionTime", long.class),
+      new ObjectStreamField("averageExecutionTime", long.class),
+      new ObjectStreamField("executedEvent", long.class),
+      new ObjectStreamField("totalExecTime", long.class),
+      new ObjectStreamField("enabled", boolean.class),
+      new ObjectStreamField("intervalTime", long.class),
+      new ObjectStreamField("currentIntervalStartTime", long.class),
+      new ObjectStreamField("statIntervalTimeEnabled", boolean.class)
+  };
+
+  // not final so they can be set when deserializing
+  private AtomicLong minExecutionTime = new AtomicLong(0);
+  private AtomicLong maxExecutionTime = new AtomicLong(0);
+  private LongAdder executedEvent = new LongAdder();
+  private LongAdder totalExecTime = new LongAdder();
+  private LatencyHistogram executionTimeHistogram = new LatencyHistogram();
+  // avoids summing executedEvent for every branch, only written when it changes
+  private volatile boolean eventsExecuted = false;
   private boolean enabled = false;
   private long intervalTime = 0;
-  private long currentIntervalStartTime = 0;
+  private AtomicLong currentIntervalStartTime = new AtomicLong(0);
   private boolean statIntervalTimeEnabled = false;
 
   /**
@@ -65,11 +94,12 @@ public class ComponentStatistics implements Statistics {
    * If called while a branch is being executed, then statistics may be slightly erroneous.
    */
   public void clear() {
-    minExecutionTime = 0;
-    maxExecutionTime = 0;
-    executedEvent = 0;
-    totalExecTime = 0;
-    averageExecutionTime = 0;
+    minExecutionTime.set(0);
+    maxExecutionTime.set(0);
+    executedEvent.reset();
+    eventsExecuted = false;
+    totalExecTime.reset();
+    executionTimeHistogram.clear();
   }
 
   /**
@@ -102,7 +132,7 @@ public class ComponentStatistics implements Statistics {
    * @return The maximum time, or zero if no events have been started.
    */
   public long getMaxExecutionTime() {
-    return maxExecutionTime;
+    return maxExecutionTime.get();
   }
 
   /**
@@ -111,7 +141,7 @@ public class ComponentStatistics implements Statistics {
    * @return The maximum time, or zero if no events have been completed.
    */
   public long getMinExecutionTime() {
-    return minExecutionTime;
+    return minExecutionTime.get();
   }
 
   /**
@@ -121,7 +151,7 @@ public class ComponentStatistics implements Statistics {
    * @return The total cumulative execution time, in milliseconds.
    */
   public long getTotalExecutionTime() {
-    return totalExecTime;
+    return totalExecTime.sum();
   }
 
   /**
@@ -133,7 +163,7 @@ public class ComponentStatistics implements Statistics {
    * @return The number of events executed since last cleared.
    */
   public long getExecutedEvents() {
-    return executedEvent;
+    return executedEvent.sum();
   }
 
   /**
@@ -143,34 +173,20 @@ public class ComponentStatistics implements Statistics {
    * @param branch the time to execute this branch
    * @param total  the total time (so far) for processing this event
    */
-  public synchronized void addExecutionBranchTime(boolean first, long branch, long total) {
+  public void addExecutionBranchTime(boolean first, long branch, long total) {
     // TODO MULE-9151 - ComponentStatistics should really create distinct Event
     // objects that can be used to aggregate statistics and then atomically
     // log them at completion time.
 
-    if (statIntervalTimeEnabled) {
-      long currentTime = System.currentTimeMillis();
-      if (currentIntervalStartTime == 0) {
-        currentIntervalStartTime = currentTime;
-      }
-
-      if ((currentTime - currentIntervalStartTime) > intervalTime) {
-        clear();
-        currentIntervalStartTime = currentTime;
-      }
-    }
+    resetIfIntervalElapsed();
 
     if (first) {
-      executedEvent++;
+      incrementExecutedEvents();
     }
 
-    if (executedEvent > 0) {
-      totalExecTime += ProcessingTime.getEffectiveTime(branch);
-      long effectiveTotal = ProcessingTime.getEffectiveTime(total);
-      if (maxExecutionTime == 0 || effectiveTotal > maxExecutionTime) {
-        maxExecutionTime = effectiveTotal;
-      }
-      averageExecutionTime = totalExecTime / executedEvent;
+    if (eventsExecuted) {
+      totalExecTime.add(ProcessingTime.getEffectiveTime(branch));
+      updateMax(ProcessingTime.getEffectiveTime(total));
     }
   }
 
@@ -181,12 +197,11 @@ public class ComponentStatistics implements Statistics {
    * 
    * @param time the total time required to process this event
    */
-  public synchronized void addCompleteExecutionTime(long time) {
-    if (executedEvent > 0) {
+  public void addCompleteExecutionTime(long time) {
+    if (eventsExecuted) {
       long effectiveTime = ProcessingTime.getEffectiveTime(time);
-      if (minExecutionTime == 0 || effectiveTime < minExecutionTime) {
-        minExecutionTime = effectiveTime;
-      }
+      updateMin(effectiveTime);
+      executionTimeHistogram.record(effectiveTime);
     }
   }
 
@@ -197,31 +212,51 @@ public class ComponentStatistics implements Statistics {
    *
    * @param time The total event time to be logged/recorded.
    */
-  public synchronized void addExecutionTime(long time) {
+  public void addExecutionTime(long time) {
+    resetIfIntervalElapsed();
+
+    incrementExecutedEvents();
+
+    long effectiveTime = ProcessingTime.getEffectiveTime(time);
+    totalExecTime.add(effectiveTime);
+    updateMin(effectiveTime);
+    updateMax(effectiveTime);
+    executionTimeHistogram.record(effectiveTime);
+  }
+
+  private void incrementExecutedEvents() {
+    executedEvent.increment();
+    if (!eventsExecuted) {
+      eventsExecuted = true;
+    }
+  }
+
+  private void resetIfIntervalElapsed() {
     if (statIntervalTimeEnabled) {
-      long currentTime = System.currentTimeMillis();
-      if (currentIntervalStartTime == 0) {
-        currentIntervalStartTime = currentTime;
-      }
+      long currentTime = currentTimeMillis();
+      currentIntervalStartTime.compareAndSet(0, currentTime);
 
-      if ((currentTime - currentIntervalStartTime) > intervalTime) {
+      long intervalStartTime = currentIntervalStartTime.get();
+      // only the thread that starts the new interval clears the statistics
+      if ((currentTime - intervalStartTime) > intervalTime
+          && currentIntervalStartTime.compareAndSet(intervalStartTime, currentTime)) {
         clear();
-        currentIntervalStartTime = currentTime;
       }
     }
+  }
 
-    executedEvent++;
-
-    long effectiveTime = ProcessingTime.getEffectiveTime(time);
-    totalExecTime += effectiveTime;
-
-    if (minExecutionTime == 0 || effectiveTime < minExecutionTime) {
-      minExecutionTime = time;
+  private void updateMin(long time) {
+    long current;
+    while (((current = minExecutionTime.get()) == 0 || time < current) && !minExecutionTime.compareAndSet(current, time)) {
+      // retry with the value set by a concurrent update
     }
-    if (maxExecutionTime == 0 || effectiveTime > maxExecutionTime) {
-      maxExecutionTime = time;
+  }
+
+  private void updateMax(long time) {
+    long current;
+    while (((current = maxExecutionTime.get()) == 0 || time > current) && !maxExecutionTime.compareAndSet(current, time)) {
+      // retry with the value set by a concurrent update
     }
-    averageExecutionTime = totalExecTime / executedEvent;
   }
 
   /**
@@ -230,7 +265,61 @@ public class ComponentStatistics implements Statistics {
    * @return the total event time accumulated to this point, divided by the total number of events recorded.
    */
   public long getAverageExecutionTime() {
-    return averageExecutionTime;
+    long executed = executedEvent.sum();
+    return executed == 0 ? 0 : totalExecTime.sum() / executed;
+  }
+
+  /**
+   * Returns the complete event execution time below which the given percentage of the events recorded since last cleared fall.
+   * <p/>
+   * Only the times recorded through {@link #addExecutionTime(long)} or {@link #addCompleteExecutionTime(long)} are considered.
+   * The returned value is the upper bound of the range the percentile falls into, which is at most 12.5% above the actual
+   * time.
+   *
+   * @param percentile the percentile to compute, between 0 and 100
+   * @return the execution time for the given percentile, or zero if no events have been completed.
+   * @since 4.8.0
+   */
+  public long getExecutionTimePercentile(double percentile) {
+    return executionTimeHistogram.getPercentile(percentile);
+  }
+
+  /**
+   * @return a snapshot of the distribution of the complete event execution times recorded since last cleared.
+   * @since 4.8.0
+   */
+  public LatencyHistogram getExecutionTimeHistogram() {
+    return executionTimeHistogram.snapshot();
+  }
+
+  private void writeObject(ObjectOutputStream out) throws IOException {
+    ObjectOutputStream.PutField fields = out.putFields();
+    fields.put("minExecutionTime", getMinExecutionTime());
+    fields.put("maxExecutionTime", getMaxExecutionTime());
+    fields.put("averageExecutionTime", getAverageExecutionTime());
+    fields.put("executedEvent", getExecutedEvents());
+    fields.put("totalExecTime", getTotalExecutionTime());
+    fields.put("enabled", enabled);
+    fields.put("intervalTime", intervalTime);
+    fields.put("currentIntervalStartTime", currentIntervalStartTime.get());
+    fields.put("statIntervalTimeEnabled", statIntervalTimeEnabled);
+    out.writeFields();
+  }
+
+  private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+    ObjectInputStream.GetField fields = in.readFields();
+    minExecutionTime = new AtomicLong(fields.get("minExecutionTime", 0L));
+    maxExecutionTime = new AtomicLong(fields.get("maxExecutionTime", 0L));
+    executedEvent = new LongAdder();
+    executedEvent.add(fields.get("executedEvent", 0L));
+    eventsExecuted = executedEvent.sum() > 0;
+    totalExecTime = new LongAdder();
+    totalExecTime.add(fields.get("totalExecTime", 0L));
+    enabled = fields.get("enabled", false);
+    intervalTime = fields.get("intervalTime", 0L);
+    currentIntervalStartTime = new AtomicLong(fields.get("currentIntervalStartTime", 0L));
+    statIntervalTimeEnabled = fields.get("statIntervalTimeEnabled", false);
+    executionTimeHistogram = new LatencyHistogram();
   }
 
 }
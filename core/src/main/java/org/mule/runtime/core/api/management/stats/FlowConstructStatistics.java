@@ -96,6 +96,20 @@ public interface FlowConstructStatistics extends Statistics {
    */
   long getTotalDispatchedMessages();
 
+  /**
+   * Returns the flow processing time below which the given percentage of the events processed since last cleared fall.
+   * <p>
+   * The returned value is the upper bound of the range the percentile falls into, which is at most 12.5% above the actual time.
+   *
+   * @param percentile the percentile to compute, between 0 and 100
+   * @return the processing time for the given percentile, or zero if no events have been processed.
+   *
+   * @since 4.8.0
+   */
+  default long getProcessingTimePercentile(double percentile) {
+    return 0;
+  }
+
   /**
    * @return indicates if the statistic is enabled or not.
    */
@@ -0,0 +1,181 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.api.management.stats;
+
+import static org.mule.runtime.api.util.Preconditions.checkArgument;
+
+import static java.lang.Long.numberOfLeadingZeros;
+import static java.lang.Math.ceil;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.lang.Runtime.getRuntime;
+import static java.lang.Thread.currentThread;
+
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Distribution of latencies, in milliseconds, from which percentiles can be computed.
+ * <p>
+ * Values below 8 are counted exactly. Bigger values are counted in 8 buckets per power of two, so the value
+ * reported for a percentile is at most 12.5% above the actual one.
+ * <p>
+ * Recording does not lock: each thread records on one of a few stripes, chosen by its id, and the stripes are merged when a
+ * percentile is read. There is one stripe per available processor, rounded up to a power of two, but never more than 4, since
+ * each stripe takes about 2 KB and there is a histogram per component. Stripes are only allocated once a thread records on them.
+ * This means that with more than 4 processors, or with threads whose ids map to the same stripe, concurrent recordings may still
+ * contend on the same counters. They do not block each other, but some of the updates are retried.
+ *
+ * @since 4.8.0
+ */
+public final class LatencyHistogram implements Serializable {
+
+  private static final long serialVersionUID = -4254396211380573466L;
+
+  private static final int SUB_BUCKET_BITS = 3;
+  private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+  // 2^32 ms is about 50 days, bigger values are counted in the last bucket
+  private static final int MAX_EXPONENT = 31;
+
+  private static final int BUCKETS = SUB_BUCKETS + (MAX_EXPONENT - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+  // bounds the memory taken by each histogram, see the class javadoc
+  private static final int MAX_STRIPES = 4;
+  private static final int STRIPES = min(MAX_STRIPES, Integer.highestOneBit(getRuntime().availableProcessors() * 2 - 1));
+
+  private final AtomicReferenceArray<AtomicLongArray> stripes = new AtomicReferenceArray<>(STRIPES);
+
+  /**
+   * Records a latency.
+   *
+   * @param value the latency to record, in milliseconds
+   */
+  public void record(long value) {
+    getStripe().incrementAndGet(bucketIndex(value));
+  }
+
+  private AtomicLongArray getStripe() {
+    int stripeIndex = (int) currentThread().getId() & (stripes.length() - 1);
+    AtomicLongArray stripe = stripes.get(stripeIndex);
+    if (stripe == null) {
+      stripes.compareAndSet(stripeIndex, null, new AtomicLongArray(BUCKETS));
+      stripe = stripes.get(stripeIndex);
+    }
+    return stripe;
+  }
+
+  /**
+   * Discards the recorded latencies.
+   * <p>
+   * Latencies recorded concurrently with this call may or may not be kept.
+   */
+  public void clear() {
+    for (int i = 0; i < stripes.length(); ++i) {
+      AtomicLongArray stripe = stripes.get(i);
+      if (stripe != null) {
+        for (int j = 0; j < BUCKETS; ++j) {
+          stripe.set(j, 0);
+        }
+      }
+    }
+  }
+
+  /**
+   * @return a copy of the latencies recorded so far. Latencies recorded on either histogram afterwards do not affect the other.
+   */
+  public LatencyHistogram snapshot() {
+    long[] counts = new long[BUCKETS];
+    addCountsTo(counts);
+    LatencyHistogram snapshot = new LatencyHistogram();
+    snapshot.stripes.set(0, new AtomicLongArray(counts));
+    return snapshot;
+  }
+
+  /**
+   * @param percentile the percentile to compute, between 0 and 100
+   * @return the latency below which the given percentage of the recorded latencies fall, or zero if none were recorded.
+   */
+  public long getPercentile(double percentile) {
+    long[] counts = new long[BUCKETS];
+    addCountsTo(counts);
+    return getPercentile(counts, percentile);
+  }
+
+  /**
+   * Computes a percentile of the latencies recorded in all the given histograms together.
+   *
+   * @param histograms the histograms to merge
+   * @param percentile the percentile to compute, between 0 and 100
+   * @return the latency below which the given percentage of the recorded latencies fall, or zero if none were recorded.
+   */
+  public static long getPercentile(Collection<LatencyHistogram> histograms, double percentile) {
+    long[] counts = new long[BUCKETS];
+    for (LatencyHistogram histogram : histograms) {
+      histogram.addCountsTo(counts);
+    }
+    return getPercentile(counts, percentile);
+  }
+
+  private void addCountsTo(long[] counts) {
+    for (int i = 0; i < stripes.length(); ++i) {
+      AtomicLongArray stripe = stripes.get(i);
+      if (stripe != null) {
+        for (int j = 0; j < BUCKETS; ++j) {
+          counts[j] += stripe.get(j);
+        }
+      }
+    }
+  }
+
+  private static long getPercentile(long[] counts, double percentile) {
+    checkArgument(percentile >= 0 && percentile <= 100, "percentile must be between 0 and 100");
+
+    long total = 0;
+    for (long count : counts) {
+      total += count;
+    }
+    if (total == 0) {
+      return 0;
+    }
+
+    long rank = max(1, (long) ceil(percentile / 100 * total));
+    long accumulated = 0;
+    for (int i = 0; i < BUCKETS; ++i) {
+      accumulated += counts[i];
+      if (accumulated >= rank) {
+        return bucketUpperBound(i);
+      }
+    }
+    return bucketUpperBound(BUCKETS - 1);
+  }
+
+  private static int bucketIndex(long value) {
+    if (value < SUB_BUCKETS) {
+      return value < 0 ? 0 : (int) value;
+    }
+
+    int exponent = 63 - numberOfLeadingZeros(value);
+    if (exponent > MAX_EXPONENT) {
+      return BUCKETS - 1;
+    }
+    int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+    return SUB_BUCKETS + (exponent - SUB_BUCKET_BITS) * SUB_BUCKETS + subBucket;
+  }
+
+  private static long bucketUpperBound(int index) {
+    if (index < SUB_BUCKETS) {
+      return index;
+    }
+
+    int exponent = (index - SUB_BUCKETS) / SUB_BUCKETS + SUB_BUCKET_BITS;
+    long subBucket = (index - SUB_BUCKETS) % SUB_BUCKETS;
+    long bucketWidth = 1L << (exponent - SUB_BUCKET_BITS);
+    return (SUB_BUCKETS + subBucket) * bucketWidth + bucketWidth - 1;
+  }
+}
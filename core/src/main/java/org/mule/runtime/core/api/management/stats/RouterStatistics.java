@@ -8,11 +8,17 @@ package org.mule.runtime.core.api.management.stats;
 
 import org.mule.api.annotation.NoExtend;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamField;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * <code>RouterStatistics</code> TODO
@@ -31,19 +37,34 @@ public class RouterStatistics implements Statistics {
   public static final int TYPE_RESPONSE = 3;
   public static final int TYPE_BINDING = 4;
 
+  /**
+   * The serialized form keeps the plain {@code long} counters and the {@link HashMap} of routed messages used before messages
+   * were counted without locking, so it can be read by other versions.
+   */
+  private static final ObjectStreamField[] serialPersistentFields = {
+      new ObjectStreamField("enabled", boolean.class),
+      new ObjectStreamField("notRouted", long.class),
+      new ObjectStreamField("caughtInCatchAll", long.class),
+      new ObjectStreamField("totalRouted", long.class),
+      new ObjectStreamField("totalReceived", long.class),
+      new ObjectStreamField("routed", Map.class),
+      new ObjectStreamField("type", int.class)
+  };
+
   private boolean enabled;
-  private long notRouted;
-  private long caughtInCatchAll;
-  private long totalRouted;
-  private long totalReceived;
-  private Map routed;
+  // not final so they can be set when deserializing
+  private LongAdder notRouted = new LongAdder();
+  private LongAdder caughtInCatchAll = new LongAdder();
+  private LongAdder totalRouted = new LongAdder();
+  private LongAdder totalReceived = new LongAdder();
+  private Map<String, Long> routed = new ConcurrentHashMap<>();
   private int type;
 
-  public synchronized void clear() {
-    notRouted = 0;
-    totalRouted = 0;
-    totalReceived = 0;
-    caughtInCatchAll = 0;
+  public void clear() {
+    notRouted.reset();
+    totalRouted.reset();
+    totalReceived.reset();
+    caughtInCatchAll.reset();
     routed.clear();
   }
 
@@ -65,7 +86,6 @@ public class RouterStatistics implements Statistics {
   public RouterStatistics(int type) {
     super();
     this.type = type;
-    routed = new HashMap();
   }
 
   /**
@@ -90,76 +110,66 @@ public class RouterStatistics implements Statistics {
    *
    * @param endpoint The endpoint
    */
-  public synchronized void incrementRoutedMessage(Object endpoint) {
+  public void incrementRoutedMessage(Object endpoint) {
     if (endpoint == null) {
       return;
     }
 
-    String name = endpoint.toString();
-
-    Long cpt = (Long) routed.get(name);
-    long count = 0;
-
-    if (cpt != null) {
-      count = cpt.longValue();
-    }
-
-    // TODO we should probably use a MutableLong here,
-    // but that might be problematic for remote MBean access (serialization)
-    routed.put(name, new Long(++count));
+    // Long values are kept so the map can be read through remote MBean access (serialization)
+    routed.merge(endpoint.toString(), 1L, Long::sum);
 
-    totalRouted++;
-    totalReceived++;
+    totalRouted.increment();
+    totalReceived.increment();
   }
 
   /**
    * Increment no routed message
    */
-  public synchronized void incrementNoRoutedMessage() {
-    notRouted++;
-    totalReceived++;
+  public void incrementNoRoutedMessage() {
+    notRouted.increment();
+    totalReceived.increment();
   }
 
   /**
    * Increment no routed message
    */
-  public synchronized void incrementCaughtMessage() {
-    caughtInCatchAll++;
+  public void incrementCaughtMessage() {
+    caughtInCatchAll.increment();
   }
 
   /**
    * @return Returns the notRouted.
    */
   public final long getCaughtMessages() {
-    return caughtInCatchAll;
+    return caughtInCatchAll.sum();
   }
 
   /**
    * @return Returns the notRouted.
    */
   public final long getNotRouted() {
-    return notRouted;
+    return notRouted.sum();
   }
 
   /**
    * @return Returns the totalReceived.
    */
   public final long getTotalReceived() {
-    return totalReceived;
+    return totalReceived.sum();
   }
 
   /**
    * @return Returns the totalRouted.
    */
   public final long getTotalRouted() {
-    return totalRouted;
+    return totalRouted.sum();
   }
 
   /**
    * @return Returns the totalRouted.
    */
   public final long getRouted(String endpointName) {
-    Long l = (Long) routed.get(endpointName);
+    Long l = routed.get(endpointName);
 
     if (l == null) {
       return 0;
@@ -175,4 +185,38 @@ public class RouterStatistics implements Statistics {
   public Map getRouted() {
     return routed;
   }
+
+  private void writeObject(ObjectOutputStream out) throws IOException {
+    ObjectOutputStream.PutField fields = out.putFields();
+    fields.put("enabled", enabled);
+    fields.put("notRouted", getNotRouted());
+    fields.put("caughtInCatchAll", getCaughtMessages());
+    fields.put("totalRouted", getTotalRouted());
+    fields.put("totalReceived", getTotalReceived());
+    fields.put("routed", new HashMap<>(routed));
+    fields.put("type", type);
+    out.writeFields();
+  }
+
+  @SuppressWarnings("unchecked")
+  private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+    ObjectInputStream.GetField fields = in.readFields();
+    enabled = fields.get("enabled", false);
+    notRouted = adderOf(fields.get("notRouted", 0L));
+    caughtInCatchAll = adderOf(fields.get("caughtInCatchAll", 0L));
+    totalRouted = adderOf(fields.get("totalRouted", 0L));
+    totalReceived = adderOf(fields.get("totalReceived", 0L));
+    routed = new ConcurrentHashMap<>();
+    Map<String, Long> readRouted = (Map<String, Long>) fields.get("routed", null);
+    if (readRouted != null) {
+      routed.putAll(readRouted);
+    }
+    type = fields.get("type", 0);
+  }
+
+  private static LongAdder adderOf(long value) {
+    LongAdder adder = new LongAdder();
+    adder.add(value);
+    return adder;
+  }
 }
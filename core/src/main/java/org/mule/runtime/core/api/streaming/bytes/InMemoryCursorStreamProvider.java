@@ -6,10 +6,14 @@
  */
 package org.mule.runtime.core.api.streaming.bytes;
 
+import static org.mule.runtime.core.internal.streaming.bytes.ByteStreamingConstants.SEGMENTED_IN_MEMORY_BUFFER;
+
 import org.mule.runtime.api.component.location.ComponentLocation;
 import org.mule.runtime.api.streaming.bytes.CursorStream;
 import org.mule.runtime.core.internal.streaming.bytes.BufferedCursorStream;
 import org.mule.runtime.core.internal.streaming.bytes.InMemoryStreamBuffer;
+import org.mule.runtime.core.internal.streaming.bytes.InputStreamBuffer;
+import org.mule.runtime.core.internal.streaming.bytes.SegmentedInMemoryStreamBuffer;
 
 import java.io.InputStream;
 
@@ -20,7 +24,7 @@ import java.io.InputStream;
  */
 public final class InMemoryCursorStreamProvider extends AbstractCursorStreamProvider {
 
-  private final InMemoryStreamBuffer buffer;
+  private final InputStreamBuffer buffer;
 
   /**
    * Creates a new instance
@@ -39,7 +43,9 @@ public final class InMemoryCursorStreamProvider extends AbstractCursorStreamProv
                                       ComponentLocation originatingLocation,
                                       boolean trackCursorProviderClose) {
     super(wrappedStream, originatingLocation, trackCursorProviderClose);
-    buffer = new InMemoryStreamBuffer(wrappedStream, config, bufferManager);
+    buffer = SEGMENTED_IN_MEMORY_BUFFER
+        ? new SegmentedInMemoryStreamBuffer(wrappedStream, config, bufferManager)
+        : new InMemoryStreamBuffer(wrappedStream, config, bufferManager);
   }
 
   /**
@@ -10,6 +10,7 @@ import static java.util.Collections.unmodifiableMap;
 
 import org.mule.api.annotation.NoExtend;
 import org.mule.runtime.api.util.CaseInsensitiveMapWrapper;
+import org.mule.runtime.core.internal.event.EventVariablesMap;
 
 import java.io.Serializable;
 import java.util.Collection;
@@ -83,7 +84,10 @@ public class CaseInsensitiveHashMap<K, V> implements Map<K, V>, Serializable {
    * Constructs a new empty map with default size and load factor.
    */
   public CaseInsensitiveHashMap() {
-    delegate = new CaseInsensitiveMapWrapper();
+    // EventVariablesMap sets its own delegate, which is built for every event copy
+    if (!(this instanceof EventVariablesMap)) {
+      delegate = new CaseInsensitiveMapWrapper();
+    }
   }
 
   /**
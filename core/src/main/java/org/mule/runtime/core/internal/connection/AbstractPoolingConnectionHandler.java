@@ -0,0 +1,147 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.connection;
+
+import static org.mule.runtime.api.util.Preconditions.checkState;
+
+import org.mule.runtime.api.connection.ConnectionException;
+import org.mule.runtime.api.connection.ConnectionProvider;
+import org.mule.runtime.api.connection.PoolingListener;
+import org.mule.runtime.api.exception.MuleException;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+
+/**
+ * Base implementation of {@link ConnectionHandlerAdapter} which wraps a connection obtained from a pool, returning it to the
+ * pool when released.
+ *
+ * @param <C> the generic type of the connection to be returned
+ * @param <P> the generic type of the objects held by the pool
+ * @since 4.8.0
+ */
+abstract class AbstractPoolingConnectionHandler<C, P> implements ConnectionHandlerAdapter<C> {
+
+  private final Logger logger;
+  private P pooledConnection;
+  protected final String poolId;
+  private final PoolingListener<C> poolingListener;
+  private final ConnectionProvider<C> connectionProvider;
+  private final AtomicBoolean released = new AtomicBoolean(false);
+
+  /**
+   * Creates a new instance
+   *
+   * @param logger           the logger of the concrete handler
+   * @param pooledConnection the connection to be wrapped, as held by the pool
+   * @param poolId           the id of the pool, for logging
+   */
+  AbstractPoolingConnectionHandler(Logger logger, P pooledConnection, String poolId, PoolingListener<C> poolingListener,
+                                   ConnectionProvider<C> connectionProvider) {
+    this.logger = logger;
+    this.pooledConnection = pooledConnection;
+    this.poolId = poolId;
+    this.poolingListener = poolingListener;
+    this.connectionProvider = connectionProvider;
+  }
+
+  /**
+   * @param pooledConnection a connection as held by the pool
+   * @return the connection itself
+   */
+  protected abstract C getConnection(P pooledConnection);
+
+  /**
+   * Returns the given connection to the pool.
+   *
+   * @param pooledConnection a connection as held by the pool
+   */
+  protected abstract void returnToPool(P pooledConnection) throws Exception;
+
+  /**
+   * Destroys the given connection, removing it from the pool.
+   *
+   * @param pooledConnection a connection as held by the pool
+   */
+  protected abstract void invalidateInPool(P pooledConnection) throws Exception;
+
+  /**
+   * Logs the status of the pool, if debug is enabled.
+   */
+  protected abstract void logPoolStatus();
+
+  @Override
+  public C getConnection() throws ConnectionException {
+    checkState(pooledConnection != null, "Connection has been either released or invalidated");
+    return getConnection(pooledConnection);
+  }
+
+  /**
+   * Returns the connection to the pool
+   */
+  @Override
+  public void release() {
+    if (pooledConnection == null || released.getAndSet(true)) {
+      return;
+    }
+
+    C connection = getConnection(pooledConnection);
+    boolean returnAttempted = false;
+    try {
+      logger.debug("Returning back connection {} to pool {}", connection, poolId);
+      poolingListener.onReturn(connection);
+
+      returnToPool(pooledConnection);
+      logPoolStatus();
+      returnAttempted = true;
+    } catch (Exception e) {
+      logger.warn("Could not return connection to the pool. Connection will be terminated", e);
+    } finally {
+      try {
+        if (!returnAttempted) {
+          invalidate();
+        }
+      } finally {
+        pooledConnection = null;
+      }
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void invalidate() {
+    C connection = getConnection(pooledConnection);
+    try {
+      logger.debug("Invalidating connection {} from pool {}", connection, poolId);
+      invalidateInPool(pooledConnection);
+      logPoolStatus();
+    } catch (Exception e) {
+      logger.warn("Exception was thrown trying to invalidate connection of type " + connection.getClass().getName(), e);
+    } finally {
+      pooledConnection = null;
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public ConnectionProvider<C> getConnectionProvider() {
+    return connectionProvider;
+  }
+
+  /**
+   * Does nothing for this implementation. Connections are only closed when the pool is.
+   */
+  @Override
+  public void close() throws MuleException {
+
+  }
+}
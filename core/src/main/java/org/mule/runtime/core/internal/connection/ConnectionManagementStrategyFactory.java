@@ -9,14 +9,18 @@ package org.mule.runtime.core.internal.connection;
 import static org.mule.runtime.api.meta.model.connection.ConnectionManagementType.CACHED;
 import static org.mule.runtime.api.meta.model.connection.ConnectionManagementType.NONE;
 import static org.mule.runtime.api.meta.model.connection.ConnectionManagementType.POOLING;
+import static org.mule.runtime.api.util.MuleSystemProperties.SYSTEM_PROPERTY_PREFIX;
 import static org.mule.runtime.core.api.connection.util.ConnectionProviderUtils.unwrapProviderWrapper;
 
+import static java.lang.Boolean.getBoolean;
+
 import org.mule.runtime.api.config.FeatureFlaggingService;
 import org.mule.runtime.api.config.PoolingProfile;
 import org.mule.runtime.api.connection.CachedConnectionProvider;
 import org.mule.runtime.api.connection.ConnectionProvider;
 import org.mule.runtime.api.connection.PoolingConnectionProvider;
 import org.mule.runtime.api.connection.PoolingListener;
+import org.mule.runtime.api.scheduler.Scheduler;
 import org.mule.runtime.core.api.MuleContext;
 import org.mule.runtime.api.meta.model.connection.ConnectionManagementType;
 
@@ -27,8 +31,17 @@ import org.mule.runtime.api.meta.model.connection.ConnectionManagementType;
  */
 final class ConnectionManagementStrategyFactory {
 
+  /**
+   * When set, pooled connections are managed by {@link NativePoolingConnectionManagementStrategy} instead of the commons-pool2
+   * based {@link PoolingConnectionManagementStrategy}.
+   *
+   * @since 4.8.0
+   */
+  static final String NATIVE_CONNECTION_POOL_PROPERTY = SYSTEM_PROPERTY_PREFIX + "connection.pool.native";
+
   private final PoolingProfile defaultPoolingProfile;
   private final MuleContext muleContext;
+  private Scheduler nativePoolEvictionScheduler;
 
   /**
    * Creates a new instance
@@ -81,11 +94,42 @@ final class ConnectionManagementStrategyFactory {
       ownerConfigName = ((ConnectionProviderWrapper<C>) connectionProvider).getOwnerConfigName().orElse("");
     }
 
-    return poolingProfile.isDisabled() ? withoutManagement(connectionProvider)
-        : new PoolingConnectionManagementStrategy<>(connectionProvider, poolingProfile,
-                                                    (PoolingListener<C>) unwrapProviderWrapper(connectionProvider,
-                                                                                               PoolingConnectionProvider.class),
-                                                    muleContext, ownerConfigName, featureFlaggingService);
+    if (poolingProfile.isDisabled()) {
+      return withoutManagement(connectionProvider);
+    }
+
+    PoolingListener<C> poolingListener =
+        (PoolingListener<C>) unwrapProviderWrapper(connectionProvider, PoolingConnectionProvider.class);
+    if (getBoolean(NATIVE_CONNECTION_POOL_PROPERTY)) {
+      return new NativePoolingConnectionManagementStrategy<>(connectionProvider, poolingProfile, poolingListener, muleContext,
+                                                             ownerConfigName, this::getNativePoolEvictionScheduler);
+    }
+    return new PoolingConnectionManagementStrategy<>(connectionProvider, poolingProfile, poolingListener, muleContext,
+                                                     ownerConfigName, featureFlaggingService);
+  }
+
+  /**
+   * @return the {@link Scheduler} in which all the {@link NativeConnectionPool}s evict their idle connections, created on first
+   *         use
+   */
+  synchronized Scheduler getNativePoolEvictionScheduler() {
+    if (nativePoolEvictionScheduler == null) {
+      nativePoolEvictionScheduler = muleContext.getSchedulerService()
+          .customScheduler(muleContext.getSchedulerBaseConfig().withName("NativeConnectionPool-evictor")
+              .withMaxConcurrentTasks(1));
+    }
+    return nativePoolEvictionScheduler;
+  }
+
+  /**
+   * Stops the {@link Scheduler} returned by {@link #getNativePoolEvictionScheduler()}. Must be invoked once the strategies
+   * obtained from this factory are closed.
+   */
+  synchronized void stopNativePoolEvictionScheduler() {
+    if (nativePoolEvictionScheduler != null) {
+      nativePoolEvictionScheduler.stop();
+      nativePoolEvictionScheduler = null;
+    }
   }
 
   private <C> ConnectionManagementType getManagementType(ConnectionProvider<C> connectionProvider) {
@@ -272,6 +272,7 @@ public final class DefaultConnectionManager implements ConnectionManagerAdapter
     try {
       connections.values().stream().forEach(this::close);
       connections.clear();
+      managementStrategyFactory.stopNativePoolEvictionScheduler();
     } finally {
       writeLock.unlock();
     }
@@ -288,6 +289,7 @@ public final class DefaultConnectionManager implements ConnectionManagerAdapter
 
   @Override
   public void dispose() {
+    managementStrategyFactory.stopNativePoolEvictionScheduler();
     disposeIfNeeded(retryPolicyTemplate, LOGGER);
   }
 
@@ -0,0 +1,473 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.connection;
+
+import static org.mule.runtime.api.config.PoolingProfile.WHEN_EXHAUSTED_FAIL;
+import static org.mule.runtime.api.config.PoolingProfile.WHEN_EXHAUSTED_GROW;
+
+import static java.lang.Integer.MAX_VALUE;
+import static java.lang.Long.numberOfLeadingZeros;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.lang.System.currentTimeMillis;
+import static java.lang.System.nanoTime;
+import static java.lang.ThreadLocal.withInitial;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+import static org.slf4j.LoggerFactory.getLogger;
+
+import org.mule.runtime.api.config.PoolingProfile;
+import org.mule.runtime.api.connection.ConnectionException;
+import org.mule.runtime.api.connection.ConnectionProvider;
+import org.mule.runtime.api.connection.ConnectionValidationResult;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+
+/**
+ * A pool of connections that takes no locks to borrow or return them, used by
+ * {@link NativePoolingConnectionManagementStrategy} instead of the commons-pool2 pool used by
+ * {@link PoolingConnectionManagementStrategy}.
+ * <p>
+ * All the connections are kept in a copy on write list, which only changes when connections are created or destroyed. Borrowing
+ * a connection is claiming an idle one by atomically changing its state, first trying the ones last returned by the same thread,
+ * which are likely idle and not claimed by other threads. When the pool is exhausted, returned connections are handed off
+ * directly to the threads waiting for one.
+ * <p>
+ * Idle connections are evicted and validated by {@link #evict()}, meant to be run periodically in the background.
+ *
+ * @param <C> the generic type of the pooled connections
+ * @since 4.8.0
+ */
+final class NativeConnectionPool<C> {
+
+  private static final Logger LOGGER = getLogger(NativeConnectionPool.class);
+
+  private static final int IDLE = 0;
+  private static final int IN_USE = 1;
+  private static final int RESERVED = 2;
+  private static final int REMOVED = 3;
+
+  private static final int MAX_CONNECTIONS_PER_THREAD = 16;
+  private static final int BORROW_WAIT_BUCKETS = 16;
+  private static final long MAX_HANDOFF_WAIT_NANOS = SECONDS.toNanos(1);
+
+  // offered to the waiting threads when a connection is destroyed, so one of them can create a new one
+  private static final Object FREE_SLOT = new Object();
+
+  private final String poolId;
+  private final ConnectionProvider<C> connectionProvider;
+  private final int maxTotal;
+  private final int maxIdle;
+  private final boolean blockWhenExhausted;
+  private final long maxWaitMillis;
+  private final long minEvictableIdleMillis;
+
+  private final List<PooledConnection<C>> connections = new CopyOnWriteArrayList<>();
+  private final ThreadLocal<List<WeakReference<PooledConnection<C>>>> returnedByThread = withInitial(ArrayList::new);
+  private final SynchronousQueue<Object> handoffQueue = new SynchronousQueue<>(true);
+  private final AtomicInteger waiters = new AtomicInteger();
+  private final AtomicInteger totalConnections = new AtomicInteger();
+  private final AtomicInteger activeConnections = new AtomicInteger();
+  private final LongAdder exhaustedBorrows = new LongAdder();
+  private final AtomicLongArray borrowWaits = new AtomicLongArray(BORROW_WAIT_BUCKETS);
+  private volatile boolean closed;
+
+  /**
+   * Creates a new instance
+   *
+   * @param poolId             the id of the pool, for logging
+   * @param connectionProvider the {@link ConnectionProvider} used to create, validate and destroy the connections
+   * @param poolingProfile     the {@link PoolingProfile} which configures the pool
+   */
+  NativeConnectionPool(String poolId, ConnectionProvider<C> connectionProvider, PoolingProfile poolingProfile) {
+    this.poolId = poolId;
+    this.connectionProvider = connectionProvider;
+    this.maxIdle = poolingProfile.getMaxIdle();
+    this.maxWaitMillis = poolingProfile.getMaxWait();
+    this.minEvictableIdleMillis = poolingProfile.getMinEvictionMillis();
+
+    int maxActive = poolingProfile.getMaxActive() < 0 ? MAX_VALUE : poolingProfile.getMaxActive();
+    switch (poolingProfile.getExhaustedAction()) {
+      case WHEN_EXHAUSTED_GROW:
+        maxTotal = MAX_VALUE;
+        blockWhenExhausted = false;
+        break;
+      case WHEN_EXHAUSTED_FAIL:
+        maxTotal = maxActive;
+        blockWhenExhausted = false;
+        break;
+      default:
+        maxTotal = maxActive;
+        blockWhenExhausted = true;
+    }
+  }
+
+  /**
+   * Borrows an idle connection, creating one if there is none and the pool is not full. Otherwise, depending on the
+   * {@link PoolingProfile#getExhaustedAction() exhausted action}, fails or waits for a connection to be returned.
+   *
+   * @return the borrowed connection, to be {@link #returnConnection(PooledConnection) returned} or
+   *         {@link #invalidate(PooledConnection) invalidated}
+   * @throws NoSuchElementException if the pool is exhausted and no connection became available in time
+   * @throws ConnectionException    if a new connection could not be created
+   */
+  PooledConnection<C> borrow() throws ConnectionException, InterruptedException {
+    checkOpen();
+    PooledConnection<C> connection = claimIdle();
+    if (connection == null) {
+      connection = create(IN_USE);
+    }
+    if (connection == null) {
+      exhaustedBorrows.increment();
+      if (!blockWhenExhausted) {
+        throw new NoSuchElementException("Pool exhausted");
+      }
+      connection = awaitConnection();
+    }
+    return connection;
+  }
+
+  /**
+   * Creates an idle connection, if the pool is not full.
+   *
+   * @throws ConnectionException if the connection could not be created
+   */
+  void addIdleConnection() throws ConnectionException {
+    PooledConnection<C> connection = create(IDLE);
+    if (connection != null) {
+      offerToWaiters(connection);
+    }
+  }
+
+  /**
+   * Returns a borrowed connection to the pool, destroying it if there are already as many idle connections as allowed.
+   *
+   * @param connection a connection borrowed from this pool
+   * @throws IllegalStateException if the connection is not borrowed
+   */
+  void returnConnection(PooledConnection<C> connection) {
+    if (closed || (maxIdle >= 0 && getNumIdle() >= maxIdle)) {
+      invalidate(connection);
+      return;
+    }
+
+    connection.lastReturnedMillis = currentTimeMillis();
+    if (!connection.state.compareAndSet(IN_USE, IDLE)) {
+      throw new IllegalStateException("Connection has already been returned to the pool or is invalid");
+    }
+    activeConnections.decrementAndGet();
+    if (closed && connection.state.compareAndSet(IDLE, REMOVED)) {
+      // the pool was closed meanwhile, so it would not be destroyed by close()
+      destroyQuietly(connection);
+      return;
+    }
+
+    if (!offerToWaiters(connection)) {
+      List<WeakReference<PooledConnection<C>>> returned = returnedByThread.get();
+      if (returned.size() >= MAX_CONNECTIONS_PER_THREAD) {
+        returned.remove(0);
+      }
+      returned.add(new WeakReference<>(connection));
+    }
+  }
+
+  /**
+   * Destroys a borrowed connection.
+   *
+   * @param connection a connection borrowed from this pool
+   * @throws IllegalStateException if the connection is not borrowed
+   */
+  void invalidate(PooledConnection<C> connection) {
+    if (!connection.state.compareAndSet(IN_USE, REMOVED)) {
+      throw new IllegalStateException("Connection has already been returned to the pool or is invalid");
+    }
+    activeConnections.decrementAndGet();
+    destroy(connection);
+  }
+
+  /**
+   * Destroys the idle connections that have been idle for longer than {@link PoolingProfile#getMinEvictionMillis()} or that are
+   * no longer valid.
+   */
+  void evict() {
+    long now = currentTimeMillis();
+    for (PooledConnection<C> connection : connections) {
+      if (closed) {
+        return;
+      }
+      // reserved so that it is not borrowed while being validated
+      if (!connection.state.compareAndSet(IDLE, RESERVED)) {
+        continue;
+      }
+
+      if ((minEvictableIdleMillis > 0 && now - connection.lastReturnedMillis > minEvictableIdleMillis) || !isValid(connection)) {
+        LOGGER.debug("Evicting connection {} from pool {}", connection.connection, poolId);
+        connection.state.set(REMOVED);
+        destroyQuietly(connection);
+      } else {
+        connection.state.set(IDLE);
+        if (closed && connection.state.compareAndSet(IDLE, REMOVED)) {
+          // the pool was closed while validating it, so it would not be destroyed by close()
+          destroyQuietly(connection);
+          return;
+        }
+        offerToWaiters(connection);
+      }
+    }
+  }
+
+  /**
+   * Closes the pool, destroying its idle connections. Borrowed connections are destroyed once returned.
+   */
+  void close() {
+    closed = true;
+    for (PooledConnection<C> connection : connections) {
+      if (connection.state.compareAndSet(IDLE, REMOVED)) {
+        destroyQuietly(connection);
+      }
+    }
+  }
+
+  private PooledConnection<C> claimIdle() {
+    List<WeakReference<PooledConnection<C>>> returned = returnedByThread.get();
+    for (int i = returned.size() - 1; i >= 0; i--) {
+      PooledConnection<C> connection = returned.remove(i).get();
+      if (connection != null && claim(connection)) {
+        return connection;
+      }
+    }
+
+    for (PooledConnection<C> connection : connections) {
+      if (claim(connection)) {
+        return connection;
+      }
+    }
+    return null;
+  }
+
+  private boolean claim(PooledConnection<C> connection) {
+    if (connection.state.compareAndSet(IDLE, IN_USE)) {
+      activeConnections.incrementAndGet();
+      return true;
+    }
+    return false;
+  }
+
+  private PooledConnection<C> create(int state) throws ConnectionException {
+    int total;
+    do {
+      total = totalConnections.get();
+      if (total >= maxTotal) {
+        return null;
+      }
+    } while (!totalConnections.compareAndSet(total, total + 1));
+
+    PooledConnection<C> connection;
+    try {
+      connection = new PooledConnection<>(connectionProvider.connect(), state);
+    } catch (ConnectionException | RuntimeException e) {
+      totalConnections.decrementAndGet();
+      offerFreeSlot();
+      throw e;
+    }
+    LOGGER.debug("Created connection {}", connection.connection);
+
+    if (state == IN_USE) {
+      activeConnections.incrementAndGet();
+    }
+    connections.add(connection);
+    if (closed) {
+      // the pool was closed while creating it, so it would not be destroyed by close()
+      if (connection.state.getAndSet(REMOVED) == IN_USE) {
+        activeConnections.decrementAndGet();
+      }
+      destroyQuietly(connection);
+      checkOpen();
+    }
+    return connection;
+  }
+
+  private PooledConnection<C> awaitConnection() throws ConnectionException, InterruptedException {
+    long start = nanoTime();
+    waiters.incrementAndGet();
+    try {
+      while (true) {
+        checkOpen();
+        PooledConnection<C> connection = claimIdle();
+        if (connection == null) {
+          connection = create(IN_USE);
+        }
+        if (connection != null) {
+          recordBorrowWait(start);
+          return connection;
+        }
+
+        long waitNanos = MAX_HANDOFF_WAIT_NANOS;
+        if (maxWaitMillis >= 0) {
+          long remainingNanos = MILLISECONDS.toNanos(maxWaitMillis) - (nanoTime() - start);
+          if (remainingNanos <= 0) {
+            throw new NoSuchElementException("Timeout waiting for idle connection");
+          }
+          waitNanos = min(waitNanos, remainingNanos);
+        }
+
+        Object offered = handoffQueue.poll(waitNanos, NANOSECONDS);
+        if (offered instanceof PooledConnection && claim((PooledConnection<C>) offered)) {
+          recordBorrowWait(start);
+          return (PooledConnection<C>) offered;
+        }
+      }
+    } finally {
+      waiters.decrementAndGet();
+    }
+  }
+
+  private boolean offerToWaiters(PooledConnection<C> connection) {
+    while (waiters.get() > 0) {
+      if (connection.state.get() != IDLE || handoffQueue.offer(connection)) {
+        return true;
+      }
+      Thread.yield();
+    }
+    return false;
+  }
+
+  private void offerFreeSlot() {
+    while (waiters.get() > 0 && totalConnections.get() < maxTotal) {
+      if (handoffQueue.offer(FREE_SLOT)) {
+        return;
+      }
+      Thread.yield();
+    }
+  }
+
+  private boolean isValid(PooledConnection<C> connection) {
+    try {
+      ConnectionValidationResult result = connectionProvider.validate(connection.connection);
+      return result != null && result.isValid();
+    } catch (Exception e) {
+      LOGGER.debug("Could not validate connection {} from pool {}", connection.connection, poolId, e);
+      return false;
+    }
+  }
+
+  private void destroy(PooledConnection<C> connection) {
+    connections.remove(connection);
+    totalConnections.decrementAndGet();
+    try {
+      LOGGER.debug("Disconnecting connection {}", connection.connection);
+      connectionProvider.disconnect(connection.connection);
+    } finally {
+      offerFreeSlot();
+    }
+  }
+
+  private void destroyQuietly(PooledConnection<C> connection) {
+    try {
+      destroy(connection);
+    } catch (Exception e) {
+      LOGGER.warn("Exception was thrown trying to disconnect connection from pool " + poolId, e);
+    }
+  }
+
+  private void recordBorrowWait(long start) {
+    long waitMillis = NANOSECONDS.toMillis(nanoTime() - start);
+    borrowWaits.incrementAndGet(min(BORROW_WAIT_BUCKETS - 1, Long.SIZE - numberOfLeadingZeros(waitMillis)));
+  }
+
+  private void checkOpen() {
+    if (closed) {
+      throw new IllegalStateException("Pool " + poolId + " is closed");
+    }
+  }
+
+  /**
+   * @return the number of borrowed connections
+   */
+  int getNumActive() {
+    return activeConnections.get();
+  }
+
+  /**
+   * @return the number of idle connections
+   */
+  int getNumIdle() {
+    return max(0, connections.size() - activeConnections.get());
+  }
+
+  /**
+   * @return the maximum number of connections, {@link Integer#MAX_VALUE} if unlimited
+   */
+  int getMaxTotal() {
+    return maxTotal;
+  }
+
+  /**
+   * @return the maximum number of idle connections, negative if unlimited
+   */
+  int getMaxIdle() {
+    return maxIdle;
+  }
+
+  /**
+   * @return how many borrows found the pool exhausted
+   */
+  long getExhaustedBorrows() {
+    return exhaustedBorrows.sum();
+  }
+
+  /**
+   * The time the borrows that found the pool exhausted had to wait for a connection. The first bucket counts the waits shorter
+   * than a millisecond, and each following bucket {@code i} the ones of {@code 2^(i-1)} up to {@code 2^i} milliseconds, but the
+   * last one, which counts all the longer waits.
+   *
+   * @return the count of borrow waits per bucket
+   */
+  long[] getBorrowWaitHistogram() {
+    long[] histogram = new long[BORROW_WAIT_BUCKETS];
+    for (int i = 0; i < BORROW_WAIT_BUCKETS; i++) {
+      histogram[i] = borrowWaits.get(i);
+    }
+    return histogram;
+  }
+
+  /**
+   * A connection held by a {@link NativeConnectionPool}.
+   *
+   * @param <C> the generic type of the connection
+   */
+  static final class PooledConnection<C> {
+
+    private final C connection;
+    private final AtomicInteger state;
+    private volatile long lastReturnedMillis = currentTimeMillis();
+
+    private PooledConnection(C connection, int state) {
+      this.connection = connection;
+      this.state = new AtomicInteger(state);
+    }
+
+    /**
+     * @return the pooled connection
+     */
+    C getConnection() {
+      return connection;
+    }
+  }
+}
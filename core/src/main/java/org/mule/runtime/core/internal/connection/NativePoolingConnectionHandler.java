@@ -0,0 +1,60 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.connection;
+
+import org.mule.runtime.api.connection.ConnectionProvider;
+import org.mule.runtime.api.connection.PoolingListener;
+import org.mule.runtime.core.internal.connection.NativeConnectionPool.PooledConnection;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Implementation of {@link ConnectionHandlerAdapter} which wraps a {@code Connection} obtained from a
+ * {@link NativeConnectionPool}.
+ *
+ * @param <C> the generic type of the connection to be returned
+ * @since 4.8.0
+ */
+final class NativePoolingConnectionHandler<C> extends AbstractPoolingConnectionHandler<C, PooledConnection<C>> {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(NativePoolingConnectionHandler.class);
+
+  private final NativeConnectionPool<C> pool;
+
+  /**
+   * Creates a new instance
+   *
+   * @param pooledConnection the connection to be wrapped
+   * @param pool             the pool from which the {@code pooledConnection} was obtained and to which it has to be returned
+   */
+  NativePoolingConnectionHandler(PooledConnection<C> pooledConnection, NativeConnectionPool<C> pool, String poolId,
+                                 PoolingListener<C> poolingListener, ConnectionProvider<C> connectionProvider) {
+    super(LOGGER, pooledConnection, poolId, poolingListener, connectionProvider);
+    this.pool = pool;
+  }
+
+  @Override
+  protected C getConnection(PooledConnection<C> pooledConnection) {
+    return pooledConnection.getConnection();
+  }
+
+  @Override
+  protected void returnToPool(PooledConnection<C> pooledConnection) {
+    pool.returnConnection(pooledConnection);
+  }
+
+  @Override
+  protected void invalidateInPool(PooledConnection<C> pooledConnection) {
+    pool.invalidate(pooledConnection);
+  }
+
+  @Override
+  protected void logPoolStatus() {
+    ConnectionUtils.logPoolStatus(LOGGER, pool, poolId);
+  }
+}
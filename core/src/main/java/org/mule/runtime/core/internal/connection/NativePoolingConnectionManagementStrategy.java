@@ -0,0 +1,174 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.connection;
+
+import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
+import static org.mule.runtime.core.internal.connection.ConnectionUtils.logPoolStatus;
+import static org.mule.runtime.core.internal.connection.PoolingConnectionManagementStrategy.generateId;
+import static org.mule.runtime.core.internal.connection.PoolingConnectionManagementStrategy.getInitialConnections;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import org.mule.runtime.api.config.PoolingProfile;
+import org.mule.runtime.api.connection.ConnectionException;
+import org.mule.runtime.api.connection.ConnectionHandler;
+import org.mule.runtime.api.connection.ConnectionProvider;
+import org.mule.runtime.api.connection.PoolingListener;
+import org.mule.runtime.api.exception.DefaultMuleException;
+import org.mule.runtime.api.exception.MuleException;
+import org.mule.runtime.api.scheduler.Scheduler;
+import org.mule.runtime.core.api.MuleContext;
+import org.mule.runtime.core.internal.connection.NativeConnectionPool.PooledConnection;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A {@link ConnectionManagementStrategy} which returns connections obtained from a {@link NativeConnectionPool}.
+ * <p>
+ * Behaves as {@link PoolingConnectionManagementStrategy} does, but borrowing and returning connections takes no locks, and the
+ * idle connections are evicted by a task running in a Mule scheduler, shared by all the native pools, rather than in an evictor
+ * thread per pool.
+ *
+ * @param <C> the generic type of the connections to be managed
+ * @since 4.8.0
+ */
+final class NativePoolingConnectionManagementStrategy<C> extends ConnectionManagementStrategy<C> {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(NativePoolingConnectionManagementStrategy.class);
+
+  private final PoolingProfile poolingProfile;
+  private final NativeConnectionPool<C> pool;
+  private final String poolId;
+  private final PoolingListener<C> poolingListener;
+  private ScheduledFuture<?> evictionTask;
+
+  /**
+   * Creates a new instance
+   *
+   * @param connectionProvider the {@link ConnectionProvider} used to manage the connections
+   * @param poolingProfile     the {@link PoolingProfile} which configures the {@link #pool}
+   * @param poolingListener    a {@link PoolingListener}
+   * @param muleContext        the application's {@link MuleContext}
+   * @param evictionScheduler  supplies the {@link Scheduler} in which the idle connections are evicted
+   */
+  NativePoolingConnectionManagementStrategy(ConnectionProvider<C> connectionProvider, PoolingProfile poolingProfile,
+                                            PoolingListener<C> poolingListener, MuleContext muleContext,
+                                            String ownerConfigName, Supplier<Scheduler> evictionScheduler) {
+    super(connectionProvider, muleContext);
+    this.poolingProfile = poolingProfile;
+    this.poolingListener = poolingListener;
+    this.poolId = ownerConfigName.concat("-").concat(generateId());
+    this.pool = createPool(ownerConfigName, evictionScheduler);
+  }
+
+  /**
+   * Returns a {@link ConnectionHandler} which wraps a connection obtained from the {@link #pool}
+   *
+   * @return a {@link ConnectionHandler}
+   * @throws ConnectionException if the connection could not be obtained
+   */
+  @Override
+  public ConnectionHandler<C> getConnectionHandler() throws ConnectionException {
+    try {
+      return new NativePoolingConnectionHandler<>(borrowConnection(), pool, poolId, poolingListener, connectionProvider);
+    } catch (ConnectionException e) {
+      throw e;
+    } catch (NoSuchElementException e) {
+      throw new ConnectionException("Connection pool is exhausted", e);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new ConnectionException("Interrupted while waiting for a connection from the pool", e);
+    } catch (Exception e) {
+      throw new ConnectionException("An exception was found trying to obtain a connection: " + e.getMessage(), e);
+    }
+  }
+
+  private PooledConnection<C> borrowConnection() throws Exception {
+    PooledConnection<C> pooledConnection = pool.borrow();
+    C connection = pooledConnection.getConnection();
+    LOGGER.debug("Acquiring connection {} from the pool {}", connection.toString(), poolId);
+    logPoolStatus(LOGGER, pool, poolId);
+    try {
+      poolingListener.onBorrow(connection);
+    } catch (Exception e) {
+      pool.invalidate(pooledConnection);
+      throw e;
+    }
+
+    return pooledConnection;
+  }
+
+  /**
+   * Stops evicting connections and closes the pool, causing the idle connections to be closed as well.
+   *
+   * @throws MuleException
+   */
+  @Override
+  public void close() throws MuleException {
+    try {
+      if (evictionTask != null) {
+        evictionTask.cancel(false);
+      }
+      logPoolStatus(LOGGER, pool, poolId);
+      if (LOGGER.isDebugEnabled()) {
+        LOGGER.debug("Closing pool {}. {} borrows found it exhausted, with wait times histogram {}", poolId,
+                     pool.getExhaustedBorrows(), Arrays.toString(pool.getBorrowWaitHistogram()));
+      }
+      pool.close();
+    } catch (Exception e) {
+      throw new DefaultMuleException(createStaticMessage("Could not close connection pool"), e);
+    }
+  }
+
+  private NativeConnectionPool<C> createPool(String ownerConfigName, Supplier<Scheduler> evictionScheduler) {
+    NativeConnectionPool<C> nativePool = new NativeConnectionPool<>(poolId, connectionProvider, poolingProfile);
+    LOGGER.debug("Creating pool with ID {} for config {}", poolId, ownerConfigName);
+
+    applyInitialisationPolicy(nativePool);
+    logPoolStatus(LOGGER, nativePool, poolId);
+
+    int evictionCheckInterval = poolingProfile.getEvictionCheckIntervalMillis();
+    if (evictionCheckInterval > 0) {
+      evictionTask = evictionScheduler.get().scheduleWithFixedDelay(() -> evict(nativePool), evictionCheckInterval,
+                                                                    evictionCheckInterval, MILLISECONDS);
+    }
+
+    return nativePool;
+  }
+
+  private void applyInitialisationPolicy(NativeConnectionPool<C> pool) {
+    int initialConnections = getInitialConnections(poolingProfile);
+
+    LOGGER.debug("Initializing pool {} with {} initial connections", poolId, initialConnections);
+    for (int t = 0; t < initialConnections; t++) {
+      try {
+        pool.addIdleConnection();
+      } catch (Exception e) {
+        LOGGER.warn("Failed to create a connection while applying the pool initialization policy.", e);
+      }
+    }
+  }
+
+  private void evict(NativeConnectionPool<C> pool) {
+    try {
+      pool.evict();
+      logPoolStatus(LOGGER, pool, poolId);
+    } catch (Exception e) {
+      LOGGER.warn("Error evicting connections from pool " + poolId, e);
+    }
+  }
+
+  public PoolingProfile getPoolingProfile() {
+    return poolingProfile;
+  }
+}
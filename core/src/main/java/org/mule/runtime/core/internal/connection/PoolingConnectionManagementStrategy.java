@@ -159,36 +159,41 @@ final class PoolingConnectionManagementStrategy<C> extends ConnectionManagementS
   }
 
   protected void applyInitialisationPolicy(GenericObjectPool pool) {
-    int initialConnections;
+    int initialConnections = getInitialConnections(poolingProfile);
+
+    LOGGER.debug("Initializing pool {} with {} initial connections", poolId, initialConnections);
+    for (int t = 0; t < initialConnections; t++) {
+      try {
+        pool.addObject();
+      } catch (Exception e) {
+        LOGGER.warn("Failed to create a connection while applying the pool initialization policy.", e);
+      }
+    }
+  }
+
+  /**
+   * @param poolingProfile a {@link PoolingProfile}
+   * @return how many connections a pool has to be initialised with, according to the
+   *         {@link PoolingProfile#getInitialisationPolicy() initialisation policy}
+   */
+  static int getInitialConnections(PoolingProfile poolingProfile) {
     switch (poolingProfile.getInitialisationPolicy()) {
       case INITIALISE_NONE:
-        initialConnections = 0;
-        break;
+        return 0;
       case INITIALISE_ONE:
-        initialConnections = 1;
-        break;
+        return 1;
       case INITIALISE_ALL:
         if (poolingProfile.getMaxActive() < 0) {
-          initialConnections = poolingProfile.getMaxIdle();
+          return poolingProfile.getMaxIdle();
         } else if (poolingProfile.getMaxIdle() < 0) {
-          initialConnections = poolingProfile.getMaxActive();
+          return poolingProfile.getMaxActive();
         } else {
-          initialConnections = min(poolingProfile.getMaxActive(), poolingProfile.getMaxIdle());
+          return min(poolingProfile.getMaxActive(), poolingProfile.getMaxIdle());
         }
-        break;
       default:
         throw new IllegalStateException("Unexpected value for pooling profile initialization policy: "
             + poolingProfile.getInitialisationPolicy());
     }
-
-    LOGGER.debug("Initializing pool {} with {} initial connections", poolId, initialConnections);
-    for (int t = 0; t < initialConnections; t++) {
-      try {
-        pool.addObject();
-      } catch (Exception e) {
-        LOGGER.warn("Failed to create a connection while applying the pool initialization policy.", e);
-      }
-    }
   }
 
   public PoolingProfile getPoolingProfile() {
@@ -222,7 +227,7 @@ final class PoolingConnectionManagementStrategy<C> extends ConnectionManagementS
 
   }
 
-  private String generateId() {
+  static String generateId() {
     return UUID.randomUUID().toString();
   }
 
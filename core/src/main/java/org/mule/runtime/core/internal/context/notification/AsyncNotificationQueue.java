@@ -0,0 +1,196 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.context.notification;
+
+import static java.lang.Thread.currentThread;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import static org.slf4j.LoggerFactory.getLogger;
+
+import org.mule.runtime.api.notification.Notification;
+import org.mule.runtime.api.notification.NotificationListener;
+import org.mule.runtime.api.scheduler.Scheduler;
+import org.mule.runtime.core.api.context.notification.AsyncNotificationQueueStatistics;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+
+/**
+ * Bounded queue of the asynchronous notifications for a listener. Instead of submitting a task per notification, a single task at
+ * a time delivers the queued notifications to the listener in batches.
+ *
+ * @since 4.8.0
+ */
+public final class AsyncNotificationQueue implements AsyncNotificationQueueStatistics {
+
+  private static final Logger LOGGER = getLogger(AsyncNotificationQueue.class);
+
+  /**
+   * What to do with a notification for a listener whose queue is full.
+   */
+  public enum OverflowPolicy {
+    /**
+     * The notification is discarded.
+     */
+    DROP,
+
+    /**
+     * The oldest queued notification is discarded to make room for the new one.
+     */
+    DROP_OLDEST,
+
+    /**
+     * The thread firing the notification waits until there is room for it, up to a timeout after which the notification is
+     * discarded. The wait is bounded because the delivery task may need the thread that is waiting, as when both run in the same
+     * scheduler. Notifications fired by the listener itself while handling another one are discarded right away, since they would
+     * always time out.
+     */
+    BLOCK
+  }
+
+  private final NotificationListener listener;
+  private final Scheduler scheduler;
+  private final OverflowPolicy overflowPolicy;
+  private final int maxBatchSize;
+  private final long blockTimeoutMillis;
+  private final BlockingQueue<Notification> queue;
+
+  private final AtomicBoolean drainScheduled = new AtomicBoolean();
+  private final AtomicLong delivered = new AtomicLong();
+  private final AtomicLong dropped = new AtomicLong();
+  private volatile Thread drainingThread;
+
+  /**
+   * @param listener           the listener to deliver the notifications to
+   * @param scheduler          where the notifications are delivered
+   * @param capacity           how many notifications may be queued
+   * @param overflowPolicy     what to do when the queue is full
+   * @param maxBatchSize       how many notifications a single task delivers before giving the thread back to the scheduler
+   * @param blockTimeoutMillis how long a thread waits for room in the queue with {@link OverflowPolicy#BLOCK}
+   */
+  public AsyncNotificationQueue(NotificationListener listener, Scheduler scheduler, int capacity, OverflowPolicy overflowPolicy,
+                                int maxBatchSize, long blockTimeoutMillis) {
+    this.listener = listener;
+    this.scheduler = scheduler;
+    this.overflowPolicy = overflowPolicy;
+    this.maxBatchSize = maxBatchSize;
+    this.blockTimeoutMillis = blockTimeoutMillis;
+    this.queue = new ArrayBlockingQueue<>(capacity);
+  }
+
+  /**
+   * Queues the notification to be delivered to the listener, scheduling the delivery if it is not already scheduled.
+   *
+   * @param notification the notification to deliver
+   */
+  public void enqueue(Notification notification) {
+    if (!queue.offer(notification)) {
+      if (!handleOverflow(notification)) {
+        return;
+      }
+    }
+    scheduleDrain();
+  }
+
+  private boolean handleOverflow(Notification notification) {
+    switch (overflowPolicy) {
+      case DROP_OLDEST:
+        do {
+          if (queue.poll() != null) {
+            onDropped();
+          }
+        } while (!queue.offer(notification));
+        return true;
+      case BLOCK:
+        if (drainingThread != currentThread()) {
+          try {
+            if (queue.offer(notification, blockTimeoutMillis, MILLISECONDS)) {
+              return true;
+            }
+          } catch (InterruptedException e) {
+            currentThread().interrupt();
+          }
+        }
+        onDropped();
+        return false;
+      default:
+        onDropped();
+        return false;
+    }
+  }
+
+  private void onDropped() {
+    if (dropped.incrementAndGet() == 1) {
+      LOGGER.warn("Asynchronous notifications queue for listener '{}' is full, notifications are being dropped", listener);
+    }
+  }
+
+  private void scheduleDrain() {
+    if (drainScheduled.compareAndSet(false, true)) {
+      try {
+        scheduler.submit(this::drain);
+      } catch (RejectedExecutionException e) {
+        drainScheduled.set(false);
+        throw e;
+      }
+    }
+  }
+
+  private void drain() {
+    drainingThread = currentThread();
+    try {
+      Notification notification;
+      for (int i = 0; i < maxBatchSize && (notification = queue.poll()) != null; ++i) {
+        try {
+          listener.onNotification(notification);
+        } catch (Exception e) {
+          LOGGER.error("Exception delivering notification '{}' to listener '{}'", notification, listener, e);
+        }
+        delivered.incrementAndGet();
+      }
+    } finally {
+      drainingThread = null;
+      drainScheduled.set(false);
+    }
+
+    // notifications may have been queued after the last poll and before the flag was reset, or left for the next batch
+    if (!queue.isEmpty()) {
+      try {
+        scheduleDrain();
+      } catch (RejectedExecutionException e) {
+        LOGGER.warn("Could not schedule the delivery of {} queued notifications to listener '{}'", queue.size(), listener, e);
+      }
+    }
+  }
+
+  /**
+   * Discards the notifications not yet delivered.
+   */
+  public void clear() {
+    queue.clear();
+  }
+
+  @Override
+  public int getQueueDepth() {
+    return queue.size();
+  }
+
+  @Override
+  public long getDeliveredCount() {
+    return delivered.get();
+  }
+
+  @Override
+  public long getDroppedCount() {
+    return dropped.get();
+  }
+}
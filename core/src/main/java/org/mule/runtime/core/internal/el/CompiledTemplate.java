@@ -0,0 +1,123 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.el;
+
+import org.mule.runtime.core.internal.el.TemplateParser.TemplateCallback;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * A template already parsed by a {@link TemplateParser}, made of the literal parts of the template and the expressions between
+ * them. Rendering it just writes the literals and the result of evaluating each expression, one after the other.
+ * <p>
+ * Instances are immutable, so they can be shared and rendered concurrently.
+ *
+ * @since 4.8.0
+ */
+public final class CompiledTemplate {
+
+  // an estimation of the length of the result of each expression, to avoid resizing the output while rendering
+  private static final int EXPECTED_EXPRESSION_RESULT_LENGTH = 16;
+
+  private final TemplateParser parser;
+  private final String template;
+
+  // null if the template is parsed each time it is rendered
+  private final String[] literals;
+  private final String[] expressions;
+  private final boolean[] nestedExpressions;
+  private final int expectedLength;
+
+  CompiledTemplate(TemplateParser parser, String template) {
+    this(parser, template, null, null, null);
+  }
+
+  CompiledTemplate(TemplateParser parser, String template, String[] literals, String[] expressions,
+                   boolean[] nestedExpressions) {
+    this.parser = parser;
+    this.template = template;
+    this.literals = literals;
+    this.expressions = expressions;
+    this.nestedExpressions = nestedExpressions;
+
+    int length = template.length();
+    if (literals != null) {
+      length = expressions.length * EXPECTED_EXPRESSION_RESULT_LENGTH;
+      for (String literal : literals) {
+        length += literal.length();
+      }
+    }
+    this.expectedLength = length;
+  }
+
+  /**
+   * @param callback used to evaluate the expressions of the template
+   * @return the rendered template
+   */
+  public String render(TemplateCallback callback) {
+    if (literals == null) {
+      return parser.parse(callback, template);
+    }
+    if (expressions.length == 0) {
+      return literals[0];
+    }
+
+    StringBuilder result = new StringBuilder(expectedLength);
+    result.append(literals[0]);
+    for (int i = 0; i < expressions.length; i++) {
+      result.append(evaluate(i, callback)).append(literals[i + 1]);
+    }
+    return result.toString();
+  }
+
+  /**
+   * Renders the template directly into the given {@code writer}, without building the whole result in memory.
+   *
+   * @param callback used to evaluate the expressions of the template
+   * @param writer   where to write the rendered template
+   * @throws IOException if writing fails
+   */
+  public void render(TemplateCallback callback, Writer writer) throws IOException {
+    if (literals == null) {
+      writer.write(parser.parse(callback, template));
+      return;
+    }
+
+    writer.write(literals[0]);
+    for (int i = 0; i < expressions.length; i++) {
+      writer.write(evaluate(i, callback));
+      writer.write(literals[i + 1]);
+    }
+  }
+
+  private String evaluate(int expressionIndex, TemplateCallback callback) {
+    String expression = expressions[expressionIndex];
+    return nestedExpressions[expressionIndex]
+        ? parser.evaluateNestedExpression(expression, callback)
+        : parser.evaluateToken(callback, expression);
+  }
+
+  /**
+   * @return an estimation of the length of the rendered template, to size the buffer it is rendered into
+   */
+  public int getExpectedLength() {
+    return expectedLength;
+  }
+
+  /**
+   * @return the template this was compiled from
+   */
+  public String getTemplate() {
+    return template;
+  }
+
+  @Override
+  public String toString() {
+    return template;
+  }
+}
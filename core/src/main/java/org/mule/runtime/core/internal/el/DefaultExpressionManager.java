@@ -11,18 +11,22 @@ import static org.mule.runtime.api.el.ValidationResult.failure;
 import static org.mule.runtime.api.el.ValidationResult.success;
 import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
 import static org.mule.runtime.api.metadata.DataType.STRING;
+import static org.mule.runtime.core.api.config.MuleProperties.SYSTEM_PROPERTY_PREFIX;
 import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.disposeIfNeeded;
 import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.initialiseIfNeeded;
 import static org.mule.runtime.core.api.util.ClassUtils.isInstance;
 import static org.mule.runtime.core.api.util.StreamingUtils.updateTypedValueForStreaming;
 
+import static java.lang.Integer.getInteger;
 import static java.lang.String.format;
 import static java.lang.Thread.currentThread;
 
+import static com.github.benmanes.caffeine.cache.Caffeine.newBuilder;
 import static org.slf4j.LoggerFactory.getLogger;
 
 import org.mule.metadata.message.api.el.TypeBindings;
 import org.mule.runtime.api.component.location.ComponentLocation;
+import org.mule.runtime.api.el.Binding;
 import org.mule.runtime.api.el.BindingContext;
 import org.mule.runtime.api.el.CompiledExpression;
 import org.mule.runtime.api.el.DefaultValidationResult;
@@ -44,20 +48,33 @@ import org.mule.runtime.core.api.event.CoreEvent.Builder;
 import org.mule.runtime.core.api.expression.ExpressionRuntimeException;
 import org.mule.runtime.core.api.streaming.StreamingManager;
 import org.mule.runtime.core.api.transformer.TransformerException;
+import org.mule.runtime.core.internal.el.TemplateParser.TemplateCallback;
 import org.mule.runtime.core.internal.transformer.TransformersRegistry;
 import org.mule.runtime.core.internal.util.log.OneTimeWarning;
 
+import java.io.IOException;
+import java.io.Writer;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import javax.inject.Inject;
 
+import com.github.benmanes.caffeine.cache.Cache;
 import org.slf4j.Logger;
 
 public class DefaultExpressionManager implements ExtendedExpressionManager, Initialisable {
 
   private static final Logger LOGGER = getLogger(DefaultExpressionManager.class);
 
+  /**
+   * Max amount of entries of each of the caches of parsed and compiled expressions and templates.
+   */
+  public static final String EXPRESSIONS_CACHE_SIZE_PROPERTY = SYSTEM_PROPERTY_PREFIX + "expressions.cacheSize";
+  private static final int EXPRESSIONS_CACHE_SIZE = getInteger(EXPRESSIONS_CACHE_SIZE_PROPERTY, 1024);
+
   private final OneTimeWarning parseWarning = new OneTimeWarning(LOGGER,
                                                                  "Expression parsing is deprecated, regular expressions should be used instead.");
 
@@ -68,9 +85,17 @@ public class DefaultExpressionManager implements ExtendedExpressionManager, Init
   // Default style parser
   private final TemplateParser parser = TemplateParser.createMuleStyleParser();
 
+  // Expressions are usually static values from the config, so the same ones are evaluated over and over
+  private final Cache<String, TrivialExpression> trivialExpressions = newBuilder().maximumSize(EXPRESSIONS_CACHE_SIZE).build();
+  private final Cache<CompilationKey, CompiledExpression> compiledExpressions =
+      newBuilder().maximumSize(EXPRESSIONS_CACHE_SIZE).build();
+  private final Cache<String, CompiledTemplate> compiledTemplates = newBuilder().maximumSize(EXPRESSIONS_CACHE_SIZE).build();
+
   @Override
   public void addGlobalBindings(BindingContext bindingContext) {
     expressionLanguage.addGlobalBindings(bindingContext);
+    // compilation results depend on the global bindings
+    compiledExpressions.invalidateAll();
   }
 
   @Override
@@ -113,6 +138,16 @@ public class DefaultExpressionManager implements ExtendedExpressionManager, Init
   private TypedValue<?> evaluate(String expression, CoreEvent event, CoreEvent.Builder eventBuilder,
                                  ComponentLocation componentLocation,
                                  BindingContext context) {
+    if (event != null && isEventOnlyContext(context)) {
+      TrivialExpression trivialExpression = trivialExpressions.get(expression, TrivialExpression::parse);
+      if (trivialExpression.isTrivial()) {
+        TypedValue<?> resolved = trivialExpression.resolve(event);
+        if (resolved != null) {
+          return updateTypedValueForStreaming(resolved, event, getStreamingManager());
+        }
+      }
+    }
+
     return updateTypedValueForStreaming(expressionLanguage.evaluate(expression, event, eventBuilder, componentLocation, context),
                                         event, getStreamingManager());
   }
@@ -141,6 +176,16 @@ public class DefaultExpressionManager implements ExtendedExpressionManager, Init
   public TypedValue<?> evaluate(String expression, DataType outputType, BindingContext context, CoreEvent event,
                                 ComponentLocation componentLocation, boolean failOnNull)
       throws ExpressionRuntimeException {
+    if (event != null && isEventOnlyContext(context)) {
+      TrivialExpression trivialExpression = trivialExpressions.get(expression, TrivialExpression::parse);
+      if (trivialExpression.isTrivial()) {
+        TypedValue<?> resolved = trivialExpression.resolve(event, outputType);
+        if (resolved != null) {
+          return updateTypedValueForStreaming(resolved, event, getStreamingManager());
+        }
+      }
+    }
+
     return updateTypedValueForStreaming(expressionLanguage.evaluate(expression, outputType, event, componentLocation, context,
                                                                     failOnNull),
                                         event, getStreamingManager());
@@ -155,9 +200,17 @@ public class DefaultExpressionManager implements ExtendedExpressionManager, Init
     }
   }
 
+  /**
+   * Trivial expressions can only be resolved over the event when no other bindings may shadow the event ones.
+   */
+  private static boolean isEventOnlyContext(BindingContext context) {
+    return context == null || context == NULL_BINDING_CONTEXT;
+  }
+
   @Override
   public CompiledExpression compile(String expression, BindingContext context) throws ExpressionCompilationException {
-    return expressionLanguage.compile(expression, context);
+    return compiledExpressions.get(new CompilationKey(expression, context),
+                                   key -> expressionLanguage.compile(expression, context));
   }
 
   @Override
@@ -251,8 +304,40 @@ public class DefaultExpressionManager implements ExtendedExpressionManager, Init
   public String parseLogTemplate(String template, CoreEvent event, ComponentLocation componentLocation,
                                  BindingContext bindingContext)
       throws ExpressionRuntimeException {
-
-    return parser.parse(token -> {
+    return compileLogTemplate(template).render(logTemplateCallback(event, componentLocation, bindingContext));
+  }
+
+  /**
+   * @param template the string template featuring inner expressions to parse
+   * @return the template compiled, to render it many times without parsing it again
+   * @since 4.8.0
+   */
+  public CompiledTemplate compileLogTemplate(String template) {
+    return compiledTemplates.get(template, parser::compile);
+  }
+
+  /**
+   * Renders a template the same way as {@link #parseLogTemplate(String, CoreEvent, ComponentLocation, BindingContext)}, but
+   * writing the result into {@code writer} as each part is evaluated.
+   *
+   * @param template          the template, as returned by {@link #compileLogTemplate(String)}
+   * @param event             the current event being processed
+   * @param componentLocation the location of the component where the event is being processed
+   * @param bindingContext    the bindings to consider
+   * @param writer            where to write the result of the evaluation
+   * @throws ExpressionRuntimeException if a problem occurs evaluating the expression
+   * @throws IOException                if writing fails
+   * @since 4.8.0
+   */
+  public void parseLogTemplate(CompiledTemplate template, CoreEvent event, ComponentLocation componentLocation,
+                               BindingContext bindingContext, Writer writer)
+      throws IOException {
+    template.render(logTemplateCallback(event, componentLocation, bindingContext), writer);
+  }
+
+  private TemplateCallback logTemplateCallback(CoreEvent event, ComponentLocation componentLocation,
+                                               BindingContext bindingContext) {
+    return token -> {
       TypedValue<?> evaluation = expressionLanguage.evaluateLogExpression(token, event, componentLocation, bindingContext);
       if (evaluation.getValue() instanceof Message) {
         // Do not apply transformation to Message since payload will be considered then
@@ -267,7 +352,7 @@ public class DefaultExpressionManager implements ExtendedExpressionManager, Init
                                                                         STRING)),
                                              e);
       }
-    }, template);
+    };
   }
 
   @Override
@@ -357,6 +442,45 @@ public class DefaultExpressionManager implements ExtendedExpressionManager, Init
     return this.getClass().getName() + "[" + (expressionLanguage != null ? expressionLanguage.toString() : "null") + "]";
   }
 
+  /**
+   * Compiling an expression only depends on its text and on the names and types of the bindings it may reference, not on their
+   * values.
+   */
+  private static final class CompilationKey {
+
+    private final String expression;
+    private final Map<String, DataType> bindingTypes;
+    private final int hashCode;
+
+    private CompilationKey(String expression, BindingContext context) {
+      this.expression = expression;
+      this.bindingTypes = new HashMap<>();
+      if (context != null) {
+        for (Binding binding : context.bindings()) {
+          bindingTypes.put(binding.identifier(), binding.value().getDataType());
+        }
+      }
+      this.hashCode = Objects.hash(expression, bindingTypes);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (this == obj) {
+        return true;
+      }
+      if (!(obj instanceof CompilationKey)) {
+        return false;
+      }
+      CompilationKey other = (CompilationKey) obj;
+      return hashCode == other.hashCode && expression.equals(other.expression) && bindingTypes.equals(other.bindingTypes);
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+  }
+
   @Override
   public void initialise() throws InitialisationException {
     initialiseIfNeeded(expressionLanguage);
@@ -155,11 +155,46 @@ public final class TemplateParser {
   }
 
   private String parseMule(Map<?, ?> props, String template, TemplateCallback callback, int depth) {
-    validateBalanceMuleStyle(template);
+    List<String> literals = new ArrayList<>();
+    List<String> expressions = new ArrayList<>();
+    tokenizeMule(template, literals, expressions);
 
     // Will be storing the tokens candidate for callback evaluation
     Map<String, String> tokens = new LinkedHashMap<>();
 
+    StringBuilder result = new StringBuilder(literals.get(0));
+    for (int i = 0; i < expressions.size(); i++) {
+      // TODO: performance - pool the IDs and use compiled Patterns
+      // The token ID needs to be valid in any context in which the original expression was valid -> using an integer
+      String tokenId = '1' + format("%010d", RANDOM.nextInt() & MAX_VALUE);
+      // Remember the token and its associated ID
+      tokens.put(tokenId, expressions.get(i));
+      // Append the token ID on the result as a reference, so we can replace it at the end with the evaluated token value
+      result.append(tokenId).append(literals.get(i + 1));
+    }
+
+    // At this point we evaluate the tokenized template
+    // depth > 0 is because the root template is not an actual token on itself, so it shouldn't be evaluated by the callback
+    String evaluatedTokenizedTemplate = depth > 0 ? evaluateToken(callback, result.toString()) : result.toString();
+
+    // Parses any token found and replaces on the tokenized result
+    for (Map.Entry<String, String> tokenEntry : tokens.entrySet()) {
+      // TODO: performance - avoid parsing the value if there is no match
+      evaluatedTokenizedTemplate = evaluatedTokenizedTemplate.replace(tokenEntry.getKey(),
+                                                                      parseMule(props, tokenEntry.getValue(), callback,
+                                                                                depth + 1));
+    }
+
+    return evaluatedTokenizedTemplate;
+  }
+
+  /**
+   * Splits a Mule style template into its literal parts and the expressions between them, so there is always one more literal
+   * than expressions.
+   */
+  private void tokenizeMule(String template, List<String> literals, List<String> expressions) {
+    validateBalanceMuleStyle(template);
+
     boolean lastIsBackSlash = false;
     boolean lastStartedExpression = false;
     boolean inExpression = false;
@@ -192,14 +227,9 @@ public final class TemplateParser {
 
       if (c == OPEN_EXPRESSION && lastStartedExpression) {
         int closing = closingBracesPosition(template, currentPosition);
-        String enclosingTemplate = template.substring(currentPosition + 1, closing);
-        // TODO: performance - pool the IDs and use compiled Patterns
-        // The token ID needs to be valid in any context in which the original expression was valid -> using an integer
-        String tokenId = '1' + format("%010d", RANDOM.nextInt() & MAX_VALUE);
-        // Remember the token and its associated ID
-        tokens.put(tokenId, enclosingTemplate);
-        // Append the token ID on the result as a reference, so we can replace it at the end with the evaluated token value
-        result.append(tokenId);
+        literals.add(result.toString());
+        result.setLength(0);
+        expressions.add(template.substring(currentPosition + 1, closing));
         currentPosition = closing;
       } else if ((c != START_EXPRESSION || lastIsBackSlash) && c != '\\') {
         result.append(c);
@@ -210,22 +240,62 @@ public final class TemplateParser {
       currentPosition++;
     }
 
-    // At this point we evaluate the tokenized template
-    // depth > 0 is because the root template is not an actual token on itself, so it shouldn't be evaluated by the callback
-    String evaluatedTokenizedTemplate = depth > 0 ? evaluateToken(callback, result.toString()) : result.toString();
+    literals.add(result.toString());
+  }
 
-    // Parses any token found and replaces on the tokenized result
-    for (Map.Entry<String, String> tokenEntry : tokens.entrySet()) {
-      // TODO: performance - avoid parsing the value if there is no match
-      evaluatedTokenizedTemplate = evaluatedTokenizedTemplate.replace(tokenEntry.getKey(),
-                                                                      parseMule(props, tokenEntry.getValue(), callback,
-                                                                                depth + 1));
+  /**
+   * Compiles the given template, so that it can be rendered any number of times without parsing it again.
+   * <p>
+   * Only Mule style templates are actually compiled. For other styles, or when the compatibility mode is enabled, the returned
+   * template just parses the given one each time it is rendered.
+   *
+   * @param template the string containing the template place holders i.e. My name is #[name]
+   * @return the compiled template
+   * @throws IllegalArgumentException if the template is not valid
+   * @since 4.8.0
+   */
+  public CompiledTemplate compile(String template) {
+    if (!styleIs(WIGGLY_MULE_TEMPLATE_STYLE) || IS_COMPATIBILITY_MODE_ENABLED) {
+      return new CompiledTemplate(this, template);
     }
 
-    return evaluatedTokenizedTemplate;
+    List<String> literals = new ArrayList<>();
+    List<String> expressions = new ArrayList<>();
+    tokenizeMule(template, literals, expressions);
+
+    String[] evaluatedExpressions = new String[expressions.size()];
+    boolean[] nestedExpressions = new boolean[expressions.size()];
+    for (int i = 0; i < expressions.size(); i++) {
+      List<String> expressionLiterals = new ArrayList<>(1);
+      List<String> nested = new ArrayList<>(0);
+      try {
+        tokenizeMule(expressions.get(i), expressionLiterals, nested);
+      } catch (IllegalArgumentException e) {
+        // let it fail when rendering, as it would when parsing
+        nested.add(expressions.get(i));
+      }
+
+      if (nested.isEmpty()) {
+        // what the callback gets for an expression without nested ones
+        evaluatedExpressions[i] = expressionLiterals.get(0);
+      } else {
+        evaluatedExpressions[i] = expressions.get(i);
+        nestedExpressions[i] = true;
+      }
+    }
+
+    return new CompiledTemplate(this, template, literals.toArray(new String[literals.size()]), evaluatedExpressions,
+                                nestedExpressions);
+  }
+
+  /**
+   * Evaluates an expression which has other expressions nested in it, as {@link #parse(TemplateCallback, String)} does.
+   */
+  String evaluateNestedExpression(String expression, TemplateCallback callback) {
+    return parseMule(null, expression, callback, 1);
   }
 
-  private String evaluateToken(TemplateCallback callback, String token) {
+  String evaluateToken(TemplateCallback callback, String token) {
     Object result = callback.match(token);
     if (result == null) {
       return NULL_AS_STRING;
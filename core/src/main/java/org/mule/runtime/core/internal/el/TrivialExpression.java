@@ -0,0 +1,163 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.el;
+
+import static org.mule.runtime.api.el.BindingContextUtils.ATTRIBUTES;
+import static org.mule.runtime.api.el.BindingContextUtils.PAYLOAD;
+import static org.mule.runtime.api.el.BindingContextUtils.VARS;
+import static org.mule.runtime.api.metadata.DataType.fromObject;
+import static org.mule.runtime.api.metadata.MediaType.ANY;
+import static org.mule.runtime.api.metadata.MediaType.APPLICATION_JAVA;
+import static org.mule.runtime.api.metadata.MediaType.TEXT;
+import static org.mule.runtime.core.api.el.ExpressionManager.DEFAULT_EXPRESSION_POSTFIX;
+import static org.mule.runtime.core.api.el.ExpressionManager.DEFAULT_EXPRESSION_PREFIX;
+
+import static java.util.regex.Pattern.compile;
+
+import org.mule.runtime.api.metadata.DataType;
+import org.mule.runtime.api.metadata.MediaType;
+import org.mule.runtime.api.metadata.TypedValue;
+import org.mule.runtime.api.streaming.CursorProvider;
+import org.mule.runtime.api.util.MultiMap;
+import org.mule.runtime.core.api.event.CoreEvent;
+
+import java.io.InputStream;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A selector expression which is simple enough to be resolved directly over a {@link CoreEvent}, without going through the
+ * expression language. These are {@code payload}, {@code attributes} and {@code vars.name}, optionally followed by key selectors
+ * over {@link Map} values, such as {@code vars.name.key}.
+ * <p>
+ * Resolution only succeeds when the result is guaranteed to be the same the expression language would return. Whenever a
+ * selected value is missing, or a selector is applied on something other than a plain {@link Map}, {@link #resolve(CoreEvent)}
+ * returns {@code null} so that the expression is evaluated by the expression language, which defines the semantics of those
+ * cases.
+ *
+ * @since 4.8.0
+ */
+final class TrivialExpression {
+
+  /**
+   * Returned by {@link #parse(String)} for expressions which are not trivial, so that they can be cached as well.
+   */
+  static final TrivialExpression NOT_TRIVIAL = new TrivialExpression(null, new String[0]);
+
+  private static final Pattern SELECTOR =
+      compile("\\s*(" + PAYLOAD + "|" + ATTRIBUTES + "|" + VARS + ")((?:\\.[A-Za-z_][A-Za-z0-9_]*)*)\\s*");
+
+  private final String root;
+  private final String[] path;
+
+  private TrivialExpression(String root, String[] path) {
+    this.root = root;
+    this.path = path;
+  }
+
+  /**
+   * @param expression an expression, with or without the expression markers
+   * @return the parsed expression, or {@link #NOT_TRIVIAL} if it can't be resolved directly
+   */
+  static TrivialExpression parse(String expression) {
+    String script = expression;
+    if (script.startsWith(DEFAULT_EXPRESSION_PREFIX)) {
+      if (!script.endsWith(DEFAULT_EXPRESSION_POSTFIX)) {
+        return NOT_TRIVIAL;
+      }
+      script = script.substring(DEFAULT_EXPRESSION_PREFIX.length(), script.length() - DEFAULT_EXPRESSION_POSTFIX.length());
+    }
+
+    Matcher matcher = SELECTOR.matcher(script);
+    if (!matcher.matches()) {
+      return NOT_TRIVIAL;
+    }
+
+    String root = matcher.group(1);
+    String selectors = matcher.group(2);
+    String[] path = selectors.isEmpty() ? new String[0] : selectors.substring(1).split("\\.");
+
+    // the vars binding itself is an object built by the expression language
+    if (VARS.equals(root) && path.length == 0) {
+      return NOT_TRIVIAL;
+    }
+
+    return new TrivialExpression(root, path);
+  }
+
+  boolean isTrivial() {
+    return this != NOT_TRIVIAL;
+  }
+
+  /**
+   * @param event the event to resolve the expression against
+   * @return the result of the expression, or {@code null} if it has to be evaluated by the expression language
+   */
+  TypedValue<?> resolve(CoreEvent event) {
+    TypedValue<?> current;
+    int selector = 0;
+    if (PAYLOAD.equals(root)) {
+      current = event.getMessage().getPayload();
+    } else if (ATTRIBUTES.equals(root)) {
+      current = event.getMessage().getAttributes();
+    } else {
+      current = event.getVariables().get(path[selector++]);
+      if (current == null) {
+        return null;
+      }
+    }
+
+    for (; selector < path.length; selector++) {
+      Object value = current.getValue();
+      // multi maps have repeated keys semantics in the expression language
+      if (!(value instanceof Map) || value instanceof MultiMap) {
+        return null;
+      }
+
+      Object selected = ((Map<?, ?>) value).get(path[selector]);
+      if (selected == null) {
+        return null;
+      }
+      current = selected instanceof TypedValue ? (TypedValue<?>) selected : new TypedValue<>(selected, fromObject(selected));
+    }
+
+    return current;
+  }
+
+  /**
+   * @param event      the event to resolve the expression against
+   * @param outputType the type the result is expected to have
+   * @return the result of the expression, or {@code null} if it has to be evaluated by the expression language, either because
+   *         of {@link #resolve(CoreEvent)} or because the result requires a transformation to the {@code outputType}
+   */
+  TypedValue<?> resolve(CoreEvent event, DataType outputType) {
+    TypedValue<?> resolved = resolve(event);
+    if (resolved == null) {
+      return null;
+    }
+
+    Object value = resolved.getValue();
+    if (value == null || !outputType.getType().isInstance(value)) {
+      return null;
+    }
+
+    // values that the expression language would have to read according to their media type
+    if (value instanceof InputStream || value instanceof CursorProvider) {
+      return null;
+    }
+    if (value instanceof CharSequence && !isPlainText(resolved.getDataType().getMediaType())) {
+      return null;
+    }
+
+    return resolved;
+  }
+
+  private static boolean isPlainText(MediaType mediaType) {
+    return ANY.matches(mediaType) || TEXT.matches(mediaType) || APPLICATION_JAVA.matches(mediaType);
+  }
+}
@@ -10,6 +10,7 @@ import static com.google.common.base.Functions.identity;
 import static java.lang.String.format;
 import static java.lang.System.lineSeparator;
 import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.atomic.AtomicReferenceFieldUpdater.newUpdater;
 import static java.util.stream.Collectors.joining;
 import static org.apache.commons.lang3.StringUtils.leftPad;
 import static org.mule.runtime.api.functional.Either.left;
@@ -18,7 +19,6 @@ import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.disposeIfNeeded
 import static reactor.core.publisher.Mono.empty;
 
 import org.mule.runtime.api.functional.Either;
-import org.mule.runtime.api.util.LazyValue;
 import org.mule.runtime.core.api.context.notification.FlowCallStack;
 import org.mule.runtime.core.api.event.CoreEvent;
 import org.mule.runtime.core.api.exception.FlowExceptionHandler;
@@ -29,10 +29,10 @@ import org.mule.runtime.core.privileged.event.BaseEventContext;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Queue;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 
@@ -46,6 +46,9 @@ import reactor.core.publisher.MonoSink;
 
 /**
  * Base class for implementations of {@link BaseEventContext}
+ * <p>
+ * Since an instance is created for every event and every child context, the structures that hold child contexts and callbacks
+ * are only allocated when first needed. Child contexts are tracked in a lock-free queue.
  *
  * @since 4.0
  */
@@ -60,23 +63,26 @@ abstract class AbstractEventContext implements SpanContextAware, BaseEventContex
   private static final Logger LOGGER = LoggerFactory.getLogger(AbstractEventContext.class);
   private static final FlowExceptionHandler NULL_EXCEPTION_HANDLER = NullExceptionHandler.getInstance();
 
+  private static final AtomicReferenceFieldUpdater<AbstractEventContext, Queue> CHILD_CONTEXTS_UPDATER =
+      newUpdater(AbstractEventContext.class, Queue.class, "childContexts");
+
   private final boolean debugLogEnabled = LOGGER.isDebugEnabled();
-  private transient final List<BaseEventContext> childContexts = new ArrayList<>();
+  private transient volatile Queue<BaseEventContext> childContexts;
   private transient final FlowExceptionHandler exceptionHandler;
   private transient final CompletableFuture<Void> externalCompletion;
-  private transient List<BiConsumer<CoreEvent, Throwable>> onBeforeResponseConsumerList = new ArrayList<>();
-  private transient List<BiConsumer<CoreEvent, Throwable>> onResponseConsumerList = new ArrayList<>();
-  private transient List<BiConsumer<CoreEvent, Throwable>> onCompletionConsumerList = new ArrayList<>(2);
-  private transient List<BiConsumer<CoreEvent, Throwable>> onTerminatedConsumerList = new ArrayList<>();
 
-  private final ReadWriteLock childContextsReadWriteLock = new ReentrantReadWriteLock();
+  // These are only accessed while holding this context's monitor
+  private transient List<BiConsumer<CoreEvent, Throwable>> onBeforeResponseConsumerList;
+  private transient List<BiConsumer<CoreEvent, Throwable>> onResponseConsumerList;
+  private transient List<BiConsumer<CoreEvent, Throwable>> onCompletionConsumerList;
+  private transient List<BiConsumer<CoreEvent, Throwable>> onTerminatedConsumerList;
 
   private final int depthLevel;
 
   private volatile byte state = STATE_READY;
   private volatile Either<Throwable, CoreEvent> result;
 
-  private LazyValue<ResponsePublisher> responsePublisher = new LazyValue<>(ResponsePublisher::new);
+  private ResponsePublisher responsePublisher;
 
   protected FlowCallStack flowCallStack;
 
@@ -98,31 +104,14 @@ abstract class AbstractEventContext implements SpanContextAware, BaseEventContex
     this.exceptionHandler = exceptionHandler;
   }
 
-  protected void initCompletionLists() {
-    if (onBeforeResponseConsumerList == null) {
-      onBeforeResponseConsumerList = new ArrayList<>();
-    }
-
-    if (onResponseConsumerList == null) {
-      onResponseConsumerList = new ArrayList<>();
-    }
-
-    if (onCompletionConsumerList == null) {
-      onCompletionConsumerList = new ArrayList<>(2);
-    }
-
-    if (onTerminatedConsumerList == null) {
-      onTerminatedConsumerList = new ArrayList<>();
-    }
-  }
-
   void addChildContext(BaseEventContext childContext) {
-    childContextsReadWriteLock.writeLock().lock();
-    try {
-      childContexts.add(childContext);
-    } finally {
-      childContextsReadWriteLock.writeLock().unlock();
+    Queue<BaseEventContext> children = childContexts;
+    if (children == null) {
+      CHILD_CONTEXTS_UPDATER.compareAndSet(this, null, new ConcurrentLinkedQueue<BaseEventContext>());
+      children = childContexts;
     }
+
+    children.add(childContext);
   }
 
   /**
@@ -198,31 +187,22 @@ abstract class AbstractEventContext implements SpanContextAware, BaseEventContex
 
   private synchronized void responseDone(Either<Throwable, CoreEvent> result) {
     this.result = result;
-    responsePublisher.ifComputed(rp -> rp.result = result);
+    if (responsePublisher != null) {
+      responsePublisher.result = result;
+    }
 
     state = STATE_RESPONSE;
 
-    for (BiConsumer<CoreEvent, Throwable> onBeforeResponseConsumer : onBeforeResponseConsumerList) {
-      signalConsumerSilently(onBeforeResponseConsumer);
-    }
-    onBeforeResponseConsumerList.clear();
+    signalConsumersSilently(onBeforeResponseConsumerList);
+    onBeforeResponseConsumerList = null;
 
-    for (BiConsumer<CoreEvent, Throwable> onResponseConsumer : onResponseConsumerList) {
-      signalConsumerSilently(onResponseConsumer);
-    }
-    onResponseConsumerList.clear();
+    signalConsumersSilently(onResponseConsumerList);
+    onResponseConsumerList = null;
     tryComplete();
   }
 
   protected void tryComplete() {
-    boolean allChildrenComplete;
-
-    getChildContextsReadLock().lock();
-    try {
-      allChildrenComplete = childContexts.stream().allMatch(BaseEventContext::isComplete);
-    } finally {
-      getChildContextsReadLock().unlock();
-    }
+    final boolean allChildrenComplete = allChildrenComplete();
 
     synchronized (this) {
       if (state == STATE_RESPONSE && allChildrenComplete) {
@@ -231,10 +211,8 @@ abstract class AbstractEventContext implements SpanContextAware, BaseEventContex
         }
         this.state = STATE_COMPLETE;
 
-        for (BiConsumer<CoreEvent, Throwable> consumer : onCompletionConsumerList) {
-          signalConsumerSilently(consumer);
-        }
-        onCompletionConsumerList.clear();
+        signalConsumersSilently(onCompletionConsumerList);
+        onCompletionConsumerList = null;
         getParentContext().ifPresent(context -> {
           if (context instanceof AbstractEventContext) {
             ((AbstractEventContext) context).tryComplete();
@@ -252,33 +230,56 @@ abstract class AbstractEventContext implements SpanContextAware, BaseEventContex
       }
       this.state = STATE_TERMINATED;
 
-      for (BiConsumer<CoreEvent, Throwable> consumer : onTerminatedConsumerList) {
-        signalConsumerSilently(consumer);
-      }
-      onTerminatedConsumerList.clear();
+      signalConsumersSilently(onTerminatedConsumerList);
+      onTerminatedConsumerList = null;
 
-      getChildContextsWriteLock().lock();
-      try {
-        this.childContexts.clear();
-      } finally {
-        getChildContextsWriteLock().unlock();
-      }
+      this.childContexts = null;
 
-      getParentContext().ifPresent(context -> {
-        AbstractEventContext parent = (AbstractEventContext) context;
-        parent.getChildContextsWriteLock().lock();
-        try {
-          parent.childContexts.remove(this);
-        } finally {
-          parent.getChildContextsWriteLock().unlock();
-        }
-      });
+      getParentContext().ifPresent(context -> ((AbstractEventContext) context).removeChildContext(this));
 
       result = null;
       responsePublisher = null;
     }
   }
 
+  private boolean allChildrenComplete() {
+    final Queue<BaseEventContext> children = childContexts;
+    if (children != null) {
+      for (BaseEventContext child : children) {
+        if (!child.isComplete()) {
+          return false;
+        }
+      }
+    }
+
+    return true;
+  }
+
+  private void removeChildContext(BaseEventContext childContext) {
+    final Queue<BaseEventContext> children = childContexts;
+    if (children != null) {
+      children.remove(childContext);
+    }
+  }
+
+  private void signalConsumersSilently(List<BiConsumer<CoreEvent, Throwable>> consumers) {
+    if (consumers != null) {
+      for (BiConsumer<CoreEvent, Throwable> consumer : consumers) {
+        signalConsumerSilently(consumer);
+      }
+    }
+  }
+
+  private static List<BiConsumer<CoreEvent, Throwable>> addConsumer(List<BiConsumer<CoreEvent, Throwable>> consumers,
+                                                                    BiConsumer<CoreEvent, Throwable> consumer) {
+    if (consumers == null) {
+      consumers = new ArrayList<>(2);
+    }
+
+    consumers.add(requireNonNull(consumer));
+    return consumers;
+  }
+
   private void signalConsumerSilently(BiConsumer<CoreEvent, Throwable> consumer) {
     try {
       consumer.accept(result.getRight(), result.getLeft());
@@ -319,7 +320,7 @@ abstract class AbstractEventContext implements SpanContextAware, BaseEventContex
     if (state >= STATE_TERMINATED) {
       signalConsumerSilently(consumer);
     } else {
-      onTerminatedConsumerList.add(requireNonNull(consumer));
+      onTerminatedConsumerList = addConsumer(onTerminatedConsumerList, consumer);
     }
   }
 
@@ -328,7 +329,7 @@ abstract class AbstractEventContext implements SpanContextAware, BaseEventContex
     if (state >= STATE_COMPLETE) {
       signalConsumerSilently(consumer);
     } else {
-      onCompletionConsumerList.add(requireNonNull(consumer));
+      onCompletionConsumerList = addConsumer(onCompletionConsumerList, consumer);
     }
   }
 
@@ -337,7 +338,7 @@ abstract class AbstractEventContext implements SpanContextAware, BaseEventContex
     if (state >= STATE_RESPONSE) {
       signalConsumerSilently(consumer);
     } else {
-      onBeforeResponseConsumerList.add(requireNonNull(consumer));
+      onBeforeResponseConsumerList = addConsumer(onBeforeResponseConsumerList, consumer);
     }
   }
 
@@ -346,7 +347,7 @@ abstract class AbstractEventContext implements SpanContextAware, BaseEventContex
     if (state >= STATE_RESPONSE) {
       signalConsumerSilently(consumer);
     } else {
-      onResponseConsumerList.add(requireNonNull(consumer));
+      onResponseConsumerList = addConsumer(onResponseConsumerList, consumer);
     }
   }
 
@@ -356,20 +357,26 @@ abstract class AbstractEventContext implements SpanContextAware, BaseEventContex
       throw new IllegalStateException("getResponsePublisher() cannot be called after eventContext termination.");
     }
 
-    return Mono.create(responsePublisher.get());
+    if (responsePublisher == null) {
+      responsePublisher = new ResponsePublisher(result);
+    }
+
+    return Mono.create(responsePublisher);
   }
 
   public void forEachChild(Consumer<BaseEventContext> childConsumer) {
-    getChildContextsReadLock().lock();
-    try {
-      childContexts.stream().filter(context -> !context.isTerminated()).forEach(context -> {
+    final Queue<BaseEventContext> children = childContexts;
+    if (children == null) {
+      return;
+    }
+
+    for (BaseEventContext context : children) {
+      if (!context.isTerminated()) {
         childConsumer.accept(context);
         if (context instanceof AbstractEventContext) {
           ((AbstractEventContext) context).forEachChild(childConsumer);
         }
-      });
-    } finally {
-      getChildContextsReadLock().unlock();
+      }
     }
   }
 
@@ -381,6 +388,10 @@ abstract class AbstractEventContext implements SpanContextAware, BaseEventContex
 
     private volatile Either<Throwable, CoreEvent> result;
 
+    private ResponsePublisher(Either<Throwable, CoreEvent> result) {
+      this.result = result;
+    }
+
     @Override
     public void accept(MonoSink<CoreEvent> sink) {
       if (isResponseDone()) {
@@ -416,20 +427,17 @@ abstract class AbstractEventContext implements SpanContextAware, BaseEventContex
     return depthLevel;
   }
 
-  public Lock getChildContextsReadLock() {
-    return childContextsReadWriteLock.readLock();
-  }
-
-  public Lock getChildContextsWriteLock() {
-    return childContextsReadWriteLock.writeLock();
-  }
-
   protected abstract String basicToString();
 
   protected final String detailedToString(int level, BaseEventContext highlight) {
+    final Queue<BaseEventContext> children = childContexts;
+    if (children == null) {
+      return (this == highlight ? "=> " : "") + basicToString() + lineSeparator();
+    }
+
     return (this == highlight ? "=> " : "") + basicToString()
         + lineSeparator()
-        + childContexts.stream()
+        + children.stream()
             .map(ctx -> leftPad("", (1 + level) * TO_STRING_TAB_SIZE)
                 + ((AbstractEventContext) ctx).detailedToString(1 + level, highlight))
             .collect(joining(lineSeparator()));
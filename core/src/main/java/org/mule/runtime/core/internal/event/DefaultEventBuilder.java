@@ -10,7 +10,6 @@ import static org.mule.runtime.api.el.BindingContextUtils.NULL_BINDING_CONTEXT;
 import static org.mule.runtime.api.el.BindingContextUtils.addEventBindings;
 import static org.mule.runtime.api.util.collection.SmallMap.copy;
 import static org.mule.runtime.api.util.collection.SmallMap.unmodifiable;
-import static org.mule.runtime.core.api.util.CaseInsensitiveHashMap.basedOn;
 import static org.mule.runtime.core.api.util.CaseInsensitiveHashMap.emptyCaseInsensitiveMap;
 import static org.mule.runtime.core.internal.message.EventInternalContext.copyOf;
 import static org.mule.runtime.core.internal.util.message.ItemSequenceInfoUtils.fromGroupCorrelation;
@@ -109,9 +108,7 @@ public class DefaultEventBuilder implements InternalEvent.Builder {
 
     this.loggingVariables = (CaseInsensitiveHashMap<String, String>) event.getLoggingVariables().orElse(null);
     if (loggingVariables != null) {
-      CaseInsensitiveHashMap<String, String> loggingVariablesCopyMap = new CaseInsensitiveHashMap<>();
-      loggingVariablesCopyMap.putAll(loggingVariables);
-      this.loggingVariables = loggingVariablesCopyMap;
+      this.loggingVariables = EventVariablesMap.copyOf(loggingVariables);
     }
     this.internalParameters = (Map<String, Object>) event.getInternalParameters();
     flowProcessMediatorContext = copyOf(event.getFlowProcessMediatorContext());
@@ -216,7 +213,7 @@ public class DefaultEventBuilder implements InternalEvent.Builder {
 
   @Override
   public CoreEvent.Builder parameters(Map<String, ?> parameters) {
-    this.parameters = new CaseInsensitiveHashMap<>();
+    this.parameters = new EventVariablesMap<>();
     copyFromTo(parameters, this.parameters);
 
     parametersModified = true;
@@ -234,7 +231,7 @@ public class DefaultEventBuilder implements InternalEvent.Builder {
   @Override
   public PrivilegedEvent.Builder addLoggingVariable(String key, String value) {
     if (loggingVariables == null) {
-      loggingVariables = new CaseInsensitiveHashMap<>();
+      loggingVariables = new EventVariablesMap<>();
     }
     loggingVariables.put(key, value);
     modified = true;
@@ -273,7 +270,7 @@ public class DefaultEventBuilder implements InternalEvent.Builder {
     if ((flowVariables != null && !this.flowVariables.isEmpty()) || !this.originalVars.isEmpty()) {
       this.varsModified = true;
       this.modified = true;
-      flowVariables = basedOn(new SmallMap<>());
+      flowVariables = new EventVariablesMap<>();
     }
     return this;
   }
@@ -373,7 +370,7 @@ public class DefaultEventBuilder implements InternalEvent.Builder {
 
   protected void initVariables() {
     if (!varsModified && flowVariables == null) {
-      flowVariables = originalVars.copy();
+      flowVariables = EventVariablesMap.copyOf(originalVars);
     }
   }
 
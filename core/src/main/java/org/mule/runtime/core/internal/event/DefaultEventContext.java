@@ -281,7 +281,6 @@ public final class DefaultEventContext extends AbstractEventContext implements S
 
   void createStreamingState() {
     if (streamingState == null) {
-      initCompletionLists();
       streamingState = new EventStreamingState();
       onTerminated((event, e) -> streamingState.dispose());
     }
@@ -0,0 +1,480 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.event;
+
+import static java.lang.Character.toLowerCase;
+import static java.lang.Character.toUpperCase;
+import static java.lang.Integer.highestOneBit;
+import static java.lang.Math.max;
+
+import org.mule.runtime.core.api.util.CaseInsensitiveHashMap;
+
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * A {@link CaseInsensitiveHashMap} for the variables, parameters and logging variables of an event, optimized for being copied
+ * each time an event is built from another one.
+ * <p>
+ * Entries are kept in open addressing tables, along with the hash of their case-folded key, so that lookups don't need to build
+ * a lower case version of the key. Copies share the table of the map they were copied from, and only the entries added or
+ * removed afterwards are kept in a small table of their own. When that table grows past {@link #MAX_DELTA_SIZE} entries, both
+ * tables are merged into a new one, so adding a variable to an event copies at most that amount of entries instead of all of
+ * them.
+ * <p>
+ * Iteration follows insertion order, and keys keep the case they had when first added.
+ *
+ * @since 4.8.0
+ */
+public final class EventVariablesMap<V> extends CaseInsensitiveHashMap<String, V> {
+
+  private static final long serialVersionUID = 5389364137290371872L;
+
+  static final int MAX_DELTA_SIZE = 8;
+
+  /**
+   * @param map the map to copy
+   * @return a mutable copy of the given {@code map}, sharing its entries if it is an {@link EventVariablesMap}
+   */
+  public static <V> EventVariablesMap<V> copyOf(Map<String, V> map) {
+    if (map instanceof EventVariablesMap) {
+      return ((EventVariablesMap<V>) map).copy();
+    }
+
+    EventVariablesMap<V> copy = new EventVariablesMap<>();
+    copy.putAll(map);
+    return copy;
+  }
+
+  public EventVariablesMap() {
+    this(new Entries<>(Table.EMPTY, null, 0, false));
+  }
+
+  private EventVariablesMap(Entries<V> entries) {
+    this.delegate = entries;
+  }
+
+  private Entries<V> entries() {
+    return (Entries<V>) delegate;
+  }
+
+  @Override
+  public EventVariablesMap<V> copy() {
+    return new EventVariablesMap<>(entries().share(false));
+  }
+
+  @Override
+  public Object clone() {
+    return copy();
+  }
+
+  @Override
+  public CaseInsensitiveHashMap<String, V> toImmutableCaseInsensitiveMap() {
+    Entries<V> entries = entries();
+    return entries.immutable ? this : new EventVariablesMap<>(entries.share(true));
+  }
+
+  private Object writeReplace() {
+    // keep the serialized form independent of this implementation
+    return new CaseInsensitiveHashMap<>(this);
+  }
+
+  /**
+   * Computes the hash code of the case-folded version of the key, consistently with {@link String#equalsIgnoreCase(String)}.
+   */
+  static int hash(String key) {
+    int h = 0;
+    for (int i = 0; i < key.length(); i++) {
+      h = 31 * h + toLowerCase(toUpperCase(key.charAt(i)));
+    }
+    return h ^ (h >>> 16);
+  }
+
+  private static final class Entries<V> extends AbstractMap<String, V> implements Serializable {
+
+    private static final long serialVersionUID = -2870367185003059423L;
+
+    // shared with the copies of this map, never modified
+    private Table base;
+    // entries added or removed since the base was built
+    private Table delta;
+    // whether the delta has to be copied before modifying it
+    private boolean deltaShared;
+    private int size;
+    private boolean immutable;
+
+    // Needed for deserialization with kryo
+    private Entries() {}
+
+    private Entries(Table base, Table delta, int size, boolean immutable) {
+      this.base = base;
+      this.delta = delta;
+      this.size = size;
+      this.immutable = immutable;
+      this.deltaShared = delta != null;
+    }
+
+    private Entries<V> share(boolean immutable) {
+      markDeltaShared();
+      return new Entries<>(base, delta, size, immutable);
+    }
+
+    @Override
+    public int size() {
+      return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+      return size == 0;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+      if (!(key instanceof String)) {
+        return false;
+      }
+
+      String stringKey = (String) key;
+      int hash = hash(stringKey);
+      if (delta != null) {
+        int index = delta.find(stringKey, hash);
+        if (index >= 0) {
+          return !delta.removed[index];
+        }
+      }
+      return base.find(stringKey, hash) >= 0;
+    }
+
+    @Override
+    public V get(Object key) {
+      if (!(key instanceof String)) {
+        return null;
+      }
+
+      String stringKey = (String) key;
+      int hash = hash(stringKey);
+      if (delta != null) {
+        int index = delta.find(stringKey, hash);
+        if (index >= 0) {
+          return (V) delta.values[index];
+        }
+      }
+      int index = base.find(stringKey, hash);
+      return index < 0 ? null : (V) base.values[index];
+    }
+
+    @Override
+    public V put(String key, V value) {
+      checkMutable();
+      int hash = hash(key);
+      Table delta = mutableDelta();
+
+      V previous;
+      int index = delta.find(key, hash);
+      if (index >= 0) {
+        if (delta.removed[index]) {
+          previous = null;
+          delta.keys[index] = key;
+          delta.removed[index] = false;
+          size++;
+        } else {
+          previous = (V) delta.values[index];
+        }
+        delta.values[index] = value;
+      } else {
+        int baseIndex = base.find(key, hash);
+        if (baseIndex >= 0) {
+          previous = (V) base.values[baseIndex];
+          delta.add(base.keys[baseIndex], hash, value, false);
+        } else {
+          previous = null;
+          delta.add(key, hash, value, false);
+          size++;
+        }
+      }
+
+      mergeIfNeeded();
+      return previous;
+    }
+
+    @Override
+    public V remove(Object key) {
+      checkMutable();
+      if (!(key instanceof String)) {
+        return null;
+      }
+      String stringKey = (String) key;
+      int hash = hash(stringKey);
+
+      if (delta != null) {
+        int index = delta.find(stringKey, hash);
+        if (index >= 0) {
+          if (delta.removed[index]) {
+            return null;
+          }
+          delta = mutableDelta();
+          V previous = (V) delta.values[index];
+          delta.values[index] = null;
+          delta.removed[index] = true;
+          size--;
+          return previous;
+        }
+      }
+
+      int baseIndex = base.find(stringKey, hash);
+      if (baseIndex < 0) {
+        return null;
+      }
+      V previous = (V) base.values[baseIndex];
+      mutableDelta().add(base.keys[baseIndex], hash, null, true);
+      size--;
+      mergeIfNeeded();
+      return previous;
+    }
+
+    @Override
+    public void clear() {
+      checkMutable();
+      base = Table.EMPTY;
+      delta = null;
+      deltaShared = false;
+      size = 0;
+    }
+
+    @Override
+    public Set<Entry<String, V>> entrySet() {
+      return new AbstractSet<Entry<String, V>>() {
+
+        @Override
+        public Iterator<Entry<String, V>> iterator() {
+          return new EntriesIterator();
+        }
+
+        @Override
+        public int size() {
+          return size;
+        }
+      };
+    }
+
+    private void markDeltaShared() {
+      // immutable instances may be read concurrently, and their delta is never modified anyway
+      if (!immutable) {
+        deltaShared = delta != null;
+      }
+    }
+
+    private void checkMutable() {
+      if (immutable) {
+        throw new UnsupportedOperationException();
+      }
+    }
+
+    private Table mutableDelta() {
+      if (delta == null) {
+        delta = new Table(MAX_DELTA_SIZE + 1);
+      } else if (deltaShared) {
+        delta = delta.copy();
+      }
+      deltaShared = false;
+      return delta;
+    }
+
+    private void mergeIfNeeded() {
+      if (delta.count <= MAX_DELTA_SIZE) {
+        return;
+      }
+
+      Table merged = new Table(size);
+      for (Entry<String, V> entry : entrySet()) {
+        merged.add(entry.getKey(), hash(entry.getKey()), entry.getValue(), false);
+      }
+      base = merged;
+      delta = null;
+      deltaShared = false;
+    }
+
+    /**
+     * Iterates the entries of the base table, taking into account the ones overridden or removed by the delta, followed by the
+     * ones only in the delta. It works over a snapshot of the tables, so the map may be modified while iterating.
+     */
+    private final class EntriesIterator implements Iterator<Entry<String, V>> {
+
+      private final Table iteratedBase = base;
+      private final Table iteratedDelta = delta;
+      private int baseIndex = 0;
+      private int deltaIndex = 0;
+      private Entry<String, V> next;
+      private Entry<String, V> last;
+
+      private EntriesIterator() {
+        // modifications to the map while iterating must not affect the snapshot
+        markDeltaShared();
+        next = advance();
+      }
+
+      private Entry<String, V> advance() {
+        while (baseIndex < iteratedBase.count) {
+          int index = baseIndex++;
+          String key = iteratedBase.keys[index];
+          if (iteratedDelta != null) {
+            int overridden = iteratedDelta.find(key, iteratedBase.hashes[index]);
+            if (overridden >= 0) {
+              if (iteratedDelta.removed[overridden]) {
+                continue;
+              }
+              return new SimpleImmutableEntry<>(iteratedDelta.keys[overridden], (V) iteratedDelta.values[overridden]);
+            }
+          }
+          return new SimpleImmutableEntry<>(key, (V) iteratedBase.values[index]);
+        }
+
+        if (iteratedDelta != null) {
+          while (deltaIndex < iteratedDelta.count) {
+            int index = deltaIndex++;
+            if (!iteratedDelta.removed[index]
+                && iteratedBase.find(iteratedDelta.keys[index], iteratedDelta.hashes[index]) < 0) {
+              return new SimpleImmutableEntry<>(iteratedDelta.keys[index], (V) iteratedDelta.values[index]);
+            }
+          }
+        }
+        return null;
+      }
+
+      @Override
+      public boolean hasNext() {
+        return next != null;
+      }
+
+      @Override
+      public Entry<String, V> next() {
+        if (next == null) {
+          throw new NoSuchElementException();
+        }
+        last = next;
+        next = advance();
+        return last;
+      }
+
+      @Override
+      public void remove() {
+        if (last == null) {
+          throw new IllegalStateException();
+        }
+        Entries.this.remove(last.getKey());
+        last = null;
+      }
+    }
+  }
+
+  /**
+   * An open addressing table. Entries are stored in insertion order in parallel arrays, and the slots hold the index of the
+   * entry in those arrays plus one, so that an empty slot is zero.
+   */
+  private static final class Table implements Serializable {
+
+    private static final long serialVersionUID = -1521478526312580307L;
+
+    private static final Table EMPTY = new Table(0);
+
+    private int[] slots;
+    private int[] hashes;
+    private String[] keys;
+    private Object[] values;
+    private boolean[] removed;
+    private int count;
+
+    // Needed for deserialization with kryo
+    private Table() {}
+
+    private Table(int expectedSize) {
+      int capacity = max(expectedSize, 2);
+      slots = new int[slotsFor(capacity)];
+      hashes = new int[capacity];
+      keys = new String[capacity];
+      values = new Object[capacity];
+      removed = new boolean[capacity];
+    }
+
+    private Table(Table other) {
+      slots = other.slots.clone();
+      hashes = other.hashes.clone();
+      keys = other.keys.clone();
+      values = other.values.clone();
+      removed = other.removed.clone();
+      count = other.count;
+    }
+
+    private static int slotsFor(int capacity) {
+      // keeps the load factor at or below 0.5
+      return highestOneBit(capacity * 2 - 1) << 1;
+    }
+
+    private Table copy() {
+      return new Table(this);
+    }
+
+    private int find(String key, int hash) {
+      if (count == 0) {
+        return -1;
+      }
+
+      int mask = slots.length - 1;
+      int slot = hash & mask;
+      int index;
+      while ((index = slots[slot] - 1) >= 0) {
+        if (hashes[index] == hash && keys[index].equalsIgnoreCase(key)) {
+          return index;
+        }
+        slot = (slot + 1) & mask;
+      }
+      return -1;
+    }
+
+    private void add(String key, int hash, Object value, boolean isRemoved) {
+      if (count == keys.length) {
+        grow();
+      }
+
+      int index = count++;
+      hashes[index] = hash;
+      keys[index] = key;
+      values[index] = value;
+      removed[index] = isRemoved;
+      insertSlot(hash, index);
+    }
+
+    private void insertSlot(int hash, int index) {
+      int mask = slots.length - 1;
+      int slot = hash & mask;
+      while (slots[slot] != 0) {
+        slot = (slot + 1) & mask;
+      }
+      slots[slot] = index + 1;
+    }
+
+    private void grow() {
+      int capacity = keys.length * 2;
+      hashes = Arrays.copyOf(hashes, capacity);
+      keys = Arrays.copyOf(keys, capacity);
+      values = Arrays.copyOf(values, capacity);
+      removed = Arrays.copyOf(removed, capacity);
+
+      slots = new int[slotsFor(capacity)];
+      for (int i = 0; i < count; i++) {
+        insertSlot(hashes[i], i);
+      }
+    }
+  }
+}
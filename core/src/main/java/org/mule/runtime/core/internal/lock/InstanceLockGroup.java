@@ -10,8 +10,8 @@ import static java.lang.System.currentTimeMillis;
 import static java.lang.Thread.currentThread;
 import static org.slf4j.LoggerFactory.getLogger;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.Lock;
@@ -20,20 +20,24 @@ import org.slf4j.Logger;
 
 /**
  * {@link LockGroup} implementation for holding references to created locks inside a mule instance.
+ * <p>
+ * The lock entries are reference counted and created or released atomically for their key only, so operations on unrelated
+ * locks don't contend with each other.
  */
 public class InstanceLockGroup implements LockGroup {
 
   private static final long DEFAULT_LOCK_GROUP_SHUTDOWN_TIMEOUT = 5000L;
   private static final Logger LOGGER = getLogger(InstanceLockGroup.class);
 
-  private final Map<String, LockEntry> locks;
+  private final ConcurrentMap<String, LockEntry> locks;
+  // only used to wait for all the locks to be released when disposing
   private final Object lockAccessMonitor = new Object();
   private final LockProvider lockProvider;
   private final long gracefulShutdownTimeoutMillis;
 
   public InstanceLockGroup(LockProvider lockProvider, long shutdownTimeoutMillis) {
     this.lockProvider = lockProvider;
-    this.locks = new HashMap<>();
+    this.locks = new ConcurrentHashMap<>();
     this.gracefulShutdownTimeoutMillis = shutdownTimeoutMillis;
   }
 
@@ -49,14 +53,13 @@ public class InstanceLockGroup implements LockGroup {
 
   @Override
   public void unlock(String key) {
-    synchronized (lockAccessMonitor) {
-      LockEntry lockEntry = locks.get(key);
-      if (lockEntry != null) {
-        lockEntry.getLock().unlock();
-        releaseLockEntry(key, lockEntry);
-      } else {
-        LOGGER.warn("Trying to unlock a lock with id {} that wasn't previously locked", key);
-      }
+    // the entry can't be released meanwhile, since the lock count includes the caller
+    LockEntry lockEntry = locks.get(key);
+    if (lockEntry != null) {
+      lockEntry.getLock().unlock();
+      releaseLockEntry(key, lockEntry);
+    } else {
+      LOGGER.warn("Trying to unlock a lock with id {} that wasn't previously locked", key);
     }
   }
 
@@ -132,27 +135,27 @@ public class InstanceLockGroup implements LockGroup {
   }
 
   private LockEntry getOrCreateLockEntry(String lockId) {
-    LockEntry lockEntry;
-    synchronized (lockAccessMonitor) {
-      if (locks.containsKey(lockId)) {
-        lockEntry = locks.get(lockId);
-      } else {
-        lockEntry = new LockEntry(lockProvider.createLock(lockId));
-        locks.put(lockId, lockEntry);
+    return locks.compute(lockId, (id, lockEntry) -> {
+      if (lockEntry == null) {
+        lockEntry = new LockEntry(lockProvider.createLock(id));
       }
       lockEntry.incrementLockCount();
-    }
-    return lockEntry;
+      return lockEntry;
+    });
   }
 
   private void releaseLockEntry(String lockId, LockEntry lockEntry) {
-    synchronized (lockAccessMonitor) {
-      lockEntry.decrementLockCount();
-      if (!lockEntry.hasPendingLocks()) {
-        locks.remove(lockId);
-        if (locks.isEmpty()) {
-          lockAccessMonitor.notifyAll();
-        }
+    LockEntry remainingEntry = locks.computeIfPresent(lockId, (id, currentEntry) -> {
+      if (currentEntry != lockEntry) {
+        return currentEntry;
+      }
+      currentEntry.decrementLockCount();
+      return currentEntry.hasPendingLocks() ? currentEntry : null;
+    });
+
+    if (remainingEntry == null && locks.isEmpty()) {
+      synchronized (lockAccessMonitor) {
+        lockAccessMonitor.notifyAll();
       }
     }
   }
@@ -8,9 +8,12 @@ package org.mule.runtime.core.internal.management.stats;
 
 import org.mule.runtime.core.api.management.stats.AllStatistics;
 import org.mule.runtime.core.api.management.stats.FlowConstructStatistics;
+import org.mule.runtime.core.api.management.stats.LatencyHistogram;
 import org.mule.runtime.core.api.management.stats.ResetOnQueryCounter;
 
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 /**
@@ -81,6 +84,17 @@ public class ApplicationStatistics extends DefaultFlowConstructStatistics {
     return max;
   }
 
+  @Override
+  public long getProcessingTimePercentile(double percentile) {
+    List<LatencyHistogram> histograms = new ArrayList<>();
+    for (FlowConstructStatistics stats : parent.getServiceStatistics()) {
+      if (stats instanceof DefaultFlowConstructStatistics && !(stats instanceof ApplicationStatistics)) {
+        histograms.add(((DefaultFlowConstructStatistics) stats).flowStatistics.getExecutionTimeHistogram());
+      }
+    }
+    return LatencyHistogram.getPercentile(histograms, percentile);
+  }
+
   @Override
   public long getTotalProcessingTime() {
     long total = 0;
@@ -19,6 +19,7 @@ import org.mule.runtime.metrics.api.meter.Meter;
 import java.util.List;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 public class DefaultFlowConstructStatistics implements FlowConstructStatistics {
 
@@ -38,6 +39,7 @@ public class DefaultFlowConstructStatistics implements FlowConstructStatistics {
   protected String name;
   protected boolean enabled = false;
   private long samplePeriod = 0;
+  // the meters registered for these counters need their value on each increment
   protected final AtomicLong receivedEvents = new AtomicLong(0);
   protected final AtomicLong dispatchedMessages = new AtomicLong(0);
 
@@ -46,7 +48,7 @@ public class DefaultFlowConstructStatistics implements FlowConstructStatistics {
   protected final ComponentStatistics flowStatistics = new ComponentStatistics();
 
   // Transient to avoid de-serialization backward compatibility problems (MULE-19020)
-  private transient final AtomicLong connectionErrors = new AtomicLong(0);
+  private transient final LongAdder connectionErrors = new LongAdder();
 
   private transient final List<DefaultResetOnQueryCounter> eventsReceivedCounters = new CopyOnWriteArrayList<>();
   private transient final List<DefaultResetOnQueryCounter> messagesDispatchedCounters = new CopyOnWriteArrayList<>();
@@ -153,6 +155,11 @@ public class DefaultFlowConstructStatistics implements FlowConstructStatistics {
     return flowStatistics.getTotalExecutionTime();
   }
 
+  @Override
+  public long getProcessingTimePercentile(double percentile) {
+    return flowStatistics.getExecutionTimePercentile(percentile);
+  }
+
   @Override
   public long getExecutionErrors() {
     return executionError.get();
@@ -165,7 +172,7 @@ public class DefaultFlowConstructStatistics implements FlowConstructStatistics {
 
   @Override
   public long getConnectionErrors() {
-    return connectionErrors.get();
+    return connectionErrors.sum();
   }
 
   @Override
@@ -187,7 +194,7 @@ public class DefaultFlowConstructStatistics implements FlowConstructStatistics {
   @Override
   public void incConnectionErrors() {
     if (isEnabled()) {
-      connectionErrors.addAndGet(1);
+      connectionErrors.increment();
       connectionErrorsCounters.forEach(DefaultResetOnQueryCounter::increment);
     }
   }
@@ -0,0 +1,331 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.store;
+
+import static org.mule.runtime.core.internal.util.store.MuleObjectStoreManager.UNBOUNDED;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A partition of {@link BoundedPartitionedInMemoryObjectStore}.
+ * <p>
+ * Entries live in a {@link ConcurrentHashMap}, so lookups never lock. Each entry is also linked into two intrusive lists, guarded
+ * by a lock which is only taken by writes:
+ * <ul>
+ * <li>The write order list. Since all the entries of a partition share the same time to live, the oldest entry is always the
+ * first one to expire, so expiring is just a matter of unlinking from the head while the entries there are expired. Removing any
+ * entry is also constant time, as it unlinks itself.</li>
+ * <li>The eviction list, which approximates LRU with the CLOCK algorithm: reads only flag the entry as referenced, and when the
+ * partition exceeds its bounds, entries at the head which were referenced get a second chance and are moved to the tail, while
+ * the first one which wasn't is evicted.</li>
+ * </ul>
+ * Besides a max number of entries, the partition may be bounded by an approximation of the heap used by its entries.
+ *
+ * @since 4.8.0
+ */
+final class BoundedInMemoryPartition<T extends Serializable> {
+
+  // object header, fields and references of the node, plus the entry in the map
+  private static final int ENTRY_OVERHEAD = 120;
+  private static final int STRING_OVERHEAD = 40;
+  private static final int ARRAY_OVERHEAD = 16;
+  private static final int DEFAULT_VALUE_WEIGHT = 64;
+
+  private final ConcurrentMap<String, Node<T>> entries = new ConcurrentHashMap<>();
+  private final Lock lock = new ReentrantLock();
+
+  // sentinels of the intrusive lists, guarded by the lock
+  private final Node<T> writeOrder = new Node<>(null, null, 0, 0);
+  private final Node<T> evictionOrder = new Node<>(null, null, 0, 0);
+  private int size;
+  private long weightedSize;
+
+  private volatile long entryTTLNanos = UNBOUNDED;
+  private volatile int maxEntries = UNBOUNDED;
+  private final long maxBytes;
+
+  BoundedInMemoryPartition(long maxBytes) {
+    this.maxBytes = maxBytes;
+    writeOrder.prevWrite = writeOrder.nextWrite = writeOrder;
+    evictionOrder.prevEviction = evictionOrder.nextEviction = evictionOrder;
+  }
+
+  /**
+   * Sets the bounds of this partition. Entries exceeding them are evicted on the next write.
+   *
+   * @param entryTTLNanos the time to live of the entries, or {@code UNBOUNDED}
+   * @param maxEntries    the max number of entries, or {@code UNBOUNDED}
+   */
+  void setBounds(long entryTTLNanos, int maxEntries) {
+    this.entryTTLNanos = entryTTLNanos;
+    this.maxEntries = maxEntries;
+  }
+
+  T get(String key, long now) {
+    Node<T> node = entries.get(key);
+    if (node == null || isExpired(node, now)) {
+      return null;
+    }
+
+    if (!node.referenced) {
+      node.referenced = true;
+    }
+    return node.value;
+  }
+
+  /**
+   * @return {@code true} if the value was stored, {@code false} if there was already a value for the given key
+   */
+  boolean putIfAbsent(String key, T value, long now) {
+    final Node<T> node = new Node<>(key, value, weigh(key, value), now);
+
+    Node<T> previous;
+    while ((previous = entries.putIfAbsent(key, node)) != null) {
+      if (!isExpired(previous, now)) {
+        return false;
+      }
+      // the entry is expired but the monitor hasn't purged it yet
+      if (entries.remove(key, previous)) {
+        unlinkSafely(previous);
+      }
+    }
+
+    lock.lock();
+    try {
+      // it could have been removed or cleared before getting the lock
+      if (entries.get(key) == node) {
+        link(node);
+        evictIfNeeded();
+      }
+    } finally {
+      lock.unlock();
+    }
+    return true;
+  }
+
+  T remove(String key, long now) {
+    Node<T> node = entries.remove(key);
+    if (node == null) {
+      return null;
+    }
+
+    unlinkSafely(node);
+    return isExpired(node, now) ? null : node.value;
+  }
+
+  List<String> keys(long now) {
+    List<String> keys = new ArrayList<>(entries.size());
+    for (Node<T> node : entries.values()) {
+      if (!isExpired(node, now)) {
+        keys.add(node.key);
+      }
+    }
+    return keys;
+  }
+
+  Map<String, T> values(long now) {
+    Map<String, T> values = new LinkedHashMap<>(entries.size());
+    for (Node<T> node : entries.values()) {
+      if (!isExpired(node, now)) {
+        values.put(node.key, node.value);
+      }
+    }
+    return values;
+  }
+
+  void clear() {
+    lock.lock();
+    try {
+      entries.clear();
+      writeOrder.prevWrite = writeOrder.nextWrite = writeOrder;
+      evictionOrder.prevEviction = evictionOrder.nextEviction = evictionOrder;
+      size = 0;
+      weightedSize = 0;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Removes the expired entries, and the ones exceeding the bounds of this partition.
+   *
+   * @return the amount of removed entries
+   */
+  int expire(long now) {
+    int expired = 0;
+    lock.lock();
+    try {
+      if (entryTTLNanos != UNBOUNDED) {
+        Node<T> oldest;
+        while ((oldest = writeOrder.nextWrite) != writeOrder && isExpired(oldest, now)) {
+          unlink(oldest);
+          entries.remove(oldest.key, oldest);
+          expired++;
+        }
+      }
+      expired += evictIfNeeded();
+    } finally {
+      lock.unlock();
+    }
+    return expired;
+  }
+
+  int size() {
+    return entries.size();
+  }
+
+  long weightedSize() {
+    lock.lock();
+    try {
+      return weightedSize;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private boolean isExpired(Node<T> node, long now) {
+    final long ttl = entryTTLNanos;
+    return ttl != UNBOUNDED && now - node.writeTime >= ttl;
+  }
+
+  /**
+   * Must be invoked holding the lock
+   */
+  private int evictIfNeeded() {
+    int evicted = 0;
+    while (exceedsBounds()) {
+      Node<T> victim = evictionOrder.nextEviction;
+      if (victim.referenced) {
+        // second chance
+        victim.referenced = false;
+        unlinkEviction(victim);
+        linkEviction(victim);
+        continue;
+      }
+
+      unlink(victim);
+      entries.remove(victim.key, victim);
+      evicted++;
+    }
+    return evicted;
+  }
+
+  private boolean exceedsBounds() {
+    if (size == 0) {
+      return false;
+    }
+
+    final int max = maxEntries;
+    return (max > UNBOUNDED && size > max) || (maxBytes > UNBOUNDED && weightedSize > maxBytes);
+  }
+
+  private void unlinkSafely(Node<T> node) {
+    lock.lock();
+    try {
+      if (node.linked) {
+        unlink(node);
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void link(Node<T> node) {
+    node.prevWrite = writeOrder.prevWrite;
+    node.nextWrite = writeOrder;
+    writeOrder.prevWrite.nextWrite = node;
+    writeOrder.prevWrite = node;
+
+    linkEviction(node);
+
+    node.linked = true;
+    size++;
+    weightedSize += node.weight;
+  }
+
+  private void linkEviction(Node<T> node) {
+    node.prevEviction = evictionOrder.prevEviction;
+    node.nextEviction = evictionOrder;
+    evictionOrder.prevEviction.nextEviction = node;
+    evictionOrder.prevEviction = node;
+  }
+
+  private void unlink(Node<T> node) {
+    node.prevWrite.nextWrite = node.nextWrite;
+    node.nextWrite.prevWrite = node.prevWrite;
+    node.prevWrite = node.nextWrite = null;
+
+    unlinkEviction(node);
+
+    node.linked = false;
+    size--;
+    weightedSize -= node.weight;
+  }
+
+  private void unlinkEviction(Node<T> node) {
+    node.prevEviction.nextEviction = node.nextEviction;
+    node.nextEviction.prevEviction = node.prevEviction;
+    node.prevEviction = node.nextEviction = null;
+  }
+
+  /**
+   * Estimates the heap used by an entry. This is just an approximation to be able to bound the memory used by a partition, the
+   * actual size of the objects is never computed.
+   */
+  static long weigh(String key, Object value) {
+    return ENTRY_OVERHEAD + weighString(key) + weighValue(value);
+  }
+
+  private static long weighValue(Object value) {
+    if (value instanceof String) {
+      return weighString((String) value);
+    } else if (value instanceof byte[]) {
+      return ARRAY_OVERHEAD + ((byte[]) value).length;
+    } else if (value instanceof Number || value instanceof Boolean || value instanceof Character) {
+      return ARRAY_OVERHEAD;
+    } else {
+      return DEFAULT_VALUE_WEIGHT;
+    }
+  }
+
+  private static long weighString(String string) {
+    // assumes the worst case of non-compact strings
+    return STRING_OVERHEAD + 2L * string.length();
+  }
+
+  private static final class Node<T> {
+
+    private final String key;
+    private final T value;
+    private final long weight;
+    private final long writeTime;
+
+    private volatile boolean referenced;
+
+    // guarded by the lock of the partition
+    private boolean linked;
+    private Node<T> prevWrite;
+    private Node<T> nextWrite;
+    private Node<T> prevEviction;
+    private Node<T> nextEviction;
+
+    private Node(String key, T value, long weight, long writeTime) {
+      this.key = key;
+      this.value = value;
+      this.weight = weight;
+      this.writeTime = writeTime;
+    }
+  }
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.store;
+
+import static org.mule.runtime.core.api.config.MuleProperties.SYSTEM_PROPERTY_PREFIX;
+import static org.mule.runtime.core.internal.util.store.MuleObjectStoreManager.UNBOUNDED;
+
+import static java.lang.Long.getLong;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import static org.slf4j.LoggerFactory.getLogger;
+
+import org.mule.runtime.api.store.ObjectAlreadyExistsException;
+import org.mule.runtime.api.store.ObjectDoesNotExistException;
+import org.mule.runtime.api.store.ObjectStoreException;
+import org.mule.runtime.api.store.PartitionableExpirableObjectStore;
+import org.mule.runtime.core.api.component.InternalComponent;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.slf4j.Logger;
+
+/**
+ * An in memory {@link PartitionableExpirableObjectStore} whose partitions enforce their bounds as entries are stored, instead of
+ * only when they are expired.
+ * <p>
+ * Unlike {@link PartitionedInMemoryObjectStore}, expiring an entry and removing it are constant time operations, and when a
+ * partition has more entries than allowed the least recently used ones are evicted, rather than the oldest. Partitions can
+ * additionally be bounded by an approximation of the heap used by their entries through the {@link #MAX_BYTES_PER_PARTITION}
+ * system property.
+ * <p>
+ * The time to live and max entries of a partition are the ones given to {@link #setPartitionBounds(String, long, int)} or to the
+ * last {@link #expire(long, int, String)} invocation.
+ *
+ * @since 4.8.0
+ */
+public class BoundedPartitionedInMemoryObjectStore<T extends Serializable> extends AbstractPartitionableObjectStore<T>
+    implements PartitionableExpirableObjectStore<T>, InternalComponent {
+
+  /**
+   * When set, this implementation is used as the default in memory object store instead of {@link PartitionedInMemoryObjectStore}.
+   */
+  public static final String BOUNDED_IN_MEMORY_OBJECT_STORE = SYSTEM_PROPERTY_PREFIX + "objectStore.inMemory.bounded";
+
+  /**
+   * The approximate max amount of bytes the entries of each partition may use. Unbounded by default.
+   */
+  public static final String MAX_BYTES_PER_PARTITION = SYSTEM_PROPERTY_PREFIX + "objectStore.inMemory.maxBytesPerPartition";
+
+  private static final Logger LOGGER = getLogger(BoundedPartitionedInMemoryObjectStore.class);
+
+  private final ConcurrentMap<String, BoundedInMemoryPartition<T>> partitions = new ConcurrentHashMap<>();
+  private final long maxBytesPerPartition;
+
+  public BoundedPartitionedInMemoryObjectStore() {
+    this(getLong(MAX_BYTES_PER_PARTITION, UNBOUNDED));
+  }
+
+  public BoundedPartitionedInMemoryObjectStore(long maxBytesPerPartition) {
+    this.maxBytesPerPartition = maxBytesPerPartition;
+  }
+
+  /**
+   * Sets the bounds to apply to the given partition from now on.
+   *
+   * @param partitionName the name of the partition
+   * @param entryTTL      the time to live of the entries in milliseconds, or {@code UNBOUNDED}
+   * @param maxEntries    the max number of entries, or {@code UNBOUNDED}
+   */
+  public void setPartitionBounds(String partitionName, long entryTTL, int maxEntries) {
+    getPartition(partitionName).setBounds(entryTTL > UNBOUNDED ? MILLISECONDS.toNanos(entryTTL) : UNBOUNDED,
+                                          maxEntries > UNBOUNDED ? maxEntries : UNBOUNDED);
+  }
+
+  @Override
+  public boolean isPersistent() {
+    return false;
+  }
+
+  @Override
+  protected boolean doContains(String key, String partitionName) throws ObjectStoreException {
+    BoundedInMemoryPartition<T> partition = partitions.get(partitionName);
+    return partition != null && partition.get(key, getCurrentNanoTime()) != null;
+  }
+
+  @Override
+  protected void doStore(String key, T value, String partitionName) throws ObjectStoreException {
+    if (!getPartition(partitionName).putIfAbsent(key, value, getCurrentNanoTime())) {
+      throw new ObjectAlreadyExistsException();
+    }
+  }
+
+  @Override
+  protected T doRetrieve(String key, String partitionName) throws ObjectStoreException {
+    T value = getPartition(partitionName).get(key, getCurrentNanoTime());
+    if (value == null) {
+      throw new ObjectDoesNotExistException();
+    }
+    return value;
+  }
+
+  @Override
+  protected T doRemove(String key, String partitionName) throws ObjectStoreException {
+    T value = getPartition(partitionName).remove(key, getCurrentNanoTime());
+    if (value == null) {
+      throw new ObjectDoesNotExistException();
+    }
+    return value;
+  }
+
+  @Override
+  public List<String> allKeys(String partitionName) throws ObjectStoreException {
+    return getPartition(partitionName).keys(getCurrentNanoTime());
+  }
+
+  @Override
+  public Map<String, T> retrieveAll(String partitionName) throws ObjectStoreException {
+    return getPartition(partitionName).values(getCurrentNanoTime());
+  }
+
+  @Override
+  public void clear(String partitionName) throws ObjectStoreException {
+    getPartition(partitionName).clear();
+  }
+
+  @Override
+  public List<String> allPartitions() throws ObjectStoreException {
+    return new ArrayList<>(partitions.keySet());
+  }
+
+  private BoundedInMemoryPartition<T> getPartition(String partitionName) {
+    BoundedInMemoryPartition<T> partition = partitions.get(partitionName);
+    if (partition == null) {
+      partition = partitions.computeIfAbsent(partitionName, name -> new BoundedInMemoryPartition<>(maxBytesPerPartition));
+    }
+    return partition;
+  }
+
+  @Override
+  public void open(String partitionName) throws ObjectStoreException {
+    // Nothing to do
+  }
+
+  @Override
+  public void close(String partitionName) throws ObjectStoreException {
+    disposePartition(partitionName);
+  }
+
+  @Override
+  public void expire(long entryTTL, int maxEntries) throws ObjectStoreException {
+    expire(entryTTL, maxEntries, DEFAULT_PARTITION_NAME);
+  }
+
+  @Override
+  public void expire(long entryTTL, int maxEntries, String partitionName) throws ObjectStoreException {
+    setPartitionBounds(partitionName, entryTTL, maxEntries);
+    int expiredEntries = getPartition(partitionName).expire(getCurrentNanoTime());
+
+    if (LOGGER.isDebugEnabled()) {
+      LOGGER.debug("Expired {} entries from partition {}", expiredEntries, partitionName);
+    }
+  }
+
+  @Override
+  public void disposePartition(String partitionName) throws ObjectStoreException {
+    BoundedInMemoryPartition<T> partition = partitions.remove(partitionName);
+    if (partition != null) {
+      partition.clear();
+    }
+  }
+
+  protected long getCurrentNanoTime() {
+    return System.nanoTime();
+  }
+
+  @Override
+  public boolean shouldAlwaysExpire() {
+    return true;
+  }
+}
@@ -6,6 +6,11 @@
  */
 package org.mule.runtime.core.internal.store;
 
+import static org.mule.runtime.core.api.config.MuleProperties.SYSTEM_PROPERTY_PREFIX;
+import static org.mule.runtime.core.internal.util.store.LogStructuredObjectStorePartition.isLogStructured;
+
+import static java.lang.Boolean.getBoolean;
+
 import static org.slf4j.LoggerFactory.getLogger;
 
 import org.mule.runtime.api.exception.MuleRuntimeException;
@@ -18,15 +23,16 @@ import org.mule.runtime.core.api.config.i18n.CoreMessages;
 import org.mule.runtime.core.api.context.MuleContextAware;
 import org.mule.runtime.core.api.util.FileUtils;
 import org.mule.runtime.core.api.util.UUID;
+import org.mule.runtime.core.internal.util.store.LogStructuredObjectStorePartition;
 import org.mule.runtime.core.internal.util.store.PersistentObjectStorePartition;
 
 import java.io.File;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.inject.Inject;
 
@@ -38,10 +44,16 @@ public class PartitionedPersistentObjectStore<T extends Serializable> extends Ab
   private static final Logger LOGGER = getLogger(PartitionedPersistentObjectStore.class);
   public static final String OBJECT_STORE_DIR = "objectstore";
 
+  /**
+   * When set, new partitions are persisted in an append-only log by {@link LogStructuredObjectStorePartition} instead of one
+   * file per entry. Existing file per entry partitions are migrated when loaded.
+   */
+  public static final String APPEND_ONLY_LOG_PROPERTY = SYSTEM_PROPERTY_PREFIX + "objectStore.persistent.appendOnlyLog";
+
   protected MuleContext muleContext;
   private File storeDirectory;
-  private Map<String, PersistentObjectStorePartition> partitionsByName = new HashMap<>();
-  private boolean initialized = false;
+  private Map<String, PersistentObjectStorePartition> partitionsByName = new ConcurrentHashMap<>();
+  private volatile boolean initialized = false;
 
   public PartitionedPersistentObjectStore() {
     super();
@@ -57,12 +69,16 @@ public class PartitionedPersistentObjectStore<T extends Serializable> extends Ab
   }
 
   @Override
-  public synchronized void open() throws ObjectStoreException {
+  public void open() throws ObjectStoreException {
     if (!initialized) {
-      initObjectStoreDirectory();
-      loadPreviousStoredPartitions();
-      createDefaultPartition();
-      initialized = true;
+      synchronized (this) {
+        if (!initialized) {
+          initObjectStoreDirectory();
+          loadPreviousStoredPartitions();
+          createDefaultPartition();
+          initialized = true;
+        }
+      }
     }
   }
 
@@ -73,10 +89,17 @@ public class PartitionedPersistentObjectStore<T extends Serializable> extends Ab
   }
 
   @Override
-  public synchronized void open(String partitionName) throws ObjectStoreException {
-    open();
-    if (!partitionsByName.containsKey(partitionName)) {
-      createPartition(partitionName);
+  public void open(String partitionName) throws ObjectStoreException {
+    // Partitions are opened for every operation over them, so the usual case of an already existing one must not contend
+    if (initialized && partitionsByName.containsKey(partitionName)) {
+      return;
+    }
+
+    synchronized (this) {
+      open();
+      if (!partitionsByName.containsKey(partitionName)) {
+        createPartition(partitionName);
+      }
     }
   }
 
@@ -84,8 +107,10 @@ public class PartitionedPersistentObjectStore<T extends Serializable> extends Ab
   public void close(String partitionName) throws ObjectStoreException {}
 
   private void createPartition(String partitionName) throws ObjectStoreException {
-    PersistentObjectStorePartition persistentObjectStorePartition =
-        new PersistentObjectStorePartition(muleContext, partitionName, getNewPartitionDirectory(partitionName));
+    File partitionDirectory = getNewPartitionDirectory(partitionName);
+    PersistentObjectStorePartition persistentObjectStorePartition = useAppendOnlyLog()
+        ? new LogStructuredObjectStorePartition(muleContext, partitionName, partitionDirectory)
+        : new PersistentObjectStorePartition(muleContext, partitionName, partitionDirectory);
     persistentObjectStorePartition.open();
     partitionsByName.putIfAbsent(partitionName, persistentObjectStorePartition);
   }
@@ -193,8 +218,11 @@ public class PartitionedPersistentObjectStore<T extends Serializable> extends Ab
     }
     for (File partitionDirectory : directories) {
       try {
+        // partitions already stored in the log are always restored through it, regardless of the current setting
         PersistentObjectStorePartition persistentObjectStorePartition =
-            new PersistentObjectStorePartition(muleContext, partitionDirectory);
+            useAppendOnlyLog() || isLogStructured(partitionDirectory)
+                ? new LogStructuredObjectStorePartition(muleContext, partitionDirectory)
+                : new PersistentObjectStorePartition(muleContext, partitionDirectory);
         persistentObjectStorePartition.open();
         partitionsByName.putIfAbsent(persistentObjectStorePartition.getPartitionName(), persistentObjectStorePartition);
       } catch (Exception e) {
@@ -224,6 +252,13 @@ public class PartitionedPersistentObjectStore<T extends Serializable> extends Ab
     getPartitionObjectStore(partitionName).expire(entryTTL, maxEntries);
   }
 
+  /**
+   * @return whether new partitions are to be persisted by {@link LogStructuredObjectStorePartition}
+   */
+  protected boolean useAppendOnlyLog() {
+    return getBoolean(APPEND_ONLY_LOG_PROPERTY);
+  }
+
   protected String getWorkingDirectory() {
     return muleContext.getConfiguration().getWorkingDirectory();
   }
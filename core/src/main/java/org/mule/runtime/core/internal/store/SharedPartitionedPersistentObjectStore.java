@@ -138,6 +138,15 @@ public class SharedPartitionedPersistentObjectStore<T extends Serializable> exte
     }
   }
 
+  /**
+   * Partitions are shared through their directory and accessed by file per entry partitions, so the append-only log is not
+   * supported.
+   */
+  @Override
+  protected boolean useAppendOnlyLog() {
+    return false;
+  }
+
   @Override
   protected String getWorkingDirectory() {
     return workingDirectory.getAbsolutePath();
@@ -6,12 +6,15 @@
  */
 package org.mule.runtime.core.internal.streaming.bytes;
 
+import static java.lang.Boolean.getBoolean;
 import static java.lang.Integer.getInteger;
 import static java.lang.System.getProperty;
 import static org.mule.runtime.api.util.DataUnit.KB;
+import static org.mule.runtime.api.util.DataUnit.MB;
 import static org.mule.runtime.api.util.MuleSystemProperties.MULE_STREAMING_BUCKET_SIZE;
 import static org.mule.runtime.api.util.MuleSystemProperties.MULE_STREAMING_MAX_BUFFER_POOL_SIZE;
 import static org.mule.runtime.api.util.MuleSystemProperties.MULE_STREAMING_MAX_HEAP_PERCENTAGE;
+import static org.mule.runtime.core.api.config.MuleProperties.SYSTEM_PROPERTY_PREFIX;
 
 /**
  * Constants around byte streaming
@@ -39,6 +42,22 @@ public final class ByteStreamingConstants {
    */
   public static final int DEFAULT_BUFFER_POOL_SIZE = getInteger(MULE_STREAMING_MAX_BUFFER_POOL_SIZE, 2048);
 
+  /**
+   * The size of the memory mapped regions used to read the portion of a file store buffer which was spilled to disk.
+   *
+   * @since 4.8.0
+   */
+  public static final int DEFAULT_FILE_STORE_MAPPED_WINDOW_SIZE =
+      getInteger(SYSTEM_PROPERTY_PREFIX + "streaming.fileStore.mappedWindowSize", MB.toBytes(4));
+
+  /**
+   * Whether in memory byte buffers should grow by adding new chunks instead of reallocating and copying a contiguous buffer.
+   *
+   * @since 4.8.0
+   */
+  public static final boolean SEGMENTED_IN_MEMORY_BUFFER =
+      getBoolean(SYSTEM_PROPERTY_PREFIX + "streaming.inMemory.segmentedBuffer");
+
   private static double getMaxStreamingMemoryPercentage() {
     String v = getProperty(MULE_STREAMING_MAX_HEAP_PERCENTAGE);
     return v != null ? Double.valueOf(v) : 0.7;
@@ -0,0 +1,350 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.streaming.bytes;
+
+import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
+import static org.mule.runtime.core.internal.streaming.TempBufferFileUtils.createBufferFile;
+import static org.mule.runtime.core.internal.streaming.bytes.ByteStreamingConstants.DEFAULT_FILE_STORE_MAPPED_WINDOW_SIZE;
+
+import static org.mule.runtime.core.internal.util.MappedBuffers.unmap;
+
+import static java.lang.Math.min;
+import static java.nio.ByteBuffer.wrap;
+import static java.nio.channels.FileChannel.MapMode.READ_ONLY;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+import static org.slf4j.LoggerFactory.getLogger;
+
+import org.mule.runtime.api.exception.MuleRuntimeException;
+import org.mule.runtime.core.api.streaming.bytes.ByteBufferManager;
+import org.mule.runtime.core.api.streaming.bytes.FileStoreCursorStreamConfig;
+import org.mule.runtime.core.api.streaming.bytes.ManagedByteBufferWrapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.slf4j.Logger;
+
+/**
+ * An implementation of {@link AbstractInputStreamBuffer} which holds the first bytes of the stream in a pooled memory buffer and
+ * spills the rest into a temporal file.
+ * <p>
+ * The in memory portion has a fixed size, configured through {@link FileStoreCursorStreamConfig#getMaxInMemorySize()}. It is
+ * only allocated once the stream is first read, and it is never reallocated, which means that slices of it can be safely handed
+ * to cursors without copying. Data which doesn't fit in memory is appended to a file created through
+ * {@link org.mule.runtime.core.internal.streaming.TempBufferFileUtils}.
+ * <p>
+ * Reads over the spilled portion are served through a read-only {@link MappedByteBuffer} window once the window is completely
+ * written, which avoids a system call per read. Since the window is unmapped as soon as it moves or the buffer is closed, the
+ * data is copied out of it instead of handing slices of it to the cursors. Reads which fall close to the tip of a stream which is
+ * still being consumed are served through positional {@link FileChannel} reads instead.
+ *
+ * @since 4.8.0
+ */
+public class FileStoreStreamBuffer extends AbstractInputStreamBuffer {
+
+  private static final Logger LOGGER = getLogger(FileStoreStreamBuffer.class);
+
+  private final int bucketSize;
+  private final int mappedWindowSize;
+  private final int memoryBufferSize;
+
+  private ManagedByteBufferWrapper managedMemoryBuffer;
+  private ByteBuffer memoryBuffer;
+  private ManagedByteBufferWrapper spillBuffer;
+
+  private File bufferFile;
+  private FileChannel fileChannel;
+  private final AtomicReference<MappedWindow> mappedWindow = new AtomicReference<>();
+
+  private long bufferTip = 0;
+
+  /**
+   * Creates a new instance
+   *
+   * @param stream        the stream to be buffered
+   * @param config        this buffer's configuration.
+   * @param bufferManager the {@link ByteBufferManager} that will be used to allocate all buffers
+   */
+  public FileStoreStreamBuffer(InputStream stream, FileStoreCursorStreamConfig config, ByteBufferManager bufferManager) {
+    this(stream, config, bufferManager, DEFAULT_FILE_STORE_MAPPED_WINDOW_SIZE);
+  }
+
+  FileStoreStreamBuffer(InputStream stream, FileStoreCursorStreamConfig config, ByteBufferManager bufferManager,
+                        int mappedWindowSize) {
+    super(stream, bufferManager);
+    bucketSize = config.getBucketSize();
+    memoryBufferSize = config.getMaxInMemorySize().toBytes();
+    this.mappedWindowSize = mappedWindowSize;
+  }
+
+  @Override
+  protected ByteBuffer doGet(long position, int length) {
+    return doGet(position, length, true);
+  }
+
+  private ByteBuffer doGet(long position, int length, boolean consumeStreamIfNecessary) {
+    readLock.lock();
+    try {
+      ByteBuffer presentRead = getFromCurrentData(position, length);
+      if (presentRead != null) {
+        return presentRead;
+      }
+
+      if (consumeStreamIfNecessary) {
+        readLock.unlock();
+        writeLock.lock();
+
+        try {
+          ByteBuffer refetch = getFromCurrentData(position, length);
+          if (refetch != null) {
+            return refetch;
+          }
+
+          final long requiredUpperBound = position + length;
+          while (!streamFullyConsumed && bufferTip < requiredUpperBound) {
+            final int read = consumeForwardData();
+            if (read > 0) {
+              refetch = getFromCurrentData(position, min(length, read));
+              if (refetch != null) {
+                return refetch;
+              }
+            }
+          }
+          return doGet(position, length, false);
+        } catch (IOException e) {
+          throw new MuleRuntimeException(createStaticMessage("Could not read stream"), e);
+        } finally {
+          // classic lock downgrade
+          readLock.lock();
+          writeLock.unlock();
+        }
+      } else {
+        return getFromCurrentData(position, length);
+      }
+    } finally {
+      readLock.unlock();
+    }
+  }
+
+  private ByteBuffer getFromCurrentData(long position, int length) {
+    if (position < bufferTip) {
+      return copy(position, (int) min(length, bufferTip - position));
+    }
+
+    return null;
+  }
+
+  /**
+   * {@inheritDoc} Data is written into the in memory buffer until it is full. After that, it is appended to the buffer file.
+   */
+  @Override
+  public int consumeForwardData() throws IOException {
+    if (memoryBuffer == null) {
+      managedMemoryBuffer = bufferManager.allocateManaged(memoryBufferSize);
+      memoryBuffer = managedMemoryBuffer.getDelegate();
+      memoryBuffer.limit(memoryBufferSize);
+    }
+
+    if (memoryBuffer.hasRemaining()) {
+      final int read = consumeStream(memoryBuffer);
+      if (read > 0) {
+        bufferTip += read;
+      }
+
+      return read;
+    }
+
+    return spillForwardData();
+  }
+
+  private int spillForwardData() throws IOException {
+    if (fileChannel == null) {
+      bufferFile = createBufferFile("stream");
+      fileChannel = FileChannel.open(bufferFile.toPath(), READ, WRITE);
+      spillBuffer = bufferManager.allocateManaged(bucketSize);
+    }
+
+    ByteBuffer readBuffer = spillBuffer.getDelegate();
+    readBuffer.clear();
+
+    final int read = consumeStream(readBuffer);
+    if (read > 0) {
+      readBuffer.flip();
+      long filePosition = bufferTip - memoryBufferSize;
+      while (readBuffer.hasRemaining()) {
+        filePosition += fileChannel.write(readBuffer, filePosition);
+      }
+
+      bufferTip += read;
+    }
+
+    return read;
+  }
+
+  @Override
+  protected ByteBuffer copy(long position, int length) {
+    if (position < memoryBufferSize) {
+      final int offset = (int) position;
+      return wrap(memoryBuffer.array(), offset, min(length, memoryBufferSize - offset)).slice();
+    }
+
+    try {
+      return readFromFile(position - memoryBufferSize, length);
+    } catch (IOException e) {
+      throw new MuleRuntimeException(createStaticMessage("Could not read from buffer file " + bufferFile.getAbsolutePath()),
+                                     e);
+    }
+  }
+
+  private ByteBuffer readFromFile(long filePosition, int length) throws IOException {
+    MappedWindow window = mappedWindow.get();
+    if (window == null || !window.contains(filePosition) || !window.acquire()) {
+      window = map(filePosition);
+      if (window == null) {
+        return positionalRead(filePosition, length);
+      }
+
+      // the reference held by mappedWindow is only dropped once this read is done with it
+      window.acquire();
+      MappedWindow previous = mappedWindow.getAndSet(window);
+      if (previous != null) {
+        previous.release();
+      }
+    }
+
+    try {
+      return window.copy(filePosition, length);
+    } finally {
+      window.release();
+    }
+  }
+
+  /**
+   * Maps the window which contains the given {@code filePosition}. Only windows which are completely written are mapped, unless
+   * the stream has been fully consumed, in which case the last window is mapped up to the end of the file.
+   *
+   * @return the mapped window, or {@code null} if the window is still being written
+   */
+  private MappedWindow map(long filePosition) throws IOException {
+    final long fileTip = bufferTip - memoryBufferSize;
+    final long windowStart = filePosition - (filePosition % mappedWindowSize);
+    long windowEnd = windowStart + mappedWindowSize;
+
+    if (windowEnd > fileTip) {
+      if (!streamFullyConsumed) {
+        return null;
+      }
+      windowEnd = fileTip;
+    }
+
+    return new MappedWindow(windowStart, fileChannel.map(READ_ONLY, windowStart, windowEnd - windowStart));
+  }
+
+  private ByteBuffer positionalRead(long filePosition, int length) throws IOException {
+    ByteBuffer dest = ByteBuffer.allocate(length);
+    while (dest.hasRemaining()) {
+      if (fileChannel.read(dest, filePosition + dest.position()) == -1) {
+        break;
+      }
+    }
+
+    dest.flip();
+    return dest;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void doClose() {
+    MappedWindow window = mappedWindow.getAndSet(null);
+    if (window != null) {
+      window.release();
+    }
+
+    memoryBuffer = null;
+    if (managedMemoryBuffer != null) {
+      managedMemoryBuffer.release();
+      managedMemoryBuffer = null;
+    }
+
+    if (spillBuffer != null) {
+      spillBuffer.release();
+      spillBuffer = null;
+    }
+
+    if (fileChannel != null) {
+      try {
+        fileChannel.close();
+      } catch (IOException e) {
+        LOGGER.debug("Found exception trying to close buffer file channel", e);
+      } finally {
+        if (!bufferFile.delete()) {
+          LOGGER.debug("Could not delete buffer file {}. Will be deleted on exit", bufferFile.getAbsolutePath());
+          bufferFile.deleteOnExit();
+        }
+      }
+    }
+  }
+
+  /**
+   * A read-only mapped region of the buffer file. It keeps count of the reads in progress over it, plus one for the
+   * {@link #mappedWindow} reference, and is unmapped once that count drops to zero.
+   */
+  private static final class MappedWindow {
+
+    private final long start;
+    private final MappedByteBuffer buffer;
+    private int users = 1;
+
+    private MappedWindow(long start, MappedByteBuffer buffer) {
+      this.start = start;
+      this.buffer = buffer;
+    }
+
+    private boolean contains(long filePosition) {
+      return filePosition >= start && filePosition < start + buffer.capacity();
+    }
+
+    /**
+     * @return {@code false} if this window was already unmapped and cannot be read anymore
+     */
+    private synchronized boolean acquire() {
+      if (users == 0) {
+        return false;
+      }
+
+      users++;
+      return true;
+    }
+
+    private synchronized void release() {
+      if (--users == 0) {
+        unmap(buffer);
+      }
+    }
+
+    private ByteBuffer copy(long filePosition, int length) {
+      final int offset = (int) (filePosition - start);
+      ByteBuffer source = buffer.duplicate();
+      source.position(offset);
+      source.limit(min(offset + length, source.capacity()));
+
+      ByteBuffer dest = ByteBuffer.allocate(source.remaining());
+      dest.put(source);
+      dest.flip();
+      return dest;
+    }
+  }
+}
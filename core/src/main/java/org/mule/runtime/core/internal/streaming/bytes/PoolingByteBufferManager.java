@@ -6,38 +6,49 @@
  */
 package org.mule.runtime.core.internal.streaming.bytes;
 
+import static java.lang.Integer.numberOfTrailingZeros;
+import static java.lang.Math.max;
 import static java.lang.Math.min;
-import static java.lang.Runtime.getRuntime;
+import static java.lang.ThreadLocal.withInitial;
+import static java.util.concurrent.ConcurrentHashMap.newKeySet;
 import static java.util.concurrent.TimeUnit.MINUTES;
-import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
+import static org.mule.runtime.api.util.DataUnit.KB;
+import static org.mule.runtime.api.util.DataUnit.MB;
 import static org.mule.runtime.core.internal.streaming.bytes.ByteStreamingConstants.DEFAULT_BUFFER_BUCKET_SIZE;
 import static org.mule.runtime.core.internal.streaming.bytes.ByteStreamingConstants.DEFAULT_BUFFER_POOL_SIZE;
 import static org.slf4j.LoggerFactory.getLogger;
 
-import org.mule.runtime.api.exception.MuleRuntimeException;
 import org.mule.runtime.api.lifecycle.Disposable;
 import org.mule.runtime.core.api.streaming.bytes.ManagedByteBufferWrapper;
 import org.mule.runtime.core.internal.streaming.DefaultMemoryManager;
 import org.mule.runtime.core.internal.streaming.MemoryManager;
 
+import java.lang.ref.WeakReference;
 import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 
 import com.github.benmanes.caffeine.cache.Caffeine;
 import com.github.benmanes.caffeine.cache.LoadingCache;
 import com.github.benmanes.caffeine.cache.RemovalListener;
 import org.apache.commons.pool2.KeyedObjectPool;
 import org.slf4j.Logger;
-import org.vibur.objectpool.ConcurrentPool;
-import org.vibur.objectpool.PoolObjectFactory;
-import org.vibur.objectpool.PoolService;
-import org.vibur.objectpool.util.MultithreadConcurrentQueueCollection;
 
 /**
  * {@link MemoryBoundByteBufferManager} implementation which pools instances for better performance.
  * <p>
- * Buffers are kept in separate pools depending on their capacity.
+ * Buffers are kept in separate pools depending on their capacity. Power of two capacities between 1 KB and 1 MB (the usual
+ * buffer sizes) each have a fixed pool, while pools for any other capacity are created on demand.
  * <p>
- * Idle capacity pools are automatically expired, but items in each pool are never reclaimed.
+ * Each pool keeps a small magazine of buffers for each thread, so that a thread that releases and then allocates buffers (the
+ * common case when streaming) does so without contending with other threads. When a thread's magazine is full, it is handed over
+ * to a lock-free queue shared by all threads, from which threads with an empty magazine take their buffers.
+ * <p>
+ * Idle capacity pools are automatically expired. Pooled buffers are reclaimed when allocating a new buffer would exceed the memory
+ * cap, so that buffers idling in the magazine of a thread do not starve the others.
  * <p>
  * Unlike traditional pools, if a pool is exhausted then an ephemeral {@link ByteBuffer} will be produced. That instance must
  * still be returned through the {@link #deallocate(ByteBuffer)} method.
@@ -48,9 +59,19 @@ public class PoolingByteBufferManager extends MemoryBoundByteBufferManager imple
 
   private static final Logger LOGGER = getLogger(PoolingByteBufferManager.class);
 
+  private static final int MAGAZINE_SIZE = 16;
+  private static final int MIN_SIZE_CLASS = KB.toBytes(1);
+  private static final int MAX_SIZE_CLASS = MB.toBytes(1);
+
   private final int size;
+  private final int bufferSize;
+
+  private final BufferPool defaultSizePool;
+  private final BufferPool[] sizeClassPools;
 
-  private BufferPool defaultSizePool;
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder reclaimed = new LongAdder();
 
   /**
    * Using a cache of pools instead of a {@link KeyedObjectPool} because performance tests indicates that this option is slightly
@@ -86,7 +107,14 @@ public class PoolingByteBufferManager extends MemoryBoundByteBufferManager imple
   public PoolingByteBufferManager(MemoryManager memoryManager, int size, int bufferSize) {
     super(memoryManager);
     this.size = size;
+    this.bufferSize = bufferSize;
     defaultSizePool = newBufferPool(bufferSize);
+
+    sizeClassPools = new BufferPool[sizeClassIndex(MAX_SIZE_CLASS) + 1];
+    for (int i = 0; i < sizeClassPools.length; i++) {
+      int capacity = MIN_SIZE_CLASS << i;
+      sizeClassPools[i] = capacity == bufferSize ? defaultSizePool : newBufferPool(capacity);
+    }
   }
 
   private BufferPool newBufferPool(Integer capacity) {
@@ -94,22 +122,82 @@ public class PoolingByteBufferManager extends MemoryBoundByteBufferManager imple
   }
 
   private BufferPool getBufferPool(int capacity) {
-    return capacity == DEFAULT_BUFFER_BUCKET_SIZE ? defaultSizePool : customSizePools.get(capacity);
+    if (capacity == bufferSize) {
+      return defaultSizePool;
+    }
+
+    int sizeClassIndex = sizeClassIndex(capacity);
+    return sizeClassIndex >= 0 ? sizeClassPools[sizeClassIndex] : customSizePools.get(capacity);
+  }
+
+  private static int sizeClassIndex(int capacity) {
+    if (capacity < MIN_SIZE_CLASS || capacity > MAX_SIZE_CLASS || (capacity & (capacity - 1)) != 0) {
+      return -1;
+    }
+    return numberOfTrailingZeros(capacity) - numberOfTrailingZeros(MIN_SIZE_CLASS);
   }
 
   @Override
   public ManagedByteBufferWrapper allocateManaged(int capacity) {
+    return getBufferPool(capacity).take();
+  }
+
+  private ByteBuffer allocateBuffer(BufferPool pool) {
     try {
-      return getBufferPool(capacity).take();
-    } catch (RuntimeException e) {
-      throw e;
-    } catch (Exception e) {
-      throw new MuleRuntimeException(createStaticMessage("Could not allocate byte buffer. " + e.getMessage()), e);
+      return allocateIfFits(pool.bufferCapacity);
+    } catch (MaxStreamingMemoryExceededException e) {
+      // the memory may be held by buffers idling in the pools, give those back and try once more
+      if (reclaimPooledBuffers() == 0) {
+        throw e;
+      }
+      return allocateIfFits(pool.bufferCapacity);
+    }
+  }
+
+  // visible for testing
+  int reclaimPooledBuffers() {
+    int reclaimedBuffers = defaultSizePool.drain();
+    for (BufferPool pool : sizeClassPools) {
+      if (pool != defaultSizePool) {
+        reclaimedBuffers += pool.drain();
+      }
+    }
+    for (BufferPool pool : customSizePools.asMap().values()) {
+      reclaimedBuffers += pool.drain();
     }
+
+    reclaimed.add(reclaimedBuffers);
+    return reclaimedBuffers;
+  }
+
+  /**
+   * @return how many allocations were served with a pooled buffer
+   */
+  public long getPoolHits() {
+    return hits.sum();
+  }
+
+  /**
+   * @return how many allocations could not be served with a pooled buffer, so a new one was allocated
+   */
+  public long getPoolMisses() {
+    return misses.sum();
+  }
+
+  /**
+   * @return how many pooled buffers were discarded to make room for new allocations
+   */
+  public long getReclaimedBuffers() {
+    return reclaimed.sum();
   }
 
   @Override
   public void dispose() {
+    for (BufferPool pool : sizeClassPools) {
+      if (pool != defaultSizePool) {
+        pool.close();
+      }
+    }
     try {
       defaultSizePool.close();
     } catch (Exception e) {
@@ -128,55 +216,186 @@ public class PoolingByteBufferManager extends MemoryBoundByteBufferManager imple
 
   private class BufferPool {
 
-    private final PoolService<ManagedByteBufferWrapper> pool;
-    private final PoolObjectFactory<ManagedByteBufferWrapper> factory;
     private final int bufferCapacity;
+    private final int magazineSize;
+    private final int maxFullMagazines;
+
+    private final ThreadLocal<Magazine> localMagazine = withInitial(this::newMagazine);
+    private final Set<Magazine> magazines = newKeySet();
+    private final Queue<ByteBuffer[]> fullMagazines = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger fullMagazinesCount = new AtomicInteger();
+
+    private volatile boolean closed = false;
 
     private BufferPool(int size, int bufferCapacity) {
       this.bufferCapacity = bufferCapacity;
-      factory = new PoolObjectFactory<ManagedByteBufferWrapper>() {
+      magazineSize = max(1, min(MAGAZINE_SIZE, size));
+      maxFullMagazines = max(1, size / magazineSize);
+    }
+
+    private Magazine newMagazine() {
+      // magazines of threads that are gone would otherwise keep their buffers, and the memory they account for, forever
+      for (Magazine magazine : magazines) {
+        if (magazine.isOrphan()) {
+          magazines.remove(magazine);
+          drain(magazine);
+        }
+      }
+
+      Magazine magazine = new Magazine(magazineSize);
+      magazines.add(magazine);
+      return magazine;
+    }
 
-        @Override
-        public ManagedByteBufferWrapper create() {
-          return new ManagedByteBufferWrapper(allocateIfFits(bufferCapacity), buffer -> returnBuffer(buffer));
+    private ManagedByteBufferWrapper take() {
+      Magazine magazine = localMagazine.get();
+      ByteBuffer buffer = magazine.pop();
+
+      if (buffer == null) {
+        ByteBuffer[] full = fullMagazines.poll();
+        if (full != null) {
+          fullMagazinesCount.decrementAndGet();
+          magazine.load(full);
+          buffer = magazine.pop();
         }
+      }
+
+      if (buffer != null) {
+        hits.increment();
+      } else {
+        misses.increment();
+        buffer = allocateBuffer(this);
+      }
 
-        @Override
-        public boolean readyToTake(ManagedByteBufferWrapper buffer) {
-          return true;
+      return new ManagedByteBufferWrapper(buffer, this::returnBuffer);
+    }
+
+    private void returnBuffer(ManagedByteBufferWrapper wrapper) {
+      ByteBuffer buffer = wrapper.getDelegate();
+      buffer.clear();
+
+      if (!closed) {
+        Magazine magazine = localMagazine.get();
+        if (magazine.push(buffer)) {
+          return;
         }
 
-        @Override
-        public boolean readyToRestore(ManagedByteBufferWrapper buffer) {
-          buffer.getDelegate().clear();
-          return true;
+        if (fullMagazinesCount.incrementAndGet() <= maxFullMagazines) {
+          ByteBuffer[] full = magazine.exchange(buffer);
+          if (full != null) {
+            fullMagazines.offer(full);
+          } else {
+            // a concurrent drain emptied the magazine, so the buffer was kept in it instead
+            fullMagazinesCount.decrementAndGet();
+          }
+          return;
         }
+        fullMagazinesCount.decrementAndGet();
+      }
 
-        @Override
-        public void destroy(ManagedByteBufferWrapper buffer) {
-          doDeallocate(buffer.getDelegate());
+      doDeallocate(buffer);
+    }
+
+    private int drain() {
+      int drained = 0;
+      for (Magazine magazine : magazines) {
+        drained += drain(magazine);
+        if (magazine.isOrphan()) {
+          magazines.remove(magazine);
+        }
+      }
+
+      ByteBuffer[] full;
+      while ((full = fullMagazines.poll()) != null) {
+        fullMagazinesCount.decrementAndGet();
+        for (ByteBuffer buffer : full) {
+          doDeallocate(buffer);
+          drained++;
         }
-      };
+      }
 
-      pool = new ConcurrentPool<>(new MultithreadConcurrentQueueCollection<>(size),
-                                  factory, min(getRuntime().availableProcessors(), size), size, false);
+      return drained;
     }
 
-    private ManagedByteBufferWrapper take() {
-      ManagedByteBufferWrapper buffer = pool.tryTake();
-      if (buffer == null) {
-        buffer = new ManagedByteBufferWrapper(allocateIfFits(bufferCapacity), b -> doDeallocate(b.getDelegate()));
+    private int drain(Magazine magazine) {
+      int drained = 0;
+      ByteBuffer buffer;
+      while ((buffer = magazine.pop()) != null) {
+        doDeallocate(buffer);
+        drained++;
+      }
+      return drained;
+    }
+
+    private void close() {
+      closed = true;
+      drain();
+    }
+  }
+
+  /**
+   * The buffers pooled for one thread. Only its owner uses it, except when its buffers are reclaimed, so its lock is hardly ever
+   * contended.
+   */
+  private static class Magazine {
+
+    private final WeakReference<Thread> owner = new WeakReference<>(Thread.currentThread());
+
+    private ByteBuffer[] buffers;
+    private int count = 0;
+
+    private Magazine(int size) {
+      buffers = new ByteBuffer[size];
+    }
+
+    private synchronized ByteBuffer pop() {
+      if (count == 0) {
+        return null;
       }
 
+      ByteBuffer buffer = buffers[--count];
+      buffers[count] = null;
       return buffer;
     }
 
-    private void returnBuffer(ManagedByteBufferWrapper buffer) {
-      pool.restore(buffer);
+    private synchronized boolean push(ByteBuffer buffer) {
+      if (count == buffers.length) {
+        return false;
+      }
+
+      buffers[count++] = buffer;
+      return true;
     }
 
-    private void close() {
-      pool.close();
+    /**
+     * Replaces the buffers of this magazine, which must be empty, with the given {@code full} ones.
+     */
+    private synchronized void load(ByteBuffer[] full) {
+      buffers = full;
+      count = full.length;
+    }
+
+    /**
+     * Hands over the buffers of this magazine, if it is full, and starts over with just the given {@code buffer}.
+     *
+     * @return the buffers that were in this magazine, or {@code null} if it was not full, in which case {@code buffer} was added
+     */
+    private synchronized ByteBuffer[] exchange(ByteBuffer buffer) {
+      if (count < buffers.length) {
+        buffers[count++] = buffer;
+        return null;
+      }
+
+      ByteBuffer[] full = buffers;
+      buffers = new ByteBuffer[full.length];
+      buffers[0] = buffer;
+      count = 1;
+      return full;
+    }
+
+    private boolean isOrphan() {
+      Thread thread = owner.get();
+      return thread == null || !thread.isAlive();
     }
   }
 }
@@ -0,0 +1,212 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.streaming.bytes;
+
+import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
+
+import static java.lang.Math.min;
+import static java.nio.ByteBuffer.wrap;
+
+import org.mule.runtime.api.exception.MuleRuntimeException;
+import org.mule.runtime.api.streaming.exception.StreamingBufferSizeExceededException;
+import org.mule.runtime.core.api.streaming.bytes.ByteBufferManager;
+import org.mule.runtime.core.api.streaming.bytes.InMemoryCursorStreamConfig;
+import org.mule.runtime.core.api.streaming.bytes.ManagedByteBufferWrapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An implementation of {@link AbstractInputStreamBuffer} which holds the buffered information in memory, using a list of chunks
+ * instead of one contiguous buffer.
+ * <p>
+ * The first chunk has the configured initial buffer size and each expansion adds a new chunk of
+ * {@link InMemoryCursorStreamConfig#getBufferSizeIncrement()} bytes allocated through the {@link ByteBufferManager}. Unlike
+ * {@link InMemoryStreamBuffer}, expanding never copies the already buffered data, and since chunks are never reallocated, reads
+ * are always served as slices of the chunks. A read never spans more than one chunk; cursors are expected to issue as many reads
+ * as needed to cross chunk boundaries.
+ * <p>
+ * Once the max buffer size is reached, a {@link StreamingBufferSizeExceededException} will be thrown. If no max size is provided,
+ * then the buffer will be allowed to grow indefinitely.
+ *
+ * @since 4.8.0
+ */
+public class SegmentedInMemoryStreamBuffer extends AbstractInputStreamBuffer {
+
+  private static final int STREAM_FINISHED_PROBE = 10;
+
+  private final List<ManagedByteBufferWrapper> chunks = new ArrayList<>();
+  private final int initialBufferSize;
+  private final int bufferSizeIncrement;
+  private final int maxBufferSize;
+
+  private ByteBuffer currentChunk;
+  private long capacity;
+  private long bufferTip = 0;
+
+  /**
+   * Creates a new instance
+   *
+   * @param stream        the stream to be buffered
+   * @param config        this buffer's configuration.
+   * @param bufferManager the {@link ByteBufferManager} that will be used to allocate all chunks
+   */
+  public SegmentedInMemoryStreamBuffer(InputStream stream, InMemoryCursorStreamConfig config, ByteBufferManager bufferManager) {
+    super(stream, bufferManager);
+    initialBufferSize = config.getInitialBufferSize().toBytes();
+    bufferSizeIncrement = config.getBufferSizeIncrement() != null
+        ? config.getBufferSizeIncrement().toBytes()
+        : 0;
+    maxBufferSize = config.getMaxBufferSize().toBytes();
+
+    addChunk(initialBufferSize);
+  }
+
+  @Override
+  protected ByteBuffer doGet(long position, int length) {
+    return doGet(position, length, true);
+  }
+
+  private ByteBuffer doGet(long position, int length, boolean consumeStreamIfNecessary) {
+    readLock.lock();
+    try {
+      ByteBuffer presentRead = getFromCurrentData(position, length);
+      if (presentRead != null) {
+        return presentRead;
+      }
+
+      if (consumeStreamIfNecessary) {
+        readLock.unlock();
+        writeLock.lock();
+
+        try {
+          ByteBuffer refetch = getFromCurrentData(position, length);
+          if (refetch != null) {
+            return refetch;
+          }
+
+          final long requiredUpperBound = position + length;
+          while (!streamFullyConsumed && bufferTip < requiredUpperBound) {
+            final int read = consumeForwardData();
+            if (read > 0) {
+              refetch = getFromCurrentData(position, min(length, read));
+              if (refetch != null) {
+                return refetch;
+              }
+            }
+          }
+          return doGet(position, length, false);
+        } catch (IOException e) {
+          throw new MuleRuntimeException(createStaticMessage("Could not read stream"), e);
+        } finally {
+          // classic lock downgrade
+          readLock.lock();
+          writeLock.unlock();
+        }
+      } else {
+        return getFromCurrentData(position, length);
+      }
+    } finally {
+      readLock.unlock();
+    }
+  }
+
+  private ByteBuffer getFromCurrentData(long position, int length) {
+    if (position < bufferTip) {
+      return copy(position, (int) min(length, bufferTip - position));
+    }
+
+    return null;
+  }
+
+  /**
+   * {@inheritDoc} If the current chunk doesn't have any remaining capacity, then a new one is added before attempting to consume
+   * new information.
+   *
+   * @throws StreamingBufferSizeExceededException if the buffer is full and cannot be expanded
+   */
+  @Override
+  public int consumeForwardData() throws IOException {
+    if (!currentChunk.hasRemaining()) {
+      if (!canBeExpanded()) {
+        return probeStreamFinished();
+      }
+      addChunk(bufferSizeIncrement);
+    }
+
+    final int read = consumeStream(currentChunk);
+    if (read > 0) {
+      bufferTip += read;
+    }
+
+    return read;
+  }
+
+  /**
+   * Invoked when the buffer is full and cannot grow anymore. Reading more data means that the stream doesn't fit in this buffer.
+   */
+  private int probeStreamFinished() throws IOException {
+    ManagedByteBufferWrapper probe = bufferManager.allocateManaged(STREAM_FINISHED_PROBE);
+    try {
+      final int read = consumeStream(probe.getDelegate());
+      if (read > 0) {
+        throw new StreamingBufferSizeExceededException(maxBufferSize);
+      }
+
+      return read;
+    } finally {
+      probe.release();
+    }
+  }
+
+  private void addChunk(int size) {
+    ManagedByteBufferWrapper chunk = bufferManager.allocateManaged(size);
+    chunks.add(chunk);
+    currentChunk = chunk.getDelegate();
+    capacity += size;
+  }
+
+  @Override
+  protected ByteBuffer copy(long position, int length) {
+    final int chunkIndex;
+    final int offset;
+    if (position < initialBufferSize) {
+      chunkIndex = 0;
+      offset = (int) position;
+    } else {
+      long delta = position - initialBufferSize;
+      chunkIndex = 1 + (int) (delta / bufferSizeIncrement);
+      offset = (int) (delta % bufferSizeIncrement);
+    }
+
+    ByteBuffer chunk = chunks.get(chunkIndex).getDelegate();
+    return wrap(chunk.array(), offset, min(length, chunk.capacity() - offset)).slice();
+  }
+
+  private boolean canBeExpanded() {
+    if (bufferSizeIncrement <= 0) {
+      return false;
+    } else if (maxBufferSize == 0) {
+      return true;
+    }
+
+    return capacity + bufferSizeIncrement <= maxBufferSize;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void doClose() {
+    chunks.forEach(ManagedByteBufferWrapper::release);
+    chunks.clear();
+    currentChunk = null;
+  }
+}
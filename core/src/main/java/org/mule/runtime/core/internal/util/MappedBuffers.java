@@ -0,0 +1,93 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.util;
+
+import static org.slf4j.LoggerFactory.getLogger;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+
+import org.slf4j.Logger;
+
+/**
+ * Releases the mapping of a {@link MappedByteBuffer} right away instead of waiting for the buffer to be collected.
+ * <p/>
+ * A file that is still mapped cannot be deleted or replaced on some platforms (Windows in particular), and until then it keeps
+ * taking virtual memory and disk space. The buffer must not be used after it has been unmapped.
+ *
+ * @since 4.8.0
+ */
+public final class MappedBuffers {
+
+  private static final Logger LOGGER = getLogger(MappedBuffers.class);
+
+  private static final Unmapper UNMAPPER = createUnmapper();
+
+  private MappedBuffers() {}
+
+  /**
+   * Releases the mapping of the given buffer. If the JVM does not allow it, the mapping is released once the buffer is
+   * collected.
+   *
+   * @param buffer the buffer to unmap
+   */
+  public static void unmap(MappedByteBuffer buffer) {
+    try {
+      UNMAPPER.unmap(buffer);
+    } catch (ReflectiveOperationException | RuntimeException e) {
+      LOGGER.debug("Could not unmap buffer, it will be unmapped once collected", e);
+    }
+  }
+
+  private static Unmapper createUnmapper() {
+    try {
+      Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+      try {
+        // Java 9 onwards
+        Method invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+        Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+        theUnsafe.setAccessible(true);
+        Object unsafe = theUnsafe.get(null);
+        return buffer -> invoke(invokeCleaner, unsafe, buffer);
+      } catch (NoSuchMethodException e) {
+        // Java 8
+        Method cleanerMethod = Class.forName("sun.nio.ch.DirectBuffer").getMethod("cleaner");
+        Method cleanMethod = Class.forName("sun.misc.Cleaner").getMethod("clean");
+        return buffer -> {
+          Object cleaner = invoke(cleanerMethod, buffer);
+          if (cleaner != null) {
+            invoke(cleanMethod, cleaner);
+          }
+        };
+      }
+    } catch (ReflectiveOperationException | RuntimeException e) {
+      LOGGER.debug("Mapped buffers cannot be unmapped in this JVM, they will be unmapped once collected", e);
+      return buffer -> {
+      };
+    }
+  }
+
+  private static Object invoke(Method method, Object target, Object... args) throws ReflectiveOperationException {
+    try {
+      return method.invoke(target, args);
+    } catch (InvocationTargetException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw e;
+    }
+  }
+
+  @FunctionalInterface
+  private interface Unmapper {
+
+    void unmap(MappedByteBuffer buffer) throws ReflectiveOperationException;
+  }
+}
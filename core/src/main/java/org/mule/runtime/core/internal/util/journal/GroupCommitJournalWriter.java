@@ -0,0 +1,204 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.util.journal;
+
+import static java.nio.ByteBuffer.wrap;
+import static java.nio.file.StandardOpenOption.APPEND;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+import static org.apache.commons.io.FileUtils.deleteQuietly;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import org.mule.runtime.api.exception.MuleRuntimeException;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+
+/**
+ * Writes the entries of a {@link TransactionJournalFile} using group commit.
+ * <p>
+ * Logging an entry just queues its serialized form. Threads then wait for their entries to be written: the first one to get the
+ * write lock writes all the entries queued so far with a single gathering write followed by a single
+ * {@link FileChannel#force(boolean) force}, so the threads that were queueing entries meanwhile usually find them already on
+ * disk once they get the lock, without writing anything themselves.
+ *
+ * @since 4.8.0
+ */
+class GroupCommitJournalWriter {
+
+  private static final Logger LOGGER = getLogger(GroupCommitJournalWriter.class);
+
+  private final File journalFile;
+  private final Queue<PendingWrite> pendingWrites = new ConcurrentLinkedQueue<>();
+  private final Lock writeLock = new ReentrantLock();
+
+  // guarded by writeLock
+  private FileChannel channel;
+
+  // updated when queueing, as seen by the journal file that owns this writer
+  private volatile long length;
+
+  /**
+   * @param journalFile journal file to write to. Will be created if it doesn't exist, new entries are appended otherwise.
+   */
+  GroupCommitJournalWriter(File journalFile) {
+    this.journalFile = journalFile;
+    try {
+      this.channel = openChannel();
+    } catch (IOException e) {
+      throw new MuleRuntimeException(e);
+    }
+    this.length = journalFile.length();
+  }
+
+  /**
+   * Queues a serialized entry to be appended to the journal file.
+   *
+   * @param serializedEntry the entry, as written by a {@link JournalEntrySerializer}
+   * @return a handle to wait for the entry to be written
+   */
+  PendingWrite write(byte[] serializedEntry) {
+    PendingWrite write = new PendingWrite(wrap(serializedEntry));
+    pendingWrites.add(write);
+    length += serializedEntry.length;
+    return write;
+  }
+
+  /**
+   * Queues the truncation of the journal file. The entries queued before it are discarded along with the current content of the
+   * file, the ones queued after it are written to the emptied file.
+   *
+   * @return a handle to wait for the file to be truncated
+   */
+  PendingWrite truncate() {
+    PendingWrite write = new PendingWrite(null);
+    pendingWrites.add(write);
+    length = 0;
+    return write;
+  }
+
+  /**
+   * @return the length the journal file will have once all the queued writes are done
+   */
+  long length() {
+    return length;
+  }
+
+  /**
+   * Writes all the queued entries and closes the journal file.
+   */
+  void close() {
+    writeLock.lock();
+    try {
+      writePending();
+      channel.close();
+    } catch (Exception e) {
+      LOGGER.warn(e.getMessage());
+      if (LOGGER.isDebugEnabled()) {
+        LOGGER.debug("Error closing transaction journal file", e);
+      }
+    } finally {
+      writeLock.unlock();
+    }
+  }
+
+  private void await(PendingWrite write) {
+    if (!write.done) {
+      writeLock.lock();
+      try {
+        // another thread may have written it while this one was waiting for the lock
+        if (!write.done) {
+          writePending();
+        }
+      } finally {
+        writeLock.unlock();
+      }
+    }
+    if (write.failure != null) {
+      throw new MuleRuntimeException(write.failure);
+    }
+  }
+
+  private void writePending() {
+    List<PendingWrite> batch = new ArrayList<>();
+    List<ByteBuffer> entries = new ArrayList<>();
+    IOException failure = null;
+    try {
+      PendingWrite write;
+      while ((write = pendingWrites.poll()) != null) {
+        batch.add(write);
+        if (write.entry == null) {
+          // the entries queued before the truncation would be deleted right away
+          entries.clear();
+          recreateFile();
+        } else {
+          entries.add(write.entry);
+        }
+      }
+      ByteBuffer[] buffers = entries.toArray(new ByteBuffer[entries.size()]);
+      while (hasRemaining(buffers)) {
+        channel.write(buffers);
+      }
+      channel.force(false);
+    } catch (IOException e) {
+      failure = e;
+    }
+
+    for (PendingWrite write : batch) {
+      write.failure = failure;
+      write.done = true;
+    }
+  }
+
+  private boolean hasRemaining(ByteBuffer[] buffers) {
+    return buffers.length > 0 && buffers[buffers.length - 1].hasRemaining();
+  }
+
+  private void recreateFile() throws IOException {
+    channel.close();
+    deleteQuietly(journalFile);
+    channel = openChannel();
+  }
+
+  private FileChannel openChannel() throws IOException {
+    return FileChannel.open(journalFile.toPath(), CREATE, WRITE, APPEND);
+  }
+
+  /**
+   * An entry, or a truncation, queued to be written to the journal file.
+   */
+  class PendingWrite {
+
+    private final ByteBuffer entry;
+    private IOException failure;
+    private volatile boolean done;
+
+    private PendingWrite(ByteBuffer entry) {
+      this.entry = entry;
+    }
+
+    /**
+     * Waits until this write is done, writing it along with any other queued write if no other thread is doing so.
+     *
+     * @throws MuleRuntimeException if the write failed
+     */
+    void await() {
+      GroupCommitJournalWriter.this.await(this);
+    }
+  }
+}
@@ -6,11 +6,18 @@
  */
 package org.mule.runtime.core.internal.util.journal;
 
+import static org.mule.runtime.api.util.MuleSystemProperties.SYSTEM_PROPERTY_PREFIX;
+
+import static java.lang.Boolean.getBoolean;
+
 import org.mule.runtime.api.util.Preconditions;
+import org.mule.runtime.core.internal.util.journal.GroupCommitJournalWriter.PendingWrite;
 
 import com.google.common.collect.LinkedHashMultimap;
 import com.google.common.collect.Multimap;
 
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
 import java.io.File;
 import java.util.Collection;
 import java.util.Collections;
@@ -25,18 +32,28 @@ import org.slf4j.LoggerFactory;
  *
  * Keeps a memory cache of the log entries for performance reasons. Once a transaction finishes the client of this class must
  * manually remove the entries related to such transaction to clear the cache.
+ *
+ * When group commit is enabled, entries are serialized outside of the journal lock and then forced to disk in batches, so
+ * concurrent transactions share a single disk sync instead of each one waiting for its own.
  */
 public class TransactionJournal<T, K extends JournalEntry<T>> {
 
   public static final String TX1_LOG_FILE_NAME = "tx1.log";
   public static final String TX2_LOG_FILE_NAME = "tx2.log";
 
+  /**
+   * System property to enable group commit of the journal entries.
+   */
+  public static final String GROUP_COMMIT_PROPERTY = SYSTEM_PROPERTY_PREFIX + "transactionJournal.groupCommit";
+
   private static final int MAXIMUM_LOG_FILE_ENTRIES = 50000;
   private static final int ONE_MEGABYTE_IN_BYTES = 1024 * 1024;
 
   private transient Logger logger = LoggerFactory.getLogger(getClass());
 
   private final TransactionCompletePredicate transactionCompletePredicate;
+  private final JournalEntrySerializer journalEntrySerializer;
+  private final boolean groupCommit;
 
   /**
    * Log file in which we are currently writing new entries.
@@ -62,6 +79,17 @@ public class TransactionJournal<T, K extends JournalEntry<T>> {
    */
   public TransactionJournal(String logFilesDirectory, TransactionCompletePredicate transactionCompletePredicate,
                             JournalEntrySerializer journalEntrySerializer, Integer maximumFileSizeInMegabytes) {
+    this(logFilesDirectory, transactionCompletePredicate, journalEntrySerializer, maximumFileSizeInMegabytes,
+         getBoolean(GROUP_COMMIT_PROPERTY));
+  }
+
+  /**
+   * @param logFilesDirectory directory used to store the journal files.
+   * @param groupCommit       whether concurrently logged entries are forced to disk in batches.
+   */
+  public TransactionJournal(String logFilesDirectory, TransactionCompletePredicate transactionCompletePredicate,
+                            JournalEntrySerializer journalEntrySerializer, Integer maximumFileSizeInMegabytes,
+                            boolean groupCommit) {
     File logFileDirectory = new File(logFilesDirectory);
     if (!logFileDirectory.exists()) {
       Preconditions.checkState(logFileDirectory.mkdirs(),
@@ -72,11 +100,13 @@ public class TransactionJournal<T, K extends JournalEntry<T>> {
     File logFile2 = new File(logFileDirectory, TX2_LOG_FILE_NAME);
     logger.info(String.format("Using files for tx logs %s and %s", logFile1.getAbsolutePath(), logFile2.getAbsolutePath()));
 
-    this.currentLogFile =
-        new TransactionJournalFile(logFile1, journalEntrySerializer, transactionCompletePredicate, clearFileMinimumSizeInBytes);
-    this.notCurrentLogFile =
-        new TransactionJournalFile(logFile2, journalEntrySerializer, transactionCompletePredicate, clearFileMinimumSizeInBytes);
+    this.currentLogFile = new TransactionJournalFile(logFile1, journalEntrySerializer, transactionCompletePredicate,
+                                                     clearFileMinimumSizeInBytes, groupCommit);
+    this.notCurrentLogFile = new TransactionJournalFile(logFile2, journalEntrySerializer, transactionCompletePredicate,
+                                                        clearFileMinimumSizeInBytes, groupCommit);
     this.transactionCompletePredicate = transactionCompletePredicate;
+    this.journalEntrySerializer = journalEntrySerializer;
+    this.groupCommit = groupCommit;
 
   }
 
@@ -92,9 +122,22 @@ public class TransactionJournal<T, K extends JournalEntry<T>> {
    *
    * @param journalEntry journal entry with the update operation details
    */
-  public synchronized void logUpdateOperation(JournalEntry<T> journalEntry) {
-    TransactionJournalFile logFile = determineLogFile(journalEntry.getTxId());
-    logFile.logOperation(journalEntry);
+  public void logUpdateOperation(JournalEntry<T> journalEntry) {
+    if (!groupCommit) {
+      synchronized (this) {
+        TransactionJournalFile logFile = determineLogFile(journalEntry.getTxId());
+        logFile.logOperation(journalEntry);
+      }
+      return;
+    }
+
+    byte[] serializedEntry = serialize(journalEntry);
+    PendingWrite write;
+    synchronized (this) {
+      TransactionJournalFile logFile = determineLogFile(journalEntry.getTxId());
+      write = logFile.logOperation(journalEntry, serializedEntry);
+    }
+    write.await();
   }
 
   /**
@@ -104,12 +147,34 @@ public class TransactionJournal<T, K extends JournalEntry<T>> {
    *
    * @param journalEntry journal entry with the checkpoint operation details
    */
-  public synchronized void logCheckpointOperation(JournalEntry<T> journalEntry) {
-    TransactionJournalFile logFile = determineLogFile(journalEntry.getTxId());
-    logFile.logOperation(journalEntry);
-    if (transactionCompletePredicate.isTransactionComplete(journalEntry)) {
-      logFile.clearEntriesForTransaction(journalEntry.getTxId());
+  public void logCheckpointOperation(JournalEntry<T> journalEntry) {
+    if (!groupCommit) {
+      synchronized (this) {
+        TransactionJournalFile logFile = determineLogFile(journalEntry.getTxId());
+        logFile.logOperation(journalEntry);
+        if (transactionCompletePredicate.isTransactionComplete(journalEntry)) {
+          logFile.clearEntriesForTransaction(journalEntry.getTxId());
+        }
+      }
+      return;
     }
+
+    byte[] serializedEntry = serialize(journalEntry);
+    PendingWrite write;
+    synchronized (this) {
+      TransactionJournalFile logFile = determineLogFile(journalEntry.getTxId());
+      write = logFile.logOperation(journalEntry, serializedEntry);
+      if (transactionCompletePredicate.isTransactionComplete(journalEntry)) {
+        logFile.clearEntriesForTransaction(journalEntry.getTxId());
+      }
+    }
+    write.await();
+  }
+
+  private byte[] serialize(JournalEntry<T> journalEntry) {
+    ByteArrayOutputStream serializedEntry = new ByteArrayOutputStream();
+    journalEntrySerializer.serialize(journalEntry, new DataOutputStream(serializedEntry));
+    return serializedEntry.toByteArray();
   }
 
   /**
@@ -8,6 +8,7 @@ package org.mule.runtime.core.internal.util.journal;
 
 import static org.slf4j.LoggerFactory.getLogger;
 import org.mule.runtime.api.exception.MuleRuntimeException;
+import org.mule.runtime.core.internal.util.journal.GroupCommitJournalWriter.PendingWrite;
 
 import com.google.common.collect.LinkedHashMultimap;
 import com.google.common.collect.Multimap;
@@ -51,6 +52,7 @@ class TransactionJournalFile<T, K extends JournalEntry<T>> {
   private Multimap<T, K> entries = LinkedHashMultimap.create();
 
   private DataOutputStream logFileOutputStream;
+  private final GroupCommitJournalWriter groupCommitWriter;
   private int journalOperations = 0;
 
   /**
@@ -61,13 +63,30 @@ class TransactionJournalFile<T, K extends JournalEntry<T>> {
    */
   public TransactionJournalFile(File journalFile, JournalEntrySerializer journalEntrySerializer,
                                 TransactionCompletePredicate transactionCompletePredicate, Long clearFileMinimumSizeInBytes) {
+    this(journalFile, journalEntrySerializer, transactionCompletePredicate, clearFileMinimumSizeInBytes, false);
+  }
+
+  /**
+   * @param journalFile                  journal file to use. Will be created if it doesn't exists. If exists then transaction
+   *                                     entries will get loaded from it.
+   * @param journalEntrySerializer       serializer for {@link JournalEntry}
+   * @param transactionCompletePredicate a callback to determine if a transaction is complete.
+   * @param groupCommit                  whether entries are written with {@link #logOperation(JournalEntry, byte[])}, being
+   *                                     forced to disk in batches, instead of with {@link #logOperation(JournalEntry)}.
+   */
+  public TransactionJournalFile(File journalFile, JournalEntrySerializer journalEntrySerializer,
+                                TransactionCompletePredicate transactionCompletePredicate, Long clearFileMinimumSizeInBytes,
+                                boolean groupCommit) {
     this.journalFile = journalFile;
     this.journalEntrySerializer = journalEntrySerializer;
     this.clearFileMinimumSizeInBytes = clearFileMinimumSizeInBytes;
+    this.groupCommitWriter = groupCommit ? new GroupCommitJournalWriter(journalFile) : null;
     if (journalFile.exists()) {
       loadAllEntries(transactionCompletePredicate);
     }
-    createLogOutputStream();
+    if (!groupCommit) {
+      createLogOutputStream();
+    }
   }
 
   /**
@@ -81,6 +100,20 @@ class TransactionJournalFile<T, K extends JournalEntry<T>> {
     journalOperations++;
   }
 
+  /**
+   * Adds a journal entry for an operation done over a transactional resource, queueing it to be written along with the entries
+   * logged concurrently. Only for journal files using group commit.
+   *
+   * @param journalEntry    operation details
+   * @param serializedEntry the entry, as written by the {@link JournalEntrySerializer} of this journal file
+   * @return a handle to wait for the entry to be written to disk
+   */
+  public synchronized PendingWrite logOperation(K journalEntry, byte[] serializedEntry) {
+    entries.put(journalEntry.getTxId(), journalEntry);
+    journalOperations++;
+    return groupCommitWriter.write(serializedEntry);
+  }
+
   /**
    * Removes all journal entries for a particular transactions.
    *
@@ -104,22 +137,36 @@ class TransactionJournalFile<T, K extends JournalEntry<T>> {
     if (this.entries.isEmpty()) {
       if (clearFileMinimumSizeInBytes != null) {
         if (fileLength() > clearFileMinimumSizeInBytes) {
-          clear();
+          clearFile();
           journalOperations = 0;
         }
       } else if (journalOperations > MINIMUM_ENTRIES_TO_CLEAR_FILE) {
-        clear();
+        clearFile();
         journalOperations = 0;
       }
     }
   }
 
+  private void clearFile() {
+    if (groupCommitWriter == null) {
+      clear();
+    } else {
+      // no need to wait for it, the entries logged afterwards are written after the file is emptied
+      entries.clear();
+      groupCommitWriter.truncate();
+    }
+  }
+
   /**
    * Free all resources held.
    *
    * Will not remove the transaction context.
    */
   public synchronized void close() {
+    if (groupCommitWriter != null) {
+      groupCommitWriter.close();
+      return;
+    }
     try {
       logFileOutputStream.close();
     } catch (IOException e) {
@@ -156,6 +203,11 @@ class TransactionJournalFile<T, K extends JournalEntry<T>> {
    * Remove all the entries from the transaction journal and cleans the transaction journal fle.
    */
   public synchronized void clear() {
+    if (groupCommitWriter != null) {
+      entries.clear();
+      groupCommitWriter.truncate().await();
+      return;
+    }
     close();
     entries.clear();
     FileUtils.deleteQuietly(journalFile);
@@ -249,7 +301,7 @@ class TransactionJournalFile<T, K extends JournalEntry<T>> {
    * @return the file length in bytes
    */
   public long fileLength() {
-    return journalFile.length();
+    return groupCommitWriter != null ? groupCommitWriter.length() : journalFile.length();
   }
 }
 
@@ -6,6 +6,12 @@
  */
 package org.mule.runtime.core.internal.util.queue;
 
+import static org.mule.runtime.core.internal.util.queue.SegmentedFileQueueStoreDelegate.SEGMENTED_QUEUE_STORE_PROPERTY;
+import static org.mule.runtime.core.internal.util.queue.SegmentedFileQueueStoreDelegate.hasSegments;
+import static org.mule.runtime.core.internal.util.queue.SegmentedFileQueueStoreDelegate.moveEntriesTo;
+
+import static java.lang.Boolean.getBoolean;
+
 import org.mule.runtime.core.api.MuleContext;
 import org.mule.runtime.core.api.util.queue.DefaultQueueConfiguration;
 import org.mule.runtime.core.api.util.queue.QueueConfiguration;
@@ -43,8 +49,17 @@ public class DefaultQueueStore implements RecoverableQueueStore {
       this.config = new DefaultQueueConfiguration();
     }
     if (this.config.isPersistent()) {
-      delegate = new DualRandomAccessFileQueueStoreDelegate(this.name, muleContext.getConfiguration().getWorkingDirectory(),
-                                                            muleContext, this.config.getCapacity());
+      String workingDirectory = muleContext.getConfiguration().getWorkingDirectory();
+      if (getBoolean(SEGMENTED_QUEUE_STORE_PROPERTY)) {
+        delegate = new SegmentedFileQueueStoreDelegate(this.name, workingDirectory, muleContext, this.config.getCapacity());
+      } else {
+        delegate = new DualRandomAccessFileQueueStoreDelegate(this.name, workingDirectory, muleContext,
+                                                              this.config.getCapacity());
+        if (hasSegments(this.name, workingDirectory)) {
+          // left by a previous run with the segmented store enabled
+          moveEntriesTo(this.name, workingDirectory, muleContext, delegate);
+        }
+      }
     } else {
       delegate = new DefaultQueueStoreDelegate(this.config.getCapacity());
     }
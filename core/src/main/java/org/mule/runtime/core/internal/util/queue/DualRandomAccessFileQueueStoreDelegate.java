@@ -6,6 +6,8 @@
  */
 package org.mule.runtime.core.internal.util.queue;
 
+import static org.mule.runtime.core.internal.util.queue.QueueFileProvider.toHex;
+
 import org.mule.runtime.api.serialization.ObjectSerializer;
 import org.mule.runtime.api.util.Preconditions;
 import org.mule.runtime.core.api.MuleContext;
@@ -88,7 +90,23 @@ public class DualRandomAccessFileQueueStoreDelegate extends AbstractQueueStoreDe
     return new File(workingDirectory + File.separator + QUEUE_STORE_DIRECTORY);
   }
 
+  /**
+   * @param queueName        the name of the queue
+   * @param workingDirectory the working directory the queue store directory is in
+   * @return whether there are data files left by a queue store for the given queue
+   */
+  static boolean hasQueueFiles(String queueName, String workingDirectory) {
+    File queuesDirectory = getQueuesDirectory(workingDirectory);
+    for (String fileName : new String[] {queueName + QUEUE_STORE_1_SUFFIX, queueName + QUEUE_STORE_2_SUFFIX}) {
+      // the file name is hex encoded when the file system does not support the queue name
+      if (new File(queuesDirectory, fileName).exists() || new File(queuesDirectory, toHex(fileName)).exists()) {
+        return true;
+      }
+    }
+    return false;
+  }
 
+  // only for testing.
   public static File getFirstQueueFileForTesting(String queueName, String workingDirectory) {
     return new File(getQueuesDirectory(workingDirectory), queueName + QUEUE_STORE_1_SUFFIX);
   }
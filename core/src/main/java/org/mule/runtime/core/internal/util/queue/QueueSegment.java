@@ -0,0 +1,286 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.util.queue;
+
+import static java.lang.Math.toIntExact;
+import static java.nio.channels.FileChannel.MapMode.READ_WRITE;
+import static java.nio.file.Files.move;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static org.apache.commons.io.FileUtils.deleteQuietly;
+
+import org.mule.runtime.core.internal.util.MappedBuffers;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * A fixed size, memory mapped file holding a contiguous part of the entries of a {@link SegmentedFileQueueStoreDelegate}.
+ * <p/>
+ * Entries are appended one after the other, each one preceded by its length. Since the file is zero filled when created, a zero
+ * length marks the end of the written entries. The length of an entry is written after its data, so an entry that was not
+ * completely written when Mule stopped is just ignored.
+ * <p/>
+ * Consumed entries are never removed from a segment, the whole segment is deleted once all its entries have been consumed. When
+ * a segment has to be rewritten, the position of its first entry to consume does not change, so that position is valid for both
+ * the old and the new file.
+ */
+class QueueSegment {
+
+  static final String SEGMENT_FILE_EXTENSION = ".seg";
+
+  private static final String TEMPORARY_FILE_EXTENSION = ".tmp";
+  private static final int LENGTH_SIZE = Integer.BYTES;
+
+  private final long id;
+  private final File file;
+  private MappedByteBuffer buffer;
+  private int writePosition;
+
+  /**
+   * Creates a new segment, replacing any file for the same {@code id}.
+   *
+   * @param directory where to create the segment file
+   * @param id        the position of the segment within the queue
+   * @param size      the size of the segment file
+   * @return the created segment
+   */
+  static QueueSegment create(File directory, long id, int size) throws IOException {
+    File file = getFile(directory, id);
+    deleteQuietly(file);
+    return new QueueSegment(id, file, size, 0);
+  }
+
+  /**
+   * Opens an existing segment.
+   *
+   * @param file          the file of the segment
+   * @param id            the position of the segment within the queue
+   * @param firstPosition the position of the first entry of the segment that has not been consumed
+   * @return the opened segment
+   */
+  static QueueSegment open(File file, long id, int firstPosition) throws IOException {
+    return new QueueSegment(id, file, toIntExact(file.length()), firstPosition);
+  }
+
+  /**
+   * @param directory the directory holding the segments of a queue
+   * @param id        the position of a segment within the queue
+   * @return the file for the segment
+   */
+  static File getFile(File directory, long id) {
+    return new File(directory, id + SEGMENT_FILE_EXTENSION);
+  }
+
+  /**
+   * @param dataLength the length of an entry
+   * @return the size a segment needs to hold just that entry
+   */
+  static int requiredSize(int dataLength) {
+    return LENGTH_SIZE + dataLength + LENGTH_SIZE;
+  }
+
+  private QueueSegment(long id, File file, int size, int firstPosition) throws IOException {
+    this.id = id;
+    this.file = file;
+    try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw");
+        FileChannel channel = randomAccessFile.getChannel()) {
+      buffer = channel.map(READ_WRITE, 0, size);
+    }
+
+    // consumed entries may have been overwritten, so the entries are only followed from the first one not consumed
+    writePosition = firstPosition;
+    while (hasEntry(writePosition)) {
+      writePosition = nextPosition(writePosition);
+    }
+  }
+
+  /**
+   * Appends an entry to this segment, if there is room for it.
+   *
+   * @param data the entry to append
+   * @return {@code true} if the entry was appended, {@code false} if there is no room for it in this segment
+   */
+  boolean append(byte[] data) {
+    if (writePosition + requiredSize(data.length) > buffer.capacity()) {
+      return false;
+    }
+
+    ByteBuffer writeBuffer = buffer.duplicate();
+    writeBuffer.position(writePosition + LENGTH_SIZE);
+    writeBuffer.put(data);
+    buffer.putInt(writePosition, data.length);
+
+    writePosition += LENGTH_SIZE + data.length;
+    return true;
+  }
+
+  /**
+   * Writes an entry so that it ends right at the given {@code position}, overwriting the consumed entries before it.
+   *
+   * @param position the position of an entry in this segment, with only consumed entries before it
+   * @param data     the entry to write
+   * @return the position of the written entry, or {@code -1} if there is no room for it before {@code position}
+   */
+  int prepend(int position, byte[] data) {
+    int entryPosition = position - LENGTH_SIZE - data.length;
+    if (entryPosition < 0) {
+      return -1;
+    }
+
+    ByteBuffer writeBuffer = buffer.duplicate();
+    writeBuffer.position(entryPosition + LENGTH_SIZE);
+    writeBuffer.put(data);
+    buffer.putInt(entryPosition, data.length);
+    return entryPosition;
+  }
+
+  /**
+   * @param position the position of an entry in this segment
+   * @return the data of the entry
+   */
+  byte[] read(int position) {
+    byte[] data = new byte[buffer.getInt(position)];
+    ByteBuffer readBuffer = buffer.duplicate();
+    readBuffer.position(position + LENGTH_SIZE);
+    readBuffer.get(data);
+    return data;
+  }
+
+  /**
+   * @param position the position of an entry in this segment
+   * @return the position of the entry that follows it
+   */
+  int nextPosition(int position) {
+    return position + LENGTH_SIZE + buffer.getInt(position);
+  }
+
+  /**
+   * @param position a position in this segment
+   * @return {@code true} if an entry was written at the given position
+   */
+  boolean hasEntry(int position) {
+    if (position + LENGTH_SIZE > buffer.capacity()) {
+      return false;
+    }
+    int length = buffer.getInt(position);
+    return length > 0 && position + LENGTH_SIZE + length <= buffer.capacity();
+  }
+
+  /**
+   * @param position the position of an entry in this segment
+   * @return how many entries there are from the given {@code position} on
+   */
+  int countEntries(int position) {
+    int count = 0;
+    for (; hasEntry(position); position = nextPosition(position)) {
+      count++;
+    }
+    return count;
+  }
+
+  /**
+   * Writes the changes done to this segment to the storage device.
+   */
+  void force() {
+    buffer.force();
+  }
+
+  /**
+   * Replaces this segment with one holding its entries from {@code firstPosition} on, but the one at {@code excludedPosition}.
+   * The entries before {@code firstPosition} are dropped, but the space they took is kept so that it is still the position of
+   * the first entry to consume.
+   *
+   * @param firstPosition    the position of the first entry of this segment that has not been consumed
+   * @param excludedPosition the position of the entry to leave out
+   * @return the new segment. This one must not be used anymore.
+   */
+  QueueSegment withoutEntry(int firstPosition, int excludedPosition) throws IOException {
+    QueueSegment replacement = createReplacement(buffer.capacity(), firstPosition);
+    for (int position = firstPosition; hasEntry(position); position = nextPosition(position)) {
+      if (position != excludedPosition) {
+        replacement.append(read(position));
+      }
+    }
+    return replace(replacement, firstPosition);
+  }
+
+  /**
+   * Replaces this segment with one holding the given {@code data} at {@code firstPosition}, followed by the entries of this
+   * segment from that position on. The entries before {@code firstPosition} are dropped, but the space they took is kept so that
+   * it is still the position of the first entry to consume.
+   *
+   * @param firstPosition the position of the first entry of this segment that has not been consumed
+   * @param data          the entry to add
+   * @return the new segment. This one must not be used anymore.
+   */
+  QueueSegment withEntryAt(int firstPosition, byte[] data) throws IOException {
+    QueueSegment replacement = createReplacement(requiredSize(data.length) + writePosition, firstPosition);
+    replacement.append(data);
+    for (int position = firstPosition; hasEntry(position); position = nextPosition(position)) {
+      replacement.append(read(position));
+    }
+    return replace(replacement, firstPosition);
+  }
+
+  private QueueSegment createReplacement(int size, int firstPosition) throws IOException {
+    File temporaryFile = new File(file.getPath() + TEMPORARY_FILE_EXTENSION);
+    deleteQuietly(temporaryFile);
+    QueueSegment replacement = new QueueSegment(id, temporaryFile, size, 0);
+    if (firstPosition > 0) {
+      // a single entry just filling the space taken by the consumed ones
+      replacement.buffer.putInt(0, firstPosition - LENGTH_SIZE);
+      replacement.writePosition = firstPosition;
+    }
+    return replacement;
+  }
+
+  private QueueSegment replace(QueueSegment replacement, int firstPosition) throws IOException {
+    replacement.force();
+    replacement.close();
+    close();
+    move(replacement.file.toPath(), file.toPath(), ATOMIC_MOVE, REPLACE_EXISTING);
+    return open(file, id, firstPosition);
+  }
+
+  /**
+   * @return the position right after the last entry of this segment
+   */
+  int getWritePosition() {
+    return writePosition;
+  }
+
+  /**
+   * @return the position of this segment within the queue
+   */
+  long getId() {
+    return id;
+  }
+
+  /**
+   * Releases the mapping of this segment file, leaving its entries in place.
+   */
+  void close() {
+    if (buffer != null) {
+      // the file cannot be replaced or deleted on some platforms while it is still mapped
+      MappedBuffers.unmap(buffer);
+      buffer = null;
+    }
+  }
+
+  /**
+   * Closes this segment and deletes its file.
+   */
+  void delete() {
+    close();
+    deleteQuietly(file);
+  }
+}
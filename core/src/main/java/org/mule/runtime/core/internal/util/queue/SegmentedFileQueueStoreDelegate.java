@@ -0,0 +1,450 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.util.queue;
+
+import static org.mule.runtime.core.api.config.MuleProperties.SYSTEM_PROPERTY_PREFIX;
+import static org.mule.runtime.core.internal.util.queue.DualRandomAccessFileQueueStoreDelegate.MAX_LENGTH_PER_FILE_PROPERTY_KEY;
+import static org.mule.runtime.core.internal.util.queue.DualRandomAccessFileQueueStoreDelegate.hasQueueFiles;
+import static org.mule.runtime.core.internal.util.queue.QueueFileProvider.toHex;
+import static org.mule.runtime.core.internal.util.queue.QueueSegment.SEGMENT_FILE_EXTENSION;
+import static org.mule.runtime.core.internal.util.queue.QueueSegment.requiredSize;
+
+import static java.lang.Integer.getInteger;
+import static java.lang.Long.parseLong;
+import static java.lang.Math.max;
+import static java.lang.String.format;
+import static java.nio.channels.FileChannel.MapMode.READ_WRITE;
+
+import static org.apache.commons.io.FileUtils.deleteQuietly;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import org.mule.runtime.api.exception.MuleRuntimeException;
+import org.mule.runtime.api.serialization.ObjectSerializer;
+import org.mule.runtime.api.util.Preconditions;
+import org.mule.runtime.core.api.MuleContext;
+import org.mule.runtime.core.internal.util.MappedBuffers;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.Serializable;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import org.slf4j.Logger;
+
+/**
+ * {@link TransactionalQueueStoreDelegate} implementation storing the queue data in a sequence of memory mapped
+ * {@link QueueSegment segments}.
+ * <p/>
+ * New entries are appended to the last segment, creating a new one when it is full. Entries are consumed from the first segment,
+ * which is deleted as a whole once all its entries have been consumed. The position of the next entry to consume is kept in a
+ * control file, so neither adding nor consuming entries requires going through the rest of the queue.
+ * <p/>
+ * Queue data written by {@link DualRandomAccessFileQueueStoreDelegate} is moved to the segments when the queue is created, and
+ * {@link DefaultQueueStore} moves it back when {@link #SEGMENTED_QUEUE_STORE_PROPERTY} is no longer set. Runtime versions without
+ * this class do not read the segments.
+ * <p/>
+ * Only the file layout differs from {@link DualRandomAccessFileQueueStoreDelegate}: operations are still serialized by
+ * {@link AbstractQueueStoreDelegate}, and every added or consumed entry is forced to disk.
+ *
+ * @since 4.8.0
+ */
+public class SegmentedFileQueueStoreDelegate extends AbstractQueueStoreDelegate
+    implements TransactionalQueueStoreDelegate {
+
+  /**
+   * When set, persistent queues are stored by this implementation instead of {@link DualRandomAccessFileQueueStoreDelegate}.
+   */
+  public static final String SEGMENTED_QUEUE_STORE_PROPERTY = SYSTEM_PROPERTY_PREFIX + "queue.store.segmented";
+
+  private static final Logger LOGGER = getLogger(SegmentedFileQueueStoreDelegate.class);
+
+  private static final int ONE_MEGABYTE = 1024 * 1024;
+  private static final String QUEUE_STORE_DIRECTORY = "queuestore";
+  private static final String SEGMENTS_DIRECTORY_SUFFIX = "-segments";
+  private static final String CONTROL_FILE_NAME = "control";
+
+  // the control file holds the id of the first segment and the position of the next entry to consume within it
+  private static final int HEAD_SEGMENT_ID_POSITION = 0;
+  private static final int HEAD_POSITION_POSITION = HEAD_SEGMENT_ID_POSITION + Long.BYTES;
+  private static final int CONTROL_DATA_SIZE = HEAD_POSITION_POSITION + Integer.BYTES;
+
+  private final ObjectSerializer serializer;
+  private final File segmentsDirectory;
+  private final int segmentSize;
+
+  private final LinkedList<QueueSegment> segments = new LinkedList<>();
+  private MappedByteBuffer controlData;
+  private long nextSegmentId;
+  private int headPosition;
+  private int size;
+
+  public SegmentedFileQueueStoreDelegate(String queueName, String workingDirectory, MuleContext muleContext, int capacity) {
+    this(queueName, workingDirectory, muleContext, capacity, true);
+  }
+
+  private SegmentedFileQueueStoreDelegate(String queueName, String workingDirectory, MuleContext muleContext, int capacity,
+                                          boolean moveLegacyEntries) {
+    super(capacity);
+    serializer = muleContext.getObjectSerializer();
+    segmentSize = getInteger(MAX_LENGTH_PER_FILE_PROPERTY_KEY, ONE_MEGABYTE);
+    segmentsDirectory = createSegmentsDirectory(new File(workingDirectory, QUEUE_STORE_DIRECTORY), queueName);
+
+    try {
+      open();
+    } catch (IOException e) {
+      throw new MuleRuntimeException(e);
+    }
+
+    if (moveLegacyEntries && hasQueueFiles(queueName, workingDirectory)) {
+      moveEntriesFrom(new DualRandomAccessFileQueueStoreDelegate(queueName, workingDirectory, muleContext, capacity));
+    }
+
+    if (LOGGER.isDebugEnabled()) {
+      LOGGER.debug(format("Queue %s has %s messages", queueName, size));
+    }
+  }
+
+  /**
+   * @param queueName        the name of the queue
+   * @param workingDirectory the working directory the queue store directory is in
+   * @return whether there are segments left by a queue store for the given queue
+   */
+  static boolean hasSegments(String queueName, String workingDirectory) {
+    File queuesDirectory = new File(workingDirectory, QUEUE_STORE_DIRECTORY);
+    // the directory name is hex encoded when the file system does not support the queue name
+    return new File(queuesDirectory, queueName + SEGMENTS_DIRECTORY_SUFFIX).isDirectory()
+        || new File(queuesDirectory, toHex(queueName) + SEGMENTS_DIRECTORY_SUFFIX).isDirectory();
+  }
+
+  /**
+   * Moves the entries left in the segments of the given queue to the end of {@code target}, deleting the segments afterwards.
+   *
+   * @param queueName        the name of the queue
+   * @param workingDirectory the working directory the queue store directory is in
+   * @param muleContext      the context providing the serializer the entries were written with
+   * @param target           the queue store to move the entries to
+   */
+  static void moveEntriesTo(String queueName, String workingDirectory, MuleContext muleContext, QueueStoreDelegate target) {
+    SegmentedFileQueueStoreDelegate segmented =
+        new SegmentedFileQueueStoreDelegate(queueName, workingDirectory, muleContext, 0, false);
+    try {
+      Serializable item;
+      while ((item = segmented.getFirst()) != null) {
+        target.putNow(item);
+        segmented.removeFirst();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      segmented.close();
+      throw new MuleRuntimeException(e);
+    }
+    segmented.dispose();
+  }
+
+  private static File createSegmentsDirectory(File queuesDirectory, String queueName) {
+    if (!queuesDirectory.exists()) {
+      Preconditions.checkState(queuesDirectory.mkdirs(),
+                               "Could not create queue store directory " + queuesDirectory.getAbsolutePath());
+    }
+
+    File directory = new File(queuesDirectory, queueName + SEGMENTS_DIRECTORY_SUFFIX);
+    if (!directory.isDirectory() && !directory.mkdir()) {
+      // if file system does not support the name provided then use a hex representation of the name.
+      directory = new File(queuesDirectory, toHex(queueName) + SEGMENTS_DIRECTORY_SUFFIX);
+      Preconditions.checkState(directory.isDirectory() || directory.mkdir(),
+                               "Could not create queue store directory " + directory.getAbsolutePath());
+    }
+    return directory;
+  }
+
+  private void open() throws IOException {
+    try (RandomAccessFile controlFile = new RandomAccessFile(new File(segmentsDirectory, CONTROL_FILE_NAME), "rw");
+        FileChannel channel = controlFile.getChannel()) {
+      // a new control file is zero filled, which stands for an empty queue
+      controlData = channel.map(READ_WRITE, 0, CONTROL_DATA_SIZE);
+    }
+    long headSegmentId = controlData.getLong(HEAD_SEGMENT_ID_POSITION);
+    nextSegmentId = headSegmentId;
+
+    SortedMap<Long, File> segmentFiles = new TreeMap<>();
+    for (File file : segmentsDirectory.listFiles()) {
+      String fileName = file.getName();
+      if (fileName.endsWith(SEGMENT_FILE_EXTENSION)) {
+        try {
+          segmentFiles.put(parseLong(fileName.substring(0, fileName.length() - SEGMENT_FILE_EXTENSION.length())), file);
+        } catch (NumberFormatException e) {
+          LOGGER.warn("Ignoring unexpected file in queue store directory: " + file.getAbsolutePath());
+        }
+      } else if (!fileName.equals(CONTROL_FILE_NAME)) {
+        // leftover of a segment rewrite that did not complete
+        deleteQuietly(file);
+      }
+    }
+
+    for (SortedMap.Entry<Long, File> segmentFile : segmentFiles.entrySet()) {
+      long id = segmentFile.getKey();
+      if (id < headSegmentId) {
+        // already consumed, Mule stopped before it could be deleted
+        deleteQuietly(segmentFile.getValue());
+        continue;
+      }
+
+      int firstPosition = id == headSegmentId ? controlData.getInt(HEAD_POSITION_POSITION) : 0;
+      QueueSegment segment = QueueSegment.open(segmentFile.getValue(), id, firstPosition);
+      size += segment.countEntries(firstPosition);
+      segments.addLast(segment);
+      nextSegmentId = id + 1;
+    }
+
+    if (!segments.isEmpty() && segments.getFirst().getId() == headSegmentId) {
+      headPosition = controlData.getInt(HEAD_POSITION_POSITION);
+    }
+    discardConsumedSegments();
+  }
+
+  private void moveEntriesFrom(DualRandomAccessFileQueueStoreDelegate legacyDelegate) {
+    try {
+      Serializable item;
+      while ((item = legacyDelegate.getFirst()) != null) {
+        add(item);
+        legacyDelegate.removeFirst();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      legacyDelegate.close();
+      throw new MuleRuntimeException(e);
+    }
+    legacyDelegate.dispose();
+  }
+
+  @Override
+  protected void add(Serializable item) {
+    byte[] data = serializer.getInternalProtocol().serialize(item);
+
+    QueueSegment tail = segments.peekLast();
+    if (tail == null || !tail.append(data)) {
+      tail = newSegment(nextSegmentId++, max(segmentSize, requiredSize(data.length)));
+      tail.append(data);
+      segments.addLast(tail);
+    }
+    tail.force();
+    size++;
+
+    if (discardConsumedSegments()) {
+      writeControlData();
+    }
+  }
+
+  @Override
+  protected void addFirst(Serializable item) throws InterruptedException {
+    if (size == 0) {
+      add(item);
+      return;
+    }
+
+    byte[] data = serializer.getInternalProtocol().serialize(item);
+    QueueSegment head = segments.getFirst();
+    int position = head.prepend(headPosition, data);
+    if (position >= 0) {
+      head.force();
+      headPosition = position;
+      writeControlData();
+    } else {
+      try {
+        segments.set(0, head.withEntryAt(headPosition, data));
+      } catch (IOException e) {
+        throw new MuleRuntimeException(e);
+      }
+    }
+    size++;
+  }
+
+  @Override
+  protected Serializable removeFirst() throws InterruptedException {
+    if (size == 0) {
+      return null;
+    }
+
+    QueueSegment head = segments.getFirst();
+    Serializable value = deserialize(head.read(headPosition));
+    headPosition = head.nextPosition(headPosition);
+    size--;
+
+    discardConsumedSegments();
+    writeControlData();
+    return value;
+  }
+
+  @Override
+  protected Serializable getFirst() throws InterruptedException {
+    if (size == 0) {
+      return null;
+    }
+    return deserialize(segments.getFirst().read(headPosition));
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  protected boolean isEmpty() {
+    return size == 0;
+  }
+
+  @Override
+  protected void doClear() {
+    for (QueueSegment segment : segments) {
+      segment.delete();
+    }
+    segments.clear();
+    headPosition = 0;
+    size = 0;
+    writeControlData();
+  }
+
+  @Override
+  protected boolean doAddAll(Collection<? extends Serializable> items) {
+    for (Serializable item : items) {
+      add(item);
+    }
+    return true;
+  }
+
+  public synchronized Collection<Serializable> allElements() throws InterruptedException {
+    List<Serializable> elements = new ArrayList<>(size);
+    int position = headPosition;
+    for (QueueSegment segment : segments) {
+      for (; segment.hasEntry(position); position = segment.nextPosition(position)) {
+        try {
+          elements.add(deserialize(segment.read(position)));
+        } catch (Exception e) {
+          LOGGER.warn("Failure trying to deserialize value " + e.getMessage());
+          if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("Failure trying to deserialize value", e);
+          }
+        }
+      }
+      position = 0;
+    }
+    return elements;
+  }
+
+  @Override
+  public synchronized void remove(Serializable value) {
+    int position = headPosition;
+    ListIterator<QueueSegment> segmentsIterator = segments.listIterator();
+    while (segmentsIterator.hasNext()) {
+      QueueSegment segment = segmentsIterator.next();
+      for (; segment.hasEntry(position); position = segment.nextPosition(position)) {
+        if (deserialize(segment.read(position)).equals(value)) {
+          removeEntry(segmentsIterator, segment, position);
+          return;
+        }
+      }
+      position = 0;
+    }
+  }
+
+  private void removeEntry(ListIterator<QueueSegment> segmentsIterator, QueueSegment segment, int position) {
+    if (segment == segments.getFirst() && position == headPosition) {
+      try {
+        removeFirst();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new MuleRuntimeException(e);
+      }
+      return;
+    }
+
+    try {
+      segmentsIterator.set(segment.withoutEntry(segment == segments.getFirst() ? headPosition : 0, position));
+    } catch (IOException e) {
+      throw new MuleRuntimeException(e);
+    }
+    size--;
+  }
+
+  @Override
+  public synchronized boolean contains(Serializable value) {
+    int position = headPosition;
+    for (QueueSegment segment : segments) {
+      for (; segment.hasEntry(position); position = segment.nextPosition(position)) {
+        if (deserialize(segment.read(position)).equals(value)) {
+          return true;
+        }
+      }
+      position = 0;
+    }
+    return false;
+  }
+
+  @Override
+  public synchronized void close() {
+    for (QueueSegment segment : segments) {
+      segment.close();
+    }
+    segments.clear();
+    if (controlData != null) {
+      MappedBuffers.unmap(controlData);
+      controlData = null;
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public synchronized void dispose() {
+    close();
+    deleteQuietly(segmentsDirectory);
+  }
+
+  private QueueSegment newSegment(long id, int segmentSize) {
+    try {
+      return QueueSegment.create(segmentsDirectory, id, segmentSize);
+    } catch (IOException e) {
+      throw new MuleRuntimeException(e);
+    }
+  }
+
+  /**
+   * Deletes the first segments as long as all their entries have been consumed, keeping at least the last one so new entries
+   * can still be appended to it.
+   *
+   * @return whether any segment was deleted
+   */
+  private boolean discardConsumedSegments() {
+    boolean discarded = false;
+    while (segments.size() > 1 && !segments.getFirst().hasEntry(headPosition)) {
+      segments.removeFirst().delete();
+      headPosition = 0;
+      discarded = true;
+    }
+    return discarded;
+  }
+
+  private void writeControlData() {
+    controlData.putLong(HEAD_SEGMENT_ID_POSITION, segments.isEmpty() ? nextSegmentId : segments.getFirst().getId());
+    controlData.putInt(HEAD_POSITION_POSITION, headPosition);
+    controlData.force();
+  }
+
+  private Serializable deserialize(byte[] valueAsBytes) {
+    return serializer.getInternalProtocol().deserialize(valueAsBytes);
+  }
+}
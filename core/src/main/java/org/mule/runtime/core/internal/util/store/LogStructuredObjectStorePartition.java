@@ -0,0 +1,860 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.util.store;
+
+import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
+import static org.mule.runtime.core.api.config.MuleProperties.SYSTEM_PROPERTY_PREFIX;
+import static org.mule.runtime.core.api.util.FileUtils.cleanDirectory;
+import static org.mule.runtime.core.internal.util.store.MuleObjectStoreManager.UNBOUNDED;
+
+import static java.lang.Integer.getInteger;
+import static java.lang.String.format;
+import static java.lang.System.currentTimeMillis;
+import static java.nio.ByteBuffer.allocate;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static java.util.Collections.unmodifiableList;
+import static java.util.Comparator.comparingLong;
+
+import static org.apache.commons.io.FileUtils.readFileToString;
+import static org.apache.commons.io.FileUtils.writeStringToFile;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import org.mule.runtime.api.scheduler.Scheduler;
+import org.mule.runtime.api.serialization.ObjectSerializer;
+import org.mule.runtime.api.store.ObjectAlreadyExistsException;
+import org.mule.runtime.api.store.ObjectDoesNotExistException;
+import org.mule.runtime.api.store.ObjectStoreException;
+import org.mule.runtime.api.store.ObjectStoreNotAvailableException;
+import org.mule.runtime.core.api.MuleContext;
+import org.mule.runtime.core.internal.store.DeserializationPostInitialisable;
+
+import java.io.BufferedInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32;
+
+import org.slf4j.Logger;
+
+/**
+ * A persistent object store partition which keeps its entries in an append-only log, instead of using a file per entry as
+ * {@link PersistentObjectStorePartition} does.
+ * <p>
+ * The log is split in segment files. Each store or remove operation appends a record to the active segment, and an in-memory
+ * index maps every live key to the location of its value. This means that {@link #contains(String)} and {@link #allKeys()} never
+ * touch the file system, and that {@link #retrieve(String)} is a single positional read.
+ * <p>
+ * Once a segment is full, it is sealed and a new one is started. When at least half of the bytes of the sealed segments belong
+ * to removed or overwritten entries, a compaction task is submitted to an IO scheduler, which copies the live entries of those
+ * segments to the active segment and deletes the sealed ones. The same check is done by {@link #expire(long, int)}, which the
+ * object store manager runs in the background for expirable stores, if entries were removed since the last compaction.
+ * {@link #close()} waits for a compaction in progress to finish.
+ * <p>
+ * Operations over different keys only contend on the append of the record, as each key is guarded by one of a fixed set of
+ * striped locks. Partitions persisted by {@link PersistentObjectStorePartition} are migrated into the log when opened.
+ *
+ * @since 4.8.0
+ */
+public class LogStructuredObjectStorePartition<T extends Serializable> extends PersistentObjectStorePartition<T> {
+
+  private static final Logger LOGGER = getLogger(LogStructuredObjectStorePartition.class);
+
+  public static final String SEGMENT_FILE_EXTENSION = ".seg";
+  public static final int DEFAULT_SEGMENT_SIZE =
+      getInteger(SYSTEM_PROPERTY_PREFIX + "objectStore.persistent.segmentSize", 16 * 1024 * 1024);
+
+  private static final String PARTITION_DESCRIPTOR_FILE = "partition-descriptor";
+  private static final String LEGACY_OBJECT_FILE_EXTENSION = ".obj";
+
+  private static final byte PUT = 1;
+  private static final byte REMOVE = 2;
+
+  // record length + crc of the body
+  private static final int RECORD_HEADER_SIZE = 4 + 4;
+  // record type + timestamp + key length
+  private static final int BODY_FIXED_SIZE = 1 + 8 + 4;
+
+  private static final int LOCK_STRIPES = 64;
+
+  private final MuleContext muleContext;
+  private final ObjectSerializer serializer;
+  private final File partitionDirectory;
+  private final int maxSegmentSize;
+  private String partitionName;
+
+  private final ConcurrentMap<String, Location> index = new ConcurrentHashMap<>();
+  private final NavigableMap<Long, Segment> segments = new ConcurrentSkipListMap<>();
+  private final Lock[] keyLocks = new Lock[LOCK_STRIPES];
+
+  // Guards the existence of the segment files: regular operations hold the read lock, while the operations that delete segments
+  // hold the write lock.
+  private final ReadWriteLock segmentsLock = new ReentrantReadWriteLock();
+  private final Lock appendLock = new ReentrantLock();
+  private final Lock compactionLock = new ReentrantLock();
+
+  private Segment activeSegment;
+  private volatile boolean compactionRequested = false;
+  private final AtomicBoolean compactionScheduled = new AtomicBoolean(false);
+  // whether entries were removed since the last compaction, so it may be worth compacting again
+  private volatile boolean entriesRemoved = false;
+  private volatile boolean opened = false;
+  private Scheduler compactionScheduler;
+
+  public LogStructuredObjectStorePartition(MuleContext muleContext, String partitionName, File partitionDirectory) {
+    this(muleContext, partitionName, partitionDirectory, DEFAULT_SEGMENT_SIZE);
+  }
+
+  public LogStructuredObjectStorePartition(MuleContext muleContext, File partitionDirectory)
+      throws ObjectStoreNotAvailableException {
+    this(muleContext, readPartitionName(partitionDirectory), partitionDirectory, DEFAULT_SEGMENT_SIZE);
+  }
+
+  LogStructuredObjectStorePartition(MuleContext muleContext, String partitionName, File partitionDirectory,
+                                    int maxSegmentSize) {
+    this.muleContext = muleContext;
+    this.serializer = muleContext.getObjectSerializer();
+    this.partitionName = partitionName;
+    this.partitionDirectory = partitionDirectory;
+    this.maxSegmentSize = maxSegmentSize;
+
+    for (int i = 0; i < LOCK_STRIPES; i++) {
+      keyLocks[i] = new ReentrantLock();
+    }
+  }
+
+  /**
+   * @param partitionDirectory the directory of a persistent partition
+   * @return whether the given directory contains a partition persisted by this class
+   */
+  public static boolean isLogStructured(File partitionDirectory) {
+    File[] segmentFiles = listSegmentFiles(partitionDirectory);
+    return segmentFiles.length > 0;
+  }
+
+  private static String readPartitionName(File partitionDirectory) throws ObjectStoreNotAvailableException {
+    try {
+      return readFileToString(new File(partitionDirectory, PARTITION_DESCRIPTOR_FILE));
+    } catch (IOException e) {
+      throw new ObjectStoreNotAvailableException(e);
+    }
+  }
+
+  @Override
+  public synchronized void open() throws ObjectStoreException {
+    if (opened) {
+      return;
+    }
+
+    createDirectory(partitionDirectory);
+    createOrRetrievePartitionDescriptorFile();
+
+    try {
+      for (File segmentFile : listSegmentFiles(partitionDirectory)) {
+        Segment segment = new Segment(parseSegmentId(segmentFile), segmentFile);
+        segments.put(segment.id, segment);
+        replay(segment);
+      }
+
+      Map.Entry<Long, Segment> last = segments.lastEntry();
+      activeSegment = last == null ? createSegment(0) : last.getValue();
+
+      migrateLegacyFiles();
+    } catch (IOException e) {
+      closeSegments();
+      throw new ObjectStoreException(createStaticMessage(format("Could not restore object store data from %s",
+                                                                partitionDirectory.getAbsolutePath())),
+                                     e);
+    }
+
+    opened = true;
+  }
+
+  @Override
+  public void close() throws ObjectStoreException {
+    // a compaction in progress must not outlive the segments it works on
+    compactionLock.lock();
+    try {
+      segmentsLock.writeLock().lock();
+      try {
+        opened = false;
+        closeSegments();
+        index.clear();
+        activeSegment = null;
+
+        try {
+          cleanDirectory(partitionDirectory);
+          partitionDirectory.delete();
+        } catch (IOException e) {
+          throw new ObjectStoreException(createStaticMessage("Could not close object store partition"), e);
+        }
+      } finally {
+        segmentsLock.writeLock().unlock();
+      }
+    } finally {
+      compactionLock.unlock();
+      stopCompactionScheduler();
+    }
+  }
+
+  @Override
+  public List<String> allKeys() throws ObjectStoreException {
+    return unmodifiableList(new ArrayList<>(index.keySet()));
+  }
+
+  @Override
+  protected boolean doContains(String key) throws ObjectStoreException {
+    return index.containsKey(key);
+  }
+
+  @Override
+  protected void doStore(String key, T value) throws ObjectStoreException {
+    final byte[] serialized = serializer.getInternalProtocol().serialize(value);
+
+    segmentsLock.readLock().lock();
+    try {
+      final Lock keyLock = keyLockFor(key);
+      keyLock.lock();
+      try {
+        if (index.containsKey(key)) {
+          throw new ObjectAlreadyExistsException();
+        }
+        index.put(key, append(PUT, key, serialized, currentTimeMillis()));
+      } finally {
+        keyLock.unlock();
+      }
+    } finally {
+      segmentsLock.readLock().unlock();
+    }
+
+    compactIfRequested();
+  }
+
+  @Override
+  protected T doRetrieve(String key) throws ObjectStoreException {
+    segmentsLock.readLock().lock();
+    try {
+      Location location = index.get(key);
+      if (location == null) {
+        throw new ObjectDoesNotExistException(createStaticMessage("Key does not exist: " + key));
+      }
+      return deserialize(read(location));
+    } finally {
+      segmentsLock.readLock().unlock();
+    }
+  }
+
+  @Override
+  public Map<String, T> retrieveAll() throws ObjectStoreException {
+    segmentsLock.readLock().lock();
+    try {
+      Map<String, T> values = new LinkedHashMap<>(index.size());
+      for (Map.Entry<String, Location> entry : index.entrySet()) {
+        values.put(entry.getKey(), deserialize(read(entry.getValue())));
+      }
+
+      return values;
+    } finally {
+      segmentsLock.readLock().unlock();
+    }
+  }
+
+  @Override
+  protected T doRemove(String key) throws ObjectStoreException {
+    T value;
+    segmentsLock.readLock().lock();
+    try {
+      final Lock keyLock = keyLockFor(key);
+      keyLock.lock();
+      try {
+        Location location = index.get(key);
+        if (location == null) {
+          throw new ObjectDoesNotExistException(createStaticMessage("Key does not exist: " + key));
+        }
+
+        value = deserialize(read(location));
+        removeEntry(key, location);
+      } finally {
+        keyLock.unlock();
+      }
+    } finally {
+      segmentsLock.readLock().unlock();
+    }
+
+    compactIfRequested();
+    return value;
+  }
+
+  @Override
+  public void clear() throws ObjectStoreException {
+    segmentsLock.writeLock().lock();
+    try {
+      closeSegments();
+      index.clear();
+
+      try {
+        cleanDirectory(partitionDirectory);
+        createOrRetrievePartitionDescriptorFile();
+        activeSegment = createSegment(0);
+      } catch (IOException e) {
+        throw new ObjectStoreException(createStaticMessage("Could not clear ObjectStore"), e);
+      }
+    } finally {
+      segmentsLock.writeLock().unlock();
+    }
+  }
+
+  @Override
+  public void expire(long entryTTL, int maxEntries) throws ObjectStoreException {
+    if (!opened) {
+      return;
+    }
+
+    final int excess = maxEntries == UNBOUNDED ? 0 : index.size() - maxEntries;
+    if (entryTTL != UNBOUNDED || excess > 0) {
+      removeExpired(entryTTL, excess);
+    }
+
+    if (entriesRemoved) {
+      appendLock.lock();
+      try {
+        compactionRequested = activeSegment != null && isCompactionWorthwhile();
+      } finally {
+        appendLock.unlock();
+      }
+      compactIfRequested();
+    }
+  }
+
+  private void removeExpired(long entryTTL, int excess) throws ObjectStoreException {
+    final long now = currentTimeMillis();
+    final List<Map.Entry<String, Location>> expired = new ArrayList<>();
+    if (excess > 0) {
+      // the oldest entries have to go first only when there are too many of them
+      List<Map.Entry<String, Location>> entries = new ArrayList<>(index.entrySet());
+      entries.sort(comparingLong(entry -> entry.getValue().timestamp));
+      for (int i = 0; i < entries.size() && (i < excess || isExpired(entries.get(i).getValue(), entryTTL, now)); i++) {
+        expired.add(entries.get(i));
+      }
+    } else {
+      for (Map.Entry<String, Location> entry : index.entrySet()) {
+        if (isExpired(entry.getValue(), entryTTL, now)) {
+          expired.add(entry);
+        }
+      }
+    }
+
+    if (expired.isEmpty()) {
+      return;
+    }
+
+    segmentsLock.readLock().lock();
+    try {
+      for (Map.Entry<String, Location> entry : expired) {
+        final Lock keyLock = keyLockFor(entry.getKey());
+        keyLock.lock();
+        try {
+          // the entry may have been removed and stored again since the snapshot was taken
+          if (index.get(entry.getKey()) == entry.getValue()) {
+            removeEntry(entry.getKey(), entry.getValue());
+          }
+        } finally {
+          keyLock.unlock();
+        }
+      }
+    } finally {
+      segmentsLock.readLock().unlock();
+    }
+  }
+
+  private static boolean isExpired(Location location, long entryTTL, long now) {
+    return entryTTL != UNBOUNDED && now - location.timestamp >= entryTTL;
+  }
+
+  @Override
+  public File getPartitionDirectory() {
+    return partitionDirectory;
+  }
+
+  @Override
+  public String getPartitionName() {
+    return partitionName;
+  }
+
+  @Override
+  protected File createOrRetrievePartitionDescriptorFile() throws ObjectStoreException {
+    try {
+      File partitionDescriptorFile = new File(partitionDirectory, PARTITION_DESCRIPTOR_FILE);
+      if (partitionDescriptorFile.exists()) {
+        partitionName = readPartitionName(partitionDirectory);
+      } else {
+        writeStringToFile(partitionDescriptorFile, partitionName);
+      }
+      return partitionDescriptorFile;
+    } catch (Exception e) {
+      throw new ObjectStoreException(e);
+    }
+  }
+
+  /**
+   * Appends a tombstone for the given entry and removes it from the index. Must be invoked holding the key lock.
+   */
+  private void removeEntry(String key, Location location) throws ObjectStoreException {
+    Location tombstone = append(REMOVE, key, null, currentTimeMillis());
+    // tombstones are only needed to shadow records of older segments, so they don't count as live data
+    tombstone.segment.deadBytes.add(tombstone.recordLength);
+
+    index.remove(key);
+    location.segment.deadBytes.add(location.recordLength);
+    if (!entriesRemoved) {
+      entriesRemoved = true;
+    }
+  }
+
+  private Location append(byte type, String key, byte[] value, long timestamp) throws ObjectStoreException {
+    final byte[] keyBytes = key.getBytes(UTF_8);
+    final int valueLength = value == null ? 0 : value.length;
+    final int bodyLength = BODY_FIXED_SIZE + keyBytes.length + valueLength;
+
+    ByteBuffer record = allocate(RECORD_HEADER_SIZE + bodyLength);
+    record.position(RECORD_HEADER_SIZE);
+    record.put(type).putLong(timestamp).putInt(keyBytes.length).put(keyBytes);
+    if (value != null) {
+      record.put(value);
+    }
+
+    CRC32 crc = new CRC32();
+    crc.update(record.array(), RECORD_HEADER_SIZE, bodyLength);
+    record.putInt(0, bodyLength).putInt(4, (int) crc.getValue());
+    record.rewind();
+
+    appendLock.lock();
+    try {
+      Segment segment = activeSegment;
+      if (segment == null) {
+        throw new ObjectStoreNotAvailableException(createStaticMessage(format("Object store partition '%s' is closed",
+                                                                              partitionName)));
+      }
+      if (segment.size > 0 && segment.size + record.capacity() > maxSegmentSize) {
+        segment = roll();
+      }
+
+      final long position = segment.size;
+      while (record.hasRemaining()) {
+        segment.channel.write(record, position + record.position());
+      }
+      segment.size += record.capacity();
+
+      return new Location(segment, position + RECORD_HEADER_SIZE + BODY_FIXED_SIZE + keyBytes.length, valueLength,
+                          record.capacity(), timestamp);
+    } catch (IOException e) {
+      throw new ObjectStoreException(createStaticMessage("Could not write to object store log at "
+          + partitionDirectory.getAbsolutePath()), e);
+    } finally {
+      appendLock.unlock();
+    }
+  }
+
+  /**
+   * Seals the active segment and starts a new one. Must be invoked holding the append lock.
+   */
+  private Segment roll() throws IOException {
+    activeSegment = createSegment(activeSegment.id + 1);
+    compactionRequested = isCompactionWorthwhile();
+    return activeSegment;
+  }
+
+  /**
+   * Whether at least half of the bytes of the sealed segments belong to removed or overwritten entries. Must be invoked holding
+   * the append lock.
+   */
+  private boolean isCompactionWorthwhile() {
+    long sealedBytes = 0;
+    long sealedDeadBytes = 0;
+    for (Segment sealed : segments.headMap(activeSegment.id).values()) {
+      sealedBytes += sealed.size;
+      sealedDeadBytes += sealed.deadBytes.sum();
+    }
+    return sealedBytes > 0 && sealedDeadBytes * 2 >= sealedBytes;
+  }
+
+  /**
+   * Submits a compaction task if one was requested and there isn't one pending already.
+   */
+  private void compactIfRequested() {
+    if (!compactionRequested || !opened || !compactionScheduled.compareAndSet(false, true)) {
+      return;
+    }
+
+    try {
+      getCompactionScheduler().submit(this::compactInBackground);
+    } catch (RejectedExecutionException e) {
+      compactionScheduled.set(false);
+      LOGGER.debug("Could not schedule the compaction of object store partition '{}'", partitionName, e);
+    }
+  }
+
+  private void compactInBackground() {
+    compactionLock.lock();
+    try {
+      compactionScheduled.set(false);
+      if (opened) {
+        compact();
+      }
+    } catch (ObjectStoreException e) {
+      LOGGER.warn(format("Could not compact object store partition '%s'", partitionName), e);
+    } finally {
+      compactionLock.unlock();
+    }
+  }
+
+  private synchronized Scheduler getCompactionScheduler() {
+    if (compactionScheduler == null) {
+      compactionScheduler = muleContext.getSchedulerService()
+          .ioScheduler(muleContext.getSchedulerBaseConfig()
+              .withName("ObjectStore-Compaction-" + partitionName)
+              .withMaxConcurrentTasks(1));
+    }
+    return compactionScheduler;
+  }
+
+  private synchronized void stopCompactionScheduler() {
+    if (compactionScheduler != null) {
+      compactionScheduler.stop();
+      compactionScheduler = null;
+    }
+  }
+
+  /**
+   * Copies the live entries of the sealed segments into the active one and deletes the sealed segments. Must be invoked holding
+   * the compaction lock.
+   */
+  private void compact() throws ObjectStoreException {
+    compactionRequested = false;
+    entriesRemoved = false;
+
+    final List<Segment> sealed;
+    segmentsLock.readLock().lock();
+    try {
+      final long activeSegmentId;
+      appendLock.lock();
+      try {
+        if (activeSegment == null) {
+          return;
+        }
+        activeSegmentId = activeSegment.id;
+      } finally {
+        appendLock.unlock();
+      }
+
+      sealed = new ArrayList<>(segments.headMap(activeSegmentId).values());
+      if (sealed.isEmpty()) {
+        return;
+      }
+
+      for (Map.Entry<String, Location> entry : index.entrySet()) {
+        if (entry.getValue().segment.id >= activeSegmentId) {
+          continue;
+        }
+
+        final Lock keyLock = keyLockFor(entry.getKey());
+        keyLock.lock();
+        try {
+          Location current = index.get(entry.getKey());
+          if (current != null && current.segment.id < activeSegmentId) {
+            index.put(entry.getKey(), append(PUT, entry.getKey(), read(current), current.timestamp));
+          }
+        } finally {
+          keyLock.unlock();
+        }
+      }
+
+      // make sure the copies are persisted before dropping the originals
+      force();
+    } finally {
+      segmentsLock.readLock().unlock();
+    }
+
+    segmentsLock.writeLock().lock();
+    try {
+      for (Segment segment : sealed) {
+        if (segments.remove(segment.id, segment)) {
+          segment.delete();
+        }
+      }
+    } finally {
+      segmentsLock.writeLock().unlock();
+    }
+
+    if (LOGGER.isDebugEnabled()) {
+      LOGGER.debug("Compacted {} segments of object store partition '{}'", sealed.size(), partitionName);
+    }
+  }
+
+  private void force() throws ObjectStoreException {
+    appendLock.lock();
+    try {
+      for (Segment segment : segments.values()) {
+        segment.channel.force(false);
+      }
+    } catch (IOException e) {
+      throw new ObjectStoreException(e);
+    } finally {
+      appendLock.unlock();
+    }
+  }
+
+  /**
+   * Rebuilds the index from the records of the given segment. A torn or corrupted record ends the segment, as it can only be the
+   * result of a write which was interrupted.
+   */
+  private void replay(Segment segment) throws IOException {
+    final FileChannel channel = segment.channel;
+    final long fileSize = channel.size();
+    final ByteBuffer header = allocate(RECORD_HEADER_SIZE);
+
+    long position = 0;
+    while (position + RECORD_HEADER_SIZE <= fileSize) {
+      header.clear();
+      readFully(channel, header, position);
+      header.flip();
+
+      final int bodyLength = header.getInt();
+      final int crc = header.getInt();
+      if (bodyLength < BODY_FIXED_SIZE || position + RECORD_HEADER_SIZE + bodyLength > fileSize) {
+        break;
+      }
+
+      final ByteBuffer body = allocate(bodyLength);
+      readFully(channel, body, position + RECORD_HEADER_SIZE);
+      CRC32 actualCrc = new CRC32();
+      actualCrc.update(body.array(), 0, bodyLength);
+      if ((int) actualCrc.getValue() != crc) {
+        break;
+      }
+
+      body.flip();
+      final byte type = body.get();
+      final long timestamp = body.getLong();
+      final int keyLength = body.getInt();
+      if (keyLength < 0 || keyLength > bodyLength - BODY_FIXED_SIZE) {
+        break;
+      }
+
+      final String key = new String(body.array(), BODY_FIXED_SIZE, keyLength, UTF_8);
+      final int recordLength = RECORD_HEADER_SIZE + bodyLength;
+
+      Location previous;
+      if (type == PUT) {
+        previous = index.put(key, new Location(segment, position + RECORD_HEADER_SIZE + BODY_FIXED_SIZE + keyLength,
+                                               bodyLength - BODY_FIXED_SIZE - keyLength, recordLength, timestamp));
+      } else {
+        previous = index.remove(key);
+        segment.deadBytes.add(recordLength);
+      }
+
+      if (previous != null) {
+        previous.segment.deadBytes.add(previous.recordLength);
+      }
+
+      position += recordLength;
+    }
+
+    if (position < fileSize) {
+      LOGGER.warn("Found an incomplete record at position {} of object store segment {}. The rest of the segment is discarded",
+                  position, segment.file.getAbsolutePath());
+      channel.truncate(position);
+    }
+    segment.size = position;
+  }
+
+  /**
+   * Moves the entries persisted as one file per key by {@link PersistentObjectStorePartition} into the log.
+   */
+  private void migrateLegacyFiles() throws IOException {
+    File[] legacyFiles = partitionDirectory
+        .listFiles(file -> !file.isDirectory() && file.getName().endsWith(LEGACY_OBJECT_FILE_EXTENSION));
+    if (legacyFiles == null || legacyFiles.length == 0) {
+      return;
+    }
+
+    // keep the relative age of the entries for expiration purposes
+    Arrays.sort(legacyFiles, comparingLong(File::lastModified));
+
+    List<File> migrated = new ArrayList<>(legacyFiles.length);
+    for (File legacyFile : legacyFiles) {
+      try {
+        StoreValue<T> storeValue = deserializeLegacyFile(legacyFile);
+        String key = storeValue.getKey().toString();
+        if (!index.containsKey(key)) {
+          index.put(key, append(PUT, key, serializer.getInternalProtocol().serialize(storeValue.getValue()),
+                                legacyFile.lastModified()));
+        }
+        migrated.add(legacyFile);
+      } catch (Exception e) {
+        LOGGER.warn(format("Could not migrate the ObjectStore file: %s. The file will be left untouched", legacyFile.getName()),
+                    e);
+      }
+    }
+
+    activeSegment.channel.force(false);
+    for (File legacyFile : migrated) {
+      if (!legacyFile.delete()) {
+        LOGGER.warn("Could not delete migrated ObjectStore file: {}", legacyFile.getAbsolutePath());
+      }
+    }
+  }
+
+  private StoreValue<T> deserializeLegacyFile(File file) throws IOException {
+    try (ObjectInputStream objectInputStream = new ObjectInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+      return serializer.getInternalProtocol().deserialize(objectInputStream);
+    }
+  }
+
+  private byte[] read(Location location) throws ObjectStoreException {
+    ByteBuffer value = allocate(location.valueLength);
+    try {
+      readFully(location.segment.channel, value, location.valueOffset);
+    } catch (IOException e) {
+      throw new ObjectStoreException(createStaticMessage("Could not read from object store log at "
+          + partitionDirectory.getAbsolutePath()), e);
+    }
+    return value.array();
+  }
+
+  private T deserialize(byte[] bytes) throws ObjectStoreException {
+    try {
+      T value = serializer.getInternalProtocol().deserialize(bytes);
+      if (value instanceof DeserializationPostInitialisable) {
+        DeserializationPostInitialisable.Implementation.init(value, muleContext);
+      }
+      return value;
+    } catch (Exception e) {
+      throw new ObjectStoreException(e);
+    }
+  }
+
+  private Segment createSegment(long id) throws IOException {
+    Segment segment = new Segment(id, new File(partitionDirectory, format("%019d%s", id, SEGMENT_FILE_EXTENSION)));
+    segments.put(id, segment);
+    return segment;
+  }
+
+  private void closeSegments() {
+    for (Segment segment : segments.values()) {
+      segment.close();
+    }
+    segments.clear();
+  }
+
+  private Lock keyLockFor(String key) {
+    int hash = key.hashCode();
+    return keyLocks[(hash ^ (hash >>> 16)) & (LOCK_STRIPES - 1)];
+  }
+
+  private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+    while (buffer.hasRemaining()) {
+      if (channel.read(buffer, position + buffer.position()) == -1) {
+        throw new EOFException();
+      }
+    }
+  }
+
+  private static File[] listSegmentFiles(File partitionDirectory) {
+    File[] files =
+        partitionDirectory.listFiles(file -> !file.isDirectory() && file.getName().endsWith(SEGMENT_FILE_EXTENSION));
+    if (files == null) {
+      return new File[0];
+    }
+
+    Arrays.sort(files, comparingLong(LogStructuredObjectStorePartition::parseSegmentId));
+    return files;
+  }
+
+  private static long parseSegmentId(File segmentFile) {
+    String name = segmentFile.getName();
+    return Long.parseLong(name.substring(0, name.length() - SEGMENT_FILE_EXTENSION.length()));
+  }
+
+  /**
+   * One of the files of the log
+   */
+  private static final class Segment {
+
+    private final long id;
+    private final File file;
+    private final FileChannel channel;
+    private final LongAdder deadBytes = new LongAdder();
+
+    // only modified holding the append lock, or while opening the partition
+    private long size;
+
+    private Segment(long id, File file) throws IOException {
+      this.id = id;
+      this.file = file;
+      this.channel = FileChannel.open(file.toPath(), CREATE, READ, WRITE);
+    }
+
+    private void close() {
+      try {
+        channel.close();
+      } catch (IOException e) {
+        LOGGER.debug("Found exception trying to close object store segment " + file.getAbsolutePath(), e);
+      }
+    }
+
+    private void delete() {
+      close();
+      if (!file.delete()) {
+        LOGGER.warn("Could not delete object store segment {}", file.getAbsolutePath());
+      }
+    }
+  }
+
+  /**
+   * The position of the value of a live entry in the log
+   */
+  private static final class Location {
+
+    private final Segment segment;
+    private final long valueOffset;
+    private final int valueLength;
+    private final int recordLength;
+    private final long timestamp;
+
+    private Location(Segment segment, long valueOffset, int valueLength, int recordLength, long timestamp) {
+      this.segment = segment;
+      this.valueOffset = valueOffset;
+      this.valueLength = valueLength;
+      this.recordLength = recordLength;
+      this.timestamp = timestamp;
+    }
+  }
+}
@@ -6,7 +6,12 @@
  */
 package org.mule.runtime.core.internal.util.store;
 
+import static org.mule.runtime.core.internal.store.BoundedPartitionedInMemoryObjectStore.BOUNDED_IN_MEMORY_OBJECT_STORE;
+
+import static java.lang.Boolean.getBoolean;
+
 import org.mule.runtime.api.store.ObjectStore;
+import org.mule.runtime.core.internal.store.BoundedPartitionedInMemoryObjectStore;
 import org.mule.runtime.core.internal.store.PartitionedInMemoryObjectStore;
 import org.mule.runtime.core.internal.store.PartitionedPersistentObjectStore;
 
@@ -16,6 +21,9 @@ public class MuleDefaultObjectStoreFactory implements DefaultObjectStoreFactory
 
   @Override
   public ObjectStore<Serializable> createDefaultInMemoryObjectStore() {
+    if (getBoolean(BOUNDED_IN_MEMORY_OBJECT_STORE)) {
+      return new BoundedPartitionedInMemoryObjectStore<>();
+    }
     return new PartitionedInMemoryObjectStore<>();
   }
 
@@ -35,6 +35,7 @@ import java.util.concurrent.ConcurrentMap;
 import javax.inject.Inject;
 
 import org.mule.runtime.core.internal.store.AbstractPartitionableObjectStore;
+import org.mule.runtime.core.internal.store.BoundedPartitionedInMemoryObjectStore;
 import org.slf4j.Logger;
 
 public class MuleObjectStoreManager implements ObjectStoreManager, Initialisable, Disposable {
@@ -192,6 +193,13 @@ public class MuleObjectStoreManager implements ObjectStoreManager, Initialisable
                                                                                     T store,
                                                                                     ObjectStoreSettings settings) {
     if (baseStore instanceof PartitionableExpirableObjectStore) {
+      if (baseStore instanceof BoundedPartitionedInMemoryObjectStore) {
+        // so that the bounds are enforced as entries are stored, not only when the monitor runs
+        ((BoundedPartitionedInMemoryObjectStore) baseStore).setPartitionBounds(name,
+                                                                               settings.getEntryTTL().orElse(0L),
+                                                                               settings.getMaxEntries().orElse(UNBOUNDED));
+      }
+
       Scheduler scheduler = schedulerService.customScheduler(muleContext.getSchedulerBaseConfig()
           .withName("ObjectStoreManager-Monitor-" + name).withMaxConcurrentTasks(1));
 
@@ -172,10 +172,25 @@ public class FineGrainedControlClassLoader extends URLClassLoader
         return result;
       }
 
+      if (isKnownLocallyAbsent(name.replace('.', '/').concat(".class"))) {
+        throw new ClassNotFoundException(name);
+      }
+
       return super.findClass(name);
     }
   }
 
+  /**
+   * Allows subclasses to avoid looking up in the URLs of this class loader resources that are known not to be there.
+   *
+   * @param resourceName the name of a resource, or the path of a class file
+   * @return {@code true} if the resource is known not to be in the URLs of this class loader
+   * @since 4.8.0
+   */
+  protected boolean isKnownLocallyAbsent(String resourceName) {
+    return false;
+  }
+
   @Override
   public ClassLoaderLookupPolicy getClassLoaderLookupPolicy() {
     return lookupPolicy;
@@ -10,10 +10,17 @@ import static org.mule.runtime.api.util.Preconditions.checkArgument;
 import static org.mule.runtime.core.api.util.IOUtils.closeQuietly;
 import static org.mule.runtime.module.artifact.api.classloader.jar.CachingURLStreamHandlerFactory.getCachingURLStreamHandlerFactory;
 
+import static org.mule.runtime.core.internal.util.StandaloneServerUtils.getMuleBase;
+import static org.mule.runtime.module.artifact.api.classloader.RegionClassLoader.getNearestRegion;
+import static org.mule.runtime.module.artifact.internal.classloader.ClassLoaderIndex.CLASSLOADER_INDEX_PROPERTY;
+import static org.mule.runtime.module.artifact.internal.classloader.ClassLoaderIndex.getConfiguredClassLoaderIndexFolder;
+
+import static java.lang.Boolean.getBoolean;
 import static java.lang.Integer.toHexString;
 import static java.lang.String.format;
 import static java.lang.System.identityHashCode;
 import static java.lang.reflect.Modifier.isAbstract;
+import static java.util.Collections.emptyEnumeration;
 import static java.util.Optional.empty;
 import static java.util.Optional.of;
 
@@ -32,8 +39,11 @@ import org.mule.module.artifact.classloader.ScalaClassValueReleaser;
 import org.mule.runtime.core.api.util.IOUtils;
 import org.mule.runtime.module.artifact.api.descriptor.ArtifactDescriptor;
 import org.mule.runtime.module.artifact.api.descriptor.BundleDescriptor;
+import org.mule.runtime.module.artifact.api.descriptor.DeployableArtifactDescriptor;
+import org.mule.runtime.module.artifact.internal.classloader.ClassLoaderIndex;
 import org.mule.runtime.module.artifact.internal.classloader.ResourceReleaserExecutor;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
@@ -41,6 +51,7 @@ import java.net.URLClassLoader;
 import java.sql.Driver;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -62,6 +73,10 @@ public class MuleArtifactClassLoader extends FineGrainedControlClassLoader imple
 
   private static final Logger LOGGER = getLogger(MuleArtifactClassLoader.class);
 
+  // same as the working directory of the artifacts in standalone mode
+  private static final String EXECUTION_FOLDER = ".mule";
+  private static final String CLASSLOADER_INDEX_FOLDER = "classloader-index";
+
   private static final String DB_RESOURCE_RELEASER_CLASS_LOCATION =
       "/org/mule/module/artifact/classloader/JdbcResourceReleaser.class";
 
@@ -119,6 +134,9 @@ public class MuleArtifactClassLoader extends FineGrainedControlClassLoader imple
   private final Map<BundleDescriptor, URLClassLoader> descriptorMapping = new HashMap<>();
   private final ResourceReleaserExecutor resourceReleaserExecutor = new ResourceReleaserExecutor(this::reportPossibleLeak);
   private Optional<ModuleLayerInformationSupplier> moduleLayerInformation = empty();
+  private final boolean useClassLoaderIndex;
+  private final Object classLoaderIndexLock = new Object();
+  private volatile Optional<ClassLoaderIndex> classLoaderIndex;
 
   /**
    * Constructs a new {@link MuleArtifactClassLoader} for the given URLs
@@ -136,6 +154,7 @@ public class MuleArtifactClassLoader extends FineGrainedControlClassLoader imple
     checkArgument(artifactDescriptor != null, "artifactDescriptor cannot be null");
     this.artifactId = artifactId;
     this.artifactDescriptor = artifactDescriptor;
+    this.useClassLoaderIndex = getBoolean(CLASSLOADER_INDEX_PROPERTY) && urls.length > 0;
     this.resourceReleaserExecutor.addResourceReleaser(() -> new ClassLoaderResourceReleaser(this));
   }
 
@@ -213,9 +232,63 @@ public class MuleArtifactClassLoader extends FineGrainedControlClassLoader imple
         }
       }
     }
+    if (isKnownLocallyAbsent(name)) {
+      return null;
+    }
     return super.findResource(name);
   }
 
+  @Override
+  public Enumeration<URL> findResources(String name) throws IOException {
+    if (isKnownLocallyAbsent(name)) {
+      return emptyEnumeration();
+    }
+    return super.findResources(name);
+  }
+
+  @Override
+  protected boolean isKnownLocallyAbsent(String resourceName) {
+    if (!useClassLoaderIndex) {
+      return false;
+    }
+    return getClassLoaderIndex().map(index -> !index.mayContain(resourceName)).orElse(false);
+  }
+
+  private Optional<ClassLoaderIndex> getClassLoaderIndex() {
+    if (classLoaderIndex == null) {
+      synchronized (classLoaderIndexLock) {
+        if (classLoaderIndex == null) {
+          classLoaderIndex = ClassLoaderIndex.load(getURLs(), getClassLoaderIndexFile());
+        }
+      }
+    }
+    return classLoaderIndex;
+  }
+
+  /**
+   * @return the file where the index of this class loader is persisted, inside the data folder of the deployable artifact it
+   *         belongs to. {@code null} if there is no such folder, in which case the index is not persisted.
+   */
+  private File getClassLoaderIndexFile() {
+    File indexFolder = getConfiguredClassLoaderIndexFolder();
+    if (indexFolder == null) {
+      RegionClassLoader region = getNearestRegion(getParent());
+      ArtifactDescriptor deployableArtifactDescriptor = region != null ? region.getArtifactDescriptor() : artifactDescriptor;
+      File muleBase = getMuleBase().orElse(null);
+      if (muleBase == null || !(deployableArtifactDescriptor instanceof DeployableArtifactDescriptor)
+          || ((DeployableArtifactDescriptor) deployableArtifactDescriptor).getArtifactLocation() == null) {
+        return null;
+      }
+
+      String dataFolderName = ((DeployableArtifactDescriptor) deployableArtifactDescriptor).getDataFolderName();
+      indexFolder = new File(new File(new File(muleBase, EXECUTION_FOLDER), dataFolderName), CLASSLOADER_INDEX_FOLDER);
+    }
+
+    // named after the URLs as well, so deployments of artifacts with the same ID from different locations don't share it
+    return new File(indexFolder,
+                    artifactId.replaceAll("[^\\w.-]", "_") + "-" + toHexString(Arrays.toString(getURLs()).hashCode()) + ".idx");
+  }
+
   private String asPath(BundleDescriptor descriptor) {
     String groupIdPath = getGroupIdPath(descriptor.getGroupId());
     String versionPath = WILDCARD.equals(descriptor.getVersion()) ? "" : descriptor.getVersion();
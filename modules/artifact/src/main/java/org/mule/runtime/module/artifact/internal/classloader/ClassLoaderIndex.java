@@ -0,0 +1,316 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.module.artifact.internal.classloader;
+
+import static org.mule.runtime.api.util.MuleSystemProperties.SYSTEM_PROPERTY_PREFIX;
+
+import static java.lang.Integer.MAX_VALUE;
+import static java.lang.Math.min;
+import static java.lang.System.getProperty;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.util.Optional.empty;
+import static java.util.Optional.of;
+import static java.util.jar.Attributes.Name.CLASS_PATH;
+
+import static org.apache.commons.io.FileUtils.toFile;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.net.URL;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.jar.Manifest;
+import java.util.zip.CRC32;
+
+import org.slf4j.Logger;
+
+/**
+ * Index of the packages and resources in the jars of a class loader, used to find out that a class or resource is not there
+ * without probing each jar.
+ * <p>
+ * For classes only the package is indexed, so a class is considered present if any jar has its package. Directories in the URLs
+ * are not indexed, they are checked directly instead.
+ * <p>
+ * The index can be persisted to a file, and is rebuilt when the checksum of the jars does not match the one stored in that file.
+ * The checksum covers the paths, sizes and modification times of the jars, and the central directory of each of them, so a
+ * stored index is only used for jars with the very same entries it was built from.
+ *
+ * @since 4.8.0
+ */
+public final class ClassLoaderIndex {
+
+  /**
+   * Whether the artifact class loaders use an index to skip looking up classes and resources they don't have.
+   */
+  public static final String CLASSLOADER_INDEX_PROPERTY = SYSTEM_PROPERTY_PREFIX + "classloader.index";
+
+  /**
+   * The folder where the artifact class loaders persist their indexes. Defaults to a folder in the data folder of the deployable
+   * artifact they belong to.
+   */
+  public static final String CLASSLOADER_INDEX_FOLDER_PROPERTY = SYSTEM_PROPERTY_PREFIX + "classloader.index.folder";
+
+  private static final Logger LOGGER = getLogger(ClassLoaderIndex.class);
+
+  private static final int FORMAT_VERSION = 1;
+  private static final String CLASS_SUFFIX = ".class";
+  private static final String VERSIONED_ENTRIES_PREFIX = "META-INF/versions/";
+  // the end of central directory record of a zip file, see the ZIP file format specification
+  private static final int END_OF_CENTRAL_DIRECTORY_SIGNATURE = 0x06054b50;
+  private static final int END_OF_CENTRAL_DIRECTORY_SIZE = 22;
+  private static final int MAX_ZIP_COMMENT_SIZE = 0xFFFF;
+
+  private final long checksum;
+  private final Set<String> jarEntries;
+  private final List<File> directories;
+
+  private ClassLoaderIndex(long checksum, Set<String> jarEntries, List<File> directories) {
+    this.checksum = checksum;
+    this.jarEntries = jarEntries;
+    this.directories = directories;
+  }
+
+  /**
+   * Loads the index of the given URLs from {@code indexFile}, building and storing it there if it is missing or outdated.
+   *
+   * @param urls      the URLs of the class loader
+   * @param indexFile where the index is persisted. May be null, in which case it is always built.
+   * @return the index, or empty if the URLs cannot be indexed, like when some of them is not a local file or a jar declares a
+   *         {@code Class-Path} in its manifest.
+   */
+  public static Optional<ClassLoaderIndex> load(URL[] urls, File indexFile) {
+    List<File> jars = new ArrayList<>();
+    List<File> directories = new ArrayList<>();
+    for (URL url : urls) {
+      File file = toFile(url);
+      if (file == null) {
+        return empty();
+      } else if (file.isDirectory()) {
+        directories.add(file);
+      } else {
+        jars.add(file);
+      }
+    }
+
+    long checksum;
+    try {
+      checksum = checksum(jars);
+    } catch (IOException e) {
+      LOGGER.debug("Not persisting class loader index '{}', the central directory of the jars could not be read", indexFile, e);
+      checksum = 0;
+      indexFile = null;
+    }
+    if (indexFile != null && indexFile.isFile()) {
+      Optional<Set<String>> stored = read(indexFile, checksum);
+      if (stored.isPresent()) {
+        return of(new ClassLoaderIndex(checksum, stored.get(), directories));
+      }
+    }
+
+    Set<String> jarEntries = new HashSet<>();
+    for (File jar : jars) {
+      if (!jar.isFile()) {
+        continue;
+      }
+      try (JarFile jarFile = new JarFile(jar)) {
+        Manifest manifest = jarFile.getManifest();
+        if (manifest != null && manifest.getMainAttributes().getValue(CLASS_PATH) != null) {
+          // the URLs in the Class-Path are looked up as well by the class loader
+          LOGGER.debug("Not indexing class loader URLs, '{}' has a Class-Path", jar);
+          return empty();
+        }
+
+        Enumeration<JarEntry> entries = jarFile.entries();
+        while (entries.hasMoreElements()) {
+          addEntry(jarEntries, entries.nextElement().getName());
+        }
+      } catch (IOException e) {
+        LOGGER.debug("Not indexing class loader URLs, '{}' could not be read", jar, e);
+        return empty();
+      }
+    }
+
+    ClassLoaderIndex index = new ClassLoaderIndex(checksum, jarEntries, directories);
+    if (indexFile != null) {
+      index.write(indexFile);
+    }
+    return of(index);
+  }
+
+  /**
+   * @return the folder set in {@link #CLASSLOADER_INDEX_FOLDER_PROPERTY}, or {@code null} if it is not set.
+   */
+  public static File getConfiguredClassLoaderIndexFolder() {
+    String indexFolder = getProperty(CLASSLOADER_INDEX_FOLDER_PROPERTY);
+    return indexFolder != null ? new File(indexFolder) : null;
+  }
+
+  /**
+   * @param resourceName the name of a resource, as passed to {@link ClassLoader#getResource(String)}
+   * @return {@code false} if the resource is known not to be in the indexed URLs
+   */
+  public boolean mayContain(String resourceName) {
+    if (resourceName.isEmpty() || resourceName.startsWith("/") || resourceName.contains("..")) {
+      // not worth handling the same way URLClassLoader does
+      return true;
+    }
+
+    if (jarEntries.contains(resourceName.endsWith(CLASS_SUFFIX) ? getParentPath(resourceName) : resourceName)) {
+      return true;
+    }
+    for (File directory : directories) {
+      if (new File(directory, resourceName).exists()) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static void addEntry(Set<String> jarEntries, String entryName) {
+    if (entryName.startsWith(VERSIONED_ENTRIES_PREFIX)) {
+      // multi-release jar entries are found by their unversioned name
+      int versionEnd = entryName.indexOf('/', VERSIONED_ENTRIES_PREFIX.length());
+      if (versionEnd != -1) {
+        addEntry(jarEntries, entryName.substring(versionEnd + 1));
+      }
+    }
+
+    String path = entryName;
+    if (path.endsWith("/")) {
+      path = path.substring(0, path.length() - 1);
+    } else if (path.endsWith(CLASS_SUFFIX)) {
+      path = getParentPath(path);
+    }
+
+    // adds every directory in the path, both with and without the trailing slash
+    while (jarEntries.add(path) && !path.isEmpty()) {
+      jarEntries.add(path + "/");
+      path = getParentPath(path);
+    }
+  }
+
+  private static String getParentPath(String path) {
+    int lastSeparator = path.lastIndexOf('/');
+    return lastSeparator == -1 ? "" : path.substring(0, lastSeparator);
+  }
+
+  private static long checksum(List<File> jars) throws IOException {
+    CRC32 crc = new CRC32();
+    crc.update(FORMAT_VERSION);
+    for (File jar : jars) {
+      crc.update(jar.getAbsolutePath().getBytes(UTF_8));
+      crc.update(Long.toString(jar.length()).getBytes(UTF_8));
+      crc.update(Long.toString(jar.lastModified()).getBytes(UTF_8));
+      if (jar.isFile()) {
+        updateWithCentralDirectory(crc, jar);
+      }
+    }
+    return crc.getValue();
+  }
+
+  /**
+   * Adds the central directory of the given jar, which lists all its entries, to the checksum. Only the central directory is
+   * read, not the entries themselves.
+   */
+  private static void updateWithCentralDirectory(CRC32 crc, File jar) throws IOException {
+    try (RandomAccessFile file = new RandomAccessFile(jar, "r")) {
+      long length = file.length();
+      int tailLength = (int) min(length, END_OF_CENTRAL_DIRECTORY_SIZE + MAX_ZIP_COMMENT_SIZE);
+      byte[] tail = new byte[tailLength];
+      file.seek(length - tailLength);
+      file.readFully(tail);
+
+      for (int i = tailLength - END_OF_CENTRAL_DIRECTORY_SIZE; i >= 0; --i) {
+        if (readInt(tail, i) == END_OF_CENTRAL_DIRECTORY_SIGNATURE) {
+          long centralDirectorySize = readInt(tail, i + 12) & 0xFFFFFFFFL;
+          long centralDirectoryOffset = readInt(tail, i + 16) & 0xFFFFFFFFL;
+          if (centralDirectoryOffset + centralDirectorySize > length || centralDirectorySize > MAX_VALUE) {
+            // zip64 jars store the actual values elsewhere
+            throw new IOException("Unsupported central directory in '" + jar + "'");
+          }
+
+          byte[] centralDirectory = new byte[(int) centralDirectorySize];
+          file.seek(centralDirectoryOffset);
+          file.readFully(centralDirectory);
+          crc.update(centralDirectory);
+          return;
+        }
+      }
+      throw new IOException("No central directory found in '" + jar + "'");
+    }
+  }
+
+  private static int readInt(byte[] bytes, int offset) {
+    // zip files are little endian
+    return (bytes[offset] & 0xFF) | (bytes[offset + 1] & 0xFF) << 8 | (bytes[offset + 2] & 0xFF) << 16
+        | (bytes[offset + 3] & 0xFF) << 24;
+  }
+
+  private static Optional<Set<String>> read(File indexFile, long expectedChecksum) {
+    try (DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(indexFile)))) {
+      if (input.readInt() != FORMAT_VERSION || input.readLong() != expectedChecksum) {
+        LOGGER.debug("Class loader index '{}' is outdated, rebuilding it", indexFile);
+        return empty();
+      }
+
+      int size = input.readInt();
+      Set<String> jarEntries = new HashSet<>(size * 4 / 3 + 1);
+      for (int i = 0; i < size; ++i) {
+        jarEntries.add(input.readUTF());
+      }
+      return of(jarEntries);
+    } catch (IOException e) {
+      LOGGER.debug("Could not read class loader index '{}', rebuilding it", indexFile, e);
+      return empty();
+    }
+  }
+
+  private void write(File indexFile) {
+    File tempFile = null;
+    try {
+      indexFile.getParentFile().mkdirs();
+      tempFile = File.createTempFile(indexFile.getName(), ".tmp", indexFile.getParentFile());
+      try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)))) {
+        output.writeInt(FORMAT_VERSION);
+        output.writeLong(checksum);
+        output.writeInt(jarEntries.size());
+        for (String jarEntry : jarEntries) {
+          output.writeUTF(jarEntry);
+        }
+      }
+
+      try {
+        Files.move(tempFile.toPath(), indexFile.toPath(), ATOMIC_MOVE, REPLACE_EXISTING);
+      } catch (AtomicMoveNotSupportedException e) {
+        Files.move(tempFile.toPath(), indexFile.toPath(), REPLACE_EXISTING);
+      }
+    } catch (IOException e) {
+      LOGGER.debug("Could not write class loader index '{}'", indexFile, e);
+      if (tempFile != null) {
+        tempFile.delete();
+      }
+    }
+  }
+}
@@ -0,0 +1,185 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.module.artifact.api.classloader;
+
+import static org.mule.runtime.core.api.config.MuleProperties.MULE_BASE_DIRECTORY_PROPERTY;
+import static org.mule.runtime.core.api.util.ClassUtils.getResource;
+import static org.mule.runtime.module.artifact.api.classloader.ChildOnlyLookupStrategy.CHILD_ONLY;
+import static org.mule.runtime.module.artifact.api.classloader.ParentOnlyLookupStrategy.PARENT_ONLY;
+import static org.mule.runtime.module.artifact.internal.classloader.ClassLoaderIndex.CLASSLOADER_INDEX_PROPERTY;
+import static org.mule.test.allure.AllureConstants.ClassloadingIsolationFeature.CLASSLOADING_ISOLATION;
+
+import static java.util.zip.ZipEntry.STORED;
+
+import static org.apache.commons.io.FileUtils.copyURLToFile;
+import static org.apache.commons.io.FileUtils.toFile;
+import static org.apache.commons.io.IOUtils.toByteArray;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.arrayWithSize;
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThrows;
+import static org.junit.rules.RuleChain.outerRule;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.mule.runtime.module.artifact.api.descriptor.DeployableArtifactDescriptor;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.junit4.rule.SystemProperty;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.jar.JarOutputStream;
+import java.util.zip.CRC32;
+
+import io.qameta.allure.Feature;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.RuleChain;
+import org.junit.rules.TemporaryFolder;
+
+@Feature(CLASSLOADING_ISOLATION)
+public class MuleArtifactClassLoaderIndexTestCase extends AbstractMuleTestCase {
+
+  private static final String TEST_CLASS_NAME = "mypackage.MyClass";
+  private static final String TEST_CLASS_PATH = "mypackage/MyClass.class";
+  private static final String APP_NAME = "app";
+  private static final long ENTRY_TIME = 1600000000000L;
+
+  private final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  @Rule
+  public RuleChain ruleChain = outerRule(temporaryFolder).around(new SystemProperty(MULE_BASE_DIRECTORY_PROPERTY) {
+
+    @Override
+    public String getValue() {
+      return temporaryFolder.getRoot().getAbsolutePath();
+    }
+  });
+
+  @Rule
+  public SystemProperty classLoaderIndex = new SystemProperty(CLASSLOADER_INDEX_PROPERTY, "true");
+
+  private File artifactFolder;
+  private File jar;
+  private DeployableArtifactDescriptor artifactDescriptor;
+  private ClassLoaderLookupPolicy lookupPolicy;
+
+  @Before
+  public void before() throws IOException {
+    artifactFolder = temporaryFolder.newFolder("apps", APP_NAME);
+    jar = new File(artifactFolder, "lib/test.jar");
+    jar.getParentFile().mkdirs();
+    createJar("org/foo/Bar.class", new byte[0]);
+
+    artifactDescriptor = mock(DeployableArtifactDescriptor.class);
+    when(artifactDescriptor.getArtifactLocation()).thenReturn(artifactFolder);
+    when(artifactDescriptor.getDataFolderName()).thenReturn(APP_NAME);
+
+    lookupPolicy = mock(ClassLoaderLookupPolicy.class);
+    when(lookupPolicy.getClassLookupStrategy(TEST_CLASS_NAME)).thenReturn(CHILD_ONLY);
+    when(lookupPolicy.getClassLookupStrategy(Object.class.getName())).thenReturn(PARENT_ONLY);
+    when(lookupPolicy.getClassLookupStrategy(String.class.getName())).thenReturn(PARENT_ONLY);
+  }
+
+  @Test
+  public void missingClassAnsweredFromIndex() throws Exception {
+    MuleArtifactClassLoader classLoader = createClassLoader();
+    assertThrows(ClassNotFoundException.class, () -> classLoader.loadClass(TEST_CLASS_NAME));
+
+    // the jar now has the class, but its index was already loaded so the jar is not probed
+    addTestClassToJar();
+    assertThat(classLoader.isKnownLocallyAbsent(TEST_CLASS_PATH), is(true));
+    assertThrows(ClassNotFoundException.class, () -> classLoader.loadClass(TEST_CLASS_NAME));
+    classLoader.close();
+  }
+
+  @Test
+  public void indexWrittenInArtifactDataFolder() throws Exception {
+    MuleArtifactClassLoader classLoader = createClassLoader();
+    assertThrows(ClassNotFoundException.class, () -> classLoader.loadClass(TEST_CLASS_NAME));
+    classLoader.close();
+
+    File dataFolder = new File(temporaryFolder.getRoot().getCanonicalFile(), ".mule/" + APP_NAME);
+    assertThat(new File(dataFolder, "classloader-index").listFiles(), arrayWithSize(1));
+    assertThat(new File(artifactFolder, "META-INF").exists(), is(false));
+  }
+
+  @Test
+  public void indexInvalidatedWhenJarChanges() throws Exception {
+    MuleArtifactClassLoader classLoader = createClassLoader();
+    assertThrows(ClassNotFoundException.class, () -> classLoader.loadClass(TEST_CLASS_NAME));
+    classLoader.close();
+
+    addTestClassToJar();
+    MuleArtifactClassLoader updatedClassLoader = createClassLoader();
+    assertThat(updatedClassLoader.isKnownLocallyAbsent(TEST_CLASS_PATH), is(false));
+    assertThat(updatedClassLoader.loadClass(TEST_CLASS_NAME).getClassLoader(), is((ClassLoader) updatedClassLoader));
+    updatedClassLoader.close();
+  }
+
+  @Test
+  public void indexInvalidatedWhenJarEntriesChangeWithSameSizeAndDate() throws Exception {
+    byte[] testClass = readTestClass();
+    // same length as the name of the test class, so the jar keeps its size
+    createJar("otherpack/MyClass.class", testClass);
+    long lastModified = jar.lastModified();
+    long length = jar.length();
+
+    MuleArtifactClassLoader classLoader = createClassLoader();
+    assertThrows(ClassNotFoundException.class, () -> classLoader.loadClass(TEST_CLASS_NAME));
+    classLoader.close();
+
+    createJar(TEST_CLASS_PATH, testClass);
+    jar.setLastModified(lastModified);
+    assertThat(jar.length(), is(length));
+
+    MuleArtifactClassLoader updatedClassLoader = createClassLoader();
+    assertThat(updatedClassLoader.loadClass(TEST_CLASS_NAME).getClassLoader(), is((ClassLoader) updatedClassLoader));
+    updatedClassLoader.close();
+  }
+
+  private void addTestClassToJar() throws IOException {
+    long lastModified = jar.lastModified();
+    copyURLToFile(getResource("classloader-test-bye.jar", getClass()), jar);
+    jar.setLastModified(lastModified + 2000);
+  }
+
+  private byte[] readTestClass() throws IOException {
+    try (JarFile testJar = new JarFile(toFile(getResource("classloader-test-bye.jar", getClass())));
+        InputStream testClass = testJar.getInputStream(testJar.getEntry(TEST_CLASS_PATH))) {
+      return toByteArray(testClass);
+    }
+  }
+
+  private void createJar(String entryName, byte[] content) throws IOException {
+    CRC32 crc = new CRC32();
+    crc.update(content);
+    JarEntry entry = new JarEntry(entryName);
+    entry.setMethod(STORED);
+    entry.setSize(content.length);
+    entry.setCompressedSize(content.length);
+    entry.setCrc(crc.getValue());
+    entry.setTime(ENTRY_TIME);
+
+    try (JarOutputStream output = new JarOutputStream(new FileOutputStream(jar))) {
+      output.putNextEntry(entry);
+      output.write(content);
+      output.closeEntry();
+    }
+  }
+
+  private MuleArtifactClassLoader createClassLoader() throws IOException {
+    return new MuleArtifactClassLoader("test-app", artifactDescriptor, new URL[] {jar.toURI().toURL()},
+                                       Thread.currentThread().getContextClassLoader(), lookupPolicy);
+  }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.module.artifact.internal.classloader;
+
+import static org.mule.test.allure.AllureConstants.ClassloadingIsolationFeature.CLASSLOADING_ISOLATION;
+
+import static java.util.jar.Attributes.Name.CLASS_PATH;
+import static java.util.jar.Attributes.Name.MANIFEST_VERSION;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+
+import org.mule.tck.junit4.AbstractMuleTestCase;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.net.URL;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+
+import io.qameta.allure.Feature;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+@Feature(CLASSLOADING_ISOLATION)
+public class ClassLoaderIndexTestCase extends AbstractMuleTestCase {
+
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private File jar;
+  private File classes;
+  private File indexFile;
+
+  @Before
+  public void before() throws IOException {
+    jar = temporaryFolder.newFile("test.jar");
+    createJar(jar, null, "org/foo/Bar.class", "META-INF/services/org.foo.Service", "Root.class",
+              "META-INF/versions/11/org/versioned/Versioned.class");
+
+    classes = temporaryFolder.newFolder("classes");
+    new File(classes, "config").mkdirs();
+    new File(classes, "config/app.xml").createNewFile();
+
+    indexFile = new File(temporaryFolder.getRoot(), "index/test.idx");
+  }
+
+  @Test
+  public void jarPackagesAndResources() throws Exception {
+    ClassLoaderIndex index = ClassLoaderIndex.load(urls(), indexFile).get();
+
+    assertThat(index.mayContain("org/foo/Bar.class"), is(true));
+    assertThat(index.mayContain("org/foo/Other.class"), is(true));
+    assertThat(index.mayContain("org/foo/"), is(true));
+    assertThat(index.mayContain("Root.class"), is(true));
+    assertThat(index.mayContain("META-INF/services/org.foo.Service"), is(true));
+    assertThat(index.mayContain("org/versioned/Versioned.class"), is(true));
+
+    assertThat(index.mayContain("org/bar/Bar.class"), is(false));
+    assertThat(index.mayContain("META-INF/services/org.bar.Service"), is(false));
+  }
+
+  @Test
+  public void directoriesCheckedDirectly() throws Exception {
+    ClassLoaderIndex index = ClassLoaderIndex.load(urls(), indexFile).get();
+
+    assertThat(index.mayContain("config/app.xml"), is(true));
+    assertThat(index.mayContain("config/other.xml"), is(false));
+
+    new File(classes, "config/other.xml").createNewFile();
+    assertThat(index.mayContain("config/other.xml"), is(true));
+  }
+
+  @Test
+  public void persistedIndexReused() throws Exception {
+    ClassLoaderIndex.load(urls(), indexFile);
+    assertThat(indexFile.exists(), is(true));
+
+    long lastModified = indexFile.lastModified();
+    ClassLoaderIndex index = ClassLoaderIndex.load(urls(), indexFile).get();
+
+    assertThat(indexFile.lastModified(), is(lastModified));
+    assertThat(index.mayContain("org/foo/Bar.class"), is(true));
+    assertThat(index.mayContain("org/bar/Bar.class"), is(false));
+  }
+
+  @Test
+  public void persistedIndexRebuiltWhenJarChanges() throws Exception {
+    ClassLoaderIndex.load(urls(), indexFile);
+
+    createJar(jar, null, "org/bar/Bar.class", "org/bar/Other.class");
+    jar.setLastModified(jar.lastModified() + 2000);
+    ClassLoaderIndex index = ClassLoaderIndex.load(urls(), indexFile).get();
+
+    assertThat(index.mayContain("org/bar/Bar.class"), is(true));
+    assertThat(index.mayContain("org/foo/Bar.class"), is(false));
+  }
+
+  @Test
+  public void notIndexedWithManifestClassPath() throws Exception {
+    createJar(jar, "other.jar", "org/foo/Bar.class");
+
+    assertThat(ClassLoaderIndex.load(urls(), indexFile).isPresent(), is(false));
+  }
+
+  @Test
+  public void notIndexedWithRemoteUrls() throws Exception {
+    assertThat(ClassLoaderIndex.load(new URL[] {new URL("http://localhost/test.jar")}, indexFile).isPresent(), is(false));
+  }
+
+  private URL[] urls() throws IOException {
+    return new URL[] {jar.toURI().toURL(), classes.toURI().toURL()};
+  }
+
+  private static void createJar(File jar, String classPath, String... entries) throws IOException {
+    Manifest manifest = new Manifest();
+    manifest.getMainAttributes().put(MANIFEST_VERSION, "1.0");
+    if (classPath != null) {
+      manifest.getMainAttributes().put(CLASS_PATH, classPath);
+    }
+
+    try (JarOutputStream output = new JarOutputStream(new FileOutputStream(jar), manifest)) {
+      for (String entry : entries) {
+        output.putNextEntry(new JarEntry(entry));
+        output.closeEntry();
+      }
+    }
+  }
+}
@@ -9,6 +9,7 @@ package org.mule.runtime.core.internal.processor;
 import static org.mule.runtime.api.notification.AsyncMessageNotification.PROCESS_ASYNC_COMPLETE;
 import static org.mule.runtime.api.notification.AsyncMessageNotification.PROCESS_ASYNC_SCHEDULED;
 import static org.mule.runtime.api.notification.EnrichedNotificationInfo.createInfo;
+import static org.mule.runtime.api.util.MuleSystemProperties.SYSTEM_PROPERTY_PREFIX;
 import static org.mule.runtime.core.api.config.i18n.CoreMessages.objectIsNull;
 import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.disposeIfNeeded;
 import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.initialiseIfNeeded;
@@ -24,10 +25,13 @@ import static org.mule.runtime.core.internal.util.rx.RxUtils.REACTOR_RECREATE_RO
 import static org.mule.runtime.core.privileged.processor.MessageProcessors.processToApply;
 import static org.mule.runtime.tracer.customization.api.InternalSpanNames.ASYNC_INNER_CHAIN_SPAN_NAME;
 
+import static java.lang.Integer.getInteger;
 import static java.lang.Thread.currentThread;
 import static java.lang.Thread.yield;
 import static java.util.Collections.emptyList;
 import static java.util.Collections.singletonList;
+import static java.util.Optional.empty;
+import static java.util.Optional.of;
 import static java.util.Optional.ofNullable;
 
 import static reactor.core.publisher.Flux.from;
@@ -46,6 +50,7 @@ import org.mule.runtime.api.notification.AsyncMessageNotification;
 import org.mule.runtime.api.scheduler.Scheduler;
 import org.mule.runtime.api.scheduler.SchedulerConfig;
 import org.mule.runtime.api.scheduler.SchedulerService;
+import org.mule.runtime.api.serialization.SerializationProtocol;
 import org.mule.runtime.api.util.LazyValue;
 import org.mule.runtime.core.api.MuleContext;
 import org.mule.runtime.core.api.construct.FlowConstruct;
@@ -70,8 +75,10 @@ import org.mule.runtime.core.privileged.processor.chain.MessageProcessorChain;
 import org.mule.runtime.core.privileged.processor.chain.MessageProcessorChainBuilder;
 import org.mule.runtime.tracer.api.component.ComponentTracerFactory;
 
+import java.io.File;
 import java.util.List;
-import java.util.concurrent.BlockingQueue;
+import java.util.Optional;
+import java.util.Queue;
 import java.util.concurrent.Future;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.atomic.AtomicReference;
@@ -95,6 +102,26 @@ import reactor.core.publisher.Flux;
 public class AsyncDelegateMessageProcessor extends AbstractMessageProcessorOwner
     implements Scope, Initialisable, Startable, Stoppable {
 
+  /**
+   * How many events rejected by the processing strategy are kept in memory while waiting to be dispatched. When set, further
+   * events have their message and variables spilled to a file in the working directory of the application until there is
+   * capacity for them. When not set, all the events are kept in memory.
+   *
+   * @since 4.8.0
+   */
+  public static final String ASYNC_OVERFLOW_MEMORY_THRESHOLD_PROPERTY = SYSTEM_PROPERTY_PREFIX + "async.overflow.memoryThreshold";
+
+  /**
+   * The size, in bytes, of each segment of the file the events over {@link #ASYNC_OVERFLOW_MEMORY_THRESHOLD_PROPERTY} are
+   * spilled to. Defaults to 1 MB.
+   *
+   * @since 4.8.0
+   */
+  public static final String ASYNC_OVERFLOW_SEGMENT_SIZE_PROPERTY = SYSTEM_PROPERTY_PREFIX + "async.overflow.segmentSize";
+
+  private static final String SPILL_DIRECTORY = "async-spill";
+  private static final int DEFAULT_SPILL_SEGMENT_SIZE = 1024 * 1024;
+
   @Inject
   private MuleContext muleContext;
   @Inject
@@ -118,6 +145,7 @@ public class AsyncDelegateMessageProcessor extends AbstractMessageProcessorOwner
   private final MessageProcessorChainBuilder delegateBuilder;
   protected MessageProcessorChain delegate;
   private Scheduler reactorScheduler;
+  private volatile LazyValue<Scheduler> spillScheduler;
   protected String name;
   private Integer maxConcurrency;
 
@@ -162,12 +190,36 @@ public class AsyncDelegateMessageProcessor extends AbstractMessageProcessorOwner
     initialiseIfNeeded(delegate, getMuleContext());
 
     backpressureHandler = new QueueBackpressureHandler(schedulerService, () -> muleContext.getSchedulerBaseConfig(),
-                                                       this::dispatchEvent, name != null ? name : getLocation().getLocation());
+                                                       this::dispatchEvent, createBackpressureQueue(),
+                                                       name != null ? name : getLocation().getLocation());
 
     initialiseIfNeeded(processingStrategy, muleContext);
     super.initialise();
   }
 
+  private Queue<CoreEvent> createBackpressureQueue() {
+    int memoryThreshold = getInteger(ASYNC_OVERFLOW_MEMORY_THRESHOLD_PROPERTY, 0);
+    if (memoryThreshold <= 0) {
+      return new LinkedBlockingQueue<>();
+    }
+
+    // the events are serialized and written on the IO pool, rather than on the flow thread that had them rejected
+    spillScheduler = createSpillScheduler();
+
+    SerializationProtocol serializationProtocol = muleContext.getObjectSerializer().getInternalProtocol();
+    // one directory per async scope, named after its location
+    File spillDirectory = new File(new File(muleContext.getConfiguration().getWorkingDirectory(), SPILL_DIRECTORY),
+                                   getLocation().getLocation().replaceAll("[^\\w.-]", "_"));
+    return new OverflowToDiskEventQueue(serializationProtocol, spillDirectory, memoryThreshold,
+                                        getInteger(ASYNC_OVERFLOW_SEGMENT_SIZE_PROPERTY, DEFAULT_SPILL_SEGMENT_SIZE),
+                                        task -> spillScheduler.get().execute(task));
+  }
+
+  private LazyValue<Scheduler> createSpillScheduler() {
+    return new LazyValue<>(() -> schedulerService.ioScheduler(muleContext.getSchedulerBaseConfig()
+        .withName((name != null ? name : getLocation().getLocation()) + " - spill writer")));
+  }
+
   /**
    * A fallback method for creating a {@link ProcessingStrategyFactory}.
    *
@@ -201,6 +253,10 @@ public class AsyncDelegateMessageProcessor extends AbstractMessageProcessorOwner
     super.stop();
 
     safely(() -> stopIfNeeded(backpressureHandler));
+    if (spillScheduler != null) {
+      spillScheduler.ifComputed(Scheduler::stop);
+      spillScheduler = createSpillScheduler();
+    }
     disposeIfNeeded(sink, logger);
     sink = null;
     stopIfNeeded(delegate);
@@ -318,15 +374,17 @@ public class AsyncDelegateMessageProcessor extends AbstractMessageProcessorOwner
 
   private static class QueueBackpressureHandler implements Stoppable {
 
-    private final BlockingQueue<CoreEvent> asyncQueue;
+    private static final Logger LOGGER = LoggerFactory.getLogger(QueueBackpressureHandler.class);
+
+    private final Queue<CoreEvent> asyncQueue;
     private final Consumer<CoreEvent> eventDispatcher;
 
     private final LazyValue<Scheduler> queueDispatcherScheduler;
     private final AtomicReference<Future> executing = new AtomicReference<>();
 
     public QueueBackpressureHandler(SchedulerService schedulerService, Supplier<SchedulerConfig> schedulerConfigSupplier,
-                                    Consumer<CoreEvent> eventDispatcher, String location) {
-      this.asyncQueue = new LinkedBlockingQueue<>();
+                                    Consumer<CoreEvent> eventDispatcher, Queue<CoreEvent> asyncQueue, String location) {
+      this.asyncQueue = asyncQueue;
       this.eventDispatcher = eventDispatcher;
 
       this.queueDispatcherScheduler = new LazyValue(() -> {
@@ -339,14 +397,15 @@ public class AsyncDelegateMessageProcessor extends AbstractMessageProcessorOwner
     private Future dispatchTask() {
       return queueDispatcherScheduler.get().submit(() -> {
         while (!currentThread().isInterrupted()) {
+          CoreEvent queuedEvent = null;
           try {
-            final CoreEvent queuedEvent = asyncQueue.peek();
+            queuedEvent = asyncQueue.peek();
             if (queuedEvent != null) {
               eventDispatcher.accept(queuedEvent);
               asyncQueue.remove(queuedEvent);
             } else {
               synchronized (executing) {
-                if (asyncQueue.size() == 0) {
+                if (asyncQueue.isEmpty()) {
                   executing.set(null);
                   return;
                 }
@@ -355,6 +414,18 @@ public class AsyncDelegateMessageProcessor extends AbstractMessageProcessorOwner
           } catch (FromFlowRejectedExecutionException free) {
             // Nothing to do, let next iteration catch it.
             yield();
+          } catch (RuntimeException e) {
+            if (queuedEvent == null) {
+              LOGGER.error("Could not take the next event from the queue", e);
+              // let the next offered event submit a new task instead of leaving the queue stuck
+              synchronized (executing) {
+                executing.set(null);
+              }
+              return;
+            }
+            LOGGER.error("Could not dispatch queued event '{}'", queuedEvent.getContext().getId(), e);
+            asyncQueue.remove(queuedEvent);
+            ((BaseEventContext) queuedEvent.getContext()).error(e);
           }
         }
       });
@@ -378,6 +449,32 @@ public class AsyncDelegateMessageProcessor extends AbstractMessageProcessorOwner
     }
   }
 
+  /**
+   * @return the number of bytes of events rejected by the processing strategy written to the spill file, if
+   *         {@link #ASYNC_OVERFLOW_MEMORY_THRESHOLD_PROPERTY} is set.
+   *
+   * @since 4.8.0
+   */
+  public long getSpilledBytes() {
+    return getOverflowQueue().map(OverflowToDiskEventQueue::getSpilledBytes).orElse(0L);
+  }
+
+  /**
+   * @return how long, in milliseconds, the oldest spilled event not dispatched yet has been waiting, or zero if there is none.
+   *
+   * @since 4.8.0
+   */
+  public long getSpillReplayLag() {
+    return getOverflowQueue().map(OverflowToDiskEventQueue::getReplayLag).orElse(0L);
+  }
+
+  private Optional<OverflowToDiskEventQueue> getOverflowQueue() {
+    if (backpressureHandler != null && backpressureHandler.asyncQueue instanceof OverflowToDiskEventQueue) {
+      return of((OverflowToDiskEventQueue) backpressureHandler.asyncQueue);
+    }
+    return empty();
+  }
+
   void setSchedulerService(SchedulerService schedulerService) {
     this.schedulerService = schedulerService;
   }
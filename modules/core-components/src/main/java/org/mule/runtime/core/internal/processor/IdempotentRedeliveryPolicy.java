@@ -6,18 +6,21 @@
  */
 package org.mule.runtime.core.internal.processor;
 
+import static java.lang.Boolean.getBoolean;
 import static java.lang.String.format;
 import static java.lang.System.lineSeparator;
 import static java.util.Optional.empty;
 import static java.util.Optional.of;
 import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
 import static org.mule.runtime.api.metadata.DataType.STRING;
+import static org.mule.runtime.api.util.MuleSystemProperties.SYSTEM_PROPERTY_PREFIX;
 import static org.mule.runtime.core.api.config.MuleProperties.OBJECT_STORE_MANAGER;
 import static org.mule.runtime.core.api.config.i18n.CoreMessages.initialisationFailure;
 import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.initialiseIfNeeded;
 import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.startIfNeeded;
 import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.stopIfNeeded;
 import static org.mule.runtime.core.api.processor.ReactiveProcessor.ProcessingType.BLOCKING;
+import static org.mule.runtime.core.api.util.StringUtils.toHexString;
 import static org.mule.runtime.core.internal.el.ExpressionLanguageUtils.compile;
 import static org.mule.runtime.core.privileged.processor.MessageProcessors.processToApply;
 import static org.slf4j.LoggerFactory.getLogger;
@@ -29,10 +32,13 @@ import org.mule.runtime.api.exception.MuleException;
 import org.mule.runtime.api.lifecycle.InitialisationException;
 import org.mule.runtime.api.lock.LockFactory;
 import org.mule.runtime.api.message.Error;
+import org.mule.runtime.api.metadata.TypedValue;
 import org.mule.runtime.api.store.ObjectStore;
 import org.mule.runtime.api.store.ObjectStoreException;
 import org.mule.runtime.api.store.ObjectStoreManager;
 import org.mule.runtime.api.store.ObjectStoreSettings;
+import org.mule.runtime.api.streaming.bytes.CursorStream;
+import org.mule.runtime.api.streaming.bytes.CursorStreamProvider;
 import org.mule.runtime.core.api.el.ExpressionManager;
 import org.mule.runtime.core.api.event.CoreEvent;
 import org.mule.runtime.core.api.execution.ExceptionContextProvider;
@@ -44,7 +50,10 @@ import org.mule.runtime.core.privileged.event.BaseEventContext;
 import org.mule.runtime.core.privileged.exception.ErrorTypeLocator;
 import org.mule.runtime.core.privileged.exception.MessageRedeliveredException;
 
+import java.io.IOException;
 import java.io.Serializable;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Collection;
 import java.util.LinkedList;
 import java.util.List;
@@ -63,6 +72,10 @@ import reactor.core.publisher.Mono;
 /**
  * Implement a retry policy for Mule. This is similar to JMS retry policies that will redeliver a message a maximum number of
  * times. If this maximum is exceeded, fails with an exception.
+ * <p>
+ * When a secure hash is used to identify the messages, they are identified by the result of {@link #SECURE_HASH_EXPR_FORMAT}.
+ * If {@link #HEX_SECURE_HASH_PROPERTY} is set, they are identified by the lowercase hex of the digest instead. Repeatable streams
+ * and byte arrays are then hashed directly, reading the stream in chunks into a {@link MessageDigest} reused by each thread.
  */
 @NoExtend
 public class IdempotentRedeliveryPolicy extends AbstractRedeliveryPolicy {
@@ -72,6 +85,8 @@ public class IdempotentRedeliveryPolicy extends AbstractRedeliveryPolicy {
   private static final String BLANK_MESSAGE_ID_ERROR_MSG =
       "The message cannot be processed because the message ID is null or blank.";
 
+  private static final String JAVA_MIME_TYPE_PREFIX = "application/java";
+
   public static final String SECURE_HASH_EXPR_FORMAT = "" +
       "%%dw 2.0" + lineSeparator() +
       "output text/plain" + lineSeparator() +
@@ -82,6 +97,33 @@ public class IdempotentRedeliveryPolicy extends AbstractRedeliveryPolicy {
       "else " +
       "Crypto::hashWith(payload.^raw, '%s')";
 
+  /**
+   * When set, messages identified by a secure hash are identified by the lowercase hex of the digest instead of the raw digest
+   * written as text. This allows hashing repeatable streams and byte arrays without evaluating an expression.
+   * <p>
+   * Setting or clearing it changes the ids of the messages, so the redelivery counts of the messages being redelivered at that
+   * time are not found afterwards and start over.
+   *
+   * @since 4.8.0
+   */
+  public static final String HEX_SECURE_HASH_PROPERTY = SYSTEM_PROPERTY_PREFIX + "redeliveryPolicy.hexSecureHash";
+
+  static final String SECURE_HASH_HEX_EXPR_FORMAT = "" +
+      "%%dw 2.0" + lineSeparator() +
+      "output text/plain" + lineSeparator() +
+      "import dw::Crypto" + lineSeparator() +
+      "import toHex from dw::core::Binaries" + lineSeparator() +
+      "---" + lineSeparator() +
+      "if ((payload.^mimeType startsWith '" + JAVA_MIME_TYPE_PREFIX + "') and payload.^class != 'java.lang.String') " +
+      "java!java::util::Objects::hashCode(payload) " +
+      "else " +
+      "lower(toHex(Crypto::hashWith(payload.^raw, '%s')))";
+
+  private static final String PAYLOAD_READ_ERROR_MSG =
+      "The message cannot be processed because the payload could not be read to generate its digest.";
+
+  private static final int DIGEST_BUFFER_SIZE = 8 * 1024;
+
   private static final Logger LOGGER = getLogger(IdempotentRedeliveryPolicy.class);
 
   private final MessagingExceptionResolver exceptionResolver = new MessagingExceptionResolver(this);
@@ -100,6 +142,7 @@ public class IdempotentRedeliveryPolicy extends AbstractRedeliveryPolicy {
   private String messageDigestAlgorithm;
   private String idExpression;
   private CompiledExpression compiledIdExpresion;
+  private ThreadLocal<PayloadDigester> payloadDigester;
   private ObjectStore<RedeliveryCounter> store;
   private ObjectStore<RedeliveryCounter> privateStore;
   private String idrId;
@@ -149,7 +192,13 @@ public class IdempotentRedeliveryPolicy extends AbstractRedeliveryPolicy {
         messageDigestAlgorithm = "SHA-256";
       }
 
-      idExpression = format(SECURE_HASH_EXPR_FORMAT, messageDigestAlgorithm);
+      if (getBoolean(HEX_SECURE_HASH_PROPERTY)) {
+        idExpression = format(SECURE_HASH_HEX_EXPR_FORMAT, messageDigestAlgorithm);
+        payloadDigester = createPayloadDigester(messageDigestAlgorithm);
+      } else {
+        idExpression = format(SECURE_HASH_EXPR_FORMAT, messageDigestAlgorithm);
+        payloadDigester = null;
+      }
     }
 
     if (idExpression != null) {
@@ -157,6 +206,24 @@ public class IdempotentRedeliveryPolicy extends AbstractRedeliveryPolicy {
     }
   }
 
+  private ThreadLocal<PayloadDigester> createPayloadDigester(String algorithm) {
+    try {
+      MessageDigest.getInstance(algorithm);
+    } catch (NoSuchAlgorithmException e) {
+      // Let the expression report the unsupported algorithm when it is evaluated, as it did before
+      LOGGER.debug("Message digest algorithm '{}' not available, every payload will be hashed with an expression", algorithm);
+      return null;
+    }
+
+    return ThreadLocal.withInitial(() -> {
+      try {
+        return new PayloadDigester(MessageDigest.getInstance(algorithm));
+      } catch (NoSuchAlgorithmException e) {
+        throw new IllegalStateException(e);
+      }
+    });
+  }
+
   private void initialiseStore() throws InitialisationException {
     idrId = format("%s-%s-%s", muleContext.getConfiguration().getId(), getLocation().getRootContainerName(), "idr");
 
@@ -325,11 +392,25 @@ public class IdempotentRedeliveryPolicy extends AbstractRedeliveryPolicy {
   }
 
   private String getIdForEvent(CoreEvent event) {
+    // same condition as the expression, Java objects are identified by their hashCode
+    if (payloadDigester != null && !isJavaPayload(event.getMessage().getPayload())) {
+      Object payload = event.getMessage().getPayload().getValue();
+      if (payload instanceof CursorStreamProvider) {
+        return payloadDigester.get().digest((CursorStreamProvider) payload);
+      } else if (payload instanceof byte[]) {
+        return payloadDigester.get().digest((byte[]) payload);
+      }
+    }
+
     try (ExpressionLanguageSession session = expressionManager.openSession(event.asBindingContext())) {
       return (String) session.evaluate(compiledIdExpresion, STRING).getValue();
     }
   }
 
+  private static boolean isJavaPayload(TypedValue<?> payload) {
+    return payload.getDataType().getMediaType().toRfcString().startsWith(JAVA_MIME_TYPE_PREFIX);
+  }
+
   public boolean isUseSecureHash() {
     return useSecureHash;
   }
@@ -382,5 +463,36 @@ public class IdempotentRedeliveryPolicy extends AbstractRedeliveryPolicy {
     return getLocation().getRootContainerName() + "." + getClass().getName();
   }
 
+  /**
+   * Hashes payloads with a {@link MessageDigest}, without loading them fully in memory. Not thread safe, each thread has its own.
+   */
+  private static final class PayloadDigester {
+
+    private final MessageDigest messageDigest;
+    private final byte[] buffer = new byte[DIGEST_BUFFER_SIZE];
+
+    private PayloadDigester(MessageDigest messageDigest) {
+      this.messageDigest = messageDigest;
+    }
+
+    private String digest(byte[] payload) {
+      return toHexString(messageDigest.digest(payload));
+    }
+
+    private String digest(CursorStreamProvider payload) {
+      try (CursorStream cursor = payload.openCursor()) {
+        int read;
+        while ((read = cursor.read(buffer)) != -1) {
+          messageDigest.update(buffer, 0, read);
+        }
+        return toHexString(messageDigest.digest());
+      } catch (IOException e) {
+        throw new ExpressionRuntimeException(createStaticMessage(PAYLOAD_READ_ERROR_MSG), e);
+      } finally {
+        messageDigest.reset();
+      }
+    }
+  }
+
 }
 
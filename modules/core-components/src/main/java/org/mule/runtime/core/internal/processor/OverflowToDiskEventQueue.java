@@ -0,0 +1,542 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.processor;
+
+import static org.mule.runtime.api.message.Message.of;
+
+import static java.lang.System.currentTimeMillis;
+import static java.nio.ByteBuffer.allocate;
+import static java.nio.ByteBuffer.wrap;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+import static org.slf4j.LoggerFactory.getLogger;
+
+import org.mule.runtime.api.message.Message;
+import org.mule.runtime.api.metadata.TypedValue;
+import org.mule.runtime.api.serialization.SerializationException;
+import org.mule.runtime.api.serialization.SerializationProtocol;
+import org.mule.runtime.core.api.event.CoreEvent;
+import org.mule.runtime.core.privileged.event.BaseEventContext;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.AbstractQueue;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.slf4j.Logger;
+
+/**
+ * FIFO queue of the events waiting for the async scope to accept them.
+ * <p>
+ * Up to {@code memoryThreshold} events are kept in memory. Beyond that, the message and variables of the events are serialized
+ * to a spill file, and only the rest of the event (its context among others) is kept in memory. The spill file is made of
+ * segments: new entries are appended to the last one, and each segment is deleted as soon as all its entries have been read
+ * back.
+ * <p>
+ * While there are spilled events, new events are spilled too, so the events are taken in the same order they were offered.
+ * <p>
+ * Events are serialized and written by a task run on the {@code spillExecutor}, never by the thread offering them, and neither
+ * writing nor reading back the spill file holds the lock of the queue. Until its task writes it, an event over the threshold is
+ * kept in memory as it is, so it can still be taken without reading it back. {@link #peek()}, {@link #poll()} and
+ * {@link #remove(Object)} are only to be called by one thread at a time, and the queue cannot be iterated.
+ *
+ * @since 4.8.0
+ */
+final class OverflowToDiskEventQueue extends AbstractQueue<CoreEvent> {
+
+  private static final Logger LOGGER = getLogger(OverflowToDiskEventQueue.class);
+
+  private static final String SEGMENT_FILE_EXTENSION = ".spill";
+  private static final Message EMPTY_MESSAGE = of(null);
+
+  private final SerializationProtocol serializationProtocol;
+  private final File spillDirectory;
+  private final int memoryThreshold;
+  private final int segmentSize;
+  private final Executor spillExecutor;
+
+  private final Deque<CoreEvent> inMemoryEvents = new ArrayDeque<>();
+  private final Deque<SpilledEvent> spilledEvents = new ArrayDeque<>();
+  // the events over the threshold that the spill task has not written yet
+  private final Deque<SpilledEvent> pendingSpills = new ArrayDeque<>();
+  private final Deque<Segment> segments = new ArrayDeque<>();
+  private Segment tailSegment;
+  private boolean spilling;
+
+  private long spilledBytes;
+
+  // only accessed by the spill task
+  private long nextSegmentId;
+  private boolean spillDirectoryCleaned;
+
+  /**
+   * @param serializationProtocol how to write the spilled events to the spill file
+   * @param spillDirectory        where to create the spill file segments
+   * @param memoryThreshold       how many events are kept in memory before spilling new ones
+   * @param segmentSize           the size, in bytes, after which a new segment of the spill file is started
+   * @param spillExecutor         where to run the task serializing and writing the events over the threshold
+   */
+  OverflowToDiskEventQueue(SerializationProtocol serializationProtocol, File spillDirectory, int memoryThreshold,
+                           int segmentSize, Executor spillExecutor) {
+    this.serializationProtocol = serializationProtocol;
+    this.spillDirectory = spillDirectory;
+    this.memoryThreshold = memoryThreshold;
+    this.segmentSize = segmentSize;
+    this.spillExecutor = spillExecutor;
+  }
+
+  /**
+   * Adds an event at the end of the queue, scheduling it to be spilled if the memory threshold has been reached.
+   *
+   * @param event the event to add
+   * @return {@code true}, the queue is not bounded
+   */
+  @Override
+  public boolean offer(CoreEvent event) {
+    synchronized (this) {
+      if (spilledEvents.isEmpty() && inMemoryEvents.size() < memoryThreshold) {
+        inMemoryEvents.addLast(event);
+        return true;
+      }
+
+      SpilledEvent spilledEvent = new SpilledEvent(event);
+      spilledEvents.addLast(spilledEvent);
+      pendingSpills.addLast(spilledEvent);
+      if (spilling) {
+        return true;
+      }
+      spilling = true;
+    }
+
+    try {
+      spillExecutor.execute(this::spillPending);
+    } catch (RejectedExecutionException e) {
+      LOGGER.warn("Could not schedule spilling events to '{}', keeping them in memory", spillDirectory.getAbsolutePath(), e);
+      synchronized (this) {
+        pendingSpills.clear();
+        spilling = false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Writes the pending events to the spill file, in order, until there are no more.
+   */
+  private void spillPending() {
+    while (true) {
+      SpilledEvent spilledEvent;
+      Segment segment;
+      Segment consumed = null;
+      synchronized (this) {
+        spilledEvent = pendingSpills.pollFirst();
+        if (spilledEvent == null) {
+          spilling = false;
+          consumed = deleteIfConsumed(tailSegment);
+        }
+        segment = tailSegment;
+      }
+      if (spilledEvent == null) {
+        if (consumed != null) {
+          consumed.delete();
+        }
+        return;
+      }
+      if (spilledEvent.removed) {
+        continue;
+      }
+
+      CoreEvent event = spilledEvent.event;
+      if (!isSpillable(event)) {
+        // kept in memory, still in line with the spilled ones
+        continue;
+      }
+
+      long position;
+      byte[] data;
+      try {
+        data = serializationProtocol.serialize(new SpilledEventData(event.getMessage(), event.getVariables()));
+        if (segment == null || segment.getLength() >= segmentSize) {
+          segment = startSegment(segment);
+        }
+        position = segment.append(data);
+      } catch (IOException | SerializationException e) {
+        if (!spilledEvent.removed) {
+          LOGGER.warn("Could not spill event '{}' to '{}', keeping it in memory", event.getContext().getId(),
+                      spillDirectory.getAbsolutePath(), e);
+        }
+        continue;
+      }
+
+      CoreEvent slimEvent = CoreEvent.builder(event).message(EMPTY_MESSAGE).clearVariables().build();
+      synchronized (this) {
+        // if it was taken meanwhile, its entry is just skipped when reading back
+        if (!spilledEvent.removed) {
+          spilledEvent.spilled(slimEvent, segment, position, data.length);
+          spilledBytes += data.length;
+        }
+      }
+    }
+  }
+
+  /**
+   * Only events whose values can be serialized as they are get spilled. Other values, streams in particular, would be consumed
+   * when serializing them.
+   */
+  private static boolean isSpillable(CoreEvent event) {
+    if (!isSerializable(event.getMessage().getPayload()) || !isSerializable(event.getMessage().getAttributes())) {
+      return false;
+    }
+    for (TypedValue<?> variable : event.getVariables().values()) {
+      if (!isSerializable(variable)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean isSerializable(TypedValue<?> typedValue) {
+    return typedValue.getValue() == null || typedValue.getValue() instanceof Serializable;
+  }
+
+  private Segment startSegment(Segment previous) throws IOException {
+    if (!spillDirectoryCleaned) {
+      // leftovers of a previous run cannot be replayed, the rest of their events is gone
+      cleanSpillDirectory();
+      spillDirectoryCleaned = true;
+    }
+    Segment segment = new Segment(new File(spillDirectory, nextSegmentId++ + SEGMENT_FILE_EXTENSION));
+
+    Segment consumed;
+    synchronized (this) {
+      if (previous != null) {
+        previous.full = true;
+      }
+      consumed = deleteIfConsumed(previous);
+      segments.addLast(segment);
+      tailSegment = segment;
+    }
+    if (consumed != null) {
+      consumed.delete();
+    }
+    return segment;
+  }
+
+  private void cleanSpillDirectory() throws IOException {
+    if (!spillDirectory.isDirectory() && !spillDirectory.mkdirs()) {
+      throw new IOException("Could not create spill directory " + spillDirectory.getAbsolutePath());
+    }
+    for (File file : spillDirectory.listFiles()) {
+      if (file.getName().endsWith(SEGMENT_FILE_EXTENSION) && !file.delete()) {
+        LOGGER.warn("Could not delete spill file {}", file.getAbsolutePath());
+      }
+    }
+  }
+
+  /**
+   * Returns the first event of the queue without removing it, reading it back from the spill file if it was spilled.
+   *
+   * @return the first event of the queue, or {@code null} if it is empty.
+   */
+  @Override
+  public CoreEvent peek() {
+    while (true) {
+      SpilledEvent first;
+      synchronized (this) {
+        if (!inMemoryEvents.isEmpty()) {
+          return inMemoryEvents.peekFirst();
+        }
+        first = spilledEvents.peekFirst();
+        if (first == null) {
+          return null;
+        }
+        if (first.segment == null) {
+          // not written to the spill file, the whole event is still in memory
+          takeFirstSpilledEvent(first, first.event);
+          return first.event;
+        }
+      }
+
+      CoreEvent replayed = replay(first);
+
+      Segment consumed;
+      synchronized (this) {
+        if (spilledEvents.peekFirst() != first) {
+          // the queue was cleared while reading
+          continue;
+        }
+        first.segment.entries--;
+        consumed = deleteIfConsumed(first.segment);
+        takeFirstSpilledEvent(first, replayed);
+      }
+      if (consumed != null) {
+        consumed.delete();
+      }
+      if (replayed != null) {
+        return replayed;
+      }
+    }
+  }
+
+  private void takeFirstSpilledEvent(SpilledEvent first, CoreEvent event) {
+    spilledEvents.removeFirst();
+    first.removed = true;
+    if (event != null) {
+      inMemoryEvents.addFirst(event);
+    }
+  }
+
+  private CoreEvent replay(SpilledEvent spilledEvent) {
+    Segment segment = spilledEvent.segment;
+    try {
+      SpilledEventData data = serializationProtocol.deserialize(segment.read(spilledEvent.position, spilledEvent.length));
+      return CoreEvent.builder(spilledEvent.event).message(data.message).variables(data.variables).build();
+    } catch (IOException | RuntimeException e) {
+      LOGGER.error("Could not read back spilled event '{}' from '{}'", spilledEvent.event.getContext().getId(),
+                   segment.file.getAbsolutePath(), e);
+      ((BaseEventContext) spilledEvent.event.getContext()).error(e);
+      return null;
+    }
+  }
+
+  /**
+   * Stops tracking the given segment if none of its entries is left to read and no more entries are going to be written to it.
+   *
+   * @return the segment, to be deleted once the lock of this queue is released, or {@code null} if it is still needed.
+   */
+  private Segment deleteIfConsumed(Segment segment) {
+    if (segment == null || segment.entries > 0 || !(segment.full || (segment == tailSegment && !spilling))
+        || !segments.remove(segment)) {
+      return null;
+    }
+    if (segment == tailSegment) {
+      tailSegment = null;
+    }
+    return segment;
+  }
+
+  @Override
+  public CoreEvent poll() {
+    CoreEvent event = peek();
+    if (event != null) {
+      remove(event);
+    }
+    return event;
+  }
+
+  /**
+   * Removes the given event if it is the first of the queue.
+   *
+   * @param event the event returned by {@link #peek()}
+   * @return whether the event was removed
+   */
+  @Override
+  public synchronized boolean remove(Object event) {
+    if (event != null && inMemoryEvents.peekFirst() == event) {
+      inMemoryEvents.removeFirst();
+      return true;
+    }
+    return false;
+  }
+
+  @Override
+  public synchronized boolean isEmpty() {
+    return inMemoryEvents.isEmpty() && spilledEvents.isEmpty();
+  }
+
+  @Override
+  public synchronized int size() {
+    return inMemoryEvents.size() + spilledEvents.size();
+  }
+
+  /**
+   * Not supported, the spilled events are only read back when they reach the head of the queue.
+   */
+  @Override
+  public Iterator<CoreEvent> iterator() {
+    throw new UnsupportedOperationException("Events waiting in the async scope queue cannot be iterated");
+  }
+
+  @Override
+  public String toString() {
+    return getClass().getSimpleName() + "[size=" + size() + ", spilledBytes=" + getSpilledBytes() + "]";
+  }
+
+  /**
+   * Discards all the events of the queue, deleting the spill file.
+   */
+  @Override
+  public void clear() {
+    List<Segment> cleared;
+    synchronized (this) {
+      inMemoryEvents.clear();
+      for (SpilledEvent spilledEvent : spilledEvents) {
+        spilledEvent.removed = true;
+      }
+      spilledEvents.clear();
+      pendingSpills.clear();
+      cleared = new ArrayList<>(segments);
+      segments.clear();
+      tailSegment = null;
+    }
+    for (Segment segment : cleared) {
+      segment.delete();
+    }
+  }
+
+  /**
+   * @return the number of bytes written to the spill file since this queue was created.
+   */
+  synchronized long getSpilledBytes() {
+    return spilledBytes;
+  }
+
+  /**
+   * @return the number of events over the memory threshold that have not been taken yet, whether already spilled or not.
+   */
+  synchronized int getPendingSpilledEvents() {
+    return spilledEvents.size();
+  }
+
+  /**
+   * @return how long, in milliseconds, the oldest event over the memory threshold not taken yet has been waiting, or zero if
+   *         there is none.
+   */
+  synchronized long getReplayLag() {
+    SpilledEvent oldest = spilledEvents.peekFirst();
+    return oldest == null ? 0 : currentTimeMillis() - oldest.offeredAt;
+  }
+
+  /**
+   * An event over the memory threshold. Until it is written to the spill file, it holds the whole event.
+   */
+  private static final class SpilledEvent {
+
+    private CoreEvent event;
+    private Segment segment;
+    private long position;
+    private int length;
+    // also read by the spill task outside the lock, to skip the events taken meanwhile
+    private volatile boolean removed;
+    private final long offeredAt = currentTimeMillis();
+
+    private SpilledEvent(CoreEvent event) {
+      this.event = event;
+    }
+
+    private void spilled(CoreEvent slimEvent, Segment segment, long position, int length) {
+      this.event = slimEvent;
+      this.segment = segment;
+      this.position = position;
+      this.length = length;
+      segment.entries++;
+    }
+  }
+
+  private static final class SpilledEventData implements Serializable {
+
+    private static final long serialVersionUID = -5765164539227345183L;
+
+    private final Message message;
+    private final HashMap<String, TypedValue<?>> variables;
+
+    private SpilledEventData(Message message, Map<String, TypedValue<?>> variables) {
+      this.message = message;
+      this.variables = new HashMap<>(variables);
+    }
+  }
+
+  /**
+   * A file of the spill file, holding each entry as its length followed by its data. Entries are appended by the spill task and
+   * read back at the position they were written to, so reading does not interfere with writing.
+   */
+  private static final class Segment {
+
+    private final File file;
+    private final FileChannel channel;
+    // only accessed by the spill task
+    private long writePosition;
+    // guarded by the lock of the queue
+    private int entries;
+    private boolean full;
+
+    private Segment(File file) throws IOException {
+      this.file = file;
+      this.channel = FileChannel.open(file.toPath(), CREATE, TRUNCATE_EXISTING, READ, WRITE);
+    }
+
+    /**
+     * @return the position the entry was written to
+     */
+    private long append(byte[] data) throws IOException {
+      ByteBuffer buffer = allocate(Integer.BYTES + data.length);
+      buffer.putInt(data.length).put(data).flip();
+
+      long entryPosition = writePosition;
+      long position = entryPosition;
+      while (buffer.hasRemaining()) {
+        position += channel.write(buffer, position);
+      }
+      // a partially written entry is overwritten by the next one
+      writePosition = position;
+      return entryPosition;
+    }
+
+    private byte[] read(long position, int expectedLength) throws IOException {
+      ByteBuffer lengthBuffer = allocate(Integer.BYTES);
+      read(lengthBuffer, position);
+      int length = lengthBuffer.getInt(0);
+      if (length != expectedLength) {
+        throw new IOException("Corrupted spill file " + file.getAbsolutePath() + ", expected an entry of " + expectedLength
+            + " bytes but found " + length);
+      }
+      byte[] data = new byte[length];
+      read(wrap(data), position + Integer.BYTES);
+      return data;
+    }
+
+    private void read(ByteBuffer buffer, long position) throws IOException {
+      while (buffer.hasRemaining()) {
+        int read = channel.read(buffer, position);
+        if (read < 0) {
+          throw new EOFException("Unexpected end of spill file " + file.getAbsolutePath());
+        }
+        position += read;
+      }
+    }
+
+    private long getLength() {
+      return writePosition;
+    }
+
+    private void delete() {
+      try {
+        channel.close();
+      } catch (IOException e) {
+        LOGGER.debug("Could not close spill file {}", file.getAbsolutePath(), e);
+      }
+      if (!file.delete()) {
+        LOGGER.warn("Could not delete spill file {}", file.getAbsolutePath());
+      }
+    }
+  }
+}
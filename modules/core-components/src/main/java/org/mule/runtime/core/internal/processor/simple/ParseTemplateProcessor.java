@@ -22,17 +22,21 @@ import static org.mule.runtime.core.internal.util.rx.Operators.outputToTarget;
 import static java.nio.charset.Charset.forName;
 
 import org.mule.runtime.api.el.CompiledExpression;
+import org.mule.runtime.api.exception.MuleRuntimeException;
 import org.mule.runtime.api.lifecycle.InitialisationException;
 import org.mule.runtime.api.message.Message;
 import org.mule.runtime.api.metadata.MediaType;
 import org.mule.runtime.core.api.el.ExtendedExpressionManager;
 import org.mule.runtime.core.api.event.CoreEvent;
 import org.mule.runtime.core.api.util.IOUtils;
+import org.mule.runtime.core.internal.el.CompiledTemplate;
+import org.mule.runtime.core.internal.el.DefaultExpressionManager;
 import org.mule.runtime.core.internal.interception.HasParamsAsTemplateProcessor;
 import org.mule.runtime.core.privileged.processor.simple.SimpleMessageProcessor;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.StringWriter;
 import java.nio.charset.Charset;
 
 import javax.activation.MimetypesFileTypeMap;
@@ -57,6 +61,8 @@ public class ParseTemplateProcessor extends SimpleMessageProcessor implements Ha
   private String location;
   private String targetValue;
   private CompiledExpression targetValueExpression;
+  // the content compiled once, if the expression manager supports it
+  private CompiledTemplate compiledContent;
 
   @Override
   public void initialise() throws InitialisationException {
@@ -79,6 +85,10 @@ public class ParseTemplateProcessor extends SimpleMessageProcessor implements Ha
     if (targetValue != null) {
       targetValueExpression = compile(targetValue, expressionManager);
     }
+
+    if (expressionManager instanceof DefaultExpressionManager) {
+      compiledContent = ((DefaultExpressionManager) expressionManager).compileLogTemplate(content);
+    }
   }
 
   private void loadContentFromLocation() throws InitialisationException {
@@ -131,7 +141,7 @@ public class ParseTemplateProcessor extends SimpleMessageProcessor implements Ha
   public CoreEvent process(CoreEvent event) {
     evaluateCorrectArguments();
 
-    String result = expressionManager.parseLogTemplate(content, event, getLocation(), NULL_BINDING_CONTEXT);
+    String result = parseContent(event);
     Message.Builder messageBuilder = Message.builder(event.getMessage()).value(result).nullAttributesValue();
     MediaType configuredMediaType = buildMediaType();
     if (configuredMediaType != null) {
@@ -147,6 +157,22 @@ public class ParseTemplateProcessor extends SimpleMessageProcessor implements Ha
     }
   }
 
+  private String parseContent(CoreEvent event) {
+    if (compiledContent == null) {
+      return expressionManager.parseLogTemplate(content, event, getLocation(), NULL_BINDING_CONTEXT);
+    }
+
+    // the result is rendered straight into the buffer of the payload, sized for the template
+    StringWriter writer = new StringWriter(compiledContent.getExpectedLength());
+    try {
+      ((DefaultExpressionManager) expressionManager).parseLogTemplate(compiledContent, event, getLocation(),
+                                                                      NULL_BINDING_CONTEXT, writer);
+    } catch (IOException e) {
+      throw new MuleRuntimeException(createStaticMessage("Error rendering template"), e);
+    }
+    return writer.toString();
+  }
+
   public void setContent(String content) {
     this.content = content;
   }
@@ -8,12 +8,15 @@ package org.mule.runtime.core.internal.routing;
 
 import static org.mule.runtime.api.config.MuleRuntimeFeature.FOREACH_ROUTER_REJECTS_MAP_EXPRESSIONS;
 import static org.mule.runtime.api.metadata.DataType.fromObject;
+import static org.mule.runtime.api.util.MuleSystemProperties.SYSTEM_PROPERTY_PREFIX;
+import static org.mule.runtime.core.api.transaction.TransactionCoordination.isTransactionActive;
 import static org.mule.runtime.core.internal.routing.split.ExpressionSplittingStrategy.DEFAULT_SPLIT_EXPRESSION;
 import static org.mule.runtime.core.internal.routing.ForeachUtils.manageTypedValueForStreaming;
 import static org.mule.runtime.core.privileged.processor.MessageProcessors.buildNewChainWithListOfProcessors;
 import static org.mule.runtime.core.privileged.processor.MessageProcessors.getProcessingStrategy;
 import static org.mule.runtime.core.privileged.processor.MessageProcessors.processToApply;
 
+import static java.lang.Integer.getInteger;
 import static java.util.Collections.singletonList;
 import static java.util.Optional.of;
 
@@ -24,6 +27,8 @@ import org.mule.runtime.api.exception.MuleException;
 import org.mule.runtime.api.lifecycle.Initialisable;
 import org.mule.runtime.api.lifecycle.InitialisationException;
 import org.mule.runtime.api.metadata.TypedValue;
+import org.mule.runtime.api.scheduler.Scheduler;
+import org.mule.runtime.api.scheduler.SchedulerService;
 import org.mule.runtime.core.api.el.ExpressionManager;
 import org.mule.runtime.core.api.event.CoreEvent;
 import org.mule.runtime.core.api.processor.AbstractMessageProcessorOwner;
@@ -61,6 +66,9 @@ import org.slf4j.Logger;
  * <p>
  * Defining a groupSize greater than one, allows iterating over collections of elements of the specified size.
  * <p>
+ * Defining a prefetch depth greater than zero reads up to that many elements ahead in an IO scheduler, while the current one is
+ * processed. Useful when fetching each element is expensive, like with streaming collections obtained from a connector.
+ * <p>
  * The {@link CoreEvent} sent to the next message processor is the same that arrived to foreach.
  */
 public class Foreach extends AbstractMessageProcessorOwner implements Initialisable, Scope {
@@ -70,6 +78,14 @@ public class Foreach extends AbstractMessageProcessorOwner implements Initialisa
   static final String DEFAULT_COUNTER_VARIABLE = "counter";
   public static final String DEFAULT_ROOT_MESSAGE_VARIABLE = "rootMessage";
   public static final String ITERATION_SPAN_NAME_SUFFIX = ":iteration";
+
+  /**
+   * The default prefetch depth of every foreach, {@code 0} meaning elements are not read ahead.
+   *
+   * @since 4.8.0
+   */
+  public static final String FOREACH_PREFETCH_DEPTH_PROPERTY = SYSTEM_PROPERTY_PREFIX + "foreach.prefetchDepth";
+
   private String counterVariableName = DEFAULT_COUNTER_VARIABLE;
   private String rootMessageVariableName = DEFAULT_ROOT_MESSAGE_VARIABLE;
 
@@ -85,9 +101,14 @@ public class Foreach extends AbstractMessageProcessorOwner implements Initialisa
   @Inject
   private ComponentTracerFactory componentTracerFactory;
 
+  @Inject
+  private SchedulerService schedulerService;
+
   private List<Processor> messageProcessors;
   private String expression = DEFAULT_SPLIT_EXPRESSION;
   private int batchSize = 1;
+  private int prefetchDepth = getInteger(FOREACH_PREFETCH_DEPTH_PROPERTY, 0);
+  private Scheduler prefetchScheduler;
   private SplittingStrategy<CoreEvent, Iterator<TypedValue<?>>> splittingStrategy;
 
   private MessageProcessorChain nestedChain;
@@ -130,6 +151,24 @@ public class Foreach extends AbstractMessageProcessorOwner implements Initialisa
     super.initialise();
   }
 
+  @Override
+  public void start() throws MuleException {
+    if (prefetchDepth > 0) {
+      prefetchScheduler = schedulerService.ioScheduler(muleContext.getSchedulerBaseConfig()
+          .withName(getLocation().getLocation() + " - prefetch"));
+    }
+    super.start();
+  }
+
+  @Override
+  public void stop() throws MuleException {
+    super.stop();
+    if (prefetchScheduler != null) {
+      prefetchScheduler.stop();
+      prefetchScheduler = null;
+    }
+  }
+
   public void setCollectionExpression(String expression) {
     this.expression = expression;
   }
@@ -138,6 +177,15 @@ public class Foreach extends AbstractMessageProcessorOwner implements Initialisa
     this.batchSize = batchSize;
   }
 
+  /**
+   * @param prefetchDepth how many elements of the collection to read ahead while the current one is processed, {@code 0} to read
+   *                      each element only when it is about to be processed.
+   * @since 4.8.0
+   */
+  public void setPrefetchDepth(int prefetchDepth) {
+    this.prefetchDepth = prefetchDepth;
+  }
+
   public String getRootMessageVariableName() {
     return rootMessageVariableName;
   }
@@ -174,7 +222,7 @@ public class Foreach extends AbstractMessageProcessorOwner implements Initialisa
       // Support EventBuilderConfigurerIterator currently used by Batch Module
       result = new EventBuilderConfigurerIteratorWrapper((EventBuilderConfigurerIterator) payloadValue);
     } else {
-      result = getSplittingStrategy().split(request);
+      result = prefetch(getSplittingStrategy().split(request));
     }
     if (LOGGER.isDebugEnabled() && !result.hasNext()) {
       LOGGER.debug(
@@ -184,6 +232,14 @@ public class Foreach extends AbstractMessageProcessorOwner implements Initialisa
     return result;
   }
 
+  private Iterator<TypedValue<?>> prefetch(Iterator<TypedValue<?>> iterator) {
+    // the elements of a transactional resource have to be read in the thread that holds the transaction
+    if (prefetchScheduler == null || isTransactionActive()) {
+      return iterator;
+    }
+    return new PrefetchingIterator<>(iterator, prefetchDepth, prefetchScheduler);
+  }
+
   TypedValue setCurrentValue(int batchSize, ForeachContext foreachContext, CoreEvent event) {
     TypedValue currentValue;
     Iterator<TypedValue<?>> iterator = foreachContext.getIterator();
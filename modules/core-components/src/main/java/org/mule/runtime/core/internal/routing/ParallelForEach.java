@@ -7,6 +7,7 @@
 package org.mule.runtime.core.internal.routing;
 
 import static org.mule.runtime.api.config.MuleRuntimeFeature.PARALLEL_FOREACH_FLATTEN_MESSAGE;
+import static org.mule.runtime.api.util.MuleSystemProperties.SYSTEM_PROPERTY_PREFIX;
 import static org.mule.runtime.core.api.processor.strategy.AsyncProcessingStrategyFactory.DEFAULT_MAX_CONCURRENCY;
 import static org.mule.runtime.core.api.util.StreamingUtils.updateTypedValueForStreaming;
 import static org.mule.runtime.core.internal.routing.RoutingUtils.setSourcePolicyChildContext;
@@ -15,6 +16,7 @@ import static org.mule.runtime.core.internal.routing.ForeachUtils.manageTypedVal
 import static org.mule.runtime.core.internal.routing.ForkJoinStrategy.RoutingPair.of;
 import static org.mule.runtime.core.privileged.processor.MessageProcessors.buildNewChainWithListOfProcessors;
 
+import static java.lang.Boolean.getBoolean;
 import static java.util.Collections.singletonList;
 import static java.util.Optional.of;
 
@@ -30,6 +32,7 @@ import org.mule.runtime.core.api.processor.Processor;
 import org.mule.runtime.core.api.streaming.StreamingManager;
 import org.mule.runtime.core.internal.event.InternalEvent;
 import org.mule.runtime.core.internal.routing.forkjoin.CollectListForkJoinStrategyFactory;
+import org.mule.runtime.core.internal.routing.forkjoin.StreamingCollectListForkJoinStrategyFactory;
 import org.mule.runtime.core.internal.routing.split.SplittingStrategy;
 import org.mule.runtime.core.privileged.processor.chain.MessageProcessorChain;
 import org.mule.runtime.tracer.api.component.ComponentTracerFactory;
@@ -59,6 +62,24 @@ import org.reactivestreams.Publisher;
 public class ParallelForEach extends AbstractForkJoinRouter {
 
   public static final String PARALLEL_FOREACH_ITERATION_SPAN_NAME_SUFFIX = ":iteration";
+
+  /**
+   * When set, the route messages are streamed into a {@link org.mule.runtime.api.streaming.object.CursorIteratorProvider} as the
+   * routes complete, using {@link StreamingCollectListForkJoinStrategyFactory}, rather than collected into a {@link List}.
+   *
+   * @since 4.8.0
+   */
+  public static final String PARALLEL_FOREACH_STREAMING_AGGREGATION_PROPERTY =
+      SYSTEM_PROPERTY_PREFIX + "parallelForeach.streamingAggregation";
+
+  /**
+   * When set, the route messages are aggregated in the order the routes complete, rather than in the order of the collection.
+   *
+   * @since 4.8.0
+   */
+  public static final String PARALLEL_FOREACH_COMPLETION_ORDER_PROPERTY =
+      SYSTEM_PROPERTY_PREFIX + "parallelForeach.completionOrder";
+
   @Inject
   protected ExpressionManager expressionManager;
 
@@ -127,7 +148,11 @@ public class ParallelForEach extends AbstractForkJoinRouter {
 
   @Override
   protected ForkJoinStrategyFactory getDefaultForkJoinStrategyFactory() {
-    return new CollectListForkJoinStrategyFactory(false);
+    boolean completionOrder = getBoolean(PARALLEL_FOREACH_COMPLETION_ORDER_PROPERTY);
+    if (getBoolean(PARALLEL_FOREACH_STREAMING_AGGREGATION_PROPERTY)) {
+      return new StreamingCollectListForkJoinStrategyFactory(streamingManager, false, completionOrder);
+    }
+    return new CollectListForkJoinStrategyFactory(false, completionOrder);
   }
 
   /**
@@ -0,0 +1,154 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.routing;
+
+import static org.mule.runtime.api.util.Preconditions.checkArgument;
+
+import static java.lang.Thread.currentThread;
+
+import static reactor.core.Exceptions.propagate;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * {@link Iterator} that reads ahead up to {@code prefetchDepth} elements of another one in an {@link Executor}, so fetching the
+ * next elements overlaps with processing the current one.
+ * <p>
+ * The delegate is only accessed by one fetch task at a time. A fetch task reads elements until the buffer is full, and a new one
+ * is submitted as elements are taken from it, so no thread is held while the buffer is full.
+ * <p>
+ * Failures of the delegate are thrown by {@link #hasNext()} or {@link #next()} once the elements read before the failure are
+ * consumed.
+ *
+ * @param <T> the type of the elements
+ * @since 4.8.0
+ */
+class PrefetchingIterator<T> implements Iterator<T> {
+
+  private static final Object END = new Object();
+  private static final Object NULL_ELEMENT = new Object();
+
+  private final Iterator<T> delegate;
+  private final int prefetchDepth;
+  private final Executor fetchExecutor;
+  // one extra slot for the end or failure marker
+  private final BlockingQueue<Object> buffer;
+  private final AtomicBoolean fetching = new AtomicBoolean(false);
+  private volatile boolean delegateExhausted;
+
+  private T nextElement;
+  private boolean hasNextElement;
+  private boolean ended;
+
+  /**
+   * @param delegate      the {@link Iterator} to read ahead
+   * @param prefetchDepth the maximum number of elements to read ahead
+   * @param fetchExecutor where the elements are read from the {@code delegate}
+   */
+  PrefetchingIterator(Iterator<T> delegate, int prefetchDepth, Executor fetchExecutor) {
+    checkArgument(prefetchDepth > 0, "prefetchDepth must be greater than zero");
+    this.delegate = delegate;
+    this.prefetchDepth = prefetchDepth;
+    this.fetchExecutor = fetchExecutor;
+    this.buffer = new ArrayBlockingQueue<>(prefetchDepth + 1);
+    scheduleFetch();
+  }
+
+  @Override
+  public boolean hasNext() {
+    if (hasNextElement) {
+      return true;
+    }
+    if (ended) {
+      return false;
+    }
+
+    Object element = buffer.poll();
+    if (element == null) {
+      try {
+        element = buffer.take();
+      } catch (InterruptedException e) {
+        currentThread().interrupt();
+        throw propagate(e);
+      }
+    }
+    scheduleFetch();
+
+    if (element == END) {
+      ended = true;
+      return false;
+    }
+    if (element instanceof FetchFailure) {
+      ended = true;
+      throw propagate(((FetchFailure) element).cause);
+    }
+    nextElement = element == NULL_ELEMENT ? null : (T) element;
+    hasNextElement = true;
+    return true;
+  }
+
+  @Override
+  public T next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    T element = nextElement;
+    nextElement = null;
+    hasNextElement = false;
+    return element;
+  }
+
+  private void scheduleFetch() {
+    if (delegateExhausted || !fetching.compareAndSet(false, true)) {
+      return;
+    }
+    try {
+      fetchExecutor.execute(this::fetch);
+    } catch (RejectedExecutionException e) {
+      fetch();
+    }
+  }
+
+  private void fetch() {
+    try {
+      while (!delegateExhausted && buffer.size() < prefetchDepth) {
+        if (delegate.hasNext()) {
+          T element = delegate.next();
+          buffer.add(element == null ? NULL_ELEMENT : element);
+        } else {
+          delegateExhausted = true;
+          buffer.add(END);
+        }
+      }
+    } catch (Throwable t) {
+      delegateExhausted = true;
+      buffer.add(new FetchFailure(t));
+    } finally {
+      fetching.set(false);
+    }
+
+    // an element may have been taken after the buffer was found full but before this task finished
+    if (!delegateExhausted && buffer.size() < prefetchDepth) {
+      scheduleFetch();
+    }
+  }
+
+  private static final class FetchFailure {
+
+    private final Throwable cause;
+
+    private FetchFailure(Throwable cause) {
+      this.cause = cause;
+    }
+  }
+}
@@ -53,12 +53,12 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicInteger;
-import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import org.reactivestreams.Publisher;
 
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Schedulers;
 
@@ -67,6 +67,7 @@ import reactor.core.scheduler.Schedulers;
  * {@link RoutingPair}'s that wish to use the following common behaviour:
  * <ul>
  * <li>Emit a single result event once all routes complete.
+ * <li>Aggregate the result of each route as it completes, either in routing order or in completion order.
  * <li>Merge variables using a last-wins strategy.
  * <li>Use of an optional timeout.
  * <li>Delay error behavior, where all errors are collated and thrown as a composite exception.
@@ -77,13 +78,25 @@ public abstract class AbstractForkJoinStrategyFactory implements ForkJoinStrateg
   public static final String TIMEOUT_EXCEPTION_DESCRIPTION = "Route Timeout";
   public static final String TIMEOUT_EXCEPTION_DETAILED_DESCRIPTION_PREFIX = "Timeout while processing route/part:";
   private final boolean mergeVariables;
+  private final boolean completionOrder;
 
   public AbstractForkJoinStrategyFactory() {
     this(true);
   }
 
   public AbstractForkJoinStrategyFactory(boolean mergeVariables) {
+    this(mergeVariables, false);
+  }
+
+  /**
+   * @param mergeVariables  whether the variables set by the routes are merged into the result event
+   * @param completionOrder whether the route results are aggregated as soon as each route completes, rather than in routing
+   *                        order. Avoids holding the results of the routes that complete before a slower previous one.
+   * @since 4.8.0
+   */
+  public AbstractForkJoinStrategyFactory(boolean mergeVariables, boolean completionOrder) {
     this.mergeVariables = mergeVariables;
+    this.completionOrder = completionOrder;
   }
 
   @Override
@@ -101,35 +114,40 @@ public abstract class AbstractForkJoinStrategyFactory implements ForkJoinStrateg
     return (original, routingPairs) -> {
       final AtomicInteger count = new AtomicInteger();
       final CoreEvent.Builder resultBuilder = builder(original);
-      return from(routingPairs)
-          .map(addSequence(count))
-          .flatMapSequential(processRoutePair(processingStrategy, maxConcurrency, delayErrors, timeoutDuration,
-                                              reactorTimeoutScheduler,
-                                              timeoutErrorType),
-                             maxConcurrency)
-          .reduce(new Pair<List<Pair<CoreEvent, EventProcessingException>>, Boolean>(new ArrayList<>(), false),
-                  (listBooleanPair, coreEventExceptionPair) -> {
-                    // Accumulates events and check if there is a (new) error within those events
-                    listBooleanPair.getFirst().add(coreEventExceptionPair);
-                    boolean hasNewError =
-                        coreEventExceptionPair.getFirst().getError().map(err -> !isOriginalError(err, original.getError()))
-                            .orElse(false);
-                    return new Pair<>(listBooleanPair.getFirst(), listBooleanPair.getSecond() || hasNewError);
-                  })
-          .doOnNext(listBooleanPair -> {
-            if (listBooleanPair.getSecond()) {
-              throw propagate(createCompositeRoutingException(listBooleanPair.getFirst().stream()
+      final RouteResultAggregator aggregator = createRouteResultAggregator(original);
+      return processRoutePairs(from(routingPairs).map(addSequence(count)),
+                               processRoutePair(processingStrategy, maxConcurrency, delayErrors, timeoutDuration,
+                                                reactorTimeoutScheduler,
+                                                timeoutErrorType),
+                               maxConcurrency)
+          // Aggregates each route result as it arrives, so it is not held any longer than the aggregator needs it
+          .reduce(aggregator, (routeResultAggregator, coreEventExceptionPair) -> {
+            routeResultAggregator.add(coreEventExceptionPair);
+            return routeResultAggregator;
+          })
+          .doOnNext(routeResultAggregator -> {
+            if (routeResultAggregator.hasNewError) {
+              throw propagate(createCompositeRoutingException(routeResultAggregator.getRouteResults().stream()
                   .map(coreEventExceptionPair -> removeOriginalError(coreEventExceptionPair,
                                                                      original.getError()))
                   .collect(toList()), isDetailedLogEnabled));
             }
           })
-          .map(listBooleanPair -> listBooleanPair.getFirst().stream().map(Pair::getFirst).collect(Collectors.toList()))
-          .doOnNext(mergeVariables(original, resultBuilder))
-          .map(createResultEvent(original, resultBuilder));
+          .doOnNext(routeResultAggregator -> routeResultAggregator.routeVars.forEach(resultBuilder::addVariable))
+          .map(routeResultAggregator -> routeResultAggregator.createResultEvent(resultBuilder))
+          .doOnError(e -> aggregator.discard())
+          .doOnCancel(aggregator::discard);
     };
   }
 
+  private Flux<Pair<CoreEvent, EventProcessingException>> processRoutePairs(Flux<RoutingPair> routingPairs,
+                                                                            Function<RoutingPair, Publisher<Pair<CoreEvent, EventProcessingException>>> processRoutePair,
+                                                                            int maxConcurrency) {
+    return completionOrder
+        ? routingPairs.flatMap(processRoutePair, maxConcurrency)
+        : routingPairs.flatMapSequential(processRoutePair, maxConcurrency);
+  }
+
   private boolean isOriginalError(Error newError, Optional<Error> originalError) {
     return originalError.map(error -> error.equals(newError)).orElse(false);
   }
@@ -156,6 +174,18 @@ public abstract class AbstractForkJoinStrategyFactory implements ForkJoinStrateg
   protected abstract Function<List<CoreEvent>, CoreEvent> createResultEvent(CoreEvent original,
                                                                             CoreEvent.Builder resultBuilder);
 
+  /**
+   * Template method to be overridden by implementations that aggregate the route results as they complete, rather than keeping
+   * them all until {@link #createResultEvent(CoreEvent, CoreEvent.Builder)} is applied to them.
+   *
+   * @param original the original event
+   * @return the {@link RouteResultAggregator} the result of each route is added to
+   * @since 4.8.0
+   */
+  protected RouteResultAggregator createRouteResultAggregator(CoreEvent original) {
+    return new ListRouteResultAggregator(original);
+  }
+
   private Function<RoutingPair, RoutingPair> addSequence(AtomicInteger count) {
     return pair -> of(builder(pair.getEvent()).itemSequenceInfo(ofNullable(ItemSequenceInfo.of(count.getAndIncrement())))
         .build(), pair.getRoute());
@@ -253,24 +283,20 @@ public abstract class AbstractForkJoinStrategyFactory implements ForkJoinStrateg
 
   }
 
-  private Consumer<List<CoreEvent>> mergeVariables(CoreEvent original, CoreEvent.Builder result) {
-    return list -> {
-      if (!mergeVariables) {
-        return;
-      }
-      Map<String, TypedValue<?>> routeVars = new HashMap<>();
-      list.forEach(event -> event.getVariables().forEach((key, typedValue) -> {
-        // Only merge variables that have been added or mutated in routes.
-        if (!typedValue.equals(original.getVariables().get(key))) {
-          if (!routeVars.containsKey(key)) {
-            addNewVariable(routeVars, key, typedValue);
-          } else {
-            addExistingVariable(routeVars, key, typedValue);
-          }
+  private void mergeVariables(CoreEvent original, CoreEvent routeResult, Map<String, TypedValue<?>> routeVars) {
+    if (!mergeVariables) {
+      return;
+    }
+    routeResult.getVariables().forEach((key, typedValue) -> {
+      // Only merge variables that have been added or mutated in routes.
+      if (!typedValue.equals(original.getVariables().get(key))) {
+        if (!routeVars.containsKey(key)) {
+          addNewVariable(routeVars, key, typedValue);
+        } else {
+          addExistingVariable(routeVars, key, typedValue);
         }
-      }));
-      routeVars.forEach((s, typedValue) -> result.addVariable(s, typedValue));
-    };
+      }
+    });
   }
 
   private static void addNewVariable(Map<String, TypedValue<?>> routeVars, String key, TypedValue<?> typedValue) {
@@ -306,4 +332,88 @@ public abstract class AbstractForkJoinStrategyFactory implements ForkJoinStrateg
     }
   }
 
+  /**
+   * Aggregates the results of the routes of a fork-join as they complete, in the order they are emitted.
+   * <p>
+   * Keeps track of the route errors and merges the route variables, leaving to implementations how to keep the results
+   * themselves.
+   *
+   * @since 4.8.0
+   */
+  protected abstract class RouteResultAggregator {
+
+    protected final CoreEvent original;
+    private final Map<String, TypedValue<?>> routeVars = new HashMap<>();
+    private boolean hasNewError;
+
+    protected RouteResultAggregator(CoreEvent original) {
+      this.original = original;
+    }
+
+    private void add(Pair<CoreEvent, EventProcessingException> routeResult) {
+      CoreEvent routeEvent = routeResult.getFirst();
+      // Checks if there is a (new) error within the route result
+      hasNewError |= routeEvent.getError().map(err -> !isOriginalError(err, original.getError())).orElse(false);
+      if (!hasNewError) {
+        mergeVariables(original, routeEvent, routeVars);
+      }
+      collect(routeResult);
+    }
+
+    /**
+     * Keeps the result of a route.
+     *
+     * @param routeResult the event the route resulted in, along with the exception if the route failed
+     */
+    protected abstract void collect(Pair<CoreEvent, EventProcessingException> routeResult);
+
+    /**
+     * Only called when any route failed, to create the {@link CompositeRoutingException} to throw.
+     *
+     * @return the results of all the routes
+     */
+    protected abstract List<Pair<CoreEvent, EventProcessingException>> getRouteResults();
+
+    /**
+     * Called once all the routes completed without errors.
+     *
+     * @param resultBuilder a result builder with the current state of result event builder including flow variables
+     * @return the result event
+     */
+    protected abstract CoreEvent createResultEvent(CoreEvent.Builder resultBuilder);
+
+    /**
+     * Called if the result event is not going to be created, because of an error or a cancellation, to release any resource
+     * held by this aggregator.
+     */
+    protected void discard() {}
+  }
+
+  /**
+   * Keeps all the route results in memory, to apply {@link #createResultEvent(CoreEvent, CoreEvent.Builder)} to them.
+   */
+  private class ListRouteResultAggregator extends RouteResultAggregator {
+
+    private final List<Pair<CoreEvent, EventProcessingException>> routeResults = new ArrayList<>();
+
+    private ListRouteResultAggregator(CoreEvent original) {
+      super(original);
+    }
+
+    @Override
+    protected void collect(Pair<CoreEvent, EventProcessingException> routeResult) {
+      routeResults.add(routeResult);
+    }
+
+    @Override
+    protected List<Pair<CoreEvent, EventProcessingException>> getRouteResults() {
+      return routeResults;
+    }
+
+    @Override
+    protected CoreEvent createResultEvent(CoreEvent.Builder resultBuilder) {
+      return AbstractForkJoinStrategyFactory.this.createResultEvent(original, resultBuilder)
+          .apply(routeResults.stream().map(Pair::getFirst).collect(toList()));
+    }
+  }
 }
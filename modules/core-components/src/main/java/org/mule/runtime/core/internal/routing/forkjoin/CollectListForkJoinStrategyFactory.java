@@ -49,6 +49,13 @@ public class CollectListForkJoinStrategyFactory extends AbstractForkJoinStrategy
     super(mergeVariables);
   }
 
+  /**
+   * @since 4.8.0
+   */
+  public CollectListForkJoinStrategyFactory(boolean mergeVariables, boolean completionOrder) {
+    super(mergeVariables, completionOrder);
+  }
+
   @Override
   protected Function<List<CoreEvent>, CoreEvent> createResultEvent(CoreEvent original,
                                                                    CoreEvent.Builder resultBuilder) {
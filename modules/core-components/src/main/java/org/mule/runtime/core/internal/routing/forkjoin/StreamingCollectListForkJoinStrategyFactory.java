@@ -0,0 +1,217 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.routing.forkjoin;
+
+import static org.mule.runtime.api.message.Message.of;
+import static org.mule.runtime.api.metadata.DataType.CURSOR_ITERATOR_PROVIDER;
+import static org.mule.runtime.core.api.event.CoreEvent.builder;
+import static org.mule.runtime.core.internal.event.EventUtils.getRoot;
+
+import static java.lang.Integer.MAX_VALUE;
+import static java.util.Comparator.comparingInt;
+import static java.util.Optional.ofNullable;
+
+import static org.slf4j.LoggerFactory.getLogger;
+
+import org.mule.runtime.api.message.ItemSequenceInfo;
+import org.mule.runtime.api.message.Message;
+import org.mule.runtime.api.metadata.DataType;
+import org.mule.runtime.api.metadata.TypedValue;
+import org.mule.runtime.api.streaming.object.CursorIterator;
+import org.mule.runtime.api.streaming.object.CursorIteratorProvider;
+import org.mule.runtime.api.util.Pair;
+import org.mule.runtime.core.api.event.CoreEvent;
+import org.mule.runtime.core.api.streaming.StreamingManager;
+import org.mule.runtime.core.api.streaming.object.CursorIteratorProviderFactory;
+import org.mule.runtime.core.api.streaming.object.InMemoryCursorIteratorConfig;
+import org.mule.runtime.core.internal.routing.ForkJoinStrategy;
+import org.mule.runtime.core.privileged.exception.EventProcessingException;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+
+/**
+ * {@link ForkJoinStrategy} that behaves as the one created by {@link CollectListForkJoinStrategyFactory}, but instead of keeping
+ * every route result until all the routes complete, streams the {@link Message} of each route into a
+ * {@link CursorIteratorProvider} as soon as the route completes. The result event has that {@link CursorIteratorProvider} in the
+ * payload.
+ * <p>
+ * The {@link CursorIteratorProvider} buffers the messages in memory, with the {@link InMemoryCursorIteratorConfig} given to the
+ * constructor. By default that is {@link #UNBOUNDED_BUFFER_CONFIG}, so the routes can produce as many messages as the list based
+ * strategy could hold. Only the message of each route is kept until the result is consumed, not the route event.
+ *
+ * @since 4.8.0
+ */
+public class StreamingCollectListForkJoinStrategyFactory extends CollectListForkJoinStrategyFactory {
+
+  private static final Logger LOGGER = getLogger(StreamingCollectListForkJoinStrategyFactory.class);
+
+  /**
+   * Buffers the route messages in memory without a limit on their number. The default object streaming strategy, configured by
+   * {@link InMemoryCursorIteratorConfig#getDefault()}, fails instead once its buffer exceeds the max size.
+   */
+  public static final InMemoryCursorIteratorConfig UNBOUNDED_BUFFER_CONFIG =
+      new InMemoryCursorIteratorConfig(InMemoryCursorIteratorConfig.getDefault().getInitialBufferSize(),
+                                       InMemoryCursorIteratorConfig.getDefault().getBufferSizeIncrement(),
+                                       MAX_VALUE);
+
+  private final CursorIteratorProviderFactory cursorProviderFactory;
+
+  /**
+   * Creates a factory buffering the route messages with {@link #UNBOUNDED_BUFFER_CONFIG}.
+   *
+   * @param streamingManager the {@link StreamingManager} used to create the {@link CursorIteratorProvider} of the results
+   * @param mergeVariables   whether the variables set by the routes are merged into the result event
+   * @param completionOrder  whether the route messages are streamed in completion order, rather than in routing order
+   */
+  public StreamingCollectListForkJoinStrategyFactory(StreamingManager streamingManager, boolean mergeVariables,
+                                                     boolean completionOrder) {
+    this(streamingManager, UNBOUNDED_BUFFER_CONFIG, mergeVariables, completionOrder);
+  }
+
+  /**
+   * @param streamingManager the {@link StreamingManager} used to create the {@link CursorIteratorProvider} of the results
+   * @param bufferConfig     the configuration of the in memory buffer the route messages are streamed into
+   * @param mergeVariables   whether the variables set by the routes are merged into the result event
+   * @param completionOrder  whether the route messages are streamed in completion order, rather than in routing order
+   */
+  public StreamingCollectListForkJoinStrategyFactory(StreamingManager streamingManager, InMemoryCursorIteratorConfig bufferConfig,
+                                                     boolean mergeVariables, boolean completionOrder) {
+    super(mergeVariables, completionOrder);
+    this.cursorProviderFactory = streamingManager.forObjects().getInMemoryCursorProviderFactory(bufferConfig);
+  }
+
+  @Override
+  protected RouteResultAggregator createRouteResultAggregator(CoreEvent original) {
+    return new StreamingRouteResultAggregator(original);
+  }
+
+  @Override
+  protected Function<List<CoreEvent>, CoreEvent> createResultEvent(CoreEvent original, CoreEvent.Builder resultBuilder) {
+    return list -> {
+      StreamingRouteResultAggregator aggregator = new StreamingRouteResultAggregator(original);
+      list.forEach(event -> aggregator.collect(new Pair<>(event, null)));
+      return aggregator.createResultEvent(resultBuilder);
+    };
+  }
+
+  @Override
+  public DataType getResultDataType() {
+    return CURSOR_ITERATOR_PROVIDER;
+  }
+
+  /**
+   * Moves the message of each successful route into the buffer of a {@link CursorIteratorProvider} as it arrives, keeping only
+   * its sequence. The failed routes are kept in full, as they are needed to build the composite error.
+   */
+  private class StreamingRouteResultAggregator extends RouteResultAggregator {
+
+    private final Queue<Message> pendingMessages = new ArrayDeque<>();
+    private final List<Integer> successSequences = new ArrayList<>();
+    private final List<Pair<CoreEvent, EventProcessingException>> failedRouteResults = new ArrayList<>();
+    private final Object resultValue;
+    private final CursorIterator bufferingCursor;
+
+    private StreamingRouteResultAggregator(CoreEvent original) {
+      super(original);
+      resultValue = cursorProviderFactory.of(getRoot(original.getContext()), new PendingMessagesIterator(), getLocation());
+      bufferingCursor = resultValue instanceof CursorIteratorProvider
+          ? ((CursorIteratorProvider) resultValue).openCursor()
+          : null;
+    }
+
+    @Override
+    protected void collect(Pair<CoreEvent, EventProcessingException> routeResult) {
+      CoreEvent routeEvent = routeResult.getFirst();
+      if (routeEvent.getError().isPresent()) {
+        failedRouteResults.add(routeResult);
+        return;
+      }
+
+      successSequences.add(routeEvent.getGroupCorrelation().get().getSequence());
+      pendingMessages.add(routeEvent.getMessage());
+      if (bufferingCursor != null) {
+        // pulls the message just added into the buffer of the provider
+        bufferingCursor.next();
+      }
+    }
+
+    @Override
+    protected List<Pair<CoreEvent, EventProcessingException>> getRouteResults() {
+      List<Pair<CoreEvent, EventProcessingException>> routeResults = new ArrayList<>(failedRouteResults);
+      Iterator<Message> messages = messages();
+      for (Integer sequence : successSequences) {
+        routeResults.add(new Pair<>(builder(original).message(messages.next())
+            .itemSequenceInfo(ofNullable(ItemSequenceInfo.of(sequence)))
+            .build(), null));
+      }
+      routeResults.sort(comparingInt(routeResult -> routeResult.getFirst().getGroupCorrelation().get().getSequence()));
+      return routeResults;
+    }
+
+    @Override
+    protected CoreEvent createResultEvent(CoreEvent.Builder resultBuilder) {
+      closeBufferingCursor();
+      if (bufferingCursor != null) {
+        return resultBuilder.message(Message.builder().payload(new TypedValue<>(resultValue, CURSOR_ITERATOR_PROVIDER)).build())
+            .build();
+      }
+      List<Message> messages = new ArrayList<>(pendingMessages);
+      pendingMessages.clear();
+      return resultBuilder.message(of(messages)).build();
+    }
+
+    @Override
+    protected void discard() {
+      closeBufferingCursor();
+      if (resultValue instanceof CursorIteratorProvider) {
+        ((CursorIteratorProvider) resultValue).close();
+      }
+      pendingMessages.clear();
+    }
+
+    private Iterator<Message> messages() {
+      if (bufferingCursor != null) {
+        return ((CursorIteratorProvider) resultValue).openCursor();
+      }
+      return pendingMessages.iterator();
+    }
+
+    private void closeBufferingCursor() {
+      if (bufferingCursor != null) {
+        try {
+          bufferingCursor.close();
+        } catch (Exception e) {
+          LOGGER.debug("Found exception closing the cursor used to buffer the route results", e);
+        }
+      }
+    }
+
+    /**
+     * Hands the pending messages to the buffer of the {@link CursorIteratorProvider}. The buffer only pulls from it right after a
+     * message is added, or once all of them were added, so it never finds it empty before all routes complete.
+     */
+    private class PendingMessagesIterator implements Iterator<Message> {
+
+      @Override
+      public boolean hasNext() {
+        return !pendingMessages.isEmpty();
+      }
+
+      @Override
+      public Message next() {
+        return pendingMessages.remove();
+      }
+    }
+  }
+}
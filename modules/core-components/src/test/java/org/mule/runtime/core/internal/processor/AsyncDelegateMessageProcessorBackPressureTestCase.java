@@ -6,18 +6,24 @@
  */
 package org.mule.runtime.core.internal.processor;
 
+import static org.mule.runtime.api.message.Message.of;
+import static org.mule.runtime.core.internal.processor.AsyncDelegateMessageProcessor.ASYNC_OVERFLOW_MEMORY_THRESHOLD_PROPERTY;
 import static org.mule.runtime.core.privileged.processor.MessageProcessors.WITHIN_PROCESS_TO_APPLY;
 import static org.mule.tck.MuleTestUtils.APPLE_FLOW;
 import static org.mule.tck.MuleTestUtils.createAndRegisterFlow;
+import static org.mule.tck.junit4.rule.SystemProperty.callWithProperty;
 import static org.mule.test.allure.AllureConstants.ExecutionEngineFeature.ExecutionEngineStory.BACKPRESSURE;
 import static org.mule.test.allure.AllureConstants.RoutersFeature.ROUTERS;
 import static org.mule.test.allure.AllureConstants.RoutersFeature.AsyncStory.ASYNC;
 
+import static java.util.Collections.synchronizedList;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.notNullValue;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.greaterThan;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
@@ -37,7 +43,9 @@ import org.mule.runtime.core.internal.processor.strategy.StreamPerEventSink;
 import org.mule.runtime.core.privileged.event.BaseEventContext;
 import org.mule.tck.SimpleUnitTestSupportSchedulerService;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.RejectedExecutionException;
@@ -55,6 +63,8 @@ import io.qameta.allure.Story;
 @Stories({@Story(ASYNC), @Story(BACKPRESSURE)})
 public class AsyncDelegateMessageProcessorBackPressureTestCase extends AbstractAsyncDelegateMessageProcessorTestCase {
 
+  private static final int SPILLED_EVENTS = 5;
+
   private final BackPressureGeneratorProcessingStrategy strategy = new BackPressureGeneratorProcessingStrategy();
   private FixingBackPressureSchedulerService service;
 
@@ -121,6 +131,35 @@ public class AsyncDelegateMessageProcessorBackPressureTestCase extends AbstractA
     assertThat(service.getExecutions(), is(2));
   }
 
+  @Test
+  public void spillEventsWithBackPressure() throws Throwable {
+    List<Object> processed = synchronizedList(new ArrayList<>());
+    CountDownLatch processedLatch = new CountDownLatch(SPILLED_EVENTS);
+    AsyncDelegateMessageProcessor spillingAsync =
+        callWithProperty(ASYNC_OVERFLOW_MEMORY_THRESHOLD_PROPERTY, "1",
+                         () -> createAsyncDelegateMessageProcessor(event -> {
+                           processed.add(event.getMessage().getPayload().getValue());
+                           processedLatch.countDown();
+                           return event;
+                         }, flow));
+    spillingAsync.start();
+    try {
+      List<String> payloads = new ArrayList<>();
+      for (int i = 0; i < SPILLED_EVENTS; ++i) {
+        payloads.add("event" + i);
+        process(spillingAsync, CoreEvent.builder(testEvent()).message(of("event" + i)).build());
+      }
+
+      // the events over the threshold are dispatched once the back pressure is gone, after reading them back
+      assertThat(processedLatch.await(LOCK_TIMEOUT, MILLISECONDS), is(true));
+      assertThat(processed, containsInAnyOrder(payloads.toArray()));
+      assertThat(spillingAsync.getSpilledBytes(), greaterThan(0L));
+    } finally {
+      spillingAsync.stop();
+      spillingAsync.dispose();
+    }
+  }
+
   @Test
   @Issue("MULE-19091")
   public void streamPerEventSinkMonoFlagged() throws MuleException {
@@ -8,16 +8,26 @@ package org.mule.runtime.core.internal.processor;
 
 import static org.mule.runtime.api.component.AbstractComponent.LOCATION_KEY;
 import static org.mule.runtime.api.component.location.ConfigurationComponentLocator.REGISTRY_KEY;
+import static org.mule.runtime.api.el.BindingContextUtils.NULL_BINDING_CONTEXT;
 import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
+import static org.mule.runtime.api.metadata.DataType.BYTE_ARRAY;
 import static org.mule.runtime.api.metadata.DataType.OBJECT;
 import static org.mule.runtime.api.metadata.DataType.STRING;
+import static org.mule.runtime.api.metadata.MediaType.BINARY;
+import static org.mule.runtime.api.metadata.MediaType.TEXT;
 import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.disposeIfNeeded;
+import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.initialiseIfNeeded;
 import static org.mule.runtime.core.api.rx.Exceptions.checkedConsumer;
+import static org.mule.runtime.core.api.util.StringUtils.toHexString;
+import static org.mule.runtime.core.internal.processor.IdempotentRedeliveryPolicy.HEX_SECURE_HASH_PROPERTY;
 import static org.mule.runtime.core.internal.processor.IdempotentRedeliveryPolicy.SECURE_HASH_EXPR_FORMAT;
+import static org.mule.runtime.core.internal.processor.IdempotentRedeliveryPolicy.SECURE_HASH_HEX_EXPR_FORMAT;
+import static org.mule.tck.junit4.rule.SystemProperty.callWithProperty;
 import static org.mule.test.allure.AllureConstants.SourcesFeature.SOURCES;
 import static org.mule.test.allure.AllureConstants.SourcesFeature.SourcesStories.REDELIVERY;
 
 import static java.lang.String.format;
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.util.Collections.singletonList;
 import static java.util.Collections.singletonMap;
 import static java.util.Collections.unmodifiableMap;
@@ -31,6 +41,7 @@ import static org.mockito.Answers.RETURNS_DEEP_STUBS;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.reset;
@@ -41,30 +52,40 @@ import static org.slf4j.LoggerFactory.getLogger;
 import static reactor.core.publisher.Mono.error;
 import static reactor.core.publisher.Mono.from;
 
+import org.mule.runtime.api.artifact.Registry;
 import org.mule.runtime.api.el.CompiledExpression;
 import org.mule.runtime.api.exception.MuleException;
 import org.mule.runtime.api.lifecycle.InitialisationException;
 import org.mule.runtime.api.lock.LockFactory;
 import org.mule.runtime.api.message.Error;
+import org.mule.runtime.api.message.Message;
+import org.mule.runtime.api.metadata.DataType;
 import org.mule.runtime.api.metadata.TypedValue;
 import org.mule.runtime.api.serialization.ObjectSerializer;
 import org.mule.runtime.api.store.ObjectStore;
 import org.mule.runtime.api.store.ObjectStoreException;
 import org.mule.runtime.api.store.ObjectStoreManager;
 import org.mule.runtime.api.store.TemplateObjectStore;
+import org.mule.runtime.api.streaming.bytes.CursorStreamProvider;
 import org.mule.runtime.api.util.concurrent.Latch;
 import org.mule.runtime.core.api.el.ExpressionManager;
 import org.mule.runtime.core.api.el.ExpressionManagerSession;
 import org.mule.runtime.core.api.event.CoreEvent;
 import org.mule.runtime.core.api.expression.ExpressionRuntimeException;
 import org.mule.runtime.core.api.processor.Processor;
+import org.mule.runtime.core.api.util.IOUtils;
+import org.mule.runtime.core.internal.el.ExpressionLanguageAdaptor;
+import org.mule.runtime.core.internal.el.dataweave.DataWeaveExpressionLanguageAdaptor;
 import org.mule.runtime.core.internal.exception.MessagingException;
 import org.mule.runtime.core.internal.message.InternalMessage;
 import org.mule.runtime.core.internal.processor.IdempotentRedeliveryPolicy.RedeliveryCounter;
+import org.mule.runtime.core.internal.streaming.bytes.ByteArrayCursorStreamProvider;
 import org.mule.tck.SerializationTestUtils;
 import org.mule.tck.junit4.AbstractMuleContextTestCase;
+import org.mule.weave.v2.el.provider.WeaveDefaultExpressionLanguageFactoryService;
 
 import java.io.Serializable;
+import java.security.MessageDigest;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -93,6 +114,8 @@ public class IdempotentRedeliveryPolicyTestCase extends AbstractMuleContextTestC
 
   public static final String STRING_MESSAGE = "message";
   public static final int MAX_REDELIVERY_COUNT = 5;
+  private static final String MOCK_EXPRESSION_ID = "mockExpressionId";
+  private static final DataType BINARY_STREAM = DataType.builder().type(CursorStreamProvider.class).mediaType(BINARY).build();
   private static ObjectSerializer serializer;
 
   private final ObjectStoreManager mockObjectStoreManager = mock(ObjectStoreManager.class, RETURNS_DEEP_STUBS);
@@ -212,6 +235,80 @@ public class IdempotentRedeliveryPolicyTestCase extends AbstractMuleContextTestC
     assertThat(count.get(), equalTo(2));
   }
 
+  @Test
+  public void repeatableStreamHashedWithExpressionByDefault() throws Exception {
+    mockExpression(format(SECURE_HASH_EXPR_FORMAT, "SHA-256"));
+
+    when(message.getPayload())
+        .thenAnswer(inv -> new TypedValue<>(new ByteArrayCursorStreamProvider(STRING_MESSAGE.getBytes()), BINARY_STREAM));
+    irp.initialise();
+    processUntilFailure();
+    assertThat(count.get(), equalTo(MAX_REDELIVERY_COUNT + 1));
+    assertThat(inMemoryObjectStore.allKeys(), equalTo(singletonList(MOCK_EXPRESSION_ID)));
+  }
+
+  @Test
+  public void repeatableStreamHashedWithoutExpressionWithHexSecureHash() throws Throwable {
+    when(message.getPayload())
+        .thenAnswer(inv -> new TypedValue<>(new ByteArrayCursorStreamProvider(STRING_MESSAGE.getBytes()), BINARY_STREAM));
+    initialiseWithHexSecureHash();
+    processUntilFailure();
+    assertThat(count.get(), equalTo(MAX_REDELIVERY_COUNT + 1));
+    verify(expressionManager, never()).openSession(any());
+    assertThat(inMemoryObjectStore.allKeys(), equalTo(singletonList(sha256Hex(STRING_MESSAGE.getBytes()))));
+  }
+
+  @Test
+  public void byteArrayAndRepeatableStreamWithSameContentHaveSameId() throws Throwable {
+    when(message.getPayload()).thenReturn(new TypedValue<>(STRING_MESSAGE.getBytes(), BYTE_ARRAY));
+    initialiseWithHexSecureHash();
+    processUntilFailure();
+    when(message.getPayload())
+        .thenAnswer(inv -> new TypedValue<>(new ByteArrayCursorStreamProvider(STRING_MESSAGE.getBytes()), BINARY_STREAM));
+    processUntilFailure();
+
+    // the stream got the id of the byte array, whose redeliveries were exhausted
+    assertThat(count.get(), equalTo(MAX_REDELIVERY_COUNT + 1));
+    verify(expressionManager, never()).openSession(any());
+    // lowercase hex of the digest, same as the expression used for the other payloads with hex secure hashes
+    assertThat(inMemoryObjectStore.allKeys(), equalTo(singletonList(sha256Hex(STRING_MESSAGE.getBytes()))));
+  }
+
+  @Test
+  public void nativeHashSameAsHexSecureHashExpression() throws Throwable {
+    ExpressionLanguageAdaptor expressionLanguageAdaptor =
+        new DataWeaveExpressionLanguageAdaptor(muleContext, mock(Registry.class),
+                                               new WeaveDefaultExpressionLanguageFactoryService(null),
+                                               getFeatureFlaggingService());
+    initialiseIfNeeded(expressionLanguageAdaptor);
+    CoreEvent textEvent = CoreEvent.builder(testEvent())
+        .message(Message.builder().value(STRING_MESSAGE).mediaType(TEXT.withCharset(UTF_8)).build())
+        .build();
+    Object evaluated = expressionLanguageAdaptor
+        .evaluate(format(SECURE_HASH_HEX_EXPR_FORMAT, "SHA-256"), textEvent, NULL_BINDING_CONTEXT).getValue();
+    String expressionId = evaluated instanceof CursorStreamProvider
+        ? IOUtils.toString((CursorStreamProvider) evaluated)
+        : (String) evaluated;
+
+    when(message.getPayload()).thenReturn(new TypedValue<>(STRING_MESSAGE.getBytes(UTF_8), BYTE_ARRAY));
+    initialiseWithHexSecureHash();
+    processUntilFailure();
+    verify(expressionManager, never()).openSession(any());
+    assertThat(inMemoryObjectStore.allKeys(), equalTo(singletonList(expressionId)));
+  }
+
+  @Test
+  public void javaPayloadHashedWithExpressionWithHexSecureHash() throws Throwable {
+    ExpressionManagerSession session = mockExpression(format(SECURE_HASH_HEX_EXPR_FORMAT, "SHA-256"));
+
+    when(message.getPayload()).thenReturn(new TypedValue<>(STRING_MESSAGE.getBytes(), OBJECT));
+    initialiseWithHexSecureHash();
+    processUntilFailure();
+    assertThat(count.get(), equalTo(MAX_REDELIVERY_COUNT + 1));
+    verify(session, atLeastOnce()).evaluate(any(CompiledExpression.class), eq(STRING));
+    assertThat(inMemoryObjectStore.allKeys(), equalTo(singletonList(MOCK_EXPRESSION_ID)));
+  }
+
   @Test
   public void multipleObjectStoreConfigurationShouldRaiseException() throws Exception {
     irp.setObjectStore(mockObjectStore);
@@ -398,6 +495,29 @@ public class IdempotentRedeliveryPolicyTestCase extends AbstractMuleContextTestC
         .thenAnswer(inv -> new TypedValue<>("" + event.getMessage().getPayload().hashCode(), STRING));
   }
 
+  private ExpressionManagerSession mockExpression(String expression) {
+    ExpressionManager expressionManager = mock(ExpressionManager.class);
+    ExpressionManagerSession session = mock(ExpressionManagerSession.class);
+    CompiledExpression compiledExpression = mock(CompiledExpression.class);
+
+    when(expressionManager.openSession(any())).thenReturn(session);
+    when(expressionManager.compile(eq(expression), any())).thenReturn(compiledExpression);
+    irp.setExpressionManager(expressionManager);
+    when(session.evaluate(compiledExpression, STRING)).thenReturn(new TypedValue<>(MOCK_EXPRESSION_ID, STRING));
+    return session;
+  }
+
+  private void initialiseWithHexSecureHash() throws Throwable {
+    callWithProperty(HEX_SECURE_HASH_PROPERTY, "true", () -> {
+      irp.initialise();
+      return null;
+    });
+  }
+
+  private static String sha256Hex(byte[] bytes) throws Exception {
+    return toHexString(MessageDigest.getInstance("SHA-256").digest(bytes));
+  }
+
   public static class InMemoryObjectStore extends TemplateObjectStore<RedeliveryCounter> {
 
     private final Map<String, RedeliveryCounter> store = new HashMap<>();
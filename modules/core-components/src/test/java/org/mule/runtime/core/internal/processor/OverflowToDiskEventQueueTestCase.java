@@ -0,0 +1,216 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.processor;
+
+import static org.mule.runtime.api.message.Message.of;
+import static org.mule.test.allure.AllureConstants.ExecutionEngineFeature.ExecutionEngineStory.BACKPRESSURE;
+import static org.mule.test.allure.AllureConstants.RoutersFeature.ROUTERS;
+import static org.mule.test.allure.AllureConstants.RoutersFeature.AsyncStory.ASYNC;
+
+import static java.lang.Integer.MAX_VALUE;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.arrayWithSize;
+import static org.hamcrest.Matchers.emptyArray;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+
+import org.mule.runtime.core.api.event.CoreEvent;
+import org.mule.tck.junit4.AbstractMuleContextTestCase;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import io.qameta.allure.Feature;
+import io.qameta.allure.Stories;
+import io.qameta.allure.Story;
+
+@Feature(ROUTERS)
+@Stories({@Story(ASYNC), @Story(BACKPRESSURE)})
+public class OverflowToDiskEventQueueTestCase extends AbstractMuleContextTestCase {
+
+  private static final int SEGMENT_SIZE = 1024 * 1024;
+
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private File spillDirectory;
+
+  @Before
+  public void before() {
+    spillDirectory = new File(temporaryFolder.getRoot(), "spill");
+  }
+
+  @Test
+  public void keptInMemoryUnderThreshold() throws Exception {
+    OverflowToDiskEventQueue queue = createQueue(2, SEGMENT_SIZE);
+    queue.offer(event("a"));
+    queue.offer(event("b"));
+
+    assertThat(queue.getSpilledBytes(), is(0L));
+    assertThat(queue.getPendingSpilledEvents(), is(0));
+    assertThat(spillDirectory.exists(), is(false));
+    assertTaken(queue, "a", "b");
+  }
+
+  @Test
+  public void spilledOverThreshold() throws Exception {
+    OverflowToDiskEventQueue queue = createQueue(1, SEGMENT_SIZE);
+    CoreEvent spilled = event("b");
+    queue.offer(event("a"));
+    queue.offer(spilled);
+    queue.offer(event("c"));
+
+    assertThat(queue.getSpilledBytes(), greaterThan(0L));
+    assertThat(queue.getPendingSpilledEvents(), is(2));
+    assertThat(spillDirectory.listFiles(), arrayWithSize(1));
+
+    assertTaken(queue, "a");
+    CoreEvent replayed = take(queue);
+    assertThat(replayed.getMessage().getPayload().getValue(), is("b"));
+    assertThat(replayed.getVariables().get("var").getValue(), is("b"));
+    assertThat(replayed.getContext(), sameInstance(spilled.getContext()));
+    assertTaken(queue, "c");
+
+    assertThat(queue.getPendingSpilledEvents(), is(0));
+    assertThat(queue.getReplayLag(), is(0L));
+    assertThat(spillDirectory.listFiles(), emptyArray());
+  }
+
+  @Test
+  public void orderKeptWhileSpilled() throws Exception {
+    OverflowToDiskEventQueue queue = createQueue(1, SEGMENT_SIZE);
+    queue.offer(event("a"));
+    queue.offer(event("b"));
+    assertTaken(queue, "a");
+
+    // there is room in memory again, but b has not been read back yet
+    queue.offer(event("c"));
+    assertTaken(queue, "b", "c");
+  }
+
+  @Test
+  public void notSerializableKeptInMemoryInOrder() throws Exception {
+    OverflowToDiskEventQueue queue = createQueue(1, SEGMENT_SIZE);
+    Object notSerializable = new Object();
+    queue.offer(event("a"));
+    queue.offer(event("b"));
+    queue.offer(CoreEvent.builder(testEvent()).message(of(notSerializable)).build());
+    queue.offer(event("d"));
+
+    assertThat(queue.getPendingSpilledEvents(), is(3));
+    assertTaken(queue, "a", "b");
+    assertThat(take(queue).getMessage().getPayload().getValue(), sameInstance(notSerializable));
+    assertTaken(queue, "d");
+  }
+
+  @Test
+  public void segmentsDeletedOnceRead() throws Exception {
+    OverflowToDiskEventQueue queue = createQueue(0, 1);
+    queue.offer(event("a"));
+    queue.offer(event("b"));
+    queue.offer(event("c"));
+    assertThat(spillDirectory.listFiles(), arrayWithSize(3));
+
+    assertTaken(queue, "a");
+    assertThat(spillDirectory.listFiles(), arrayWithSize(2));
+    assertTaken(queue, "b", "c");
+    assertThat(spillDirectory.listFiles(), emptyArray());
+  }
+
+  @Test
+  public void corruptedEntriesSkipped() throws Exception {
+    OverflowToDiskEventQueue queue = createQueue(0, SEGMENT_SIZE);
+    queue.offer(event("a"));
+    queue.offer(event("b"));
+    queue.offer(event("c"));
+
+    try (RandomAccessFile spillFile = new RandomAccessFile(spillDirectory.listFiles()[0], "rw")) {
+      // the length of the first entry, and the data of the second one
+      int firstLength = spillFile.readInt();
+      spillFile.seek(0);
+      spillFile.writeInt(MAX_VALUE);
+      spillFile.seek(2 * Integer.BYTES + firstLength);
+      spillFile.writeInt(0);
+    }
+
+    assertTaken(queue, "c");
+    assertThat(queue.isEmpty(), is(true));
+    assertThat(spillDirectory.listFiles(), emptyArray());
+  }
+
+  @Test
+  public void clearDeletesSpillFile() throws Exception {
+    OverflowToDiskEventQueue queue = createQueue(0, SEGMENT_SIZE);
+    queue.offer(event("a"));
+    queue.clear();
+
+    assertThat(queue.isEmpty(), is(true));
+    assertThat(queue.peek(), nullValue());
+    assertThat(spillDirectory.listFiles(), emptyArray());
+  }
+
+  @Test
+  public void notSpilledUntilSpillTaskRuns() throws Exception {
+    List<Runnable> spillTasks = new ArrayList<>();
+    OverflowToDiskEventQueue queue = createQueue(0, SEGMENT_SIZE, spillTasks::add);
+    CoreEvent pending = event("a");
+    queue.offer(pending);
+    queue.offer(event("b"));
+    queue.offer(event("c"));
+
+    // a single task spills all the pending events
+    assertThat(spillTasks, hasSize(1));
+    assertThat(queue.getSpilledBytes(), is(0L));
+    assertThat(spillDirectory.exists(), is(false));
+
+    // taken before being written, so it is not read back
+    assertThat(take(queue), sameInstance(pending));
+
+    spillTasks.get(0).run();
+    assertThat(queue.getSpilledBytes(), greaterThan(0L));
+    assertThat(spillDirectory.listFiles(), arrayWithSize(1));
+    assertTaken(queue, "b", "c");
+    assertThat(spillDirectory.listFiles(), emptyArray());
+  }
+
+  private OverflowToDiskEventQueue createQueue(int memoryThreshold, int segmentSize) {
+    return createQueue(memoryThreshold, segmentSize, Runnable::run);
+  }
+
+  private OverflowToDiskEventQueue createQueue(int memoryThreshold, int segmentSize, Executor spillExecutor) {
+    return new OverflowToDiskEventQueue(muleContext.getObjectSerializer().getInternalProtocol(), spillDirectory,
+                                        memoryThreshold, segmentSize, spillExecutor);
+  }
+
+  private CoreEvent event(String payload) throws Exception {
+    return CoreEvent.builder(testEvent()).message(of(payload)).addVariable("var", payload).build();
+  }
+
+  private static CoreEvent take(OverflowToDiskEventQueue queue) {
+    CoreEvent event = queue.peek();
+    queue.remove(event);
+    return event;
+  }
+
+  private static void assertTaken(OverflowToDiskEventQueue queue, String... payloads) {
+    for (String payload : payloads) {
+      assertThat(take(queue).getMessage().getPayload().getValue(), is(payload));
+    }
+  }
+}
@@ -13,6 +13,7 @@ import static org.mule.runtime.api.metadata.TypedValue.of;
 import static org.mule.runtime.core.api.util.FileUtils.newFile;
 import static org.mule.runtime.core.api.util.IOUtils.getResourceAsString;
 import static org.mule.runtime.core.api.util.IOUtils.getResourceAsUrl;
+import static org.mule.runtime.core.internal.el.TemplateParser.createMuleStyleParser;
 import static org.mule.runtime.core.internal.test.util.TestFileUtils.isFileOpen;
 import static org.mule.test.allure.AllureConstants.ComponentsFeature.CORE_COMPONENTS;
 import static org.mule.test.allure.AllureConstants.ComponentsFeature.ParseTemplateStory.PARSE_TEMPLATE;
@@ -23,8 +24,14 @@ import static org.hamcrest.core.IsEqual.equalTo;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import org.mule.runtime.api.el.CompiledExpression;
@@ -36,11 +43,14 @@ import org.mule.runtime.api.metadata.TypedValue;
 import org.mule.runtime.core.api.el.ExpressionManagerSession;
 import org.mule.runtime.core.api.el.ExtendedExpressionManager;
 import org.mule.runtime.core.api.event.CoreEvent;
+import org.mule.runtime.core.internal.el.CompiledTemplate;
+import org.mule.runtime.core.internal.el.DefaultExpressionManager;
 import org.mule.runtime.core.internal.message.InternalMessage;
 import org.mule.tck.junit4.AbstractMuleTestCase;
 import org.mule.tck.size.SmallTest;
 
 import java.io.IOException;
+import java.io.Writer;
 import java.net.URL;
 import java.nio.charset.UnsupportedCharsetException;
 import java.util.HashMap;
@@ -285,4 +295,30 @@ public class ParseTemplateProcessorTestCase extends AbstractMuleTestCase {
     assertEquals("Parsed",
                  response.getVariables().get("some_target_variable").getValue());
   }
+
+  @Test
+  public void parseTemplateFromCompiledContent() throws Exception {
+    String template = "Hello #[payload]";
+    CompiledTemplate compiledTemplate = createMuleStyleParser().compile(template);
+    DefaultExpressionManager expressionManager = mock(DefaultExpressionManager.class);
+    when(expressionManager.compileLogTemplate(template)).thenReturn(compiledTemplate);
+    doAnswer(inv -> {
+      inv.getArgument(4, Writer.class).write("Hello world");
+      return null;
+    }).when(expressionManager).parseLogTemplate(same(compiledTemplate), eq(event), any(), any(), any(Writer.class));
+
+    parseTemplateProcessor.setExpressionManager(expressionManager);
+    parseTemplateProcessor.setContent(template);
+    parseTemplateProcessor.initialise();
+
+    when(mockMuleMessage.getPayload()).thenReturn(of("world"));
+    when(mockMuleMessage.getAttributes()).thenReturn(of(new HashMap<>()));
+
+    assertEquals("Hello world", parseTemplateProcessor.process(event).getMessage().getPayload().getValue());
+    assertEquals("Hello world", parseTemplateProcessor.process(event).getMessage().getPayload().getValue());
+
+    // compiled once, then rendered for each event without parsing it again
+    verify(expressionManager, times(1)).compileLogTemplate(template);
+    verify(expressionManager, never()).parseLogTemplate(anyString(), any(), any(), any());
+  }
 }
@@ -11,6 +11,8 @@ import static org.mule.runtime.api.metadata.DataType.MULE_MESSAGE;
 import static org.mule.runtime.api.metadata.DataType.NUMBER;
 import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.disposeIfNeeded;
 import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.initialiseIfNeeded;
+import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.startIfNeeded;
+import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.stopIfNeeded;
 import static org.mule.runtime.core.api.util.SystemUtils.getDefaultEncoding;
 import static org.mule.runtime.core.internal.routing.Foreach.DEFAULT_COUNTER_VARIABLE;
 import static org.mule.runtime.core.internal.routing.Foreach.DEFAULT_ROOT_MESSAGE_VARIABLE;
@@ -37,6 +39,7 @@ import static org.hamcrest.CoreMatchers.instanceOf;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.hasItems;
 import static org.hamcrest.Matchers.hasSize;
@@ -56,6 +59,7 @@ import org.mule.runtime.api.util.concurrent.Latch;
 import org.mule.runtime.core.api.event.CoreEvent;
 import org.mule.runtime.core.api.processor.Processor;
 import org.mule.runtime.core.internal.event.InternalEvent;
+import org.mule.runtime.core.internal.exception.MessagingException;
 import org.mule.runtime.core.internal.streaming.ManagedCursorProvider;
 import org.mule.runtime.core.privileged.event.BaseEventContext;
 import org.mule.runtime.core.privileged.processor.chain.MessageProcessorChain;
@@ -65,6 +69,7 @@ import org.mule.tck.testmodels.mule.TestMessageProcessor;
 
 import java.nio.BufferOverflowException;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.CountDownLatch;
@@ -374,6 +379,83 @@ public class ForeachTestCase extends AbstractForeachTestCase {
     assertForEachContextConsumption((InternalEvent) processedEvents.get(1));
   }
 
+  @Test
+  public void prefetchKeepsOrder() throws Exception {
+    foreach = createPrefetchingForeach(getSimpleMessageProcessors(new TestMessageProcessor("zas")), 1);
+    try {
+      process(foreach, eventBuilder(muleContext).message(of(asList("a", "b", "c", "d", "e").iterator())).build());
+    } finally {
+      stopIfNeeded(foreach);
+    }
+
+    assertThat(processedEvents.stream().map(event -> (String) event.getMessage().getPayload().getValue()).collect(toList()),
+               contains("a:foo:zas", "b:foo:zas", "c:foo:zas", "d:foo:zas", "e:foo:zas"));
+    assertThat(variables.get(DEFAULT_COUNTER_VARIABLE).getValue(), equalTo(5));
+  }
+
+  @Test
+  public void prefetchFailingMidIteration() throws Exception {
+    RuntimeException failure = new IllegalStateException("Could not fetch the next element");
+    Iterator<String> failingIterator = new Iterator<String>() {
+
+      private int fetched = 0;
+
+      @Override
+      public boolean hasNext() {
+        return true;
+      }
+
+      @Override
+      public String next() {
+        if (fetched == 2) {
+          throw failure;
+        }
+        return "" + fetched++;
+      }
+    };
+    foreach = createPrefetchingForeach(getSimpleMessageProcessors(new TestMessageProcessor("zas")), 2);
+
+    expectedException.expect(MessagingException.class);
+    expectedException.expectCause(sameInstance(failure));
+    try {
+      process(foreach, eventBuilder(muleContext).message(of(failingIterator)).build(), false);
+    } finally {
+      stopIfNeeded(foreach);
+      // the elements read before the failure are processed
+      assertThat(processedEvents, hasSize(2));
+    }
+  }
+
+  @Test
+  public void prefetchWithBatchSize() throws Exception {
+    foreach = createForeach();
+    foreach.setMessageProcessors(getSimpleMessageProcessors(new TestMessageProcessor("zas")));
+    foreach.setBatchSize(2);
+    // not a multiple of the batch size, so batches span prefetched and not yet fetched elements
+    foreach.setPrefetchDepth(3);
+    initialiseIfNeeded(foreach, muleContext);
+    startIfNeeded(foreach);
+    try {
+      foreach.process(eventBuilder(muleContext).message(of(asList(1, 2, 3, 4, 5).iterator())).build());
+    } finally {
+      stopIfNeeded(foreach);
+    }
+
+    assertThat(processedEvents, hasSize(3));
+    assertThat(getMessageAsString(processedEvents.get(0)), is("[1, 2]:foo:zas"));
+    assertThat(getMessageAsString(processedEvents.get(1)), is("[3, 4]:foo:zas"));
+    assertThat(getMessageAsString(processedEvents.get(2)), is("[5]:foo:zas"));
+  }
+
+  private Foreach createPrefetchingForeach(List<Processor> processors, int prefetchDepth) throws MuleException {
+    Foreach prefetchingForeach = createForeach();
+    prefetchingForeach.setMessageProcessors(processors);
+    prefetchingForeach.setPrefetchDepth(prefetchDepth);
+    initialiseIfNeeded(prefetchingForeach, muleContext);
+    startIfNeeded(prefetchingForeach);
+    return prefetchingForeach;
+  }
+
   private String getMessageAsString(final CoreEvent event) {
     Message transformedMessage = muleContext.getTransformationService()
         .transform(event.getMessage(), DataType.builder()
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.routing;
+
+import static org.mule.test.allure.AllureConstants.ScopeFeature.SCOPE;
+import static org.mule.test.allure.AllureConstants.ScopeFeature.ForeachStory.FOR_EACH;
+
+import static java.util.Arrays.asList;
+import static java.util.concurrent.Executors.newSingleThreadExecutor;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.fail;
+
+import org.mule.tck.junit4.AbstractMuleTestCase;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Test;
+
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+
+@Feature(SCOPE)
+@Story(FOR_EACH)
+public class PrefetchingIteratorTestCase extends AbstractMuleTestCase {
+
+  private static final int PREFETCH_DEPTH = 3;
+
+  private final ExecutorService executor = newSingleThreadExecutor();
+
+  @After
+  public void after() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void keepsOrder() {
+    List<Integer> elements = new ArrayList<>();
+    for (int i = 0; i < 100; ++i) {
+      elements.add(i);
+    }
+
+    List<Integer> read = new ArrayList<>();
+    new PrefetchingIterator<>(elements.iterator(), PREFETCH_DEPTH, executor).forEachRemaining(read::add);
+
+    assertThat(read, is(elements));
+  }
+
+  @Test
+  public void readAheadIsBounded() throws InterruptedException {
+    AtomicInteger fetched = new AtomicInteger();
+    Iterator<Integer> delegate = new Iterator<Integer>() {
+
+      @Override
+      public boolean hasNext() {
+        return fetched.get() < 50;
+      }
+
+      @Override
+      public Integer next() {
+        return fetched.incrementAndGet();
+      }
+    };
+
+    Iterator<Integer> iterator = new PrefetchingIterator<>(delegate, PREFETCH_DEPTH, executor);
+    for (int consumed = 1; consumed <= 50; ++consumed) {
+      assertThat(iterator.next(), is(consumed));
+      Thread.sleep(2);
+      assertThat(fetched.get(), lessThanOrEqualTo(consumed + PREFETCH_DEPTH + 1));
+    }
+    assertThat(iterator.hasNext(), is(false));
+  }
+
+  @Test
+  public void nullElements() {
+    List<String> read = new ArrayList<>();
+    new PrefetchingIterator<>(asList("a", null, "b").iterator(), PREFETCH_DEPTH, executor).forEachRemaining(read::add);
+
+    assertThat(read, contains("a", null, "b"));
+  }
+
+  @Test
+  public void failureThrownAfterFetchedElements() {
+    RuntimeException failure = new RuntimeException("Expected");
+    Iterator<Integer> delegate = new Iterator<Integer>() {
+
+      private int next = 0;
+
+      @Override
+      public boolean hasNext() {
+        return true;
+      }
+
+      @Override
+      public Integer next() {
+        if (next == 2) {
+          throw failure;
+        }
+        return next++;
+      }
+    };
+
+    Iterator<Integer> iterator = new PrefetchingIterator<>(delegate, PREFETCH_DEPTH, executor);
+    assertThat(iterator.next(), is(0));
+    assertThat(iterator.next(), is(1));
+    try {
+      iterator.hasNext();
+      fail("Expected the failure of the delegate");
+    } catch (RuntimeException e) {
+      assertThat(e, is(sameInstance(failure)));
+    }
+    assertThat(iterator.hasNext(), is(false));
+  }
+
+  @Test(expected = NoSuchElementException.class)
+  public void nextAfterEnd() {
+    Iterator<Integer> iterator = new PrefetchingIterator<>(asList(1).iterator(), PREFETCH_DEPTH, executor);
+    iterator.next();
+    iterator.next();
+  }
+}
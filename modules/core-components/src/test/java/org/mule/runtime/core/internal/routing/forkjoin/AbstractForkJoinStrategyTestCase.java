@@ -472,7 +472,7 @@ public abstract class AbstractForkJoinStrategyTestCase extends AbstractMuleConte
   }
 
   @FunctionalInterface
-  private interface InternalTestProcessor extends Processor, InternalProcessor {
+  protected interface InternalTestProcessor extends Processor, InternalProcessor {
 
   }
 }
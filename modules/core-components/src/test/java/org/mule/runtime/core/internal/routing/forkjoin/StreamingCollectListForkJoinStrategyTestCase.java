@@ -0,0 +1,150 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.routing.forkjoin;
+
+import static org.mule.runtime.api.message.Message.of;
+import static org.mule.test.allure.AllureConstants.ForkJoinStrategiesFeature.ForkJoinStrategiesStory.COLLECT_LIST;
+
+import static java.lang.Integer.MAX_VALUE;
+import static java.util.Arrays.asList;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.stream.Collectors.toList;
+import static java.util.stream.IntStream.range;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.Assert.assertThat;
+
+import org.mule.runtime.api.message.Message;
+import org.mule.runtime.api.streaming.object.CursorIterator;
+import org.mule.runtime.api.streaming.object.CursorIteratorProvider;
+import org.mule.runtime.api.util.Pair;
+import org.mule.runtime.core.api.event.CoreEvent;
+import org.mule.runtime.core.api.processor.strategy.ProcessingStrategy;
+import org.mule.runtime.core.api.streaming.object.InMemoryCursorIteratorConfig;
+import org.mule.runtime.core.internal.routing.ForkJoinStrategy;
+import org.mule.runtime.core.internal.routing.ForkJoinStrategy.RoutingPair;
+import org.mule.runtime.core.privileged.exception.EventProcessingException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import io.qameta.allure.Description;
+import io.qameta.allure.Story;
+import org.junit.Test;
+
+@Story(COLLECT_LIST)
+public class StreamingCollectListForkJoinStrategyTestCase extends AbstractForkJoinStrategyTestCase {
+
+  @Override
+  protected ForkJoinStrategy createStrategy(ProcessingStrategy processingStrategy, int concurrency, boolean delayErrors,
+                                            long timeout) {
+    return new StreamingCollectListForkJoinStrategyFactory(muleContext.getStreamingManager(), true, false)
+        .createForkJoinStrategy(processingStrategy, concurrency, delayErrors, timeout, scheduler, timeoutErrorType, false);
+  }
+
+  @Test
+  @Description("The routes can produce more messages than the default object streaming buffer holds.")
+  public void collectStreamAboveDefaultBufferLimit() throws Throwable {
+    CoreEvent original = testEvent();
+    int routesCount = InMemoryCursorIteratorConfig.getDefault().getMaxBufferSize() + 1;
+    List<RoutingPair> routingPairs = new ArrayList<>(routesCount);
+    for (int i = 0; i < routesCount; ++i) {
+      routingPairs.add(createRoutingPair(of(i)));
+    }
+
+    CoreEvent result = invokeStrategyBlocking(strategy, original, routingPairs);
+
+    List<Message> results = readResults(result);
+    assertThat(results, hasSize(routesCount));
+    assertThat(results.stream().map(message -> message.getPayload().getValue()).collect(toList()),
+               is(range(0, routesCount).boxed().collect(toList())));
+  }
+
+  @Test
+  @Description("This strategy streams the result of the routes into a cursor provider, in routing order.")
+  public void collectStream() throws Throwable {
+    CoreEvent original = testEvent();
+    Message route1Result = of(1);
+    Message route2Result = of(2);
+    Message route3Result = of(3);
+
+    RoutingPair pair1 = RoutingPair.of(original, createChain(new SleepingProcessor(route1Result, 200)));
+    RoutingPair pair2 = createRoutingPair(route2Result);
+    RoutingPair pair3 = createRoutingPair(route3Result);
+
+    CoreEvent result = invokeStrategyBlocking(strategy, original, asList(pair1, pair2, pair3));
+
+    assertThat(readResults(result), contains(route1Result, route2Result, route3Result));
+  }
+
+  @Test
+  @Description("With completion order, the result of each route is streamed as soon as it completes.")
+  public void collectStreamInCompletionOrder() throws Throwable {
+    CountDownLatch routeCollected = new CountDownLatch(1);
+    strategy = new StreamingCollectListForkJoinStrategyFactory(muleContext.getStreamingManager(), true, true) {
+
+      @Override
+      protected RouteResultAggregator createRouteResultAggregator(CoreEvent original) {
+        RouteResultAggregator aggregator = super.createRouteResultAggregator(original);
+        return new RouteResultAggregator(original) {
+
+          @Override
+          protected void collect(Pair<CoreEvent, EventProcessingException> routeResult) {
+            aggregator.collect(routeResult);
+            routeCollected.countDown();
+          }
+
+          @Override
+          protected List<Pair<CoreEvent, EventProcessingException>> getRouteResults() {
+            return aggregator.getRouteResults();
+          }
+
+          @Override
+          protected CoreEvent createResultEvent(CoreEvent.Builder resultBuilder) {
+            return aggregator.createResultEvent(resultBuilder);
+          }
+
+          @Override
+          protected void discard() {
+            aggregator.discard();
+          }
+        };
+      }
+    }.createForkJoinStrategy(processingStrategy, MAX_VALUE, true, MAX_VALUE, scheduler, timeoutErrorType, false);
+    CoreEvent original = testEvent();
+    Message route1Result = of(1);
+    Message route2Result = of(2);
+
+    // the first route only completes once the result of the second one was collected
+    RoutingPair pair1 = createRoutingPair((InternalTestProcessor) event -> {
+      try {
+        routeCollected.await(RECEIVE_TIMEOUT, MILLISECONDS);
+      } catch (InterruptedException e) {
+        throw new RuntimeException(e);
+      }
+      return CoreEvent.builder(event).message(route1Result).build();
+    });
+    RoutingPair pair2 = createRoutingPair(route2Result);
+
+    CoreEvent result = invokeStrategyBlocking(strategy, original, asList(pair1, pair2));
+
+    assertThat(readResults(result), contains(route2Result, route1Result));
+  }
+
+  private List<Message> readResults(CoreEvent result) throws Exception {
+    assertThat(result.getMessage().getPayload().getValue(), instanceOf(CursorIteratorProvider.class));
+    List<Message> messages = new ArrayList<>();
+    try (CursorIterator<Message> cursor = ((CursorIteratorProvider) result.getMessage().getPayload().getValue()).openCursor()) {
+      cursor.forEachRemaining(messages::add);
+    }
+    return messages;
+  }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.module.deployment.internal;
+
+import static java.lang.Thread.currentThread;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.util.concurrent.ConcurrentHashMap.newKeySet;
+
+import static org.slf4j.LoggerFactory.getLogger;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Set;
+
+import org.slf4j.Logger;
+
+/**
+ * Watches the deployment directories with a {@link WatchService}, notifying a listener when entries are created, modified or
+ * deleted in any of them.
+ * <p>
+ * The listener is expected to check all the directories, so the events available at the same time are coalesced into a single
+ * notification.
+ *
+ * @since 4.8.0
+ */
+public final class DeploymentDirectoryWatchService implements Closeable {
+
+  private static final Logger logger = getLogger(DeploymentDirectoryWatchService.class);
+
+  private final WatchService watchService;
+  private final Runnable changeListener;
+  private final Set<Path> watchedDirectories = newKeySet();
+
+  /**
+   * @param changeListener notified when something changes in the watched directories
+   * @throws IOException if the {@link WatchService} could not be created
+   */
+  public DeploymentDirectoryWatchService(Runnable changeListener) throws IOException {
+    this.watchService = FileSystems.getDefault().newWatchService();
+    this.changeListener = changeListener;
+  }
+
+  /**
+   * Starts watching the given directory. Does nothing if it does not exist or if it is already watched.
+   *
+   * @param directory the directory to watch
+   */
+  public void watch(File directory) {
+    if (directory == null || !directory.isDirectory()) {
+      return;
+    }
+
+    Path path = directory.toPath().toAbsolutePath();
+    if (!watchedDirectories.add(path)) {
+      return;
+    }
+
+    try {
+      path.register(watchService, ENTRY_CREATE, ENTRY_DELETE, ENTRY_MODIFY);
+    } catch (IOException | ClosedWatchServiceException e) {
+      watchedDirectories.remove(path);
+      logger.warn("Could not watch directory '{}', its changes will be found by the periodic check", directory, e);
+    }
+  }
+
+  /**
+   * Notifies the listener of the changes in the watched directories, blocking until this is closed or the thread interrupted.
+   */
+  public void run() {
+    try {
+      while (true) {
+        WatchKey key = watchService.take();
+        do {
+          for (WatchEvent<?> event : key.pollEvents()) {
+            if (logger.isDebugEnabled()) {
+              logger.debug("{} '{}' in directory '{}'", event.kind().name(), event.context(), key.watchable());
+            }
+          }
+          if (!key.reset()) {
+            // the directory is gone, it may be watched again if it is created again
+            watchedDirectories.remove(key.watchable());
+          }
+        } while ((key = watchService.poll()) != null);
+
+        try {
+          changeListener.run();
+        } catch (Exception e) {
+          logger.error("Exception notifying changes in the deployment directories", e);
+        }
+      }
+    } catch (ClosedWatchServiceException e) {
+      logger.debug("Stopped watching deployment directories");
+    } catch (InterruptedException e) {
+      currentThread().interrupt();
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    watchService.close();
+  }
+}
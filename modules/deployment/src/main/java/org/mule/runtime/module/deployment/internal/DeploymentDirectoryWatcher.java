@@ -14,6 +14,7 @@ import static org.mule.runtime.module.deployment.internal.DefaultArchiveDeployer
 import static org.mule.runtime.module.deployment.internal.DeploymentUtils.deployExplodedDomains;
 import static org.mule.runtime.module.deployment.internal.DeploymentUtils.listFiles;
 
+import static java.lang.Boolean.getBoolean;
 import static java.lang.String.format;
 import static java.lang.System.getProperty;
 import static java.lang.Thread.MIN_PRIORITY;
@@ -51,6 +52,7 @@ import org.mule.runtime.module.deployment.internal.util.ObservableList;
 import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
 import java.io.File;
+import java.io.IOException;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
@@ -58,6 +60,8 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Supplier;
 
@@ -73,17 +77,32 @@ import org.slf4j.Logger;
  * It will deploy the applications at the container startup process. It will periodically scan the artifact directories in order
  * to process new deployments, remove artifacts that were previously deployed but the anchor file was removed and redeploy those
  * applications which configuration has changed.
+ * <p/>
+ * When {@link #CHANGE_WATCH_SERVICE_PROPERTY} is set, the artifact directories are watched with a
+ * {@link DeploymentDirectoryWatchService} instead, checking them shortly after a change is notified. The periodic scan is kept
+ * as a fallback for changes the watch service may miss, every {@link #CHANGE_WATCH_FALLBACK_INTERVAL_PROPERTY}.
  */
 public class DeploymentDirectoryWatcher implements Runnable {
 
   public static final String ARTIFACT_ANCHOR_SUFFIX = "-anchor.txt";
   public static final String CHANGE_CHECK_INTERVAL_PROPERTY = "mule.launcher.changeCheckInterval";
+  /**
+   * @since 4.8.0
+   */
+  public static final String CHANGE_WATCH_SERVICE_PROPERTY = "mule.launcher.changeWatchService";
+  /**
+   * @since 4.8.0
+   */
+  public static final String CHANGE_WATCH_FALLBACK_INTERVAL_PROPERTY = "mule.launcher.changeWatchFallbackInterval";
   public static final IOFileFilter JAR_ARTIFACT_FILTER =
       new AndFileFilter(new SuffixFileFilter(JAR_FILE_SUFFIX, INSENSITIVE), FileFileFilter.FILE);
   public static final IOFileFilter ZIP_ARTIFACT_FILTER =
       new AndFileFilter(new SuffixFileFilter(ZIP_FILE_SUFFIX, INSENSITIVE), FileFileFilter.FILE);
 
   protected static final int DEFAULT_CHANGES_CHECK_INTERVAL_MS = 5000;
+  protected static final int DEFAULT_CHANGE_WATCH_FALLBACK_INTERVAL_MS = 60000;
+  // waits for a burst of changes, like a file being copied, to finish before checking
+  private static final int CHANGE_WATCH_DEBOUNCE_MS = 200;
 
   private static final Logger logger = getLogger(DeploymentDirectoryWatcher.class);
   private static final Logger SPLASH_LOGGER = getLogger("org.mule.runtime.core.internal.logging");
@@ -101,6 +120,9 @@ public class DeploymentDirectoryWatcher implements Runnable {
   private final File domainsDir;
   private final boolean disposeArtifactsOnStop;
   private Scheduler artifactDirMonitorScheduler;
+  private Scheduler artifactDirWatchScheduler;
+  private volatile DeploymentDirectoryWatchService watchService;
+  private final AtomicBoolean watchedChangesCheckScheduled = new AtomicBoolean();
 
   protected volatile boolean dirty;
 
@@ -137,6 +159,9 @@ public class DeploymentDirectoryWatcher implements Runnable {
         }
         dirty = true;
       }
+      if (e instanceof ElementAddedEvent) {
+        watchArtifactResources((Artifact) e.getNewValue());
+      }
     });
     domains.addPropertyChangeListener(e -> {
       if (e instanceof ElementAddedEvent || e instanceof ElementRemovedEvent) {
@@ -145,6 +170,9 @@ public class DeploymentDirectoryWatcher implements Runnable {
         }
         dirty = true;
       }
+      if (e instanceof ElementAddedEvent) {
+        watchArtifactResources((Artifact) e.getNewValue());
+      }
     });
     this.schedulerServiceSupplier = schedulerServiceSupplier;
     this.applicationTimestampListener = new ArtifactTimestampListener<>(applications);
@@ -245,17 +273,92 @@ public class DeploymentDirectoryWatcher implements Runnable {
     }
   }
 
+  static int getChangeWatchFallbackIntervalMs() {
+    try {
+      String value = getProperty(CHANGE_WATCH_FALLBACK_INTERVAL_PROPERTY);
+      return Integer.parseInt(value);
+    } catch (NumberFormatException e) {
+      return DEFAULT_CHANGE_WATCH_FALLBACK_INTERVAL_MS;
+    }
+  }
+
   private void scheduleChangeMonitor() {
-    final int reloadIntervalMs = getChangesCheckIntervalMs();
     SchedulerConfig schedulerConfig = SchedulerConfig.config()
         .withName("Mule.app.deployer.monitor")
         .withPriority(MIN_PRIORITY)
         .withMaxConcurrentTasks(1);
 
     artifactDirMonitorScheduler = schedulerServiceSupplier.get().customScheduler(schedulerConfig);
-    artifactDirMonitorScheduler.scheduleWithFixedDelay(this, reloadIntervalMs, reloadIntervalMs, MILLISECONDS);
 
-    SPLASH_LOGGER.info(miniSplash(format("Mule is up and kicking (every %dms)", reloadIntervalMs)));
+    if (getBoolean(CHANGE_WATCH_SERVICE_PROPERTY) && startWatchService()) {
+      final int fallbackIntervalMs = getChangeWatchFallbackIntervalMs();
+      artifactDirMonitorScheduler.scheduleWithFixedDelay(this, fallbackIntervalMs, fallbackIntervalMs, MILLISECONDS);
+
+      SPLASH_LOGGER.info(miniSplash(format("Mule is up and kicking (watching for changes, every %dms as fallback)",
+                                           fallbackIntervalMs)));
+    } else {
+      final int reloadIntervalMs = getChangesCheckIntervalMs();
+      artifactDirMonitorScheduler.scheduleWithFixedDelay(this, reloadIntervalMs, reloadIntervalMs, MILLISECONDS);
+
+      SPLASH_LOGGER.info(miniSplash(format("Mule is up and kicking (every %dms)", reloadIntervalMs)));
+    }
+  }
+
+  private boolean startWatchService() {
+    try {
+      watchService = new DeploymentDirectoryWatchService(this::scheduleWatchedChangesCheck);
+    } catch (IOException | UnsupportedOperationException e) {
+      logger.warn("Could not watch the deployment directories for changes, checking them periodically instead", e);
+      return false;
+    }
+
+    watchService.watch(domainsDir);
+    watchService.watch(appsDir);
+    domains.forEach(this::watchArtifactResources);
+    applications.forEach(this::watchArtifactResources);
+
+    SchedulerConfig schedulerConfig = SchedulerConfig.config()
+        .withName("Mule.app.deployer.watcher")
+        .withPriority(MIN_PRIORITY)
+        .withMaxConcurrentTasks(1);
+
+    artifactDirWatchScheduler = schedulerServiceSupplier.get().customScheduler(schedulerConfig);
+    artifactDirWatchScheduler.execute(watchService::run);
+    return true;
+  }
+
+  private void watchArtifactResources(Artifact<?> artifact) {
+    DeploymentDirectoryWatchService currentWatchService = watchService;
+    if (currentWatchService == null) {
+      return;
+    }
+
+    for (File configResourceFile : artifact.getResourceFiles()) {
+      currentWatchService.watch(configResourceFile.getParentFile());
+    }
+    currentWatchService.watch(((DeployableArtifactDescriptor) artifact.getDescriptor()).getArtifactLocation());
+  }
+
+  private void scheduleWatchedChangesCheck() {
+    // changes notified while a check is scheduled are handled by that check
+    if (!watchedChangesCheckScheduled.compareAndSet(false, true)) {
+      return;
+    }
+
+    try {
+      artifactDirMonitorScheduler.schedule(this::checkWatchedChanges, CHANGE_WATCH_DEBOUNCE_MS, MILLISECONDS);
+    } catch (RejectedExecutionException e) {
+      // the watcher is being stopped
+      watchedChangesCheckScheduled.set(false);
+    }
+  }
+
+  private void checkWatchedChanges() {
+    watchedChangesCheckScheduled.set(false);
+    if (!checkForChanges()) {
+      // unlike the periodic check, there may be no other check coming to handle these changes
+      scheduleWatchedChangesCheck();
+    }
   }
 
   protected void deployPackedApps(String[] zips) {
@@ -291,6 +394,13 @@ public class DeploymentDirectoryWatcher implements Runnable {
   // deploy exploded apps
   @Override
   public void run() {
+    checkForChanges();
+  }
+
+  /**
+   * @return {@code false} if the check was skipped because another deployment operation was in progress
+   */
+  private boolean checkForChanges() {
     try {
       if (logger.isDebugEnabled()) {
         logger.debug("Checking for changes...");
@@ -302,7 +412,7 @@ public class DeploymentDirectoryWatcher implements Runnable {
           logger.debug("Another deployment operation in progress, will skip this cycle. Owner thread: "
               + ((DebuggableReentrantLock) deploymentLock).getOwner());
         }
-        return;
+        return false;
       }
 
       undeployRemovedApps();
@@ -355,6 +465,7 @@ public class DeploymentDirectoryWatcher implements Runnable {
       }
       dirty = false;
     }
+    return true;
   }
 
   private void deployDomainBundles() {
@@ -511,6 +622,17 @@ public class DeploymentDirectoryWatcher implements Runnable {
   }
 
   private void stopAppDirMonitorTimer() {
+    if (watchService != null) {
+      try {
+        watchService.close();
+      } catch (IOException e) {
+        logger.warn("Error closing the deployment directories watch service", e);
+      }
+      watchService = null;
+    }
+    if (artifactDirWatchScheduler != null) {
+      artifactDirWatchScheduler.shutdownNow();
+    }
     if (artifactDirMonitorScheduler != null) {
       artifactDirMonitorScheduler.shutdown();
       try {
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.module.deployment.test.internal;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+
+import org.mule.runtime.module.deployment.internal.DeploymentDirectoryWatchService;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.probe.JUnitLambdaProbe;
+import org.mule.tck.probe.PollingProber;
+
+import java.io.File;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class DeploymentDirectoryWatchServiceTestCase extends AbstractMuleTestCase {
+
+  // some platforms implement the watch service by polling every few seconds
+  private static final long PROBER_TIMEOUT = SECONDS.toMillis(20);
+  private static final long PROBER_INTERVAL = 100;
+
+  @Rule
+  public TemporaryFolder appsDir = new TemporaryFolder();
+
+  private final AtomicInteger changes = new AtomicInteger();
+  private DeploymentDirectoryWatchService watchService;
+  private Thread watchThread;
+
+  @Before
+  public void before() throws Exception {
+    watchService = new DeploymentDirectoryWatchService(changes::incrementAndGet);
+    watchService.watch(appsDir.getRoot());
+    watchThread = new Thread(watchService::run);
+    watchThread.start();
+  }
+
+  @After
+  public void after() throws Exception {
+    watchService.close();
+    watchThread.join(SECONDS.toMillis(5));
+  }
+
+  @Test
+  public void createdFileNotified() throws Exception {
+    appsDir.newFile("app.jar");
+    probeChangeNotified();
+  }
+
+  @Test
+  public void deletedFileNotified() throws Exception {
+    File anchor = appsDir.newFile("app-anchor.txt");
+    probeChangeNotified();
+
+    int changesBeforeDelete = changes.get();
+    anchor.delete();
+    new PollingProber(PROBER_TIMEOUT, PROBER_INTERVAL)
+        .check(new JUnitLambdaProbe(() -> changes.get() > changesBeforeDelete));
+  }
+
+  @Test
+  public void watchingTwiceIsIgnored() throws Exception {
+    watchService.watch(appsDir.getRoot());
+    appsDir.newFile("app.jar");
+    probeChangeNotified();
+  }
+
+  @Test
+  public void notExistingDirectoryIgnored() {
+    watchService.watch(new File(appsDir.getRoot(), "notExisting"));
+    assertThat(changes.get(), is(0));
+  }
+
+  @Test
+  public void stopsWhenClosed() throws Exception {
+    watchService.close();
+    watchThread.join(SECONDS.toMillis(5));
+    assertThat(watchThread.isAlive(), is(false));
+  }
+
+  private void probeChangeNotified() {
+    new PollingProber(PROBER_TIMEOUT, PROBER_INTERVAL).check(new JUnitLambdaProbe(() -> {
+      assertThat(changes.get(), greaterThan(0));
+      return true;
+    }));
+  }
+}
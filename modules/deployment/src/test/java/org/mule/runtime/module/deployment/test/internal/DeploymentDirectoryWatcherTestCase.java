@@ -0,0 +1,154 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.module.deployment.test.internal;
+
+import static org.mule.runtime.module.deployment.internal.DeploymentDirectoryWatcher.ARTIFACT_ANCHOR_SUFFIX;
+import static org.mule.runtime.module.deployment.internal.DeploymentDirectoryWatcher.CHANGE_WATCH_FALLBACK_INTERVAL_PROPERTY;
+import static org.mule.runtime.module.deployment.internal.DeploymentDirectoryWatcher.CHANGE_WATCH_SERVICE_PROPERTY;
+
+import static java.util.Optional.empty;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+import static org.apache.commons.io.FileUtils.writeStringToFile;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.mule.runtime.deployment.model.api.application.Application;
+import org.mule.runtime.deployment.model.api.domain.Domain;
+import org.mule.runtime.module.artifact.api.descriptor.ApplicationDescriptor;
+import org.mule.runtime.module.artifact.api.descriptor.DomainDescriptor;
+import org.mule.runtime.module.deployment.internal.ArchiveDeployer;
+import org.mule.runtime.module.deployment.internal.DeploymentDirectoryWatcher;
+import org.mule.runtime.module.deployment.internal.DomainBundleArchiveDeployer;
+import org.mule.runtime.module.deployment.internal.util.DebuggableReentrantLock;
+import org.mule.runtime.module.deployment.internal.util.ObservableList;
+import org.mule.tck.SimpleUnitTestSupportSchedulerService;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.junit4.rule.SystemProperty;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Validates how {@link DeploymentDirectoryWatcher} reacts to the changes notified by its watch service, with the periodic check
+ * pushed far enough not to interfere.
+ */
+public class DeploymentDirectoryWatcherTestCase extends AbstractMuleTestCase {
+
+  private static final String APP_NAME = "app";
+  // some platforms implement the watch service by polling every few seconds
+  private static final long REDEPLOY_TIMEOUT = SECONDS.toMillis(20);
+  // several times the delay the watcher waits for a burst of changes to finish
+  private static final long NO_REDEPLOY_WAIT = SECONDS.toMillis(2);
+
+  @Rule
+  public TemporaryFolder muleHome = new TemporaryFolder();
+
+  @Rule
+  public SystemProperty changeWatchService = new SystemProperty(CHANGE_WATCH_SERVICE_PROPERTY, "true");
+
+  @Rule
+  public SystemProperty changeWatchFallbackInterval =
+      new SystemProperty(CHANGE_WATCH_FALLBACK_INTERVAL_PROPERTY, String.valueOf(SECONDS.toMillis(600)));
+
+  private final ReentrantLock deploymentLock = new DebuggableReentrantLock(true);
+  private final ObservableList<Application> applications = new ObservableList<>();
+  private final SimpleUnitTestSupportSchedulerService schedulerService = new SimpleUnitTestSupportSchedulerService();
+
+  private ArchiveDeployer<ApplicationDescriptor, Application> applicationDeployer;
+  private DeploymentDirectoryWatcher watcher;
+  private File appsDir;
+  private File configFile;
+  private long configFileCreation;
+
+  @Before
+  public void before() throws Exception {
+    appsDir = muleHome.newFolder("apps");
+    File domainsDir = muleHome.newFolder("domains");
+    File appDir = new File(appsDir, APP_NAME);
+    configFile = new File(appDir, "mule-config.xml");
+    writeStringToFile(configFile, "<mule/>", "UTF-8");
+    configFileCreation = configFile.lastModified();
+
+    ArchiveDeployer<DomainDescriptor, Domain> domainDeployer = mock(ArchiveDeployer.class);
+    when(domainDeployer.getDeploymentDirectory()).thenReturn(domainsDir);
+    applicationDeployer = mock(ArchiveDeployer.class);
+    when(applicationDeployer.getDeploymentDirectory()).thenReturn(appsDir);
+
+    watcher = new DeploymentDirectoryWatcher(mock(DomainBundleArchiveDeployer.class), domainDeployer, applicationDeployer,
+                                             new ObservableList<>(), applications, () -> schedulerService, deploymentLock,
+                                             false);
+    watcher.start();
+
+    // as the application deployer does, the anchor is created and the application added once it is deployed, which makes the
+    // watcher watch its resources
+    new File(appsDir, APP_NAME + ARTIFACT_ANCHOR_SUFFIX).createNewFile();
+    applications.add(createApplication(appDir));
+  }
+
+  @After
+  public void after() throws Exception {
+    if (deploymentLock.isHeldByCurrentThread()) {
+      deploymentLock.unlock();
+    }
+    watcher.stop();
+    schedulerService.stop();
+  }
+
+  @Test
+  public void burstOfChangesRedeploysOnce() throws Exception {
+    // each change alone would cause a redeploy, as it updates the timestamp of the config file
+    for (int i = 1; i <= 5; ++i) {
+      updateConfigFile("<mule><!-- " + i + " --></mule>", i);
+    }
+
+    verify(applicationDeployer, timeout(REDEPLOY_TIMEOUT)).redeploy(APP_NAME, empty());
+    verify(applicationDeployer, after(NO_REDEPLOY_WAIT).times(1)).redeploy(anyString(), any());
+  }
+
+  @Test
+  public void changeWhileLockedIsRetried() throws Exception {
+    deploymentLock.lock();
+    updateConfigFile("<mule><!-- updated --></mule>", 1);
+
+    // the change is notified, but the check cannot run while another deployment operation holds the lock
+    verify(applicationDeployer, after(NO_REDEPLOY_WAIT).never()).redeploy(anyString(), any());
+
+    deploymentLock.unlock();
+    verify(applicationDeployer, timeout(REDEPLOY_TIMEOUT)).redeploy(APP_NAME, empty());
+  }
+
+  private void updateConfigFile(String content, int secondsLater) throws IOException {
+    writeStringToFile(configFile, content, "UTF-8");
+    configFile.setLastModified(configFileCreation + SECONDS.toMillis(secondsLater));
+  }
+
+  private Application createApplication(File appDir) {
+    ApplicationDescriptor descriptor = mock(ApplicationDescriptor.class);
+    when(descriptor.getArtifactLocation()).thenReturn(appDir);
+    when(descriptor.isRedeploymentEnabled()).thenReturn(true);
+
+    Application application = mock(Application.class);
+    when(application.getArtifactName()).thenReturn(APP_NAME);
+    when(application.getDescriptor()).thenReturn(descriptor);
+    when(application.getResourceFiles()).thenReturn(new File[] {configFile});
+    return application;
+  }
+}
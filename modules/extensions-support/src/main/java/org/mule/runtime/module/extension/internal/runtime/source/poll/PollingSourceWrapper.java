@@ -67,6 +67,8 @@ import org.mule.sdk.api.runtime.source.SourceCallbackContext;
 import java.io.Serializable;
 import java.time.ZonedDateTime;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -222,31 +224,48 @@ public class PollingSourceWrapper<T, A> extends SourceWrapper<T, A> implements R
 
     withWatermarkLock(() -> {
       DefaultPollContext pollContext = new DefaultPollContext(sourceCallback, getCurrentWatermark(), getUpdatedWatermark());
+      PollBookkeeping bookkeeping = pollContext.getBookkeeping();
 
       try {
-        delegate.poll(pollContext);
-      } catch (RuntimeException e) {
-        LOGGER.error(format("Found exception trying to process item on source at flow '%s'. %s",
-                            flowName, e.getMessage()),
-                     e);
-        systemExceptionHandler.handleException(e, componentLocation);
-        return;
-      }
+        try {
+          delegate.poll(pollContext);
+        } catch (RuntimeException e) {
+          LOGGER.error(format("Found exception trying to process item on source at flow '%s'. %s",
+                              flowName, e.getMessage()),
+                       e);
+          systemExceptionHandler.handleException(e, componentLocation);
+          return;
+        }
 
-      try {
-        if (!isRequestedToStop()) {
-          pollContext.getUpdatedWatermark()
-              .ifPresent(w -> updateWatermark(w, pollContext.getWatermarkComparator(),
-                                              pollContext.getMinimumRejectedByLimitPassingWatermark().orElse(null)));
+        try {
+          if (!isRequestedToStop()) {
+            pollContext.getUpdatedWatermark()
+                .ifPresent(w -> updateWatermark(w, pollContext.getWatermarkComparator(),
+                                                pollContext.getMinimumRejectedByLimitPassingWatermark().orElse(null),
+                                                bookkeeping));
+          }
+        } catch (Throwable t) {
+          LOGGER.error(format("Found exception trying to process item on source at flow '%s'. %s",
+                              flowName, t.getMessage()),
+                       t);
         }
-      } catch (Throwable t) {
-        LOGGER.error(format("Found exception trying to process item on source at flow '%s'. %s",
-                            flowName, t.getMessage()),
-                     t);
+      } finally {
+        // the items dispatched before the poll failed or the source was stopped are tracked anyway
+        applyBookkeeping(bookkeeping);
       }
     });
   }
 
+  private void applyBookkeeping(PollBookkeeping bookkeeping) {
+    try {
+      bookkeeping.apply();
+    } catch (Exception e) {
+      LOGGER.error(format("Found exception trying to update the processed items of source at flow '%s'. %s",
+                          flowName, e.getMessage()),
+                   e);
+    }
+  }
+
   private int compareWatermarks(String w1Label, Serializable w1, String w2Label, Serializable w2, Comparator comparator)
       throws IllegalArgumentException {
     if (comparator == null) {
@@ -282,6 +301,7 @@ public class PollingSourceWrapper<T, A> extends SourceWrapper<T, A> implements R
   private class DefaultPollContext implements PollContext<T, A> {
 
     private final SourceCallback<T, A> sourceCallback;
+    private final PollBookkeeping bookkeeping = new PollBookkeeping();
     private Serializable currentWatermark;
     private Serializable updatedWatermark;
     private Serializable minimumRejectedByLimitPassingWatermark;
@@ -380,44 +400,19 @@ public class PollingSourceWrapper<T, A> extends SourceWrapper<T, A> implements R
     }
 
     private void renewUpdatedWatermark(Serializable itemWatermark) {
-      try {
-        idsOnUpdatedWatermark.clear();
-        this.updatedWatermark = itemWatermark;
-        removeWatermark(UPDATED_WATERMARK_ITEM_OS_KEY);
-        saveWatermark(UPDATED_WATERMARK_ITEM_OS_KEY, updatedWatermark);
-      } catch (ObjectStoreException e) {
-        throw new MuleRuntimeException(
-                                       createStaticMessage("An error occurred while trying to update the updatedWatermark in the the object store"),
-                                       e);
-      }
+      this.updatedWatermark = itemWatermark;
+      bookkeeping.renewUpdatedWatermark(itemWatermark);
     }
 
     private void addToUpdatedWatermark(String itemId, Serializable itemWatermark) {
       if (itemId != null) {
-        try {
-          idsOnUpdatedWatermark.store(itemId, itemWatermark);
-        } catch (ObjectStoreException e) {
-          throw new MuleRuntimeException(
-                                         createStaticMessage("An error occurred while updating the watermark for Item with ID [%s]",
-                                                             itemId),
-                                         e);
-        }
+        bookkeeping.addIdOnUpdatedWatermark(itemId, itemWatermark);
       }
     }
 
     private void addToRecentlyProcessedIds(String itemId, Serializable itemWatermark) {
-      try {
-        if (itemId != null) {
-          if (recentlyProcessedIds.contains(itemId)) {
-            recentlyProcessedIds.remove(itemId);
-          }
-          recentlyProcessedIds.store(itemId, itemWatermark);
-        }
-      } catch (ObjectStoreException e) {
-        throw new MuleRuntimeException(
-                                       createStaticMessage("An error occurred while updating the watermark for Item with ID [%s]",
-                                                           itemId),
-                                       e);
+      if (itemId != null) {
+        bookkeeping.addRecentlyProcessedId(itemId, itemWatermark);
       }
     }
 
@@ -454,6 +449,10 @@ public class PollingSourceWrapper<T, A> extends SourceWrapper<T, A> implements R
       return watermarkComparator;
     }
 
+    private PollBookkeeping getBookkeeping() {
+      return bookkeeping;
+    }
+
     private WatermarkStatus passesWatermark(DefaultPollItem pollItem) {
       Serializable itemWatermark = pollItem.getWatermark().orElse(null);
       if (itemWatermark == null) {
@@ -471,8 +470,8 @@ public class PollingSourceWrapper<T, A> extends SourceWrapper<T, A> implements R
             : -1;
         if (compare < 0) {
           try {
-            if (itemId != null && recentlyProcessedIds.contains(itemId)) {
-              Serializable previousItemWatermark = recentlyProcessedIds.retrieve(itemId);
+            Serializable previousItemWatermark = itemId != null ? bookkeeping.getRecentlyProcessedWatermark(itemId) : null;
+            if (previousItemWatermark != null) {
               if (compareWatermarks("itemWatermark", itemWatermark, "previousItemWatermark", previousItemWatermark,
                                     watermarkComparator) <= 0) {
                 status = REJECT;
@@ -499,7 +498,7 @@ public class PollingSourceWrapper<T, A> extends SourceWrapper<T, A> implements R
           }
         } else if (compare == 0 && pollItem.getItemId().isPresent()) {
           try {
-            status = recentlyProcessedIds.contains(itemId) ? REJECT : PASSED;
+            status = bookkeeping.getRecentlyProcessedWatermark(itemId) != null ? REJECT : PASSED;
           } catch (ObjectStoreException e) {
             throw new MuleRuntimeException(
                                            createStaticMessage("An error occurred while checking the existence for Item with ID [%s]",
@@ -617,7 +616,7 @@ public class PollingSourceWrapper<T, A> extends SourceWrapper<T, A> implements R
   }
 
   private void updateWatermark(Serializable value, Comparator comparator,
-                               Serializable minimumRejectedByLimitPassingWatermark) {
+                               Serializable minimumRejectedByLimitPassingWatermark, PollBookkeeping bookkeeping) {
     try {
       if (minimumRejectedByLimitPassingWatermark != null) {
         LOGGER
@@ -625,9 +624,10 @@ public class PollingSourceWrapper<T, A> extends SourceWrapper<T, A> implements R
                 +
                 "have to be the new current watermark to ensure that those items are not left without being processed.",
                    flowName);
+        bookkeeping.apply();
         setCurrentWatermarkAsMinimumRejectWatermark(minimumRejectedByLimitPassingWatermark);
       } else {
-        updateWatermark(value, comparator);
+        updateWatermark(value, comparator, bookkeeping);
       }
     } catch (ObjectStoreException e) {
       throw new MuleRuntimeException(
@@ -637,7 +637,8 @@ public class PollingSourceWrapper<T, A> extends SourceWrapper<T, A> implements R
     }
   }
 
-  private void updateWatermark(Serializable value, Comparator comparator) throws ObjectStoreException {
+  private void updateWatermark(Serializable value, Comparator comparator, PollBookkeeping bookkeeping)
+      throws ObjectStoreException {
     if (watermarkObjectStore.contains(WATERMARK_ITEM_OS_KEY)) {
       Serializable currentValue = watermarkObjectStore.retrieve(WATERMARK_ITEM_OS_KEY);
       if (compareWatermarks("currentValue", currentValue, "value", value, comparator) >= 0) {
@@ -646,7 +647,8 @@ public class PollingSourceWrapper<T, A> extends SourceWrapper<T, A> implements R
       watermarkObjectStore.remove(WATERMARK_ITEM_OS_KEY);
     }
 
-    updateRecentlyProcessedIds();
+    bookkeeping.promoteIdsOnUpdatedWatermark();
+    bookkeeping.apply();
     saveWatermark(WATERMARK_ITEM_OS_KEY, value);
   }
 
@@ -784,6 +786,99 @@ public class PollingSourceWrapper<T, A> extends SourceWrapper<T, A> implements R
     return NO_ACTION_ID;
   }
 
+  /**
+   * Keeps the changes a poll does to the processed ids and the updated watermark in memory while it goes through its items, so
+   * they are applied to the object stores once the poll finishes instead of doing several object store round trips for each
+   * item. Changes to the recently processed ids that would be discarded when the watermark is updated are not even applied.
+   * <p>
+   * Polls are done holding the watermark lock, so the object stores are not changed by anyone else while a poll is being done.
+   */
+  private class PollBookkeeping {
+
+    // ids read from the recently processed ids object store during the poll, with a null watermark if they are not there
+    private final Map<String, Serializable> storedRecentlyProcessedIds = new HashMap<>();
+    private final Map<String, Serializable> recentlyProcessedIdsToStore = new LinkedHashMap<>();
+    private final Map<String, Serializable> idsOnUpdatedWatermarkToStore = new LinkedHashMap<>();
+    private boolean clearIdsOnUpdatedWatermark;
+    private Serializable updatedWatermarkToStore;
+    private boolean promoteIdsOnUpdatedWatermark;
+
+    private Serializable getRecentlyProcessedWatermark(String itemId) throws ObjectStoreException {
+      Serializable watermark = recentlyProcessedIdsToStore.get(itemId);
+      if (watermark != null) {
+        return watermark;
+      }
+      if (!storedRecentlyProcessedIds.containsKey(itemId)) {
+        storedRecentlyProcessedIds.put(itemId,
+                                       recentlyProcessedIds.contains(itemId) ? recentlyProcessedIds.retrieve(itemId) : null);
+      }
+      return storedRecentlyProcessedIds.get(itemId);
+    }
+
+    private void addRecentlyProcessedId(String itemId, Serializable itemWatermark) {
+      recentlyProcessedIdsToStore.put(itemId, itemWatermark);
+    }
+
+    private void renewUpdatedWatermark(Serializable itemWatermark) {
+      clearIdsOnUpdatedWatermark = true;
+      idsOnUpdatedWatermarkToStore.clear();
+      updatedWatermarkToStore = itemWatermark;
+    }
+
+    private void addIdOnUpdatedWatermark(String itemId, Serializable itemWatermark) {
+      idsOnUpdatedWatermarkToStore.put(itemId, itemWatermark);
+    }
+
+    /**
+     * The recently processed ids are to be replaced with the ones on the updated watermark, since it is becoming the current
+     * one.
+     */
+    private void promoteIdsOnUpdatedWatermark() {
+      promoteIdsOnUpdatedWatermark = true;
+    }
+
+    private void apply() throws ObjectStoreException {
+      try {
+        if (clearIdsOnUpdatedWatermark) {
+          idsOnUpdatedWatermark.clear();
+        }
+        if (updatedWatermarkToStore != null) {
+          removeWatermark(UPDATED_WATERMARK_ITEM_OS_KEY);
+          saveWatermark(UPDATED_WATERMARK_ITEM_OS_KEY, updatedWatermarkToStore);
+        }
+        for (Map.Entry<String, Serializable> idOnUpdatedWatermark : idsOnUpdatedWatermarkToStore.entrySet()) {
+          idsOnUpdatedWatermark.store(idOnUpdatedWatermark.getKey(), idOnUpdatedWatermark.getValue());
+        }
+
+        if (promoteIdsOnUpdatedWatermark) {
+          updateRecentlyProcessedIds();
+        } else {
+          for (Map.Entry<String, Serializable> recentlyProcessedId : recentlyProcessedIdsToStore.entrySet()) {
+            storeRecentlyProcessedId(recentlyProcessedId.getKey(), recentlyProcessedId.getValue());
+          }
+        }
+      } finally {
+        // whatever the outcome, these changes are not to be applied again
+        storedRecentlyProcessedIds.clear();
+        recentlyProcessedIdsToStore.clear();
+        idsOnUpdatedWatermarkToStore.clear();
+        clearIdsOnUpdatedWatermark = false;
+        updatedWatermarkToStore = null;
+        promoteIdsOnUpdatedWatermark = false;
+      }
+    }
+
+    private void storeRecentlyProcessedId(String itemId, Serializable itemWatermark) throws ObjectStoreException {
+      boolean stored = storedRecentlyProcessedIds.containsKey(itemId)
+          ? storedRecentlyProcessedIds.get(itemId) != null
+          : recentlyProcessedIds.contains(itemId);
+      if (stored) {
+        recentlyProcessedIds.remove(itemId);
+      }
+      recentlyProcessedIds.store(itemId, itemWatermark);
+    }
+  }
+
   private class ItemReleaser {
 
     private final String id;
@@ -23,6 +23,7 @@ import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.slf4j.event.Level.DEBUG;
@@ -33,6 +34,7 @@ import org.mule.runtime.api.exception.MuleException;
 import org.mule.runtime.api.lock.LockFactory;
 import org.mule.runtime.api.scheduler.SchedulerService;
 import org.mule.runtime.api.scheduler.SchedulingStrategy;
+import org.mule.runtime.api.store.ObjectStore;
 import org.mule.runtime.api.store.ObjectStoreManager;
 import org.mule.runtime.api.store.ObjectStoreSettings;
 import org.mule.runtime.core.api.exception.SystemExceptionHandler;
@@ -176,13 +178,11 @@ public class PollingSourceWrapperTestCase {
     List<Serializable> watermarks = Arrays.asList(1, 3, 5, 8);
     stubPollItem(ids, watermarks);
     startSourcePollWithMockedLogger();
-    verifyLogMessage(logger.getMessages(), WATERMARK_SAVED_MESSAGE, UPDATED_WATERMARK_ITEM_OS_KEY, 1, TEST_FLOW_NAME);
+    // the updated watermark is saved once the poll finishes, not for every new maximum found
     verifyLogMessage(logger.getMessages(), WATERMARK_COMPARISON_MESSAGE, UPDATED_WATERMARK_ITEM_OS_KEY, 1, "itemWatermark", 3,
                      TEST_FLOW_NAME, -1);
-    verifyLogMessage(logger.getMessages(), WATERMARK_SAVED_MESSAGE, UPDATED_WATERMARK_ITEM_OS_KEY, 3, TEST_FLOW_NAME);
     verifyLogMessage(logger.getMessages(), WATERMARK_COMPARISON_MESSAGE, UPDATED_WATERMARK_ITEM_OS_KEY, 3, "itemWatermark", 5,
                      TEST_FLOW_NAME, -1);
-    verifyLogMessage(logger.getMessages(), WATERMARK_SAVED_MESSAGE, UPDATED_WATERMARK_ITEM_OS_KEY, 5, TEST_FLOW_NAME);
     verifyLogMessage(logger.getMessages(), WATERMARK_COMPARISON_MESSAGE, UPDATED_WATERMARK_ITEM_OS_KEY, 5, "itemWatermark", 8,
                      TEST_FLOW_NAME, -1);
     verifyLogMessage(logger.getMessages(), WATERMARK_SAVED_MESSAGE, UPDATED_WATERMARK_ITEM_OS_KEY, 8, TEST_FLOW_NAME);
@@ -197,13 +197,11 @@ public class PollingSourceWrapperTestCase {
     List<Serializable> watermarks = Arrays.asList(1, 3, 5, 8, 4);
     stubPollItem(ids, watermarks);
     startSourcePollWithMockedLogger();
-    verifyLogMessage(logger.getMessages(), WATERMARK_SAVED_MESSAGE, UPDATED_WATERMARK_ITEM_OS_KEY, 1, TEST_FLOW_NAME);
+    // the updated watermark is saved once the poll finishes, not for every new maximum found
     verifyLogMessage(logger.getMessages(), WATERMARK_COMPARISON_MESSAGE, UPDATED_WATERMARK_ITEM_OS_KEY, 1, "itemWatermark", 3,
                      TEST_FLOW_NAME, -1);
-    verifyLogMessage(logger.getMessages(), WATERMARK_SAVED_MESSAGE, UPDATED_WATERMARK_ITEM_OS_KEY, 3, TEST_FLOW_NAME);
     verifyLogMessage(logger.getMessages(), WATERMARK_COMPARISON_MESSAGE, UPDATED_WATERMARK_ITEM_OS_KEY, 3, "itemWatermark", 5,
                      TEST_FLOW_NAME, -1);
-    verifyLogMessage(logger.getMessages(), WATERMARK_SAVED_MESSAGE, UPDATED_WATERMARK_ITEM_OS_KEY, 5, TEST_FLOW_NAME);
     verifyLogMessage(logger.getMessages(), WATERMARK_COMPARISON_MESSAGE, UPDATED_WATERMARK_ITEM_OS_KEY, 5, "itemWatermark", 8,
                      TEST_FLOW_NAME, -1);
     verifyLogMessage(logger.getMessages(), WATERMARK_SAVED_MESSAGE, UPDATED_WATERMARK_ITEM_OS_KEY, 8, TEST_FLOW_NAME);
@@ -212,6 +210,21 @@ public class PollingSourceWrapperTestCase {
     verifyLogMessage(logger.getMessages(), WATERMARK_SAVED_MESSAGE, WATERMARK_ITEM_OS_KEY, 4, TEST_FLOW_NAME);
   }
 
+  @Test
+  public void recentlyProcessedIdsNotStoredForEachItemWhenWatermarkIsUpdated() throws Exception {
+    ObjectStore recentlyProcessedIds = mock(ObjectStore.class);
+    when(objectStoreManagerMock.getOrCreateObjectStore(eq(EXPECTED_RECENT_IDS_OS), any())).thenReturn(recentlyProcessedIds);
+
+    List<String> ids = Arrays.asList("id1", "id2", "id3");
+    List<Serializable> watermarks = Arrays.asList(1, 3, 5);
+    stubPollItem(ids, watermarks);
+    pollingSourceWrapper.onStart(callbackMock);
+
+    // they would be replaced right away by the ones on the updated watermark
+    verify(recentlyProcessedIds, never()).store(anyString(), any());
+    verify(recentlyProcessedIds).clear();
+  }
+
   private void assertPersistentStoreIsCreated(String expectedName, Long expirationInterval) {
     assertStoreIsCreated(expectedName, true, expirationInterval);
   }
@@ -9,14 +9,17 @@ package org.mule.runtime.module.log4j.internal;
 import static org.mule.runtime.core.api.util.ClassUtils.setContextClassLoader;
 import static org.mule.runtime.module.log4j.internal.ArtifactAwareContextSelector.resolveLoggerContextClassLoader;
 
+import static java.lang.System.identityHashCode;
 import static java.lang.Thread.currentThread;
 
 import static com.github.benmanes.caffeine.cache.Caffeine.newBuilder;
 
 import org.mule.runtime.api.util.Reference;
 
+import java.lang.ref.WeakReference;
 import java.util.Iterator;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 import com.github.benmanes.caffeine.cache.LoadingCache;
 
@@ -45,11 +48,17 @@ import org.apache.logging.log4j.util.Supplier;
  * Because this class is a fix for issues in static loggers, it must not hold any reference to any {@link ClassLoader} since
  * otherwise that class loader would be GC unreachable. For that reason, it uses {@link #ownerClassLoaderHash} instead of the real
  * reference
+ * <p/>
+ * The logger resolved for the last few context class loaders is kept in a small inline cache, only weakly referencing the class
+ * loader and the logger, so that logging from a thread with the same context class loader does not need to resolve it again.
  *
  * @since 4.5
  */
 abstract class DispatchingLogger extends Logger {
 
+  // must be a power of 2
+  private static final int RESOLVED_LOGGERS_SIZE = 4;
+
   private final Logger originalLogger;
   private final ContextSelector contextSelector;
   private final int ownerClassLoaderHash;
@@ -57,6 +66,7 @@ abstract class DispatchingLogger extends Logger {
       .weakKeys()
       .weakValues()
       .build(key -> new Reference<>());
+  private final AtomicReferenceArray<ResolvedLogger> resolvedLoggers = new AtomicReferenceArray<>(RESOLVED_LOGGERS_SIZE);
 
   DispatchingLogger(Logger originalLogger, int ownerClassLoaderHash, LoggerContext loggerContext, ContextSelector contextSelector,
                     MessageFactory messageFactory) {
@@ -67,10 +77,38 @@ abstract class DispatchingLogger extends Logger {
   }
 
   private Logger getLogger() {
-    return getLogger(resolveLoggerContextClassLoader(currentThread().getContextClassLoader()));
+    ClassLoader ctxClassLoader = currentThread().getContextClassLoader();
+    if (ctxClassLoader == null) {
+      return getLogger(resolveLoggerContextClassLoader(null));
+    }
+
+    int slot = identityHashCode(ctxClassLoader) & (RESOLVED_LOGGERS_SIZE - 1);
+    ResolvedLogger resolvedLogger = resolvedLoggers.get(slot);
+    if (resolvedLogger != null) {
+      Logger logger = resolvedLogger.get(ctxClassLoader);
+      if (logger != null) {
+        return logger;
+      }
+    }
+
+    Logger logger = findLogger(resolveLoggerContextClassLoader(ctxClassLoader));
+    if (logger == null) {
+      // fallback loggers are not cached, so the right one is used once it is available
+      return getFallbackLogger();
+    }
+    resolvedLoggers.set(slot, new ResolvedLogger(ctxClassLoader, logger));
+    return logger;
   }
 
   private Logger getLogger(final ClassLoader resolvedCtxClassLoader) {
+    Logger logger = findLogger(resolvedCtxClassLoader);
+    return logger != null ? logger : getFallbackLogger();
+  }
+
+  /**
+   * @return the logger for the given class loader, or {@code null} if it is already under construction by a previous call
+   */
+  private Logger findLogger(final ClassLoader resolvedCtxClassLoader) {
     if (useThisLoggerContextClassLoader(resolvedCtxClassLoader)) {
       return originalLogger;
     }
@@ -97,15 +135,7 @@ abstract class DispatchingLogger extends Logger {
           try {
             logger = resolveLogger(resolvedCtxClassLoader);
           } catch (RecursiveLoggerContextInstantiationException rle) {
-            // The required Logger is already under construction by a previous resolveLogger call. Falling back to container
-            // classloader.
-            try {
-              return resolveLogger(this.getClass().getClassLoader());
-            } catch (RecursiveLoggerContextInstantiationException e) {
-              // TODO: W-12337087 - this shouldn't happen, we have to check why the container logger is still in the process of
-              // being created.
-              return originalLogger;
-            }
+            return null;
           }
           loggerReference.set(logger);
         }
@@ -114,6 +144,18 @@ abstract class DispatchingLogger extends Logger {
     return logger;
   }
 
+  private Logger getFallbackLogger() {
+    // The required Logger is already under construction by a previous resolveLogger call. Falling back to container
+    // classloader.
+    try {
+      return resolveLogger(this.getClass().getClassLoader());
+    } catch (RecursiveLoggerContextInstantiationException e) {
+      // TODO: W-12337087 - this shouldn't happen, we have to check why the container logger is still in the process of
+      // being created.
+      return originalLogger;
+    }
+  }
+
   private Logger resolveLogger(ClassLoader resolvedCtxClassLoader) {
     Logger logger;
     // trick - this is probably a logger declared in a static field
@@ -961,4 +1003,22 @@ abstract class DispatchingLogger extends Logger {
   public void warn(String message, Throwable t) {
     getLogger().warn(message, t);
   }
+
+  /**
+   * Logger resolved for a context class loader, not preventing either of them from being collected.
+   */
+  private static final class ResolvedLogger {
+
+    private final WeakReference<ClassLoader> ctxClassLoader;
+    private final WeakReference<Logger> logger;
+
+    ResolvedLogger(ClassLoader ctxClassLoader, Logger logger) {
+      this.ctxClassLoader = new WeakReference<>(ctxClassLoader);
+      this.logger = new WeakReference<>(logger);
+    }
+
+    Logger get(ClassLoader ctxClassLoader) {
+      return this.ctxClassLoader.get() == ctxClassLoader ? logger.get() : null;
+    }
+  }
 }
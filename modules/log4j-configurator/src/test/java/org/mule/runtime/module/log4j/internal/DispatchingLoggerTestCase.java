@@ -114,6 +114,33 @@ public class DispatchingLoggerTestCase extends AbstractMuleTestCase {
     });
   }
 
+  @Test
+  public void loggerResolvedOncePerContextClassLoader() {
+    Logger regionClassLoaderLogger = mock(Logger.class);
+    when(regionClassLoaderLoggerContext.getLogger(anyString(), any(MessageFactory.class))).thenReturn(regionClassLoaderLogger);
+    when(artifactAwareContextSelector.getContextWithResolvedContextClassLoader(regionClassLoader))
+        .thenReturn(regionClassLoaderLoggerContext);
+    DispatchingLogger dispatchingLogger = new DispatchingLogger(originalLogger, currentClassLoader.hashCode(),
+                                                                containerLoggerContext, artifactAwareContextSelector,
+                                                                messageFactory) {
+
+      @Override
+      public String getName() {
+        return LOGGER_NAME;
+      }
+    };
+
+    withContextClassLoader(regionClassLoader, () -> {
+      dispatchingLogger.info(MESSAGE);
+      dispatchingLogger.info(MESSAGE);
+    });
+    dispatchingLogger.info(MESSAGE);
+
+    verify(regionClassLoaderLogger, times(2)).info(MESSAGE);
+    verify(originalLogger, times(1)).info(MESSAGE);
+    verify(artifactAwareContextSelector, times(1)).getContextWithResolvedContextClassLoader(regionClassLoader);
+  }
+
   @Test
   public void whenRecursiveLoggerContextInstantiationExceptionExpectFallbackUsingContainerClassLoader() {
     // Expected Loggers
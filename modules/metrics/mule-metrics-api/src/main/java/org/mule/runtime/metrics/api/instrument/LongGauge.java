@@ -0,0 +1,25 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.metrics.api.instrument;
+
+/**
+ * An instrument that reports a long value which is obtained from a callback each time it is observed, such as a queue depth.
+ *
+ * @since 4.8.0
+ */
+public interface LongGauge extends Instrument {
+
+  /**
+   * @return the current value of the gauge.
+   */
+  long getValueAsLong();
+
+  /**
+   * @return the unit for this measurement.
+   */
+  String getUnit();
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.metrics.api.instrument;
+
+/**
+ * An instrument for registering the distribution of long measurements, such as latencies.
+ * <p>
+ * Recorded values are aggregated into buckets, so the values reported by this instrument are approximations within the precision
+ * of the bucket a value falls into.
+ *
+ * @since 4.8.0
+ */
+public interface LongHistogram extends Instrument {
+
+  /**
+   * Records a value. Should not be negative.
+   *
+   * @param value the value to record.
+   */
+  void record(long value);
+
+  /**
+   * @return the amount of recorded values.
+   */
+  long getCount();
+
+  /**
+   * @return the sum of all the recorded values.
+   */
+  long getSum();
+
+  /**
+   * @return the lowest recorded value, or {@code 0} if no value was recorded.
+   */
+  long getMin();
+
+  /**
+   * @return the highest recorded value, or {@code 0} if no value was recorded.
+   */
+  long getMax();
+
+  /**
+   * @param percentile the percentile to obtain, in the (0, 100] range. For example, {@code 99.9}.
+   * @return the value at the given percentile, or {@code 0} if no value was recorded.
+   */
+  long getValueAtPercentile(double percentile);
+
+  /**
+   * @return the unit for this measurement.
+   */
+  String getUnit();
+}
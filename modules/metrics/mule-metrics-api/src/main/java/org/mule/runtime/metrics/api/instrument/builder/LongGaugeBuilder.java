@@ -0,0 +1,25 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.metrics.api.instrument.builder;
+
+import org.mule.runtime.metrics.api.instrument.LongGauge;
+
+import java.util.function.Supplier;
+
+/**
+ * Builder class for {@link LongGauge}.
+ *
+ * @since 4.8.0
+ */
+public interface LongGaugeBuilder extends InstrumentBuilder<LongGauge> {
+
+  /**
+   * @param valueSupplier the value {@link Supplier} to invoke when {@link LongGauge#getValueAsLong()} is invoked.
+   * @return the corresponding {@link LongGaugeBuilder}
+   */
+  LongGaugeBuilder withValueSupplier(Supplier<Long> valueSupplier);
+}
@@ -0,0 +1,26 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.metrics.api.instrument.builder;
+
+import org.mule.runtime.metrics.api.instrument.LongHistogram;
+
+/**
+ * Builder class for {@link LongHistogram}.
+ *
+ * @since 4.8.0
+ */
+public interface LongHistogramBuilder extends InstrumentBuilder<LongHistogram> {
+
+  /**
+   * Sets the highest value that the histogram to build can tell apart. Higher values are still recorded, but accounted as this
+   * value. Lower maximums mean less memory used by the histogram.
+   *
+   * @param maxTrackableValue the highest trackable value.
+   * @return the {@link LongHistogramBuilder}.
+   */
+  LongHistogramBuilder withMaxTrackableValue(long maxTrackableValue);
+}
@@ -7,6 +7,8 @@
 package org.mule.runtime.metrics.api.meter;
 
 import org.mule.runtime.metrics.api.instrument.builder.LongCounterBuilder;
+import org.mule.runtime.metrics.api.instrument.builder.LongGaugeBuilder;
+import org.mule.runtime.metrics.api.instrument.builder.LongHistogramBuilder;
 import org.mule.runtime.metrics.api.instrument.builder.LongUpDownCounterBuilder;
 
 import java.util.function.BiConsumer;
@@ -51,4 +53,26 @@ public interface Meter {
    */
   LongCounterBuilder counterBuilder(String name);
 
+  /**
+   * Implementations not supporting histograms get a builder of histograms that ignore the recorded values.
+   *
+   * @param name the name of the instrument.
+   * @return the {@link LongHistogramBuilder}
+   * @since 4.8.0
+   */
+  default LongHistogramBuilder histogramBuilder(String name) {
+    return new NoopLongHistogramBuilder(name, this);
+  }
+
+  /**
+   * Implementations not supporting gauges get a builder of gauges that always have a value of {@code 0}.
+   *
+   * @param name the name of the instrument.
+   * @return the {@link LongGaugeBuilder}
+   * @since 4.8.0
+   */
+  default LongGaugeBuilder gaugeBuilder(String name) {
+    return new NoopLongGaugeBuilder(name, this);
+  }
+
 }
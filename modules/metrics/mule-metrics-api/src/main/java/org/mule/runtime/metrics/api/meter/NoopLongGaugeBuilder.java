@@ -0,0 +1,93 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.metrics.api.meter;
+
+import org.mule.runtime.metrics.api.instrument.LongGauge;
+import org.mule.runtime.metrics.api.instrument.builder.LongGaugeBuilder;
+
+import java.util.function.Supplier;
+
+/**
+ * {@link LongGaugeBuilder} for {@link Meter} implementations that do not support gauges. The gauge it builds always has a
+ * value of {@code 0}.
+ *
+ * @since 4.8.0
+ */
+final class NoopLongGaugeBuilder implements LongGaugeBuilder {
+
+  private final String name;
+  private final Meter meter;
+  private String description;
+  private String unit;
+
+  NoopLongGaugeBuilder(String name, Meter meter) {
+    this.name = name;
+    this.meter = meter;
+  }
+
+  @Override
+  public LongGaugeBuilder withDescription(String description) {
+    this.description = description;
+    return this;
+  }
+
+  @Override
+  public LongGaugeBuilder withUnit(String unit) {
+    this.unit = unit;
+    return this;
+  }
+
+  @Override
+  public LongGaugeBuilder withValueSupplier(Supplier<Long> valueSupplier) {
+    return this;
+  }
+
+  @Override
+  public LongGauge build() {
+    return new NoopLongGauge(name, description, unit, meter);
+  }
+
+  private static final class NoopLongGauge implements LongGauge {
+
+    private final String name;
+    private final String description;
+    private final String unit;
+    private final Meter meter;
+
+    private NoopLongGauge(String name, String description, String unit, Meter meter) {
+      this.name = name;
+      this.description = description;
+      this.unit = unit;
+      this.meter = meter;
+    }
+
+    @Override
+    public String getName() {
+      return name;
+    }
+
+    @Override
+    public String getDescription() {
+      return description;
+    }
+
+    @Override
+    public Meter getMeter() {
+      return meter;
+    }
+
+    @Override
+    public long getValueAsLong() {
+      return 0;
+    }
+
+    @Override
+    public String getUnit() {
+      return unit;
+    }
+  }
+}
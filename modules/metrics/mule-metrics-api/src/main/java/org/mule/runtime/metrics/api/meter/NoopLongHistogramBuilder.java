@@ -0,0 +1,116 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.metrics.api.meter;
+
+import org.mule.runtime.metrics.api.instrument.LongHistogram;
+import org.mule.runtime.metrics.api.instrument.builder.LongHistogramBuilder;
+
+/**
+ * {@link LongHistogramBuilder} for {@link Meter} implementations that do not support histograms. The histogram it builds
+ * ignores the recorded values.
+ *
+ * @since 4.8.0
+ */
+final class NoopLongHistogramBuilder implements LongHistogramBuilder {
+
+  private final String name;
+  private final Meter meter;
+  private String description;
+  private String unit;
+
+  NoopLongHistogramBuilder(String name, Meter meter) {
+    this.name = name;
+    this.meter = meter;
+  }
+
+  @Override
+  public LongHistogramBuilder withDescription(String description) {
+    this.description = description;
+    return this;
+  }
+
+  @Override
+  public LongHistogramBuilder withUnit(String unit) {
+    this.unit = unit;
+    return this;
+  }
+
+  @Override
+  public LongHistogramBuilder withMaxTrackableValue(long maxTrackableValue) {
+    return this;
+  }
+
+  @Override
+  public LongHistogram build() {
+    return new NoopLongHistogram(name, description, unit, meter);
+  }
+
+  private static final class NoopLongHistogram implements LongHistogram {
+
+    private final String name;
+    private final String description;
+    private final String unit;
+    private final Meter meter;
+
+    private NoopLongHistogram(String name, String description, String unit, Meter meter) {
+      this.name = name;
+      this.description = description;
+      this.unit = unit;
+      this.meter = meter;
+    }
+
+    @Override
+    public String getName() {
+      return name;
+    }
+
+    @Override
+    public String getDescription() {
+      return description;
+    }
+
+    @Override
+    public Meter getMeter() {
+      return meter;
+    }
+
+    @Override
+    public void record(long value) {
+      // Nothing to do.
+    }
+
+    @Override
+    public long getCount() {
+      return 0;
+    }
+
+    @Override
+    public long getSum() {
+      return 0;
+    }
+
+    @Override
+    public long getMin() {
+      return 0;
+    }
+
+    @Override
+    public long getMax() {
+      return 0;
+    }
+
+    @Override
+    public long getValueAtPercentile(double percentile) {
+      return 0;
+    }
+
+    @Override
+    public String getUnit() {
+      return unit;
+    }
+  }
+}
@@ -7,6 +7,8 @@
 package org.mule.runtime.metrics.exporter.api;
 
 import org.mule.runtime.metrics.api.instrument.LongCounter;
+import org.mule.runtime.metrics.api.instrument.LongGauge;
+import org.mule.runtime.metrics.api.instrument.LongHistogram;
 import org.mule.runtime.metrics.api.instrument.LongUpDownCounter;
 import org.mule.runtime.metrics.api.meter.Meter;
 
@@ -38,6 +40,30 @@ public interface MeterExporter {
    */
   void enableExport(LongUpDownCounter upDownCounter);
 
+  /**
+   * Enables the exportation process for a {@link LongHistogram}.
+   * <p>
+   * Does nothing by default, so implementations not supporting it do not export it.
+   *
+   * @param histogram the instrument to export.
+   * @since 4.8.0
+   */
+  default void enableExport(LongHistogram histogram) {
+    // Nothing to do by default.
+  }
+
+  /**
+   * Enables the exportation process for a {@link LongGauge}.
+   * <p>
+   * Does nothing by default, so implementations not supporting it do not export it.
+   *
+   * @param gauge the instrument to export.
+   * @since 4.8.0
+   */
+  default void enableExport(LongGauge gauge) {
+    // Nothing to do by default.
+  }
+
   /**
    * Disposes the {@link MeterExporter}.
    */
@@ -15,6 +15,8 @@ import static java.util.concurrent.TimeUnit.SECONDS;
 
 import org.mule.runtime.api.lifecycle.Disposable;
 import org.mule.runtime.metrics.api.instrument.LongCounter;
+import org.mule.runtime.metrics.api.instrument.LongGauge;
+import org.mule.runtime.metrics.api.instrument.LongHistogram;
 import org.mule.runtime.metrics.api.instrument.LongUpDownCounter;
 import org.mule.runtime.metrics.exporter.api.MeterExporter;
 import org.mule.runtime.metrics.exporter.config.api.MeterExporterConfiguration;
@@ -28,8 +30,10 @@ import java.util.Objects;
 
 import io.opentelemetry.api.common.Attributes;
 import io.opentelemetry.api.metrics.LongCounterBuilder;
+import io.opentelemetry.api.metrics.LongGaugeBuilder;
 import io.opentelemetry.api.metrics.LongUpDownCounterBuilder;
 import io.opentelemetry.api.metrics.ObservableLongCounter;
+import io.opentelemetry.api.metrics.ObservableLongGauge;
 import io.opentelemetry.api.metrics.ObservableLongUpDownCounter;
 import io.opentelemetry.exporter.otlp.metrics.OtlpGrpcMetricExporter;
 import io.opentelemetry.sdk.resources.Resource;
@@ -46,8 +50,14 @@ import io.opentelemetry.sdk.metrics.export.PeriodicMetricReader;
  */
 public class OpenTelemetryMeterExporter implements MeterExporter, Disposable {
 
+  public static final String QUANTILE_ATTRIBUTE = "quantile";
+  public static final String HISTOGRAM_COUNT_SUFFIX = ".count";
+  public static final String HISTOGRAM_SUM_SUFFIX = ".sum";
+  private static final double[] EXPORTED_PERCENTILES = {50, 90, 99, 99.9};
+
   private final List<ObservableLongCounter> counters = new ArrayList<>();
   private final List<ObservableLongUpDownCounter> upDownCounters = new ArrayList<>();
+  private final List<ObservableLongGauge> gauges = new ArrayList<>();
   private final Map<String, Meter> openTelemetryMeters = new HashMap<>();
   private final MeterProvider meterProvider;
   private final PeriodicMetricReader periodicMetricReader;
@@ -107,6 +117,62 @@ public class OpenTelemetryMeterExporter implements MeterExporter, Disposable {
         .add(longUpDownCounter.buildWithCallback(measurement -> measurement.record(upDownCounter.getValueAsLong(), attributes)));
   }
 
+  /**
+   * {@inheritDoc}
+   * <p>
+   * The histogram is exported as a summary: a {@code .count} and a {@code .sum} counter, plus a gauge with the value at each
+   * exported percentile, identified by the {@link #QUANTILE_ATTRIBUTE} attribute.
+   */
+  @Override
+  public synchronized void enableExport(LongHistogram histogram) {
+    Meter openTelemetryMeter = openTelemetryMeters.get(histogram.getMeter().getName());
+    Attributes attributes = new OpentelemetryExporterAttributes(histogram.getMeter());
+
+    counters.add(openTelemetryMeter.counterBuilder(histogram.getName() + HISTOGRAM_COUNT_SUFFIX)
+        .setDescription(histogram.getDescription())
+        .buildWithCallback(measurement -> measurement.record(histogram.getCount(), attributes)));
+
+    LongCounterBuilder sumBuilder = openTelemetryMeter.counterBuilder(histogram.getName() + HISTOGRAM_SUM_SUFFIX)
+        .setDescription(histogram.getDescription());
+    if (histogram.getUnit() != null) {
+      sumBuilder = sumBuilder.setUnit(histogram.getUnit());
+    }
+    counters.add(sumBuilder.buildWithCallback(measurement -> measurement.record(histogram.getSum(), attributes)));
+
+    Attributes[] percentileAttributes = new Attributes[EXPORTED_PERCENTILES.length];
+    for (int i = 0; i < EXPORTED_PERCENTILES.length; i++) {
+      percentileAttributes[i] = new OpentelemetryExporterAttributes(histogram.getMeter(), QUANTILE_ATTRIBUTE,
+                                                                    Double.toString(EXPORTED_PERCENTILES[i] / 100));
+    }
+
+    LongGaugeBuilder gaugeBuilder = openTelemetryMeter.gaugeBuilder(histogram.getName())
+        .setDescription(histogram.getDescription())
+        .ofLongs();
+    if (histogram.getUnit() != null) {
+      gaugeBuilder = gaugeBuilder.setUnit(histogram.getUnit());
+    }
+    gauges.add(gaugeBuilder.buildWithCallback(measurement -> {
+      for (int i = 0; i < EXPORTED_PERCENTILES.length; i++) {
+        measurement.record(histogram.getValueAtPercentile(EXPORTED_PERCENTILES[i]), percentileAttributes[i]);
+      }
+    }));
+  }
+
+  @Override
+  public synchronized void enableExport(LongGauge gauge) {
+    Meter openTelemetryMeter = openTelemetryMeters.get(gauge.getMeter().getName());
+    Attributes attributes = new OpentelemetryExporterAttributes(gauge.getMeter());
+    LongGaugeBuilder gaugeBuilder = openTelemetryMeter.gaugeBuilder(gauge.getName())
+        .setDescription(gauge.getDescription())
+        .ofLongs();
+
+    if (gauge.getUnit() != null) {
+      gaugeBuilder = gaugeBuilder.setUnit(gauge.getUnit());
+    }
+
+    gauges.add(gaugeBuilder.buildWithCallback(measurement -> measurement.record(gauge.getValueAsLong(), attributes)));
+  }
+
   @Override
   public synchronized void registerMeterToExport(org.mule.runtime.metrics.api.meter.Meter meter) {
     openTelemetryMeters.put(meter.getName(), meterProvider.meterBuilder(meter.getName()).build());
@@ -116,6 +182,7 @@ public class OpenTelemetryMeterExporter implements MeterExporter, Disposable {
   public void dispose() {
     counters.forEach(ObservableLongCounter::close);
     upDownCounters.forEach(ObservableLongUpDownCounter::close);
+    gauges.forEach(ObservableLongGauge::close);
 
     if (periodicMetricReader != null) {
       periodicMetricReader.shutdown();
@@ -29,6 +29,18 @@ public class OpentelemetryExporterAttributes implements Attributes {
     meter.forEachAttribute((key, value) -> attributesToExport.put(stringKey(key), value));
   }
 
+  /**
+   * Creates the attributes of the given {@link Meter} plus an additional one.
+   *
+   * @param meter the {@link Meter} which attributes are exported.
+   * @param key   the key of the additional attribute.
+   * @param value the value of the additional attribute.
+   */
+  public OpentelemetryExporterAttributes(Meter meter, String key, String value) {
+    this(meter);
+    attributesToExport.put(stringKey(key), value);
+  }
+
   @Override
   public <T> T get(AttributeKey<T> key) {
     return (T) attributesToExport.get(key);
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.metrics.impl.instrument;
+
+import static java.util.Objects.requireNonNull;
+import static java.util.Optional.ofNullable;
+
+import org.mule.runtime.metrics.api.instrument.LongGauge;
+import org.mule.runtime.metrics.api.instrument.builder.LongGaugeBuilder;
+import org.mule.runtime.metrics.api.meter.Meter;
+import org.mule.runtime.metrics.exporter.api.MeterExporter;
+import org.mule.runtime.metrics.impl.instrument.repository.InstrumentRepository;
+
+import java.util.function.Supplier;
+
+/**
+ * An implementation of {@link LongGauge} which obtains its value from a callback.
+ */
+public class DefaultLongGauge implements LongGauge {
+
+  public static DefaultLongGaugeBuilder builder(String name, Meter meter) {
+    return new DefaultLongGaugeBuilder(name, meter);
+  }
+
+  private final String name;
+  private final String description;
+  private final String unit;
+  private final Meter meter;
+  private final Supplier<Long> valueSupplier;
+
+  private DefaultLongGauge(String name, String description, String unit, Meter meter, Supplier<Long> valueSupplier) {
+    this.name = name;
+    this.description = description;
+    this.unit = unit;
+    this.meter = meter;
+    this.valueSupplier = valueSupplier;
+  }
+
+  @Override
+  public String getName() {
+    return name;
+  }
+
+  @Override
+  public String getDescription() {
+    return description;
+  }
+
+  @Override
+  public Meter getMeter() {
+    return meter;
+  }
+
+  @Override
+  public long getValueAsLong() {
+    return valueSupplier.get();
+  }
+
+  @Override
+  public String getUnit() {
+    return unit;
+  }
+
+  public static class DefaultLongGaugeBuilder implements LongGaugeBuilder {
+
+    private final String name;
+    private final Meter meter;
+    private InstrumentRepository instrumentRepository;
+    private String description;
+    private String unit;
+    private MeterExporter meterExporter;
+    private Supplier<Long> valueSupplier;
+
+    public DefaultLongGaugeBuilder(String name, Meter meter) {
+      this.name = name;
+      this.meter = meter;
+    }
+
+    @Override
+    public DefaultLongGaugeBuilder withDescription(String description) {
+      this.description = description;
+      return this;
+    }
+
+    @Override
+    public DefaultLongGaugeBuilder withUnit(String unit) {
+      this.unit = unit;
+      return this;
+    }
+
+    @Override
+    public DefaultLongGaugeBuilder withValueSupplier(Supplier<Long> valueSupplier) {
+      this.valueSupplier = valueSupplier;
+      return this;
+    }
+
+    public DefaultLongGaugeBuilder withInstrumentRepository(InstrumentRepository instrumentRepository) {
+      this.instrumentRepository = instrumentRepository;
+      return this;
+    }
+
+    public DefaultLongGaugeBuilder withMeterExporter(MeterExporter meterExporter) {
+      this.meterExporter = meterExporter;
+      return this;
+    }
+
+    @Override
+    public LongGauge build() {
+      requireNonNull(valueSupplier, "A value supplier is required for a gauge");
+      LongGauge longGauge = ofNullable(instrumentRepository)
+          .map(repository -> (LongGauge) repository.create(name, name -> doBuild()))
+          .orElseGet(this::doBuild);
+
+      if (meterExporter != null) {
+        meterExporter.enableExport(longGauge);
+      }
+
+      return longGauge;
+    }
+
+    private LongGauge doBuild() {
+      return new DefaultLongGauge(name, description, unit, meter, valueSupplier);
+    }
+  }
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.metrics.impl.instrument;
+
+import static java.lang.Long.MAX_VALUE;
+import static java.util.Optional.ofNullable;
+
+import org.mule.runtime.metrics.api.instrument.LongHistogram;
+import org.mule.runtime.metrics.api.instrument.builder.LongHistogramBuilder;
+import org.mule.runtime.metrics.api.meter.Meter;
+import org.mule.runtime.metrics.exporter.api.MeterExporter;
+import org.mule.runtime.metrics.impl.instrument.histogram.ExponentialBucketHistogram;
+import org.mule.runtime.metrics.impl.instrument.repository.InstrumentRepository;
+
+/**
+ * An implementation of {@link LongHistogram} backed by an {@link ExponentialBucketHistogram}.
+ */
+public class DefaultLongHistogram implements LongHistogram {
+
+  public static DefaultLongHistogramBuilder builder(String name, Meter meter) {
+    return new DefaultLongHistogramBuilder(name, meter);
+  }
+
+  private final String name;
+  private final String description;
+  private final String unit;
+  private final Meter meter;
+  private final ExponentialBucketHistogram histogram;
+
+  private DefaultLongHistogram(String name, String description, String unit, long maxTrackableValue, Meter meter) {
+    this.name = name;
+    this.description = description;
+    this.unit = unit;
+    this.meter = meter;
+    this.histogram = new ExponentialBucketHistogram(maxTrackableValue);
+  }
+
+  @Override
+  public String getName() {
+    return name;
+  }
+
+  @Override
+  public String getDescription() {
+    return description;
+  }
+
+  @Override
+  public Meter getMeter() {
+    return meter;
+  }
+
+  @Override
+  public void record(long value) {
+    histogram.record(value);
+  }
+
+  @Override
+  public long getCount() {
+    return histogram.getCount();
+  }
+
+  @Override
+  public long getSum() {
+    return histogram.getSum();
+  }
+
+  @Override
+  public long getMin() {
+    return histogram.getMin();
+  }
+
+  @Override
+  public long getMax() {
+    return histogram.getMax();
+  }
+
+  @Override
+  public long getValueAtPercentile(double percentile) {
+    return histogram.getValueAtPercentile(percentile);
+  }
+
+  @Override
+  public String getUnit() {
+    return unit;
+  }
+
+  @Override
+  public void reset() {
+    histogram.reset();
+  }
+
+  public static class DefaultLongHistogramBuilder implements LongHistogramBuilder {
+
+    private final String name;
+    private final Meter meter;
+    private InstrumentRepository instrumentRepository;
+    private String description;
+    private String unit;
+    private long maxTrackableValue = MAX_VALUE;
+    private MeterExporter meterExporter;
+
+    public DefaultLongHistogramBuilder(String name, Meter meter) {
+      this.name = name;
+      this.meter = meter;
+    }
+
+    @Override
+    public DefaultLongHistogramBuilder withDescription(String description) {
+      this.description = description;
+      return this;
+    }
+
+    @Override
+    public DefaultLongHistogramBuilder withUnit(String unit) {
+      this.unit = unit;
+      return this;
+    }
+
+    @Override
+    public DefaultLongHistogramBuilder withMaxTrackableValue(long maxTrackableValue) {
+      this.maxTrackableValue = maxTrackableValue;
+      return this;
+    }
+
+    public DefaultLongHistogramBuilder withInstrumentRepository(InstrumentRepository instrumentRepository) {
+      this.instrumentRepository = instrumentRepository;
+      return this;
+    }
+
+    public DefaultLongHistogramBuilder withMeterExporter(MeterExporter meterExporter) {
+      this.meterExporter = meterExporter;
+      return this;
+    }
+
+    @Override
+    public LongHistogram build() {
+      LongHistogram longHistogram = ofNullable(instrumentRepository)
+          .map(repository -> (LongHistogram) repository.create(name, name -> doBuild()))
+          .orElseGet(this::doBuild);
+
+      if (meterExporter != null) {
+        meterExporter.enableExport(longHistogram);
+      }
+
+      return longHistogram;
+    }
+
+    private LongHistogram doBuild() {
+      return new DefaultLongHistogram(name, description, unit, maxTrackableValue, meter);
+    }
+  }
+}
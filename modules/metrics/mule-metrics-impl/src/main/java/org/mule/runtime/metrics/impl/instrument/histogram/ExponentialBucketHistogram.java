@@ -0,0 +1,171 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.metrics.impl.instrument.histogram;
+
+import static java.lang.Long.MAX_VALUE;
+import static java.lang.Long.MIN_VALUE;
+import static java.lang.Long.numberOfLeadingZeros;
+import static java.lang.Math.ceil;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock-free histogram of non-negative long values with exponentially growing buckets.
+ * <p>
+ * Values are grouped by their power of two, and each power of two is linearly split in {@code 2^SUB_BUCKET_BITS} sub-buckets, in
+ * the same fashion as HdrHistogram does. This gives a relative error of at most {@code 1 / 2^SUB_BUCKET_BITS} for any recorded
+ * value, using a fixed amount of memory which only depends on the max trackable value.
+ * <p>
+ * Recording a value never allocates nor locks: it is an atomic increment on the bucket counter plus the updates of the sum, min
+ * and max. Reads are not atomic with respect to concurrent recordings, so they may reflect some in-flight recordings and not
+ * others.
+ *
+ * @since 4.8.0
+ */
+public final class ExponentialBucketHistogram {
+
+  static final int SUB_BUCKET_BITS = 5;
+  private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+  private static final int SUB_BUCKET_MASK = SUB_BUCKET_COUNT - 1;
+
+  private final long maxTrackableValue;
+  private final AtomicLongArray counts;
+  private final LongAdder sum = new LongAdder();
+  private final AtomicLong min = new AtomicLong(MAX_VALUE);
+  private final AtomicLong max = new AtomicLong(MIN_VALUE);
+
+  /**
+   * Creates a new instance
+   *
+   * @param maxTrackableValue the highest value which can be told apart. Higher values are accounted as this one.
+   */
+  public ExponentialBucketHistogram(long maxTrackableValue) {
+    if (maxTrackableValue <= 0) {
+      throw new IllegalArgumentException("The max trackable value must be positive");
+    }
+
+    this.maxTrackableValue = maxTrackableValue;
+    counts = new AtomicLongArray(bucketIndex(maxTrackableValue) + 1);
+  }
+
+  /**
+   * Records a value.
+   *
+   * @param value the value to record
+   * @throws IllegalArgumentException if the value is negative
+   */
+  public void record(long value) {
+    if (value < 0) {
+      throw new IllegalArgumentException("The value to record must not be negative");
+    }
+
+    counts.incrementAndGet(bucketIndex(min(value, maxTrackableValue)));
+    sum.add(value);
+
+    long current;
+    while (value < (current = min.get()) && !min.compareAndSet(current, value)) {
+      // retry
+    }
+    while (value > (current = max.get()) && !max.compareAndSet(current, value)) {
+      // retry
+    }
+  }
+
+  /**
+   * @return the amount of recorded values
+   */
+  public long getCount() {
+    long count = 0;
+    for (int i = 0; i < counts.length(); i++) {
+      count += counts.get(i);
+    }
+
+    return count;
+  }
+
+  /**
+   * @return the sum of the recorded values
+   */
+  public long getSum() {
+    return sum.sum();
+  }
+
+  /**
+   * @return the lowest recorded value, or {@code 0} if none was recorded
+   */
+  public long getMin() {
+    long value = min.get();
+    return value == MAX_VALUE ? 0 : value;
+  }
+
+  /**
+   * @return the highest recorded value, or {@code 0} if none was recorded
+   */
+  public long getMax() {
+    long value = max.get();
+    return value == MIN_VALUE ? 0 : value;
+  }
+
+  /**
+   * @param percentile a percentile in the (0, 100] range
+   * @return the highest value equivalent to the one at the given percentile, or {@code 0} if no value was recorded
+   */
+  public long getValueAtPercentile(double percentile) {
+    final long count = getCount();
+    if (count == 0) {
+      return 0;
+    }
+
+    final long target = max(1, (long) ceil(min(percentile, 100.0) / 100.0 * count));
+    final long highest = getMax();
+
+    long accumulated = 0;
+    for (int i = 0; i < counts.length(); i++) {
+      accumulated += counts.get(i);
+      if (accumulated >= target) {
+        return min(highestEquivalentValue(i), highest);
+      }
+    }
+
+    return highest;
+  }
+
+  /**
+   * Discards all the recorded values
+   */
+  public void reset() {
+    for (int i = 0; i < counts.length(); i++) {
+      counts.set(i, 0);
+    }
+    sum.reset();
+    min.set(MAX_VALUE);
+    max.set(MIN_VALUE);
+  }
+
+  static int bucketIndex(long value) {
+    if (value < SUB_BUCKET_COUNT) {
+      return (int) value;
+    }
+
+    final int shift = 63 - numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+    return (shift + 1) * SUB_BUCKET_COUNT + (int) ((value >>> shift) & SUB_BUCKET_MASK);
+  }
+
+  static long highestEquivalentValue(int index) {
+    if (index < SUB_BUCKET_COUNT) {
+      return index;
+    }
+
+    final int shift = index / SUB_BUCKET_COUNT - 1;
+    final long lowest = ((long) (SUB_BUCKET_COUNT + (index & SUB_BUCKET_MASK))) << shift;
+    return lowest + (1L << shift) - 1;
+  }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.metrics.impl.instrument;
+
+import static org.mule.runtime.metrics.impl.instrument.DefaultLongGauge.builder;
+import static org.mule.test.allure.AllureConstants.Profiling.PROFILING;
+import static org.mule.test.allure.AllureConstants.Profiling.ProfilingServiceStory.METRICS_IMPLEMENTATION;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.junit.rules.ExpectedException.none;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.mule.runtime.metrics.api.instrument.LongGauge;
+import org.mule.runtime.metrics.api.meter.Meter;
+import org.mule.runtime.metrics.exporter.api.MeterExporter;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+@Feature(PROFILING)
+@Story(METRICS_IMPLEMENTATION)
+public class DefaultLongGaugeTestCase {
+
+  @Rule
+  public ExpectedException expectedException = none();
+
+  @Test
+  public void valueIsObtainedFromCallback() {
+    String instrumentName = "long-gauge-test";
+    String instrumentDescription = "Long Gauge test";
+    String unit = "test-unit";
+    String meterName = "test-meter";
+    Meter meter = mock(Meter.class);
+    when(meter.getName()).thenReturn(meterName);
+    MeterExporter meterExporter = mock(MeterExporter.class);
+    AtomicLong value = new AtomicLong(0);
+
+    LongGauge gauge = builder(instrumentName, meter)
+        .withDescription(instrumentDescription)
+        .withUnit(unit)
+        .withValueSupplier(value::get)
+        .withMeterExporter(meterExporter)
+        .build();
+
+    assertThat(gauge.getName(), equalTo(instrumentName));
+    assertThat(gauge.getDescription(), equalTo(instrumentDescription));
+    assertThat(gauge.getUnit(), equalTo(unit));
+    assertThat(gauge.getMeter().getName(), equalTo(meterName));
+    verify(meterExporter).enableExport(gauge);
+
+    assertThat(gauge.getValueAsLong(), equalTo(0L));
+    value.set(42);
+    assertThat(gauge.getValueAsLong(), equalTo(42L));
+  }
+
+  @Test
+  public void buildWithoutValueSupplier() {
+    expectedException.expect(NullPointerException.class);
+    builder("long-gauge-test", mock(Meter.class)).build();
+  }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.metrics.impl.instrument;
+
+import static org.mule.runtime.metrics.impl.instrument.DefaultLongHistogram.builder;
+import static org.mule.test.allure.AllureConstants.Profiling.PROFILING;
+import static org.mule.test.allure.AllureConstants.Profiling.ProfilingServiceStory.METRICS_IMPLEMENTATION;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.junit.rules.ExpectedException.none;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.mule.runtime.metrics.api.instrument.LongHistogram;
+import org.mule.runtime.metrics.api.meter.Meter;
+import org.mule.runtime.metrics.exporter.api.MeterExporter;
+import org.mule.runtime.metrics.impl.instrument.repository.InstrumentRepository;
+
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+@Feature(PROFILING)
+@Story(METRICS_IMPLEMENTATION)
+public class DefaultLongHistogramTestCase {
+
+  private static final String INSTRUMENT_NAME = "long-histogram-test";
+  private static final String INSTRUMENT_DESCRIPTION = "Long Histogram test";
+  private static final String UNIT = "test-unit";
+  private static final String METER_NAME = "test-meter";
+
+  @Rule
+  public ExpectedException expectedException = none();
+
+  @Test
+  public void testBuildWithoutInstrumentRepository() {
+    Meter meter = mock(Meter.class);
+    when(meter.getName()).thenReturn(METER_NAME);
+    LongHistogram histogram = builder(INSTRUMENT_NAME, meter).withDescription(INSTRUMENT_DESCRIPTION).withUnit(UNIT).build();
+    assertThat(histogram.getName(), equalTo(INSTRUMENT_NAME));
+    assertThat(histogram.getDescription(), equalTo(INSTRUMENT_DESCRIPTION));
+    assertThat(histogram.getUnit(), equalTo(UNIT));
+    assertThat(histogram.getMeter().getName(), equalTo(METER_NAME));
+
+    verifyHistogramValues(histogram);
+  }
+
+  @Test
+  public void testBuildWithInstrumentRepository() {
+    Meter meter = mock(Meter.class);
+    InstrumentRepository repository = new InstrumentRepository();
+    LongHistogram histogram = builder(INSTRUMENT_NAME, meter).withInstrumentRepository(repository).build();
+    LongHistogram sameHistogram = builder(INSTRUMENT_NAME, meter).withInstrumentRepository(repository).build();
+
+    assertThat(sameHistogram, sameInstance(histogram));
+    verifyHistogramValues(histogram);
+  }
+
+  @Test
+  public void exportIsEnabled() {
+    Meter meter = mock(Meter.class);
+    MeterExporter meterExporter = mock(MeterExporter.class);
+    LongHistogram histogram = builder(INSTRUMENT_NAME, meter).withMeterExporter(meterExporter).build();
+
+    verify(meterExporter).enableExport(histogram);
+  }
+
+  @Test
+  public void emptyHistogram() {
+    LongHistogram histogram = builder(INSTRUMENT_NAME, mock(Meter.class)).build();
+    assertThat(histogram.getCount(), equalTo(0L));
+    assertThat(histogram.getMin(), equalTo(0L));
+    assertThat(histogram.getMax(), equalTo(0L));
+    assertThat(histogram.getValueAtPercentile(99), equalTo(0L));
+  }
+
+  @Test
+  public void valuesOverMaxTrackableValueAreClamped() {
+    LongHistogram histogram = builder(INSTRUMENT_NAME, mock(Meter.class)).withMaxTrackableValue(1000).build();
+    histogram.record(5000);
+
+    assertThat(histogram.getCount(), equalTo(1L));
+    assertThat(histogram.getSum(), equalTo(5000L));
+    assertThat(histogram.getMax(), equalTo(5000L));
+  }
+
+  @Test
+  public void reset() {
+    LongHistogram histogram = builder(INSTRUMENT_NAME, mock(Meter.class)).build();
+    histogram.record(10);
+    histogram.reset();
+
+    assertThat(histogram.getCount(), equalTo(0L));
+    assertThat(histogram.getSum(), equalTo(0L));
+  }
+
+  @Test
+  public void recordNegativeValue() {
+    expectedException.expect(IllegalArgumentException.class);
+    LongHistogram histogram = builder(INSTRUMENT_NAME, mock(Meter.class)).build();
+    histogram.record(-1);
+  }
+
+  private static void verifyHistogramValues(LongHistogram histogram) {
+    for (int i = 1; i <= 100; i++) {
+      histogram.record(i);
+    }
+
+    assertThat(histogram.getCount(), equalTo(100L));
+    assertThat(histogram.getSum(), equalTo(5050L));
+    assertThat(histogram.getMin(), equalTo(1L));
+    assertThat(histogram.getMax(), equalTo(100L));
+    assertThat(histogram.getValueAtPercentile(100), equalTo(100L));
+  }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.metrics.impl.instrument.histogram;
+
+import static org.mule.runtime.metrics.impl.instrument.histogram.ExponentialBucketHistogram.SUB_BUCKET_BITS;
+import static org.mule.runtime.metrics.impl.instrument.histogram.ExponentialBucketHistogram.bucketIndex;
+import static org.mule.runtime.metrics.impl.instrument.histogram.ExponentialBucketHistogram.highestEquivalentValue;
+import static org.mule.test.allure.AllureConstants.Profiling.PROFILING;
+import static org.mule.test.allure.AllureConstants.Profiling.ProfilingServiceStory.METRICS_IMPLEMENTATION;
+
+import static java.lang.Long.MAX_VALUE;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.Assert.assertThat;
+
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+import org.junit.Test;
+
+@Feature(PROFILING)
+@Story(METRICS_IMPLEMENTATION)
+public class ExponentialBucketHistogramTestCase {
+
+  @Test
+  public void bucketsAreContiguous() {
+    for (int index = 0; index < bucketIndex(MAX_VALUE); index++) {
+      assertThat(bucketIndex(highestEquivalentValue(index)), equalTo(index));
+      assertThat(bucketIndex(highestEquivalentValue(index) + 1), equalTo(index + 1));
+    }
+    assertThat(highestEquivalentValue(bucketIndex(MAX_VALUE)), equalTo(MAX_VALUE));
+  }
+
+  @Test
+  public void percentilesWithinPrecision() {
+    ExponentialBucketHistogram histogram = new ExponentialBucketHistogram(MAX_VALUE);
+    for (long i = 1; i <= 1_000_000; i++) {
+      histogram.record(i);
+    }
+
+    assertWithinPrecision(histogram.getValueAtPercentile(50), 500_000);
+    assertWithinPrecision(histogram.getValueAtPercentile(99), 990_000);
+    assertWithinPrecision(histogram.getValueAtPercentile(99.9), 999_000);
+    assertThat(histogram.getValueAtPercentile(100), equalTo(1_000_000L));
+  }
+
+  private static void assertWithinPrecision(long actual, long expected) {
+    long tolerance = expected >> SUB_BUCKET_BITS;
+    assertThat(actual, greaterThanOrEqualTo(expected));
+    assertThat(actual, lessThanOrEqualTo(expected + tolerance));
+  }
+}
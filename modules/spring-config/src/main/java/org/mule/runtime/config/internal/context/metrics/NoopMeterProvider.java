@@ -8,8 +8,12 @@ package org.mule.runtime.config.internal.context.metrics;
 
 import org.mule.runtime.metrics.api.MeterProvider;
 import org.mule.runtime.metrics.api.instrument.LongCounter;
+import org.mule.runtime.metrics.api.instrument.LongGauge;
+import org.mule.runtime.metrics.api.instrument.LongHistogram;
 import org.mule.runtime.metrics.api.instrument.LongUpDownCounter;
 import org.mule.runtime.metrics.api.instrument.builder.LongCounterBuilder;
+import org.mule.runtime.metrics.api.instrument.builder.LongGaugeBuilder;
+import org.mule.runtime.metrics.api.instrument.builder.LongHistogramBuilder;
 import org.mule.runtime.metrics.api.instrument.builder.LongUpDownCounterBuilder;
 import org.mule.runtime.metrics.api.meter.Meter;
 import org.mule.runtime.metrics.api.meter.builder.MeterBuilder;
@@ -35,6 +39,8 @@ public class NoopMeterProvider implements MeterProvider {
 
     private final LongUpDownCounterBuilder LONG_UP_DOWN_COUNTER_BUILDER_INSTANCE = new NoopLongUpDownCounterBuilder();
     private final LongCounterBuilder LONG_COUNTER_BUILDER_INSTANCE = new NoopLongCounterBuilder();
+    private final LongHistogramBuilder LONG_HISTOGRAM_BUILDER_INSTANCE = new NoopLongHistogramBuilder();
+    private final LongGaugeBuilder LONG_GAUGE_BUILDER_INSTANCE = new NoopLongGaugeBuilder();
 
     @Override
     public Meter build() {
@@ -77,6 +83,147 @@ public class NoopMeterProvider implements MeterProvider {
       public LongCounterBuilder counterBuilder(String name) {
         return LONG_COUNTER_BUILDER_INSTANCE;
       }
+
+      @Override
+      public LongHistogramBuilder histogramBuilder(String name) {
+        return LONG_HISTOGRAM_BUILDER_INSTANCE;
+      }
+
+      @Override
+      public LongGaugeBuilder gaugeBuilder(String name) {
+        return LONG_GAUGE_BUILDER_INSTANCE;
+      }
+    }
+
+    private class NoopLongHistogramBuilder implements LongHistogramBuilder {
+
+      private final LongHistogram NOOP_LONG_HISTOGRAM = new NoopLongHistogram();
+
+      @Override
+      public LongHistogramBuilder withDescription(String description) {
+        return this;
+      }
+
+      @Override
+      public LongHistogramBuilder withUnit(String unit) {
+        return this;
+      }
+
+      @Override
+      public LongHistogramBuilder withMaxTrackableValue(long maxTrackableValue) {
+        return this;
+      }
+
+      @Override
+      public LongHistogram build() {
+        return NOOP_LONG_HISTOGRAM;
+      }
+
+      private class NoopLongHistogram implements LongHistogram {
+
+        @Override
+        public String getName() {
+          return NOOP;
+        }
+
+        @Override
+        public String getDescription() {
+          return NOOP;
+        }
+
+        @Override
+        public Meter getMeter() {
+          return new NoopMeter();
+        }
+
+        @Override
+        public void record(long value) {
+
+        }
+
+        @Override
+        public long getCount() {
+          return 0;
+        }
+
+        @Override
+        public long getSum() {
+          return 0;
+        }
+
+        @Override
+        public long getMin() {
+          return 0;
+        }
+
+        @Override
+        public long getMax() {
+          return 0;
+        }
+
+        @Override
+        public long getValueAtPercentile(double percentile) {
+          return 0;
+        }
+
+        @Override
+        public String getUnit() {
+          return NOOP;
+        }
+      }
+    }
+
+    private class NoopLongGaugeBuilder implements LongGaugeBuilder {
+
+      private final LongGauge NOOP_LONG_GAUGE = new NoopLongGauge();
+
+      @Override
+      public LongGaugeBuilder withDescription(String description) {
+        return this;
+      }
+
+      @Override
+      public LongGaugeBuilder withUnit(String unit) {
+        return this;
+      }
+
+      @Override
+      public LongGaugeBuilder withValueSupplier(Supplier<Long> valueSupplier) {
+        return this;
+      }
+
+      @Override
+      public LongGauge build() {
+        return NOOP_LONG_GAUGE;
+      }
+
+      private class NoopLongGauge implements LongGauge {
+
+        @Override
+        public String getName() {
+          return NOOP;
+        }
+
+        @Override
+        public String getDescription() {
+          return NOOP;
+        }
+
+        @Override
+        public Meter getMeter() {
+          return new NoopMeter();
+        }
+
+        @Override
+        public long getValueAsLong() {
+          return 0;
+        }
+
+        @Override
+        public String getUnit() {
+          return NOOP;
+        }
+      }
     }
 
     private class NoopLongUpDownCounterBuilder implements LongUpDownCounterBuilder {
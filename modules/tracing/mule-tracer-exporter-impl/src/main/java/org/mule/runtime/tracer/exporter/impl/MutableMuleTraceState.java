@@ -6,6 +6,10 @@
  */
 package org.mule.runtime.tracer.exporter.impl;
 
+import static java.util.Collections.emptyMap;
+
+import static io.opentelemetry.api.trace.propagation.internal.W3CTraceContextEncoding.encodeTraceState;
+
 import org.mule.runtime.core.api.util.StringUtils;
 
 import java.util.HashMap;
@@ -32,6 +36,9 @@ public class MutableMuleTraceState implements TraceState {
 
   private Map<String, String> remoteState;
 
+  // the encoding of the remote state, which is the same for all the spans that propagate it
+  private String encodedRemoteState;
+
   /**
    * Returns a {@link MutableMuleTraceState} from the representation as a serialized map.
    *
@@ -41,11 +48,12 @@ public class MutableMuleTraceState implements TraceState {
    */
   public static MutableMuleTraceState getMutableMuleTraceStateFrom(Map<String, String> serializeAsMap,
                                                                    boolean enableMuleAncestorIdManagement) {
-    TraceState remoteTraceState = TraceState.getDefault();
     String traceState = serializeAsMap.get(TRACE_STATE_KEY);
-    if (!StringUtils.isEmpty(traceState)) {
-      remoteTraceState = W3CTraceContextEncoding.decodeTraceState(traceState);
+    if (StringUtils.isEmpty(traceState)) {
+      // most spans have no remote state, so there is nothing to decode or copy
+      return new MutableMuleTraceState(emptyMap(), null, !enableMuleAncestorIdManagement, enableMuleAncestorIdManagement);
     }
+    TraceState remoteTraceState = W3CTraceContextEncoding.decodeTraceState(traceState);
 
     // If enableMuleAncestorIdManagement is false, we will set in the trace state all the key/value's from the remote trace
     // context,
@@ -123,7 +131,33 @@ public class MutableMuleTraceState implements TraceState {
   }
 
   public void put(String key, String value) {
+    if (remoteState == emptyMap()) {
+      remoteState = new HashMap<>();
+    }
     remoteState.put(key, value);
+    encodedRemoteState = null;
+  }
+
+  /**
+   * Encodes this trace state as the value of the {@link #TRACE_STATE_KEY} header.
+   *
+   * @param ancestorSpanId span id that will be added as an ancestor, or {@code null} to encode it without an ancestor.
+   * @return the encoded trace state, equivalent to encoding {@link #withAncestor(String)}.
+   */
+  public String encode(String ancestorSpanId) {
+    String encoded = encodedRemoteState;
+    if (encoded == null) {
+      encoded = remoteState.isEmpty() ? ""
+          : encodeTraceState(new MutableMuleTraceState(remoteState, null, propagateAllRemoteTraceContext,
+                                                       addAncestorMuleSpanIdToTraceState));
+      encodedRemoteState = encoded;
+    }
+
+    if (ancestorSpanId == null || !addAncestorMuleSpanIdToTraceState) {
+      return encoded;
+    }
+    return encoded.isEmpty() ? ANCESTOR_MULE_SPAN_ID + "=" + ancestorSpanId
+        : encoded + "," + ANCESTOR_MULE_SPAN_ID + "=" + ancestorSpanId;
   }
 
   /**
@@ -140,5 +174,7 @@ public class MutableMuleTraceState implements TraceState {
    */
   public void propagateRemoteContext(MutableMuleTraceState targetMuleTraceState) {
     targetMuleTraceState.remoteState = remoteState;
+    targetMuleTraceState.encodedRemoteState =
+        targetMuleTraceState.propagateAllRemoteTraceContext == propagateAllRemoteTraceContext ? encodedRemoteState : null;
   }
 }
@@ -20,6 +20,7 @@ import static org.mule.runtime.tracer.exporter.impl.OpenTelemetrySpanExporterUti
 import static org.mule.runtime.tracer.exporter.impl.OpenTelemetrySpanExporterUtils.SPAN_KIND;
 import static org.mule.runtime.tracer.exporter.impl.OpenTelemetrySpanExporterUtils.STATUS;
 import static org.mule.runtime.tracer.exporter.impl.OpenTelemetrySpanExporterUtils.THREAD_END_NAME_KEY;
+import static org.mule.runtime.tracer.exporter.impl.OpenTelemetrySpanExporterUtils.getAttributeKey;
 import static org.mule.runtime.tracer.exporter.impl.OpenTelemetrySpanExporterUtils.getNameWithoutNamespace;
 import static org.mule.runtime.tracer.exporter.impl.OpenTelemetryTraceIdUtils.extractContextFromTraceParent;
 import static org.mule.runtime.tracer.impl.span.InternalSpan.getAsInternalSpan;
@@ -29,7 +30,6 @@ import static java.util.Collections.emptyMap;
 import static java.util.Collections.singletonList;
 import static java.util.Objects.requireNonNull;
 
-import static io.opentelemetry.api.common.AttributeKey.stringKey;
 import static io.opentelemetry.api.common.Attributes.of;
 import static io.opentelemetry.api.trace.SpanContext.getInvalid;
 import static io.opentelemetry.api.trace.SpanKind.INTERNAL;
@@ -97,7 +97,8 @@ public class OpenTelemetrySpanExporter implements SpanExporter, SpanData, Readab
   private final InternalSpan internalSpan;
   private final String artifactId;
   private final String artifactType;
-  private final Map<String, String> rootAttributes = new HashMap<>();
+  // only needed by spans that are not roots and get root attributes, so it is created when the first one is set
+  private Map<String, String> rootAttributes;
   private final SpanProcessor spanProcessor;
   private final Resource resource;
   private final boolean enableMuleAncestorIdManagement;
@@ -158,8 +159,7 @@ public class OpenTelemetrySpanExporter implements SpanExporter, SpanData, Readab
     biConsumer.accept(ARTIFACT_ID, artifactId);
     biConsumer.accept(ARTIFACT_TYPE, artifactType);
     biConsumer.accept(THREAD_END_NAME_KEY, endThreadNameValue);
-    internalSpan.forEachAttribute((key, value) -> biConsumer.accept(stringKey(key), value));
-
+    internalSpan.forEachAttribute((key, value) -> biConsumer.accept(getAttributeKey(key), value));
   }
 
   @Override
@@ -174,7 +174,8 @@ public class OpenTelemetrySpanExporter implements SpanExporter, SpanData, Readab
 
   @Override
   public Map<AttributeKey<?>, Object> asMap() {
-    Map<AttributeKey<?>, Object> attributes = new HashMap<>();
+    // sized so that it is not resized while populated
+    Map<AttributeKey<?>, Object> attributes = new HashMap<>(size() * 4 / 3 + 1);
     forEach(attributes::put);
     return attributes;
   }
@@ -220,7 +221,10 @@ public class OpenTelemetrySpanExporter implements SpanExporter, SpanData, Readab
     if (isRootSpan) {
       internalSpan.addAttribute(rootAttributeKey, rootAttributeValue);
     } else {
-      this.rootAttributes.put(rootAttributeKey, rootAttributeValue);
+      if (rootAttributes == null) {
+        rootAttributes = new HashMap<>(4);
+      }
+      rootAttributes.put(rootAttributeKey, rootAttributeValue);
     }
   }
 
@@ -293,7 +297,9 @@ public class OpenTelemetrySpanExporter implements SpanExporter, SpanData, Readab
       // Propagates the root name until it finds a root.
       if (rootName != null) {
         childOpenTelemetrySpanExporter.setRootName(rootName);
-        rootAttributes.forEach(childOpenTelemetrySpanExporter::setRootAttribute);
+        if (rootAttributes != null) {
+          rootAttributes.forEach(childOpenTelemetrySpanExporter::setRootAttribute);
+        }
       }
 
       // In case "no export until" is set, and it is not a child span that resets that condition (because
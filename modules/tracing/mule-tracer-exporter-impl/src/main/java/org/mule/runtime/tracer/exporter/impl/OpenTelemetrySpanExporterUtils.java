@@ -24,6 +24,9 @@ import static io.opentelemetry.sdk.trace.samplers.Sampler.parentBased;
 import static io.opentelemetry.sdk.trace.samplers.Sampler.traceIdRatioBased;
 import static org.slf4j.LoggerFactory.getLogger;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 import io.opentelemetry.api.common.AttributeKey;
 import io.opentelemetry.sdk.trace.samplers.Sampler;
 
@@ -38,6 +41,10 @@ public class OpenTelemetrySpanExporterUtils {
 
   private static final Logger LOGGER = getLogger(OpenTelemetrySpanExporterUtils.class);
 
+  // Span attribute names come mostly from a small set, but they may also be user defined, so the cache is bounded.
+  private static final int MAX_CACHED_ATTRIBUTE_KEYS = 1024;
+  private static final Map<String, AttributeKey<String>> ATTRIBUTE_KEYS = new ConcurrentHashMap<>();
+
   private OpenTelemetrySpanExporterUtils() {}
 
   public static final String EXCEPTION_EVENT_NAME = "exception";
@@ -54,6 +61,21 @@ public class OpenTelemetrySpanExporterUtils {
   public static final String SPAN_KIND = "span.kind.override";
   public static final String STATUS = "status.override";
 
+  /**
+   * @param key the name of a span attribute
+   * @return the {@link AttributeKey} for the attribute, reused across spans
+   */
+  public static AttributeKey<String> getAttributeKey(String key) {
+    AttributeKey<String> attributeKey = ATTRIBUTE_KEYS.get(key);
+    if (attributeKey == null) {
+      attributeKey = stringKey(key);
+      if (ATTRIBUTE_KEYS.size() < MAX_CACHED_ATTRIBUTE_KEYS) {
+        ATTRIBUTE_KEYS.putIfAbsent(key, attributeKey);
+      }
+    }
+    return attributeKey;
+  }
+
   public static String getNameWithoutNamespace(String name) {
     int index = name.lastIndexOf(":");
     if (index != -1) {
@@ -10,8 +10,6 @@ import static org.mule.runtime.tracer.exporter.impl.MutableMuleTraceState.TRACE_
 
 import static java.util.Collections.emptyMap;
 
-import static io.opentelemetry.api.trace.propagation.internal.W3CTraceContextEncoding.encodeTraceState;
-
 import org.mule.runtime.tracer.impl.span.InternalSpan;
 
 import java.util.HashMap;
@@ -166,11 +164,11 @@ public class OpenTelemetryTraceIdUtils {
    */
   public static Map<String, String> getDistributedTraceContext(OpenTelemetrySpanExporter openTelemetrySpanExporter,
                                                                boolean isAddMuleAncestorSpanId) {
-    Map<String, String> context = new HashMap<>();
     if (openTelemetrySpanExporter.getSpanId().equals(INVALID)) {
       return emptyMap();
     }
 
+    Map<String, String> context = new HashMap<>(4);
     char[] chars = chars(TRACEPARENT_HEADER_SIZE);
     chars[0] = VERSION.charAt(0);
     chars[1] = VERSION.charAt(1);
@@ -188,14 +186,9 @@ public class OpenTelemetryTraceIdUtils {
     chars[TRACE_OPTION_OFFSET] = '0';
     chars[TRACE_OPTION_OFFSET + 1] = '1';
     context.put(TRACE_PARENT, new String(chars, 0, TRACEPARENT_HEADER_SIZE));
-    if (isAddMuleAncestorSpanId) {
-      context.put(TRACE_STATE_KEY,
-                  encodeTraceState(openTelemetrySpanExporter.getTraceState()
-                      .withAncestor(openTelemetrySpanExporter.getSpanId())));
-    } else {
-      context.put(TRACE_STATE_KEY,
-                  encodeTraceState(openTelemetrySpanExporter.getTraceState()));
-    }
+    context.put(TRACE_STATE_KEY, openTelemetrySpanExporter.getTraceState().encode(isAddMuleAncestorSpanId
+        ? openTelemetrySpanExporter.getSpanId()
+        : null));
 
     return context;
   }
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.tracer.exporter.impl;
+
+import static org.mule.runtime.tracer.exporter.impl.MutableMuleTraceState.TRACE_STATE_KEY;
+import static org.mule.runtime.tracer.exporter.impl.MutableMuleTraceState.getMutableMuleTraceStateFrom;
+import static org.mule.test.allure.AllureConstants.Profiling.PROFILING;
+import static org.mule.test.allure.AllureConstants.Profiling.ProfilingServiceStory.OPEN_TELEMETRY_EXPORTER;
+
+import static java.util.Collections.emptyMap;
+import static java.util.Collections.singletonMap;
+
+import static io.opentelemetry.api.trace.propagation.internal.W3CTraceContextEncoding.encodeTraceState;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+import org.junit.Test;
+
+@Feature(PROFILING)
+@Story(OPEN_TELEMETRY_EXPORTER)
+public class MutableMuleTraceStateTestCase {
+
+  private static final String REMOTE_TRACE_STATE = "vendor1=value1,ancestor-mule-span-id=53f9aa133bb4d2f4,vendor2=value2";
+  private static final String SPAN_ID = "0123456789abcdef";
+
+  @Test
+  public void emptyWithoutAncestorManagement() {
+    MutableMuleTraceState traceState = getMutableMuleTraceStateFrom(emptyMap(), false);
+    assertEncodedLikeOpenTelemetry(traceState, false);
+    assertThat(traceState.encode(null), equalTo(""));
+  }
+
+  @Test
+  public void emptyWithAncestorManagement() {
+    MutableMuleTraceState traceState = getMutableMuleTraceStateFrom(emptyMap(), true);
+    assertEncodedLikeOpenTelemetry(traceState, true);
+    assertThat(traceState.encode(SPAN_ID), equalTo("ancestor-mule-span-id=" + SPAN_ID));
+  }
+
+  @Test
+  public void remoteWithoutAncestorManagement() {
+    MutableMuleTraceState traceState = getMutableMuleTraceStateFrom(singletonMap(TRACE_STATE_KEY, REMOTE_TRACE_STATE), false);
+    assertEncodedLikeOpenTelemetry(traceState, false);
+  }
+
+  @Test
+  public void remoteWithAncestorManagement() {
+    MutableMuleTraceState traceState = getMutableMuleTraceStateFrom(singletonMap(TRACE_STATE_KEY, REMOTE_TRACE_STATE), true);
+    assertEncodedLikeOpenTelemetry(traceState, true);
+  }
+
+  @Test
+  public void encodingUpdatedOnPut() {
+    MutableMuleTraceState traceState = getMutableMuleTraceStateFrom(emptyMap(), true);
+    traceState.encode(SPAN_ID);
+    traceState.put("vendor3", "value3");
+    assertEncodedLikeOpenTelemetry(traceState, true);
+  }
+
+  @Test
+  public void encodingPropagatedWithRemoteContext() {
+    MutableMuleTraceState traceState = getMutableMuleTraceStateFrom(singletonMap(TRACE_STATE_KEY, REMOTE_TRACE_STATE), true);
+    traceState.encode(SPAN_ID);
+    MutableMuleTraceState childTraceState = getMutableMuleTraceStateFrom(emptyMap(), true);
+    traceState.propagateRemoteContext(childTraceState);
+    assertEncodedLikeOpenTelemetry(childTraceState, true);
+  }
+
+  private static void assertEncodedLikeOpenTelemetry(MutableMuleTraceState traceState, boolean addAncestor) {
+    if (addAncestor) {
+      assertThat(traceState.encode(SPAN_ID), equalTo(encodeTraceState(traceState.withAncestor(SPAN_ID))));
+    } else {
+      assertThat(traceState.encode(null), equalTo(encodeTraceState(traceState)));
+    }
+  }
+}
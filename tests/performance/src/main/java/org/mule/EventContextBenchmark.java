@@ -162,4 +162,68 @@ public class EventContextBenchmark extends AbstractBenchmark {
     return new Object[] {result, complete};
   }
 
+  @Benchmark
+  public BaseEventContext createEventContextAndCompleteNoCallbacks() {
+    BaseEventContext eventContext = (BaseEventContext) create(flow, CONNECTOR_LOCATION);
+    eventContext.success(event);
+    return eventContext;
+  }
+
+  @Benchmark
+  public BaseEventContext createEventContextWithChildAndCompleteNoCallbacks() {
+    BaseEventContext eventContext = (BaseEventContext) create(flow, CONNECTOR_LOCATION);
+    BaseEventContext child = child(eventContext, empty());
+    child.success(event);
+    eventContext.success(event);
+    return eventContext;
+  }
+
+  @Benchmark
+  public Object[] createEventContextWith4NestedChildrenAndComplete() {
+    return nestedChildEventContextCycle(4);
+  }
+
+  @Benchmark
+  public Object[] createEventContextWith4ChildrenWithCallbacksAndComplete() {
+    AtomicReference<CoreEvent> result = new AtomicReference<>();
+    AtomicBoolean complete = new AtomicBoolean();
+    BaseEventContext eventContext = (BaseEventContext) create(flow, CONNECTOR_LOCATION);
+
+    for (int i = 0; i < 4; ++i) {
+      BaseEventContext child = child(eventContext, empty());
+      child.onResponse((response, throwable) -> result.set(response));
+      child.onComplete((response, throwable) -> complete.set(false));
+      child.success(event);
+    }
+
+    eventContext.onTerminated((response, throwable) -> complete.set(true));
+    eventContext.success(event);
+    return new Object[] {result, complete};
+  }
+
+  /**
+   * Mimics a chain of flow-refs: each context is the child of the previous one, and they are completed from the innermost to the
+   * outermost.
+   */
+  private Object[] nestedChildEventContextCycle(int depth) {
+    AtomicReference<CoreEvent> result = new AtomicReference<>();
+    AtomicBoolean complete = new AtomicBoolean();
+    BaseEventContext eventContext = (BaseEventContext) create(flow, CONNECTOR_LOCATION);
+
+    BaseEventContext[] contexts = new BaseEventContext[depth];
+    BaseEventContext parent = eventContext;
+    for (int i = 0; i < depth; ++i) {
+      parent = contexts[i] = child(parent, empty());
+    }
+
+    from(from(eventContext.getResponsePublisher())).doOnSuccess(response -> result.set(response)).subscribe();
+    eventContext.onTerminated((response, throwable) -> complete.set(true));
+
+    for (int i = depth - 1; i >= 0; --i) {
+      contexts[i].success(event);
+    }
+    eventContext.success(event);
+    return new Object[] {result, complete};
+  }
+
 }
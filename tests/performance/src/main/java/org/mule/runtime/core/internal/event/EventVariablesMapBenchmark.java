@@ -0,0 +1,89 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.event;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import org.mule.AbstractBenchmark;
+import org.mule.runtime.core.api.util.CaseInsensitiveHashMap;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+
+/**
+ * Compares {@link EventVariablesMap} with {@link CaseInsensitiveHashMap} for the way event variables are used: copying the
+ * variables of an event to add one, and looking them up.
+ */
+@OutputTimeUnit(NANOSECONDS)
+public class EventVariablesMapBenchmark extends AbstractBenchmark {
+
+  @Param({"3", "30"})
+  public int size;
+
+  private CaseInsensitiveHashMap<String, String> caseInsensitiveHashMap;
+  private CaseInsensitiveHashMap<String, String> eventVariablesMap;
+
+  @Setup
+  public void setup() {
+    CaseInsensitiveHashMap<String, String> hashMap = new CaseInsensitiveHashMap<>();
+    EventVariablesMap<String> variablesMap = new EventVariablesMap<>();
+    for (int i = 0; i < size; i++) {
+      hashMap.put("variable" + i, VALUE);
+      variablesMap.put("variable" + i, VALUE);
+    }
+    caseInsensitiveHashMap = hashMap.toImmutableCaseInsensitiveMap();
+    eventVariablesMap = variablesMap.toImmutableCaseInsensitiveMap();
+  }
+
+  @Benchmark
+  public Object caseInsensitiveHashMapCopyAndAdd() {
+    CaseInsensitiveHashMap<String, String> copy = caseInsensitiveHashMap.copy();
+    copy.put(KEY, VALUE);
+    return copy.toImmutableCaseInsensitiveMap();
+  }
+
+  @Benchmark
+  public Object eventVariablesMapCopyAndAdd() {
+    CaseInsensitiveHashMap<String, String> copy = eventVariablesMap.copy();
+    copy.put(KEY, VALUE);
+    return copy.toImmutableCaseInsensitiveMap();
+  }
+
+  @Benchmark
+  public Object caseInsensitiveHashMapChainedCopies() {
+    CaseInsensitiveHashMap<String, String> current = caseInsensitiveHashMap;
+    for (int i = 0; i < 10; i++) {
+      CaseInsensitiveHashMap<String, String> copy = current.copy();
+      copy.put(KEY + i, VALUE);
+      current = copy.toImmutableCaseInsensitiveMap();
+    }
+    return current;
+  }
+
+  @Benchmark
+  public Object eventVariablesMapChainedCopies() {
+    CaseInsensitiveHashMap<String, String> current = eventVariablesMap;
+    for (int i = 0; i < 10; i++) {
+      CaseInsensitiveHashMap<String, String> copy = current.copy();
+      copy.put(KEY + i, VALUE);
+      current = copy.toImmutableCaseInsensitiveMap();
+    }
+    return current;
+  }
+
+  @Benchmark
+  public Object caseInsensitiveHashMapGet() {
+    return caseInsensitiveHashMap.get("VARIABLE2");
+  }
+
+  @Benchmark
+  public Object eventVariablesMapGet() {
+    return eventVariablesMap.get("VARIABLE2");
+  }
+}
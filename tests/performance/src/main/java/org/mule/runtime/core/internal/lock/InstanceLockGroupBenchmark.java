@@ -0,0 +1,100 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.lock;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import org.mule.AbstractBenchmark;
+import org.mule.runtime.core.internal.lock.InstanceLockGroup.LockEntry;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.Threads;
+
+/**
+ * Compares {@link InstanceLockGroup} with a lock group guarding all its locks with a single monitor, as it used to be, when many
+ * threads lock mostly unrelated keys, like the message ids locked by the idempotent redelivery policy.
+ */
+@OutputTimeUnit(NANOSECONDS)
+public class InstanceLockGroupBenchmark extends AbstractBenchmark {
+
+  @Param({"1", "1024"})
+  public int keys;
+
+  private final LockProvider lockProvider = new SingleServerLockProvider();
+  private final InstanceLockGroup instanceLockGroup = new InstanceLockGroup(lockProvider);
+  private final SingleMonitorLockGroup singleMonitorLockGroup = new SingleMonitorLockGroup(lockProvider);
+  private String[] lockIds;
+
+  @Setup
+  public void setup() {
+    lockIds = new String[keys];
+    for (int i = 0; i < keys; i++) {
+      lockIds[i] = "lock-" + i;
+    }
+  }
+
+  @Benchmark
+  @Threads(64)
+  public void instanceLockGroup() {
+    String lockId = nextLockId();
+    instanceLockGroup.lock(lockId);
+    instanceLockGroup.unlock(lockId);
+  }
+
+  @Benchmark
+  @Threads(64)
+  public void singleMonitorLockGroup() {
+    String lockId = nextLockId();
+    singleMonitorLockGroup.lock(lockId);
+    singleMonitorLockGroup.unlock(lockId);
+  }
+
+  private String nextLockId() {
+    return lockIds[ThreadLocalRandom.current().nextInt(keys)];
+  }
+
+  /**
+   * The lock registry {@link InstanceLockGroup} used to have, with every lock and unlock synchronized on the same monitor.
+   */
+  private static class SingleMonitorLockGroup {
+
+    private final Map<String, LockEntry> locks = new HashMap<>();
+    private final Object lockAccessMonitor = new Object();
+    private final LockProvider lockProvider;
+
+    private SingleMonitorLockGroup(LockProvider lockProvider) {
+      this.lockProvider = lockProvider;
+    }
+
+    private void lock(String lockId) {
+      LockEntry lockEntry;
+      synchronized (lockAccessMonitor) {
+        lockEntry = locks.computeIfAbsent(lockId, id -> new LockEntry(lockProvider.createLock(id)));
+        lockEntry.incrementLockCount();
+      }
+      lockEntry.getLock().lock();
+    }
+
+    private void unlock(String lockId) {
+      synchronized (lockAccessMonitor) {
+        LockEntry lockEntry = locks.get(lockId);
+        lockEntry.getLock().unlock();
+        lockEntry.decrementLockCount();
+        if (!lockEntry.hasPendingLocks()) {
+          locks.remove(lockId);
+        }
+      }
+    }
+  }
+}
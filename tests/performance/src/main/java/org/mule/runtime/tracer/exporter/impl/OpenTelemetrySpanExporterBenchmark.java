@@ -0,0 +1,164 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.tracer.exporter.impl;
+
+import static org.mule.runtime.tracer.api.span.info.InitialExportInfo.DEFAULT_EXPORT_SPAN_CUSTOMIZATION_INFO;
+import static org.mule.runtime.tracer.impl.span.ExportOnEndExecutionSpan.createExportOnEndExecutionSpan;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import static io.opentelemetry.api.trace.propagation.internal.W3CTraceContextEncoding.encodeTraceState;
+import static io.opentelemetry.sdk.trace.samplers.Sampler.alwaysOn;
+
+import org.mule.AbstractBenchmark;
+import org.mule.runtime.api.profiling.tracing.Span;
+import org.mule.runtime.tracer.api.sniffer.SpanSnifferManager;
+import org.mule.runtime.tracer.api.span.exporter.SpanExporter;
+import org.mule.runtime.tracer.api.span.info.InitialExportInfo;
+import org.mule.runtime.tracer.api.span.info.InitialSpanInfo;
+import org.mule.runtime.tracer.exporter.api.SpanExporterFactory;
+import org.mule.runtime.tracer.impl.span.InternalSpan;
+import org.mule.runtime.tracer.impl.span.RootInternalSpan;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.resources.Resource;
+import io.opentelemetry.sdk.trace.ReadWriteSpan;
+import io.opentelemetry.sdk.trace.ReadableSpan;
+import io.opentelemetry.sdk.trace.SpanProcessor;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Setup;
+
+/**
+ * Measures the span lifecycle as seen by the {@link OpenTelemetrySpanExporter}: starting a component span, ending it and
+ * exporting it to a {@link SpanProcessor} that reads it the way the OTLP exporters do.
+ */
+@OutputTimeUnit(NANOSECONDS)
+public class OpenTelemetrySpanExporterBenchmark extends AbstractBenchmark {
+
+  private static final Map<String, String> ATTRIBUTES = new HashMap<>();
+
+  static {
+    ATTRIBUTES.put("location", "flow/processors/0");
+    ATTRIBUTES.put("correlation.id", "3e2c9a30-6b1e-11ee-8c99-0242ac120002");
+    ATTRIBUTES.put("thread.start.name", "cpuLight.01");
+    ATTRIBUTES.put("mule.app.processor.name", "logger");
+    ATTRIBUTES.put("mule.app.processor.namespace", "mule");
+  }
+
+  private final ConsumingSpanProcessor spanProcessor = new ConsumingSpanProcessor();
+  private SpanExporterFactory spanExporterFactory;
+  private InternalSpan flowSpan;
+  private InternalSpan componentSpan;
+
+  @Setup
+  public void setUp() {
+    spanExporterFactory = new SpanExporterFactory() {
+
+      @Override
+      public SpanExporter getSpanExporter(Span span, InitialSpanInfo initialSpanInfo) {
+        return new OpenTelemetrySpanExporter(span, initialSpanInfo, "app", "APP", spanProcessor, true, Resource.getDefault(),
+                                             alwaysOn());
+      }
+
+      @Override
+      public SpanSnifferManager getSpanSnifferManager() {
+        throw new UnsupportedOperationException();
+      }
+    };
+
+    flowSpan = createExportOnEndExecutionSpan(spanExporterFactory, new RootInternalSpan(), new BenchmarkSpanInfo("flow", true));
+    componentSpan = createExportOnEndExecutionSpan(spanExporterFactory, flowSpan, new BenchmarkSpanInfo("mule:logger", false));
+  }
+
+  @Benchmark
+  public InternalSpan startEndExport() {
+    InternalSpan span =
+        createExportOnEndExecutionSpan(spanExporterFactory, flowSpan, new BenchmarkSpanInfo("mule:logger", false));
+    span.end();
+    return span;
+  }
+
+  @Benchmark
+  public long export() {
+    componentSpan.end();
+    return spanProcessor.consumed;
+  }
+
+  @Benchmark
+  public Map<String, String> distributedTraceContext() {
+    return componentSpan.serializeAsMap();
+  }
+
+  private static final class BenchmarkSpanInfo implements InitialSpanInfo {
+
+    private final String name;
+    private final boolean rootSpan;
+
+    private BenchmarkSpanInfo(String name, boolean rootSpan) {
+      this.name = name;
+      this.rootSpan = rootSpan;
+    }
+
+    @Override
+    public String getName() {
+      return name;
+    }
+
+    @Override
+    public boolean isRootSpan() {
+      return rootSpan;
+    }
+
+    @Override
+    public InitialExportInfo getInitialExportInfo() {
+      return DEFAULT_EXPORT_SPAN_CUSTOMIZATION_INFO;
+    }
+
+    @Override
+    public Map<String, String> getInitialAttributes() {
+      return ATTRIBUTES;
+    }
+
+    @Override
+    public int getInitialAttributesCount() {
+      return ATTRIBUTES.size();
+    }
+  }
+
+  /**
+   * Reads the attributes and the trace state of the exported spans, like the OTLP exporters do when marshalling them.
+   */
+  private static final class ConsumingSpanProcessor implements SpanProcessor {
+
+    private long consumed;
+
+    @Override
+    public void onStart(Context parentContext, ReadWriteSpan span) {}
+
+    @Override
+    public boolean isStartRequired() {
+      return false;
+    }
+
+    @Override
+    public void onEnd(ReadableSpan span) {
+      SpanData spanData = span.toSpanData();
+      spanData.getAttributes().forEach((key, value) -> consumed += key.getKey().length());
+      consumed += encodeTraceState(spanData.getSpanContext().getTraceState()).length();
+    }
+
+    @Override
+    public boolean isEndRequired() {
+      return true;
+    }
+  }
+}